@@ -11,26 +11,37 @@ import io.xseries.xclip.config.AppPaths;
 import io.xseries.xclip.config.Config;
 import io.xseries.xclip.config.ConfigService;
 import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.dao.ClipImageDao;
+import io.xseries.xclip.data.dao.HistoryTransferDao;
 import io.xseries.xclip.data.dao.TagDao;
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.db.BackgroundMigrationService;
+import io.xseries.xclip.data.db.CaptureSpillJournal;
 import io.xseries.xclip.data.db.Database;
 import io.xseries.xclip.domain.service.ClipService;
+import io.xseries.xclip.domain.image.ClipImageCodec;
 import io.xseries.xclip.domain.service.HistoryCleanupService;
+import io.xseries.xclip.domain.service.ImageCaptureService;
 import io.xseries.xclip.domain.service.PasteService;
 import io.xseries.xclip.system.DataOwnershipService;
+import io.xseries.xclip.system.clipboard.CapturePipeline;
 import io.xseries.xclip.system.clipboard.ClipboardAccess;
 import io.xseries.xclip.system.clipboard.WatcherController;
 import io.xseries.xclip.system.tray.TrayController;
 import io.xseries.xclip.system.lifecycle.WindowsLifecycleCoordinator;
 import io.xseries.xclip.system.privacy.ClipboardPrivacyGate;
 import io.xseries.xclip.system.privacy.ForegroundApplicationResolver;
+import io.xseries.xclip.system.privacy.ForegroundApplicationResolver.ForegroundApplication;
 import io.xseries.xclip.ui.PopupWindow;
 import io.xseries.xclip.ui.SettingsWindow;
 import io.xseries.xclip.ui.UiDialogs;
+import io.xseries.xclip.ui.popup.PopupStartupSnapshot;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.stage.Stage;
 import io.xseries.xclip.system.SingleInstanceGuard;
 
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class XClipApp extends Application {
@@ -39,9 +50,15 @@ public final class XClipApp extends Application {
     private final AtomicBoolean shutdownOnce = new AtomicBoolean(false);
 
     private Database db;
+    private BackgroundMigrationService backgroundMigrations;
     private ClipEntryDao clipEntryDao;
     private TagDao tagDao;
+    private ClipImageDao clipImageDao;
+    private HistoryTransferDao historyTransferDao;
+    private ImageCaptureService imageCapture;
     private WatcherController watcherController;
+    private CapturePipeline<Optional<ForegroundApplication>, ClipService.PreparedCapture>
+            capturePipeline;
     private PopupWindow popup;
     private TrayController tray;
     private HistoryCleanupService historyCleanupService;
@@ -85,15 +102,30 @@ public final class XClipApp extends Application {
             configService.applyRuntime(config);
         } catch (Throwable ignored) {}
 
+        // Last session's first page; the popup shows it until storage opens.
+        PopupStartupSnapshot startupSnapshot = PopupStartupSnapshot
+                .read(AppPaths.popupSnapshotPath())
+                .orElseGet(PopupStartupSnapshot::empty);
+
         // --- DB ---
+        // Opened and migrated off the FX thread once the popup and hotkey
+        // are live. Nothing below touches SQLite before storageOpened().
         this.db = new Database(AppPaths.dbPath());
-        db.init();
+        this.backgroundMigrations = new BackgroundMigrationService(db.jdbcUrl());
 
         // --- services ---
-        this.clipEntryDao = new ClipEntryDao(db.jdbcUrl());
-        this.tagDao = new TagDao(db.jdbcUrl());
-        ClipService clipService = new ClipService(clipEntryDao);
-        clipService.applyConfig(config);
+        // One bus for every writer, so the popup sees text, image and tag changes alike.
+        ClipChangeBus clipChanges = new ClipChangeBus();
+        this.clipEntryDao = new ClipEntryDao(db.jdbcUrl(), clipChanges);
+        this.tagDao = new TagDao(db.jdbcUrl(), clipChanges);
+        this.clipImageDao = new ClipImageDao(db.jdbcUrl(), clipChanges);
+        this.historyTransferDao = new HistoryTransferDao(db.jdbcUrl(), clipChanges);
+        ClipService clipService = new ClipService(
+                clipEntryDao,
+                new CaptureSpillJournal(AppPaths.captureSpillPath()),
+                historyTransferDao
+        );
+        this.imageCapture = new ImageCaptureService(clipService, clipImageDao);
         this.historyCleanupService = new HistoryCleanupService(clipEntryDao);
         historyCleanupService.applyConfig(config);
 
@@ -107,19 +139,47 @@ public final class XClipApp extends Application {
         // --- runtime controllers ---
         this.tray = new TrayController();
 
+        // The watcher thread only observes; privacy, key preparation and
+        // storage run on the pipeline workers.
+        this.capturePipeline = new CapturePipeline<>(
+                privacyGate::foregroundSnapshot,
+                privacyGate::isCaptureAllowed,
+                (text, observedAt) -> clipService.prepareCapture(
+                        text.text(),
+                        text.truncated(),
+                        observedAt
+                ),
+                clipService::persistCapture,
+                clipService::closeForCurrentThread
+        );
+        // The watcher reads at most maxClipChars characters from the clipboard,
+        // and images only up to the pixel cap. Sensitive-content rules are
+        // text-only; excluded applications apply to images too.
         watcherController = new WatcherController(
                 clipboard,
-                clipService::ingestText,
+                capturePipeline::submit,
                 tray::isPaused,
-                privacyGate::isCaptureAllowed,
-                clipService::closeForCurrentThread
+                clipService::maxClipChars,
+                image -> {
+                    // Same split as text: snapshot here, decide on the worker.
+                    Optional<ForegroundApplication> foreground = privacyGate.foregroundSnapshot();
+                    imageCapture.submit(
+                            image,
+                            System.currentTimeMillis(),
+                            () -> privacyGate.isApplicationAllowed(foreground)
+                    );
+                },
+                ClipImageCodec.MAX_PIXELS
         );
 
         // data ownership service (needs instance Database)
         DataOwnershipService dataOwnershipService = new DataOwnershipService(
                 db,
                 tagDao::releaseConnections,
-                clipEntryDao::releaseConnections
+                clipEntryDao::releaseConnections,
+                clipImageDao::releaseConnections,
+                historyTransferDao::releaseConnections,
+                backgroundMigrations::releaseConnections
         );
 
         final Runnable[] openSettingsRef = new Runnable[1];
@@ -127,10 +187,86 @@ public final class XClipApp extends Application {
         this.popup = new PopupWindow(clipEntryDao, tagDao, clipboard, clipService, () -> {
             Runnable r = openSettingsRef[0];
             if (r != null) r.run();
-        }, tray::togglePaused, pasteService);
+        }, tray::togglePaused, pasteService, clipImageDao, imageCapture, startupSnapshot);
         popup.enableWindowPersistence(configService, config);
         popup.applyConfig(config);
 
+        // sync paused UI state
+        popup.setPaused(tray.isPaused());
+        tray.setOnPausedChanged(popup::setPaused);
+
+        tray.install(
+                popup::showOrFocus,
+                popup::showOrFocusForPaste,
+                this::exitApplication
+        );
+
+        // optional: show on start if not minimized
+        if (!config.startMinimized()) {
+            Platform.runLater(popup::showOrFocus);
+        }
+
+        Thread storageOpener = new Thread(() -> {
+            try {
+                db.init();
+            } catch (Throwable failure) {
+                System.err.println("XClip could not open its database: " + failure);
+                Platform.runLater(() -> {
+                    UiDialogs.showError(
+                            unusedStage,
+                            "XClip startup",
+                            "XClip could not open its history",
+                            "The clipboard database could not be opened or upgraded. "
+                                    + "XClip will close."
+                    );
+                    exitApplication();
+                });
+                return;
+            }
+            try {
+                // A lowered history limit prunes, so the config waits for storage too.
+                clipService.applyConfig(config);
+                // Captures spilled during maintenance or a locked database in an
+                // earlier session are stored before anything new.
+                clipService.replaySpilledCaptures();
+            } catch (RuntimeException failure) {
+                // The limit is still applied; the next insert prunes and the
+                // spill journal is replayed by the next capture.
+                System.err.println("XClip could not prune or replay history at startup: " + failure);
+            } finally {
+                clipService.closeForCurrentThread();
+            }
+            Platform.runLater(() -> {
+                if (!exiting.get()) finishStartup(
+                        configService,
+                        config,
+                        clipService,
+                        privacyGate,
+                        dataOwnershipService,
+                        openSettingsRef
+                );
+            });
+        }, "xclip-storage-open");
+        storageOpener.setDaemon(true);
+        storageOpener.start();
+    }
+
+    /**
+     * Second half of startup, on the FX thread once the database is open,
+     * migrated, pruned and replayed: only UI wiring and the workers that
+     * read or write storage start here.
+     */
+    private void finishStartup(
+            ConfigService configService,
+            Config config,
+            ClipService clipService,
+            ClipboardPrivacyGate privacyGate,
+            DataOwnershipService dataOwnershipService,
+            Runnable[] openSettingsRef
+    ) {
+        popup.storageOpened();
+        popup.enableStartupSnapshot(AppPaths.popupSnapshotPath());
+
         SettingsWindow settingsWindow = new SettingsWindow(
                 configService,
                 clipService,
@@ -138,6 +274,7 @@ public final class XClipApp extends Application {
                 tray,
                 dataOwnershipService,
                 historyCleanupService,
+                backgroundMigrations,
                 config,
                 nextConfig -> {
                     privacyGate.applyConfig(nextConfig);
@@ -145,24 +282,14 @@ public final class XClipApp extends Application {
                 }
         );
 
-        historyCleanupService.addStatusListener(cleanupStatus -> {
-            if (cleanupStatus.deletedCount() > 0 && popup != null) {
-                popup.refreshFromStorage();
-            }
-        });
         historyCleanupService.start();
 
+        settingsWindow.setBeforeLocalDataReplaced(popup::discardStartupSnapshot);
         openSettingsRef[0] = settingsWindow::show;
 
-        tray.install(
-                popup::showOrFocus,
-                popup::showOrFocusForPaste,
-                this::exitApplication
-        );
-
-        // sync paused UI state
-        popup.setPaused(tray.isPaused());
-        tray.setOnPausedChanged(popup::setPaused);
+        // Expensive data backfills run only after the tray icon is visible.
+        backgroundMigrations.start();
+        imageCapture.start();
 
         // watcher enabled by config
         if (config.watcherEnabled()) watcherController.enable();
@@ -174,11 +301,6 @@ public final class XClipApp extends Application {
                 popup
         );
         lifecycleCoordinator.start();
-
-        // optional: show on start if not minimized
-        if (!config.startMinimized()) {
-            Platform.runLater(popup::showOrFocus);
-        }
     }
 
     private void installShutdownHook() {
@@ -225,8 +347,25 @@ public final class XClipApp extends Application {
             }
         } catch (Exception ignored) {}
 
+        try {
+            if (capturePipeline != null) {
+                capturePipeline.close();
+                capturePipeline = null;
+            }
+        } catch (Exception ignored) {}
+
+        try {
+            if (imageCapture != null) {
+                imageCapture.close();
+                imageCapture = null;
+            }
+        } catch (Exception ignored) {}
+
         try {
             if (popup != null) {
+                // Diagnostics only: not shown in the UI.
+                String latency = popup.openLatency().describe();
+                if (latency != null) System.err.println("XClip popup open latency: " + latency);
                 if (Platform.isFxApplicationThread()) {
                     popup.shutdown();
                 }
@@ -255,6 +394,13 @@ public final class XClipApp extends Application {
             }
         } catch (Exception ignored) {}
 
+        try {
+            if (backgroundMigrations != null) {
+                backgroundMigrations.close();
+                backgroundMigrations = null;
+            }
+        } catch (Exception ignored) {}
+
         try {
             if (tagDao != null) {
                 tagDao.close();
@@ -262,6 +408,20 @@ public final class XClipApp extends Application {
             }
         } catch (Exception ignored) {}
 
+        try {
+            if (clipImageDao != null) {
+                clipImageDao.close();
+                clipImageDao = null;
+            }
+        } catch (Exception ignored) {}
+
+        try {
+            if (historyTransferDao != null) {
+                historyTransferDao.close();
+                historyTransferDao = null;
+            }
+        } catch (Exception ignored) {}
+
         try {
             if (clipEntryDao != null) {
                 clipEntryDao.close();
@@ -29,4 +29,12 @@ public final class AppPaths {
     public static Path configPath() {
         return dataDir().resolve("config.json");
     }
+
+    public static Path captureSpillPath() {
+        return dataDir().resolve("capture-spill.journal");
+    }
+
+    public static Path popupSnapshotPath() {
+        return dataDir().resolve("popup-snapshot.json");
+    }
 }
@@ -56,6 +56,7 @@ public final class Config {
     private final String duplicateCaseSensitivity;
     private final long duplicateWindowMillis;
     private final boolean duplicateExactContentMode;
+    private final boolean duplicateNearDuplicateMode;
 
     private final List<String> excludedApplications;
     private final String sensitivePaymentCardAction;
@@ -69,6 +70,7 @@ public final class Config {
     private final int retentionPathDays;
     private final int retentionJsonDays;
     private final int retentionCommandDays;
+    private final int retentionImageDays;
     private final boolean clearRecentOnExit;
 
     public Config(
@@ -131,6 +133,7 @@ public final class Config {
                 null,
                 DuplicateBehaviorPolicy.UNLIMITED_WINDOW,
                 false,
+                false,
                 List.of(),
                 null,
                 null,
@@ -142,6 +145,7 @@ public final class Config {
                 0,
                 0,
                 0,
+                0,
                 false
         );
     }
@@ -166,6 +170,7 @@ public final class Config {
             String duplicateCaseSensitivity,
             long duplicateWindowMillis,
             boolean duplicateExactContentMode,
+            boolean duplicateNearDuplicateMode,
             List<String> excludedApplications,
             String sensitivePaymentCardAction,
             String sensitiveOneTimeCodeAction,
@@ -177,6 +182,7 @@ public final class Config {
             int retentionPathDays,
             int retentionJsonDays,
             int retentionCommandDays,
+            int retentionImageDays,
             boolean clearRecentOnExit
     ) {
         this.version = version;
@@ -198,6 +204,7 @@ public final class Config {
         this.duplicateCaseSensitivity = duplicateCaseSensitivity;
         this.duplicateWindowMillis = duplicateWindowMillis;
         this.duplicateExactContentMode = duplicateExactContentMode;
+        this.duplicateNearDuplicateMode = duplicateNearDuplicateMode;
         this.excludedApplications = excludedApplications;
         this.sensitivePaymentCardAction = sensitivePaymentCardAction;
         this.sensitiveOneTimeCodeAction = sensitiveOneTimeCodeAction;
@@ -209,6 +216,7 @@ public final class Config {
         this.retentionPathDays = retentionPathDays;
         this.retentionJsonDays = retentionJsonDays;
         this.retentionCommandDays = retentionCommandDays;
+        this.retentionImageDays = retentionImageDays;
         this.clearRecentOnExit = clearRecentOnExit;
     }
 
@@ -326,7 +334,8 @@ public final class Config {
                         defaults.caseSensitivity()
                 ),
                 window,
-                duplicateExactContentMode
+                duplicateExactContentMode,
+                duplicateNearDuplicateMode
         );
     }
 
@@ -363,6 +372,7 @@ public final class Config {
         typeDays.put(ClipContentType.PATH, clampTypeDays(retentionPathDays));
         typeDays.put(ClipContentType.JSON, clampTypeDays(retentionJsonDays));
         typeDays.put(ClipContentType.COMMAND, clampTypeDays(retentionCommandDays));
+        typeDays.put(ClipContentType.IMAGE, clampTypeDays(retentionImageDays));
         return new HistoryRetentionPolicy(
                 retentionRecentEnabled,
                 recentDays,
@@ -377,6 +387,7 @@ public final class Config {
     String duplicateCaseSensitivityValue() { return duplicateCaseSensitivity; }
     long duplicateWindowMillisValue() { return duplicateWindowMillis; }
     boolean duplicateExactContentModeValue() { return duplicateExactContentMode; }
+    boolean duplicateNearDuplicateModeValue() { return duplicateNearDuplicateMode; }
     List<String> excludedApplicationsValue() { return excludedApplications; }
     String sensitivePaymentCardActionValue() { return sensitivePaymentCardAction; }
     String sensitiveOneTimeCodeActionValue() { return sensitiveOneTimeCodeAction; }
@@ -388,6 +399,7 @@ public final class Config {
     int retentionPathDaysValue() { return retentionPathDays; }
     int retentionJsonDaysValue() { return retentionJsonDays; }
     int retentionCommandDaysValue() { return retentionCommandDays; }
+    int retentionImageDaysValue() { return retentionImageDays; }
     boolean clearRecentOnExitValue() { return clearRecentOnExit; }
 
     public boolean hasWindowPos() {
@@ -561,6 +573,7 @@ public final class Config {
                 duplicatePolicy.caseSensitivity().name(),
                 duplicatePolicy.duplicateWindowMillis(),
                 duplicatePolicy.exactContentMode(),
+                duplicatePolicy.nearDuplicateMode(),
                 excludedPolicy.executableNames(),
                 sensitivePolicy.paymentCardAction().name(),
                 sensitivePolicy.oneTimeCodeAction().name(),
@@ -572,6 +585,7 @@ public final class Config {
                 typeDays.getOrDefault(ClipContentType.PATH, 0),
                 typeDays.getOrDefault(ClipContentType.JSON, 0),
                 typeDays.getOrDefault(ClipContentType.COMMAND, 0),
+                typeDays.getOrDefault(ClipContentType.IMAGE, 0),
                 retentionPolicy.clearRecentOnExit()
         );
     }
@@ -211,6 +211,7 @@ public final class ConfigService {
                 )
                 && a.duplicateWindowMillisValue() == b.duplicateWindowMillisValue()
                 && a.duplicateExactContentModeValue() == b.duplicateExactContentModeValue()
+                && a.duplicateNearDuplicateModeValue() == b.duplicateNearDuplicateModeValue()
                 && java.util.Objects.equals(
                         a.excludedApplicationsValue(),
                         b.excludedApplicationsValue()
@@ -231,6 +232,7 @@ public final class ConfigService {
                 && a.retentionPathDaysValue() == b.retentionPathDaysValue()
                 && a.retentionJsonDaysValue() == b.retentionJsonDaysValue()
                 && a.retentionCommandDaysValue() == b.retentionCommandDaysValue()
+                && a.retentionImageDaysValue() == b.retentionImageDaysValue()
                 && a.clearRecentOnExitValue() == b.clearRecentOnExitValue();
     }
 }
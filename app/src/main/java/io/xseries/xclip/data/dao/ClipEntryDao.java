@@ -5,15 +5,23 @@
  */
 package io.xseries.xclip.data.dao;
 
+import io.xseries.xclip.data.db.Database;
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.event.ClipChangeEvent;
 import io.xseries.xclip.data.model.ClipEntry;
 import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
 import io.xseries.xclip.domain.duplicate.DuplicatePolicyEngine;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
+import io.xseries.xclip.domain.model.ClipContentType;
+import io.xseries.xclip.domain.service.ClipContentClassifier;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Set;
 
 public final class ClipEntryDao implements AutoCloseable {
@@ -22,10 +30,32 @@ public final class ClipEntryDao implements AutoCloseable {
     private static final int RETENTION_COMPATIBILITY_PAGE_SIZE = 1_000;
     private static final String FULL_ID_DELETE_SQL = deleteByIdsSql(ID_DELETE_BATCH_SIZE);
 
+    /**
+     * Newest rows read from each SimHash band bucket. Caps lookup cost when
+     * many stored rows share a band, for example equal text kept apart by a
+     * finite duplicate window.
+     */
+    static final int NEAR_DUPLICATE_BUCKET_SCAN = 32;
+    private static final String NEAR_DUPLICATE_CANDIDATES_SQL = nearDuplicateCandidatesSql();
+
     private final DaoConnectionContext connections;
+    private final ClipChangeBus changes;
 
     public ClipEntryDao(String jdbcUrl) {
+        this(jdbcUrl, new ClipChangeBus());
+    }
+
+    /**
+     * @param changes receives an event after each committed mutation that
+     *                names the rows it changed
+     */
+    public ClipEntryDao(String jdbcUrl, ClipChangeBus changes) {
         this.connections = new DaoConnectionContext(jdbcUrl);
+        this.changes = Objects.requireNonNull(changes, "changes");
+    }
+
+    public ClipChangeBus changes() {
+        return changes;
     }
 
     /**
@@ -43,14 +73,14 @@ public final class ClipEntryDao implements AutoCloseable {
                 calculated.normalizedCaseInsensitiveHash()
         );
 
-        List<DuplicateCandidate> candidates = findDuplicateCandidates(
+        DuplicateCandidate candidate = findDuplicateCandidate(
                 DuplicateContentKeys.KeyKind.NORMALIZED,
                 contentHash,
                 0L
         );
-        if (!candidates.isEmpty()) {
+        if (candidate != null) {
             boolean updated = applyDuplicate(
-                    candidates.get(0).id(),
+                    candidate.id(),
                     content,
                     contentNorm,
                     keys,
@@ -63,55 +93,205 @@ public final class ClipEntryDao implements AutoCloseable {
         insertNew(content, contentNorm, keys, createdAt);
     }
 
-    public List<DuplicateCandidate> findDuplicateCandidates(
+    public DuplicateCandidate findDuplicateCandidate(
             DuplicateContentKeys.KeyKind keyKind,
             String hash,
             long cutoffInclusive
+    ) {
+        return findDuplicateCandidate(keyKind, hash, null, cutoffInclusive);
+    }
+
+    /**
+     * Finds the most recently copied row carrying the persisted hash, or null.
+     *
+     * Only id, pin state and timestamp are read, so lookup cost does not depend
+     * on how many equal rows a finite duplicate window has accumulated. When
+     * keySource is supplied, rows whose hashes are still pending a background
+     * backfill are matched on the stored column the key is derived from.
+     * Callers confirm the returned row with {@link #matchesDuplicateKey}.
+     */
+    public DuplicateCandidate findDuplicateCandidate(
+            DuplicateContentKeys.KeyKind keyKind,
+            String hash,
+            String keySource,
+            long cutoffInclusive
     ) {
         if (keyKind == null) throw new IllegalArgumentException("keyKind is required");
         if (hash == null || hash.isBlank()) throw new IllegalArgumentException("hash is required");
         if (cutoffInclusive < 0) throw new IllegalArgumentException("cutoffInclusive cannot be negative");
 
-        String column = switch (keyKind) {
-            case EXACT -> "content_exact_hash";
-            case EXACT_CASE_INSENSITIVE -> "content_exact_ci_hash";
-            case NORMALIZED -> "content_hash";
-            case NORMALIZED_CASE_INSENSITIVE -> "content_norm_ci_hash";
-        };
-
+        // Each branch is a single seek on its (key, last_copied_at DESC, id DESC)
+        // index; the outer query only picks the newer of at most two rows.
         String sql = """
-                SELECT id, content, is_favorite, last_copied_at
-                FROM clip_entries
-                WHERE %s = ?
-                  AND (? = 0 OR last_copied_at >= ?)
+                SELECT id, is_favorite, last_copied_at
+                FROM (
+                    SELECT * FROM (
+                        SELECT id, is_favorite, last_copied_at
+                        FROM clip_entries
+                        WHERE %s = ?
+                          AND (? = 0 OR last_copied_at >= ?)
+                        ORDER BY last_copied_at DESC, id DESC
+                        LIMIT 1
+                    )
+                    UNION ALL
+                    SELECT * FROM (
+                        SELECT id, is_favorite, last_copied_at
+                        FROM clip_entries
+                        WHERE ? IS NOT NULL
+                          AND content_norm_ci_hash IS NULL
+                          AND %s = ?%s
+                          AND (? = 0 OR last_copied_at >= ?)
+                        ORDER BY last_copied_at DESC, id DESC
+                        LIMIT 1
+                    )
+                )
                 ORDER BY last_copied_at DESC, id DESC
-                """.formatted(column);
+                LIMIT 1
+                """.formatted(
+                duplicateHashColumn(keyKind),
+                duplicateKeySourceColumn(keyKind),
+                keyKind.caseInsensitive() ? " COLLATE NOCASE" : ""
+        );
 
-        List<DuplicateCandidate> candidates = new ArrayList<>();
         try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
             ps.setString(1, hash);
             ps.setLong(2, cutoffInclusive);
             ps.setLong(3, cutoffInclusive);
+            ps.setString(4, keySource);
+            ps.setString(5, keySource);
+            ps.setLong(6, cutoffInclusive);
+            ps.setLong(7, cutoffInclusive);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new DuplicateCandidate(
+                        rs.getLong("id"),
+                        rs.getInt("is_favorite") != 0,
+                        rs.getLong("last_copied_at")
+                );
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("findDuplicateCandidate failed", e);
+        }
+    }
+
+    /**
+     * Confirms that a hash match is a real duplicate of the incoming value.
+     *
+     * keySource is the captured text for exact kinds and the normalized text
+     * for normalized kinds; canonicalKey is its policy key. Case-sensitive
+     * kinds compare UTF-8 length and then text inside SQLite, so the stored
+     * body never crosses JDBC. Case-insensitive kinds read the one stored
+     * column and compare its lowercase form.
+     */
+    public boolean matchesDuplicateKey(
+            long id,
+            DuplicateContentKeys.KeyKind keyKind,
+            String keySource,
+            String canonicalKey
+    ) {
+        if (id <= 0) throw new IllegalArgumentException("id must be positive");
+        if (keyKind == null) throw new IllegalArgumentException("keyKind is required");
+        if (keySource == null || canonicalKey == null) {
+            throw new IllegalArgumentException("keySource and canonicalKey are required");
+        }
+
+        String column = duplicateKeySourceColumn(keyKind);
+        String sql = keyKind.caseInsensitive()
+                ? "SELECT " + column + " FROM clip_entries WHERE id = ?"
+                : """
+                  SELECT 1
+                  FROM clip_entries
+                  WHERE id = ?
+                    AND length(CAST(%1$s AS BLOB)) = ?
+                    AND %1$s = ?
+                  """.formatted(column);
+
+        try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
+            ps.setLong(1, id);
+            if (!keyKind.caseInsensitive()) {
+                ps.setLong(2, utf8Length(keySource));
+                ps.setString(3, keySource);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+                if (!keyKind.caseInsensitive()) return true;
+
+                String stored = rs.getString(1);
+                return stored != null
+                        && stored.toLowerCase(Locale.ROOT).equals(canonicalKey);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("matchesDuplicateKey failed", e);
+        }
+    }
+
+    /**
+     * Finds the most recently copied unpinned row whose SimHash is within
+     * {@link NearDuplicateFingerprint#MAX_DISTANCE} bits, or null.
+     *
+     * Every such row shares at least one band with the fingerprint, so each
+     * band is one seek on its partial expression index that reads at most
+     * {@link #NEAR_DUPLICATE_BUCKET_SCAN} of the newest rows. Only id,
+     * timestamp and fingerprint are read. Pinned rows are never returned:
+     * collapsing rewrites the row's text, which a pin must not lose.
+     */
+    public DuplicateCandidate findNearDuplicateCandidate(
+            long fingerprint,
+            long cutoffInclusive
+    ) {
+        if (cutoffInclusive < 0) throw new IllegalArgumentException("cutoffInclusive cannot be negative");
+
+        try (PreparedStatement ps = connections.connection().prepareStatement(
+                NEAR_DUPLICATE_CANDIDATES_SQL
+        )) {
+            int parameter = 1;
+            for (int band = 0; band < NearDuplicateFingerprint.BANDS; band++) {
+                ps.setInt(parameter++, NearDuplicateFingerprint.band(fingerprint, band));
+                ps.setLong(parameter++, cutoffInclusive);
+            }
+
+            DuplicateCandidate best = null;
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    candidates.add(new DuplicateCandidate(
-                            rs.getLong("id"),
-                            rs.getString("content"),
-                            rs.getInt("is_favorite") != 0,
-                            rs.getLong("last_copied_at")
-                    ));
+                    long stored = rs.getLong("content_simhash");
+                    if (NearDuplicateFingerprint.distance(stored, fingerprint)
+                            > NearDuplicateFingerprint.MAX_DISTANCE) {
+                        continue;
+                    }
+                    long id = rs.getLong("id");
+                    long lastCopiedAt = rs.getLong("last_copied_at");
+                    if (best == null
+                            || lastCopiedAt > best.lastCopiedAt()
+                            || (lastCopiedAt == best.lastCopiedAt() && id > best.id())) {
+                        best = new DuplicateCandidate(id, false, lastCopiedAt);
+                    }
                 }
             }
-            return List.copyOf(candidates);
+            return best;
         } catch (Exception e) {
-            throw new RuntimeException("findDuplicateCandidates failed", e);
+            throw new RuntimeException("findNearDuplicateCandidate failed", e);
         }
     }
 
-    public void insertNew(
+    public long insertNew(
+            String content,
+            String contentNorm,
+            DuplicateContentKeys keys,
+            long createdAt
+    ) {
+        return insertNew(content, contentNorm, keys, NearDuplicateFingerprint.of(content), createdAt);
+    }
+
+    /**
+     * @param nearFingerprint {@link NearDuplicateFingerprint#of} of content,
+     *                        already computed by the caller
+     * @return id of the new row
+     */
+    public long insertNew(
             String content,
             String contentNorm,
             DuplicateContentKeys keys,
+            Long nearFingerprint,
             long createdAt
     ) {
         String sql = """
@@ -122,26 +302,46 @@ public final class ClipEntryDao implements AutoCloseable {
                     content_exact_hash,
                     content_exact_ci_hash,
                     content_norm_ci_hash,
+                    content_type,
+                    content_simhash,
                     created_at,
                     last_copied_at,
                     use_count
                 )
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, 1)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 1)
                 """;
 
-        try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
+        long id;
+        Connection c = connections.connection();
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, content);
             ps.setString(2, contentNorm);
             ps.setString(3, keys.normalizedHash());
             ps.setString(4, keys.exactHash());
             ps.setString(5, keys.exactCaseInsensitiveHash());
             ps.setString(6, keys.normalizedCaseInsensitiveHash());
-            ps.setLong(7, createdAt);
-            ps.setLong(8, createdAt);
+            ps.setString(7, storedType(content));
+            bindNearFingerprint(ps, 8, nearFingerprint);
+            ps.setLong(9, createdAt);
+            ps.setLong(10, createdAt);
             ps.executeUpdate();
+            id = lastInsertId(c);
         } catch (Exception e) {
             throw new RuntimeException("insertNew failed", e);
         }
+
+        changes.publish(new ClipChangeEvent.Inserted(
+                new ClipEntry(id, content, null, false, null, createdAt)
+        ));
+        return id;
+    }
+
+    static long lastInsertId(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT last_insert_rowid()");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) throw new SQLException("Inserted clip id is unavailable");
+            return rs.getLong(1);
+        }
     }
 
     public boolean applyDuplicate(
@@ -151,13 +351,38 @@ public final class ClipEntryDao implements AutoCloseable {
             DuplicateContentKeys keys,
             long copiedAt,
             DuplicatePolicyEngine.Decision decision
+    ) {
+        return applyDuplicate(
+                id,
+                content,
+                contentNorm,
+                keys,
+                NearDuplicateFingerprint.of(content),
+                copiedAt,
+                decision
+        );
+    }
+
+    /**
+     * Rewrites the row with the incoming text and its keys, then records the
+     * copy as the decision says.
+     */
+    public boolean applyDuplicate(
+            long id,
+            String content,
+            String contentNorm,
+            DuplicateContentKeys keys,
+            Long nearFingerprint,
+            long copiedAt,
+            DuplicatePolicyEngine.Decision decision
     ) {
         if (id <= 0) throw new IllegalArgumentException("id must be positive");
         if (decision == null || !decision.duplicate()) {
             throw new IllegalArgumentException("duplicate decision is required");
         }
 
-        return connections.inTransaction("applyDuplicate failed", c -> {
+        boolean[] reordered = {false};
+        boolean applied = connections.inTransaction("applyDuplicate failed", c -> {
             int updated;
             try (PreparedStatement ps = c.prepareStatement("""
                     UPDATE clip_entries
@@ -167,6 +392,8 @@ public final class ClipEntryDao implements AutoCloseable {
                         content_exact_hash = ?,
                         content_exact_ci_hash = ?,
                         content_norm_ci_hash = ?,
+                        content_type = ?,
+                        content_simhash = ?,
                         last_copied_at = CASE WHEN ? = 1 THEN ? ELSE last_copied_at END,
                         use_count = use_count + 1
                     WHERE id = ?
@@ -177,28 +404,42 @@ public final class ClipEntryDao implements AutoCloseable {
                 ps.setString(4, keys.exactHash());
                 ps.setString(5, keys.exactCaseInsensitiveHash());
                 ps.setString(6, keys.normalizedCaseInsensitiveHash());
-                ps.setInt(7, decision.updateLastCopiedAt() ? 1 : 0);
-                ps.setLong(8, copiedAt);
-                ps.setLong(9, id);
+                ps.setString(7, storedType(content));
+                bindNearFingerprint(ps, 8, nearFingerprint);
+                ps.setInt(9, decision.updateLastCopiedAt() ? 1 : 0);
+                ps.setLong(10, copiedAt);
+                ps.setLong(11, id);
                 updated = ps.executeUpdate();
             }
 
             if (updated == 0) return false;
 
-            if (decision.movePinnedToTop() && isFavorite(c, id)) {
-                List<Long> pinnedIds = loadPinnedIds(c);
-                if (pinnedIds.remove(id)) {
-                    pinnedIds.add(0, id);
-                    persistPinnedOrder(c, pinnedIds);
-                }
-            }
+            if (decision.movePinnedToTop()) reordered[0] = movePinnedToTopIfPinned(c, id);
             return true;
         });
+
+        if (applied) publishDuplicate(changes, id, content, copiedAt, decision, reordered[0]);
+        return applied;
     }
 
-    public record DuplicateCandidate(
+    static void publishDuplicate(
+            ClipChangeBus changes,
             long id,
             String content,
+            long copiedAt,
+            DuplicatePolicyEngine.Decision decision,
+            boolean reordered
+    ) {
+        changes.publish(new ClipChangeEvent.Bumped(
+                id,
+                content,
+                decision.updateLastCopiedAt() ? copiedAt : null
+        ));
+        if (reordered) changes.publish(new ClipChangeEvent.Reordered());
+    }
+
+    public record DuplicateCandidate(
+            long id,
             boolean pinned,
             long lastCopiedAt
     ) {}
@@ -218,7 +459,8 @@ public final class ClipEntryDao implements AutoCloseable {
     public List<ClipEntry> listLatest(int limit, Boolean favoriteFilter) {
         String sql = """
             SELECT id, content, title, is_favorite, pin_order,
-                   last_copied_at AS created_at
+                   last_copied_at AS created_at,
+                   content_type = 'IMAGE' AS is_image
             FROM clip_entries
             WHERE (? IS NULL OR is_favorite = ?)
             ORDER BY is_favorite DESC,
@@ -283,25 +525,197 @@ public final class ClipEntryDao implements AutoCloseable {
             List<String> requiredTagIdentities,
             List<String> excludedTagIdentities
     ) {
-        if (tagId != null && tagId <= 0) {
-            throw new IllegalArgumentException("tagId must be positive");
+        return queryLatestAfter(
+                q,
+                limit,
+                favoriteFilter,
+                tagId,
+                requiredTagIdentities,
+                excludedTagIdentities,
+                null
+        );
+    }
+
+    /**
+     * Keyset page of {@link #queryLatest}: the rows that follow {@code after}
+     * in popup order, or the first page when it is null.
+     *
+     * Unpinned continuation pages seek through idx_clip_recent_age instead of
+     * skipping rows with OFFSET, so a page deep in the history costs the same
+     * as the second one. A pinned cursor first finishes the small pinned
+     * section, then continues with the newest unpinned rows.
+     */
+    public List<ClipEntry> queryLatestAfter(
+            String q,
+            int limit,
+            Boolean favoriteFilter,
+            Long tagId,
+            List<String> requiredTagIdentities,
+            List<String> excludedTagIdentities,
+            PageCursor after
+    ) {
+        PopupFilter filter = popupFilter(
+                q,
+                favoriteFilter,
+                tagId,
+                requiredTagIdentities,
+                excludedTagIdentities
+        );
+        int pageLimit = Math.max(1, limit);
+
+        if (after == null) {
+            return queryPopupPage(filter, "", List.of(), POPUP_ORDER, pageLimit);
+        }
+        if (!after.pinned()) {
+            return queryPopupPage(
+                    filter,
+                    "AND ce.is_favorite = 0 AND (ce.last_copied_at, ce.id) < (?, ?)\n",
+                    List.of(after.lastCopiedAt(), after.id()),
+                    RECENT_ORDER,
+                    pageLimit
+            );
+        }
+
+        List<ClipEntry> page = new ArrayList<>(queryPopupPage(
+                filter,
+                """
+                AND ce.is_favorite = 1
+                AND (
+                        COALESCE(ce.pin_order, 2147483647) > ?
+                        OR (
+                            COALESCE(ce.pin_order, 2147483647) = ?
+                            AND (ce.last_copied_at, ce.id) < (?, ?)
+                        )
+                    )
+                """,
+                List.of(
+                        (long) after.pinOrder(),
+                        (long) after.pinOrder(),
+                        after.lastCopiedAt(),
+                        after.id()
+                ),
+                POPUP_ORDER,
+                pageLimit
+        ));
+        if (page.size() < pageLimit && !Boolean.TRUE.equals(favoriteFilter)) {
+            page.addAll(queryPopupPage(
+                    filter,
+                    "AND ce.is_favorite = 0\n",
+                    List.of(),
+                    RECENT_ORDER,
+                    pageLimit - page.size()
+            ));
+        }
+        return List.copyOf(page);
+    }
+
+    /**
+     * The {@code limit} unpinned rows just before {@code before} in popup
+     * order, returned in popup order. Lets a caller that dropped rows above
+     * its window page back up through the same index.
+     */
+    public List<ClipEntry> queryRecentBefore(
+            String q,
+            int limit,
+            Boolean favoriteFilter,
+            Long tagId,
+            List<String> requiredTagIdentities,
+            List<String> excludedTagIdentities,
+            PageCursor before
+    ) {
+        Objects.requireNonNull(before, "before");
+        if (before.pinned()) {
+            throw new IllegalArgumentException("before must be an unpinned row");
         }
 
-        List<String> requiredTags = normalizedTagIdentities(
+        PopupFilter filter = popupFilter(
+                q,
+                favoriteFilter,
+                tagId,
                 requiredTagIdentities,
-                "requiredTagIdentities"
+                excludedTagIdentities
         );
-        List<String> excludedTags = normalizedTagIdentities(
-                excludedTagIdentities,
-                "excludedTagIdentities"
+        List<ClipEntry> page = new ArrayList<>(queryPopupPage(
+                filter,
+                "AND ce.is_favorite = 0 AND (ce.last_copied_at, ce.id) > (?, ?)\n",
+                List.of(before.lastCopiedAt(), before.id()),
+                "ORDER BY ce.last_copied_at ASC, ce.id ASC\n",
+                Math.max(1, limit)
+        ));
+        Collections.reverse(page);
+        return List.copyOf(page);
+    }
+
+    /**
+     * Position in popup order: pinned rows by pin order, then every row by
+     * last_copied_at and id, newest first.
+     */
+    public record PageCursor(boolean pinned, int pinOrder, long lastCopiedAt, long id) {
+
+        /** Continues with the row after {@code entry}. */
+        public static PageCursor after(ClipEntry entry) {
+            return new PageCursor(
+                    entry.favorite(),
+                    entry.pinOrder() == null ? Integer.MAX_VALUE : entry.pinOrder(),
+                    entry.createdAt(),
+                    entry.id()
+            );
+        }
+    }
+
+    private static final String POPUP_ORDER = """
+            ORDER BY ce.is_favorite DESC,
+                     CASE
+                         WHEN ce.is_favorite = 1 THEN COALESCE(ce.pin_order, 2147483647)
+                         ELSE 2147483647
+                     END ASC,
+                     ce.last_copied_at DESC,
+                     ce.id DESC
+            """;
+
+    private static final String RECENT_ORDER = "ORDER BY ce.last_copied_at DESC, ce.id DESC\n";
+
+    private record PopupFilter(
+            String query,
+            Boolean favoriteFilter,
+            Long tagId,
+            List<String> requiredTags,
+            List<String> excludedTags
+    ) {}
+
+    private PopupFilter popupFilter(
+            String q,
+            Boolean favoriteFilter,
+            Long tagId,
+            List<String> requiredTagIdentities,
+            List<String> excludedTagIdentities
+    ) {
+        if (tagId != null && tagId <= 0) {
+            throw new IllegalArgumentException("tagId must be positive");
+        }
+
+        return new PopupFilter(
+                q == null ? "" : q.trim(),
+                favoriteFilter,
+                tagId,
+                normalizedTagIdentities(requiredTagIdentities, "requiredTagIdentities"),
+                normalizedTagIdentities(excludedTagIdentities, "excludedTagIdentities")
         );
+    }
 
-        String normalizedQuery = q == null ? "" : q.trim();
-        String like = "%" + escapeLike(normalizedQuery) + "%";
+    private List<ClipEntry> queryPopupPage(
+            PopupFilter filter,
+            String segment,
+            List<Long> segmentArguments,
+            String order,
+            int limit
+    ) {
+        String like = "%" + escapeLike(filter.query()) + "%";
 
         StringBuilder sql = new StringBuilder("""
             SELECT ce.id, ce.content, ce.title, ce.is_favorite, ce.pin_order,
-                   ce.last_copied_at AS created_at
+                   ce.last_copied_at AS created_at,
+                   ce.content_type = 'IMAGE' AS is_image
             FROM clip_entries AS ce
             WHERE (? IS NULL OR ce.is_favorite = ?)
               AND (
@@ -330,7 +744,7 @@ public final class ClipEntryDao implements AutoCloseable {
                   )
             """);
 
-        for (int index = 0; index < requiredTags.size(); index++) {
+        for (int index = 0; index < filter.requiredTags().size(); index++) {
             sql.append("""
                   AND EXISTS (
                         SELECT 1
@@ -341,7 +755,7 @@ public final class ClipEntryDao implements AutoCloseable {
                   )
                 """);
         }
-        for (int index = 0; index < excludedTags.size(); index++) {
+        for (int index = 0; index < filter.excludedTags().size(); index++) {
             sql.append("""
                   AND NOT EXISTS (
                         SELECT 1
@@ -353,45 +767,41 @@ public final class ClipEntryDao implements AutoCloseable {
                 """);
         }
 
-        sql.append("""
-            ORDER BY ce.is_favorite DESC,
-                     CASE
-                         WHEN ce.is_favorite = 1 THEN COALESCE(ce.pin_order, 2147483647)
-                         ELSE 2147483647
-                     END ASC,
-                     ce.last_copied_at DESC,
-                     ce.id DESC
-            LIMIT ?
-            """);
+        sql.append(segment);
+        sql.append(order);
+        sql.append("LIMIT ?\n");
 
         Connection c = connections.connection();
         try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
             int parameter = 1;
-            bindOptionalFavorite(ps, parameter, favoriteFilter);
+            bindOptionalFavorite(ps, parameter, filter.favoriteFilter());
             parameter += 2;
 
-            if (tagId == null) {
+            if (filter.tagId() == null) {
                 ps.setNull(parameter, Types.INTEGER);
                 ps.setNull(parameter + 1, Types.INTEGER);
             } else {
-                ps.setLong(parameter, tagId);
-                ps.setLong(parameter + 1, tagId);
+                ps.setLong(parameter, filter.tagId());
+                ps.setLong(parameter + 1, filter.tagId());
             }
             parameter += 2;
 
-            ps.setString(parameter++, normalizedQuery);
+            ps.setString(parameter++, filter.query());
             ps.setString(parameter++, like);
             ps.setString(parameter++, like);
             ps.setString(parameter++, like);
 
-            for (String identity : requiredTags) {
+            for (String identity : filter.requiredTags()) {
                 ps.setString(parameter++, identity);
             }
-            for (String identity : excludedTags) {
+            for (String identity : filter.excludedTags()) {
                 ps.setString(parameter++, identity);
             }
+            for (long argument : segmentArguments) {
+                ps.setLong(parameter++, argument);
+            }
 
-            ps.setInt(parameter, Math.max(1, limit));
+            ps.setInt(parameter, limit);
 
             try (ResultSet rs = ps.executeQuery()) {
                 return map(rs);
@@ -407,7 +817,8 @@ public final class ClipEntryDao implements AutoCloseable {
     public List<ClipEntry> search(String q, int limit, Boolean favoriteFilter) {
         String sql = """
             SELECT id, content, title, is_favorite, pin_order,
-                   last_copied_at AS created_at
+                   last_copied_at AS created_at,
+                   content_type = 'IMAGE' AS is_image
             FROM clip_entries
             WHERE (
                     content LIKE ? ESCAPE '\\'
@@ -452,25 +863,106 @@ public final class ClipEntryDao implements AutoCloseable {
         }
     }
 
+    /**
+     * Length of a clip's content in characters as SQLite counts them, which
+     * is Unicode code points; -1 when the clip no longer exists.
+     */
+    public int contentLength(long id) {
+        try (PreparedStatement ps = connections.connection().prepareStatement(
+                "SELECT length(content) FROM clip_entries WHERE id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("contentLength failed", e);
+        }
+    }
+
+    /**
+     * Reads part of a clip's content without loading the rest of it.
+     *
+     * @param start  first character, zero-based, in {@link #contentLength} units
+     * @param length characters to read
+     * @return the slice, shorter at the end of the content, or null when the
+     *         clip no longer exists
+     */
+    public String contentSlice(long id, int start, int length) {
+        if (start < 0 || length < 0) {
+            throw new IllegalArgumentException("start and length must not be negative");
+        }
+        try (PreparedStatement ps = connections.connection().prepareStatement(
+                "SELECT substr(content, ?, ?) FROM clip_entries WHERE id = ?")) {
+            ps.setLong(1, start + 1L);
+            ps.setInt(2, length);
+            ps.setLong(3, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                String slice = rs.getString(1);
+                return slice == null ? "" : slice;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("contentSlice failed", e);
+        }
+    }
+
+    /**
+     * Cheap change token for read caches on the calling thread.
+     *
+     * PRAGMA data_version moves when another connection commits, but not for
+     * commits through this thread's own connection; those are counted by the
+     * change bus generation instead. Read the token before the data it guards.
+     */
+    public StorageVersion storageVersion() {
+        long writeGeneration = changes.generation();
+        Connection c = connections.connection();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA data_version")) {
+            long dataVersion = rs.next() ? rs.getLong(1) : 0L;
+            return new StorageVersion(connections.openedConnections(), dataVersion, writeGeneration);
+        } catch (Exception e) {
+            throw new RuntimeException("data version read failed", e);
+        }
+    }
+
+    /**
+     * @param connectionEpoch connections this DAO has opened; data_version is
+     *                        only comparable on the same connection
+     */
+    public record StorageVersion(long connectionEpoch, long dataVersion, long writeGeneration) {
+
+        /** True when storage moved through a path that published no event. */
+        public boolean changedSilentlySince(StorageVersion previous) {
+            if (previous == null) return true;
+            boolean storageMoved = connectionEpoch != previous.connectionEpoch
+                    || dataVersion != previous.dataVersion;
+            return storageMoved && writeGeneration == previous.writeGeneration;
+        }
+    }
+
     public void deleteById(long id) {
-        connections.inTransaction("delete failed", c -> {
+        int deleted = connections.inTransaction("delete failed", c -> {
             boolean wasFavorite = isFavorite(c, id);
+            int count;
             try (PreparedStatement ps = c.prepareStatement(
                     "DELETE FROM clip_entries WHERE id = ?")) {
                 ps.setLong(1, id);
-                ps.executeUpdate();
+                count = ps.executeUpdate();
             }
 
             if (wasFavorite) {
                 persistPinnedOrder(c, loadPinnedIds(c));
             }
-            return null;
+            return count;
         });
+        if (deleted > 0) changes.publish(new ClipChangeEvent.Deleted(Set.of(id), deleted));
     }
 
     /**
      * Used by PopupWindow "Clear" button.
      * Keeps favorites intact.
+     *
+     * Publishes nothing: the caller announces the bulk delete once.
      */
     public int deleteAllNonFavorites() {
         String sql = "DELETE FROM clip_entries WHERE is_favorite = 0";
@@ -489,7 +981,7 @@ public final class ClipEntryDao implements AutoCloseable {
      * intentionally keeps optional metadata such as the custom title.
      */
     public void setFavorite(long id, boolean favorite) {
-        connections.inTransaction("favorite update failed", c -> {
+        boolean changed = connections.inTransaction("favorite update failed", c -> {
             boolean currentlyFavorite = isFavorite(c, id);
 
             if (favorite) {
@@ -504,6 +996,7 @@ public final class ClipEntryDao implements AutoCloseable {
                     if (pinnedIds.remove(id)) {
                         pinnedIds.add(0, id);
                         persistPinnedOrder(c, pinnedIds);
+                        return true;
                     }
                 }
             } else if (currentlyFavorite) {
@@ -513,9 +1006,11 @@ public final class ClipEntryDao implements AutoCloseable {
                     ps.executeUpdate();
                 }
                 persistPinnedOrder(c, loadPinnedIds(c));
+                return true;
             }
-            return null;
+            return false;
         });
+        if (changed) changes.publish(new ClipChangeEvent.PinChanged(id, favorite));
     }
 
     /**
@@ -531,6 +1026,7 @@ public final class ClipEntryDao implements AutoCloseable {
 
         String sql = "UPDATE clip_entries SET title = ? WHERE id = ? AND is_favorite = 1";
         Connection c = connections.connection();
+        int updated;
         try (PreparedStatement ps = c.prepareStatement(sql)) {
             if (normalized == null) {
                 ps.setNull(1, Types.VARCHAR);
@@ -538,10 +1034,11 @@ public final class ClipEntryDao implements AutoCloseable {
                 ps.setString(1, normalized);
             }
             ps.setLong(2, id);
-            ps.executeUpdate();
+            updated = ps.executeUpdate();
         } catch (Exception e) {
             throw new RuntimeException("title update failed", e);
         }
+        if (updated > 0) changes.publish(new ClipChangeEvent.Retitled(id, normalized));
     }
 
     public boolean movePinnedUp(long id) {
@@ -561,7 +1058,7 @@ public final class ClipEntryDao implements AutoCloseable {
     }
 
     private boolean movePinned(long id, PinMove move) {
-        return connections.inTransaction("pin reorder failed", c -> {
+        boolean moved = connections.inTransaction("pin reorder failed", c -> {
             List<Long> pinnedIds = loadPinnedIds(c);
             int from = pinnedIds.indexOf(id);
             if (from < 0 || pinnedIds.size() < 2) return false;
@@ -575,14 +1072,35 @@ public final class ClipEntryDao implements AutoCloseable {
 
             if (to == from) return false;
 
-            Long moved = pinnedIds.remove(from);
-            pinnedIds.add(to, moved);
+            Long movedId = pinnedIds.remove(from);
+            pinnedIds.add(to, movedId);
             persistPinnedOrder(c, pinnedIds);
             return true;
         });
+        if (moved) changes.publish(new ClipChangeEvent.Reordered());
+        return moved;
+    }
+
+    /**
+     * Duplicate handling shared with image clips: moves a pinned row to the
+     * top of the pinned order and leaves unpinned rows alone.
+     *
+     * @return true when the pinned order changed
+     */
+    static boolean movePinnedToTopIfPinned(Connection c, long id) throws SQLException {
+        if (!isFavorite(c, id)) return false;
+
+        List<Long> pinnedIds = loadPinnedIds(c);
+        int from = pinnedIds.indexOf(id);
+        if (from <= 0) return false;
+
+        pinnedIds.remove(from);
+        pinnedIds.add(0, id);
+        persistPinnedOrder(c, pinnedIds);
+        return true;
     }
 
-    private boolean isFavorite(Connection c, long id) throws SQLException {
+    private static boolean isFavorite(Connection c, long id) throws SQLException {
         try (PreparedStatement ps = c.prepareStatement(
                 "SELECT is_favorite FROM clip_entries WHERE id = ?")) {
             ps.setLong(1, id);
@@ -592,7 +1110,7 @@ public final class ClipEntryDao implements AutoCloseable {
         }
     }
 
-    private List<Long> loadPinnedIds(Connection c) throws SQLException {
+    private static List<Long> loadPinnedIds(Connection c) throws SQLException {
         String sql = """
                 SELECT id
                 FROM clip_entries
@@ -612,7 +1130,7 @@ public final class ClipEntryDao implements AutoCloseable {
         return ids;
     }
 
-    private void persistPinnedOrder(Connection c, List<Long> pinnedIds) throws SQLException {
+    private static void persistPinnedOrder(Connection c, List<Long> pinnedIds) throws SQLException {
         try (PreparedStatement ps = c.prepareStatement(
                 "UPDATE clip_entries SET pin_order = ? WHERE id = ? AND is_favorite = 1")) {
             for (int i = 0; i < pinnedIds.size(); i++) {
@@ -624,31 +1142,99 @@ public final class ClipEntryDao implements AutoCloseable {
         }
     }
 
-    public void pruneToLimit(int limit) {
-        // Keep ALL favorites; prune only non-favorites.
-        String sql = """
-            DELETE FROM clip_entries
-            WHERE is_favorite = 0
-              AND id NOT IN (
-                SELECT id FROM clip_entries
-                WHERE is_favorite = 0
-                ORDER BY last_copied_at DESC, id DESC
-                LIMIT ?
-              )
-            """;
-        Connection c = connections.connection();
-        try (PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, limit);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("pruneToLimit failed", e);
+    /**
+     * Keeps the newest limit unpinned rows and deletes everything older.
+     *
+     * The trigger-maintained recent counter makes the common nothing-to-prune
+     * case a single primary-key read. Otherwise the first row to delete is
+     * found by seeking idx_clip_recent_age at OFFSET limit, and one range
+     * delete removes that row and every older one. PINNED rows are never
+     * touched.
+     *
+     * @return number of deleted rows
+     */
+    public int pruneToLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative");
+        }
+
+        long[] cutoff = new long[2];
+        int deleted = connections.inTransaction("pruneToLimit failed", c -> {
+            long recent = readCounter(c, Database.RECENT_CLIPS_COUNTER);
+            if (recent >= 0 && recent <= limit) return 0;
+
+            long cutoffCopiedAt;
+            long cutoffId;
+            try (PreparedStatement ps = c.prepareStatement("""
+                    SELECT last_copied_at, id
+                    FROM clip_entries
+                    WHERE is_favorite = 0
+                    ORDER BY last_copied_at DESC, id DESC
+                    LIMIT 1 OFFSET ?
+                    """)) {
+                ps.setInt(1, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return 0;
+                    cutoffCopiedAt = rs.getLong(1);
+                    cutoffId = rs.getLong(2);
+                }
+            }
+
+            try (PreparedStatement ps = c.prepareStatement("""
+                    DELETE FROM clip_entries
+                    WHERE is_favorite = 0
+                      AND last_copied_at <= ?
+                      AND (last_copied_at < ? OR id <= ?)
+                    """)) {
+                ps.setLong(1, cutoffCopiedAt);
+                ps.setLong(2, cutoffCopiedAt);
+                ps.setLong(3, cutoffId);
+                cutoff[0] = cutoffCopiedAt;
+                cutoff[1] = cutoffId;
+                return ps.executeUpdate();
+            }
+        });
+        if (deleted > 0) {
+            changes.publish(new ClipChangeEvent.Trimmed(cutoff[0], cutoff[1], deleted));
+        }
+        return deleted;
+    }
+
+    /**
+     * Number of unpinned rows as maintained by the clip_counters triggers.
+     */
+    public long countRecent() {
+        try {
+            long recent = readCounter(connections.connection(), Database.RECENT_CLIPS_COUNTER);
+            if (recent >= 0) return recent;
+        } catch (Exception e) {
+            throw new RuntimeException("countRecent failed", e);
+        }
+        try (PreparedStatement ps = connections.connection().prepareStatement(
+                "SELECT COUNT(*) FROM clip_entries WHERE is_favorite = 0");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (Exception e) {
+            throw new RuntimeException("countRecent failed", e);
+        }
+    }
+
+    /**
+     * @return the counter value, or -1 when the counter row does not exist
+     */
+    private static long readCounter(Connection c, String name) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT value FROM clip_counters WHERE name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1L;
+            }
         }
     }
 
     /**
      * Loads only unpinned rows old enough to match at least one retention rule.
-     * Exact per-type decisions are made in the domain service because content
-     * type is derived metadata and is intentionally not stored in SQLite.
+     * Exact per-type decisions are made in the domain service from content.
      */
     public List<RetentionCandidate> listRetentionCandidates(long cutoffExclusive) {
         List<RetentionCandidate> all = new ArrayList<>();
@@ -681,6 +1267,27 @@ public final class ClipEntryDao implements AutoCloseable {
             long cutoffExclusive,
             long afterIdExclusive,
             int limit
+    ) {
+        return listRetentionCandidatesAfter(cutoffExclusive, afterIdExclusive, limit, false);
+    }
+
+    /**
+     * Keyset page of unpinned rows whose stored content type has not been
+     * backfilled yet. Set-based cleanup handles every classified row in SQL.
+     */
+    public List<RetentionCandidate> listUnclassifiedRetentionCandidatesAfter(
+            long cutoffExclusive,
+            long afterIdExclusive,
+            int limit
+    ) {
+        return listRetentionCandidatesAfter(cutoffExclusive, afterIdExclusive, limit, true);
+    }
+
+    private List<RetentionCandidate> listRetentionCandidatesAfter(
+            long cutoffExclusive,
+            long afterIdExclusive,
+            int limit,
+            boolean unclassifiedOnly
     ) {
         if (cutoffExclusive < 0) {
             throw new IllegalArgumentException("cutoffExclusive cannot be negative");
@@ -698,9 +1305,10 @@ public final class ClipEntryDao implements AutoCloseable {
                 WHERE is_favorite = 0
                   AND last_copied_at < ?
                   AND id > ?
+                  %s
                 ORDER BY id ASC
                 LIMIT ?
-                """;
+                """.formatted(unclassifiedOnly ? "AND content_type IS NULL" : "");
 
         List<RetentionCandidate> candidates = new ArrayList<>(limit);
         try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
@@ -724,6 +1332,65 @@ public final class ClipEntryDao implements AutoCloseable {
 
     public record RetentionCandidate(long id, String content, long lastCopiedAt) {}
 
+    /**
+     * Deletes at most limit unpinned rows copied before the cutoff in one short
+     * autocommit statement. A null type applies the general rule to every type.
+     * Publishes nothing: the cleanup run announces its deletions once.
+     *
+     * @return number of deleted rows; fewer than limit means the rule is drained
+     */
+    public int deleteExpiredChunk(
+            long cutoffExclusive,
+            ClipContentType type,
+            int limit
+    ) {
+        if (cutoffExclusive < 0) {
+            throw new IllegalArgumentException("cutoffExclusive cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        String sql = """
+                DELETE FROM clip_entries
+                WHERE id IN (
+                    SELECT id
+                    FROM clip_entries
+                    WHERE is_favorite = 0
+                      AND last_copied_at >= 0
+                      AND last_copied_at < ?
+                      %s
+                    LIMIT ?
+                )
+                """.formatted(type == null ? "" : "AND content_type = ?");
+
+        try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
+            int index = 1;
+            ps.setLong(index++, cutoffExclusive);
+            if (type != null) ps.setString(index++, type.name());
+            ps.setInt(index, limit);
+            return ps.executeUpdate();
+        } catch (Exception e) {
+            throw new RuntimeException("deleteExpiredChunk failed", e);
+        }
+    }
+
+    /**
+     * Persisted content-type value; the column lets retention rules run in SQL.
+     */
+    static String storedType(String content) {
+        return ClipContentClassifier.classify(content).name();
+    }
+
+    static void bindNearFingerprint(
+            PreparedStatement ps,
+            int index,
+            Long nearFingerprint
+    ) throws SQLException {
+        if (nearFingerprint == null) ps.setNull(index, Types.BIGINT);
+        else ps.setLong(index, nearFingerprint);
+    }
+
     private List<ClipEntry> map(ResultSet rs) throws SQLException {
         List<ClipEntry> list = new ArrayList<>();
         while (rs.next()) {
@@ -734,7 +1401,8 @@ public final class ClipEntryDao implements AutoCloseable {
             int rawPinOrder = rs.getInt("pin_order");
             Integer pinOrder = rs.wasNull() ? null : rawPinOrder;
             long createdAt = rs.getLong("created_at");
-            list.add(new ClipEntry(id, content, title, fav, pinOrder, createdAt));
+            boolean image = rs.getInt("is_image") != 0;
+            list.add(new ClipEntry(id, content, title, fav, pinOrder, createdAt, image));
         }
         return list;
     }
@@ -794,7 +1462,7 @@ public final class ClipEntryDao implements AutoCloseable {
         if (uniqueIds.isEmpty()) return 0;
 
         List<Long> validIds = new ArrayList<>(uniqueIds);
-        return connections.inTransaction("deleteByIds failed", c -> {
+        int deletedRows = connections.inTransaction("deleteByIds failed", c -> {
             int deleted = 0;
             for (int offset = 0; offset < validIds.size(); offset += ID_DELETE_BATCH_SIZE) {
                 int end = Math.min(validIds.size(), offset + ID_DELETE_BATCH_SIZE);
@@ -812,6 +1480,8 @@ public final class ClipEntryDao implements AutoCloseable {
             }
             return deleted;
         });
+        if (deletedRows > 0) changes.publish(new ClipChangeEvent.Deleted(uniqueIds, deletedRows));
+        return deletedRows;
     }
 
     private static String deleteByIdsSql(int count) {
@@ -825,6 +1495,70 @@ public final class ClipEntryDao implements AutoCloseable {
         return sql.append(")").toString();
     }
 
+    private static String nearDuplicateCandidatesSql() {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, last_copied_at, content_simhash FROM ("
+        );
+        for (int band = 0; band < NearDuplicateFingerprint.BANDS; band++) {
+            if (band > 0) sql.append("\n    UNION ALL");
+            sql.append("""
+
+                        SELECT * FROM (
+                            SELECT id, last_copied_at, content_simhash
+                            FROM clip_entries
+                            WHERE content_simhash IS NOT NULL
+                              AND is_favorite = 0
+                              AND %s = ?
+                              AND last_copied_at >= ?
+                            ORDER BY last_copied_at DESC, id DESC
+                            LIMIT %d
+                        )""".formatted(
+                    Database.nearDuplicateBandExpression(band),
+                    NEAR_DUPLICATE_BUCKET_SCAN
+            ));
+        }
+        return sql.append("\n)").toString();
+    }
+
+    private static String duplicateHashColumn(DuplicateContentKeys.KeyKind keyKind) {
+        return switch (keyKind) {
+            case EXACT -> "content_exact_hash";
+            case EXACT_CASE_INSENSITIVE -> "content_exact_ci_hash";
+            case NORMALIZED -> "content_hash";
+            case NORMALIZED_CASE_INSENSITIVE -> "content_norm_ci_hash";
+        };
+    }
+
+    private static String duplicateKeySourceColumn(DuplicateContentKeys.KeyKind keyKind) {
+        return keyKind.normalizesWhitespace() ? "content_norm" : "content";
+    }
+
+    /**
+     * UTF-8 byte length as written by the driver, with a lone surrogate
+     * encoded as one replacement byte.
+     */
+    private static long utf8Length(String value) {
+        long bytes = 0;
+        for (int index = 0; index < value.length(); index++) {
+            char ch = value.charAt(index);
+            if (ch < 0x80) {
+                bytes++;
+            } else if (ch < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(ch)
+                    && index + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                bytes += 4;
+                index++;
+            } else if (Character.isSurrogate(ch)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
 
     private enum PinMove {
         UP,
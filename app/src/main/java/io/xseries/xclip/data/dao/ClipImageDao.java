@@ -0,0 +1,309 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.dao;
+
+import io.xseries.xclip.data.dao.ClipEntryDao.DuplicateCandidate;
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.event.ClipChangeEvent;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipImage;
+import io.xseries.xclip.domain.duplicate.DuplicatePolicyEngine;
+import io.xseries.xclip.domain.duplicate.PerceptualImageHash;
+import io.xseries.xclip.domain.image.ClipImageCodec;
+import io.xseries.xclip.domain.model.ClipContentType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * SQLite contract for image clips.
+ *
+ * An image clip is an ordinary clip_entries row, so pinning, tags, retention
+ * and pruning treat it like any other clip, plus one clip_images row holding
+ * the encoded pixels and a thumbnail. The payload lives out of row, so list
+ * queries never read a blob, and ON DELETE CASCADE removes it with the clip.
+ */
+public final class ClipImageDao implements AutoCloseable {
+
+    /**
+     * Newest same-size images compared against a capture. Older perceptual
+     * matches are not worth a longer scan on every image capture.
+     */
+    static final int DUPLICATE_SCAN = 32;
+
+    private final DaoConnectionContext connections;
+    private final ClipChangeBus changes;
+
+    public ClipImageDao(String jdbcUrl) {
+        this(jdbcUrl, new ClipChangeBus());
+    }
+
+    public ClipImageDao(String jdbcUrl, ClipChangeBus changes) {
+        this.connections = new DaoConnectionContext(jdbcUrl);
+        this.changes = Objects.requireNonNull(changes, "changes");
+    }
+
+    /**
+     * Inserts the clip row and its image row in one transaction.
+     *
+     * @return id of the new clip
+     */
+    public long insert(ClipImage image, long createdAt) {
+        String caption = ClipImageCodec.caption(image.width(), image.height());
+        long clipId = connections.inTransaction("insert image failed", c -> {
+            try (PreparedStatement ps = c.prepareStatement("""
+                    INSERT INTO clip_entries(
+                        content,
+                        content_norm,
+                        content_hash,
+                        content_exact_hash,
+                        content_exact_ci_hash,
+                        content_norm_ci_hash,
+                        content_type,
+                        content_simhash,
+                        created_at,
+                        last_copied_at,
+                        use_count
+                    )
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 1)
+                    """)) {
+                ps.setString(1, caption);
+                ps.setString(2, caption);
+                ps.setString(3, image.contentHash());
+                ps.setString(4, image.contentHash());
+                ps.setString(5, image.contentHash());
+                ps.setString(6, image.contentHash());
+                ps.setString(7, ClipContentType.IMAGE.name());
+                ps.setNull(8, Types.BIGINT);
+                ps.setLong(9, createdAt);
+                ps.setLong(10, createdAt);
+                ps.executeUpdate();
+            }
+
+            long id = ClipEntryDao.lastInsertId(c);
+
+            try (PreparedStatement ps = c.prepareStatement("""
+                    INSERT INTO clip_images(clip_id, phash, width, height, encoded)
+                    VALUES (?, ?, ?, ?, ?)
+                    """)) {
+                ps.setLong(1, id);
+                ps.setLong(2, image.phash());
+                ps.setInt(3, image.width());
+                ps.setInt(4, image.height());
+                ps.setBytes(5, image.encoded());
+                ps.executeUpdate();
+            }
+            return id;
+        });
+
+        changes.publish(new ClipChangeEvent.Inserted(
+                new ClipEntry(clipId, caption, null, false, null, createdAt, true)
+        ));
+        return clipId;
+    }
+
+    /**
+     * Finds the most recently copied image of the same size whose perceptual
+     * hash is within {@link PerceptualImageHash#MAX_DISTANCE} bits, or null.
+     *
+     * The size index yields the newest {@link #DUPLICATE_SCAN} candidates;
+     * only hashes and timestamps are read, never pixels.
+     */
+    public DuplicateCandidate findDuplicateCandidate(
+            long phash,
+            int width,
+            int height,
+            long cutoffInclusive
+    ) {
+        if (cutoffInclusive < 0) throw new IllegalArgumentException("cutoffInclusive cannot be negative");
+
+        try (PreparedStatement ps = connections.connection().prepareStatement("""
+                SELECT ci.clip_id, ci.phash, ce.is_favorite, ce.last_copied_at
+                FROM clip_images AS ci
+                JOIN clip_entries AS ce ON ce.id = ci.clip_id
+                WHERE ci.width = ?
+                  AND ci.height = ?
+                  AND ce.last_copied_at >= ?
+                ORDER BY ci.clip_id DESC
+                LIMIT ?
+                """)) {
+            ps.setInt(1, width);
+            ps.setInt(2, height);
+            ps.setLong(3, cutoffInclusive);
+            ps.setInt(4, DUPLICATE_SCAN);
+
+            DuplicateCandidate best = null;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (PerceptualImageHash.distance(rs.getLong("phash"), phash)
+                            > PerceptualImageHash.MAX_DISTANCE) {
+                        continue;
+                    }
+                    long id = rs.getLong("clip_id");
+                    long lastCopiedAt = rs.getLong("last_copied_at");
+                    if (best == null
+                            || lastCopiedAt > best.lastCopiedAt()
+                            || (lastCopiedAt == best.lastCopiedAt() && id > best.id())) {
+                        best = new DuplicateCandidate(
+                                id,
+                                rs.getInt("is_favorite") != 0,
+                                lastCopiedAt
+                        );
+                    }
+                }
+            }
+            return best;
+        } catch (Exception e) {
+            throw new RuntimeException("findDuplicateCandidate image failed", e);
+        }
+    }
+
+    /**
+     * Records a repeated capture of a stored image as the decision says. The
+     * stored pixels are kept; a perceptual match shows the same picture.
+     */
+    public boolean applyDuplicate(
+            long id,
+            long copiedAt,
+            DuplicatePolicyEngine.Decision decision
+    ) {
+        if (id <= 0) throw new IllegalArgumentException("id must be positive");
+        if (decision == null || !decision.duplicate()) {
+            throw new IllegalArgumentException("duplicate decision is required");
+        }
+
+        boolean[] reordered = {false};
+        boolean applied = connections.inTransaction("applyDuplicate image failed", c -> {
+            try (PreparedStatement ps = c.prepareStatement("""
+                    UPDATE clip_entries
+                    SET last_copied_at = CASE WHEN ? = 1 THEN ? ELSE last_copied_at END,
+                        use_count = use_count + 1
+                    WHERE id = ? AND content_type = ?
+                    """)) {
+                ps.setInt(1, decision.updateLastCopiedAt() ? 1 : 0);
+                ps.setLong(2, copiedAt);
+                ps.setLong(3, id);
+                ps.setString(4, ClipContentType.IMAGE.name());
+                if (ps.executeUpdate() == 0) return false;
+            }
+
+            if (decision.movePinnedToTop()) {
+                reordered[0] = ClipEntryDao.movePinnedToTopIfPinned(c, id);
+            }
+            return true;
+        });
+
+        if (applied) {
+            ClipEntryDao.publishDuplicate(changes, id, null, copiedAt, decision, reordered[0]);
+        }
+        return applied;
+    }
+
+    /**
+     * @return the stored image, or null when the clip is gone or not an image
+     */
+    public ClipImage load(long id) {
+        try (PreparedStatement ps = connections.connection().prepareStatement("""
+                SELECT ce.content_exact_hash, ci.phash, ci.width, ci.height, ci.encoded
+                FROM clip_images AS ci
+                JOIN clip_entries AS ce ON ce.id = ci.clip_id
+                WHERE ci.clip_id = ?
+                """)) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new ClipImage(
+                        rs.getString("content_exact_hash"),
+                        rs.getLong("phash"),
+                        rs.getInt("width"),
+                        rs.getInt("height"),
+                        rs.getBytes("encoded")
+                );
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("load image failed", e);
+        }
+    }
+
+    /**
+     * @return the encoded thumbnail, or null until one has been stored
+     */
+    public byte[] loadThumbnail(long id) {
+        try (PreparedStatement ps = connections.connection().prepareStatement(
+                "SELECT thumbnail FROM clip_images WHERE clip_id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBytes("thumbnail") : null;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("load thumbnail failed", e);
+        }
+    }
+
+    /**
+     * Stores a thumbnail unless one exists or the clip is gone.
+     */
+    public boolean storeThumbnail(long id, byte[] thumbnail) {
+        if (thumbnail == null) throw new IllegalArgumentException("thumbnail is required");
+
+        try (PreparedStatement ps = connections.connection().prepareStatement("""
+                UPDATE clip_images
+                SET thumbnail = ?
+                WHERE clip_id = ? AND thumbnail IS NULL
+                """)) {
+            ps.setBytes(1, thumbnail);
+            ps.setLong(2, id);
+            return ps.executeUpdate() > 0;
+        } catch (Exception e) {
+            throw new RuntimeException("store thumbnail failed", e);
+        }
+    }
+
+    /**
+     * Lists image clips still waiting for a thumbnail, oldest first, through
+     * the partial index that holds only those rows.
+     */
+    public List<Long> listPendingThumbnails(long afterId, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be positive");
+
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = connections.connection().prepareStatement("""
+                SELECT clip_id
+                FROM clip_images
+                WHERE thumbnail IS NULL AND clip_id > ?
+                ORDER BY clip_id ASC
+                LIMIT ?
+                """)) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong("clip_id"));
+                }
+            }
+            return ids;
+        } catch (Exception e) {
+            throw new RuntimeException("listPendingThumbnails failed", e);
+        }
+    }
+
+    public void closeForCurrentThread() {
+        connections.closeForCurrentThread();
+    }
+
+    public void releaseConnections() {
+        connections.releaseAllConnections();
+    }
+
+    @Override
+    public void close() {
+        connections.closeAll();
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Shared connection and transaction lifecycle for SQLite DAO implementations.
@@ -31,6 +32,7 @@ final class DaoConnectionContext {
     private final ThreadLocal<Connection> threadConnection = new ThreadLocal<>();
     private final Set<Connection> activeConnections = ConcurrentHashMap.newKeySet();
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicLong openedConnections = new AtomicLong();
     private final Object lifecycleLock = new Object();
 
     DaoConnectionContext(String jdbcUrl) {
@@ -124,6 +126,14 @@ final class DaoConnectionContext {
         }
     }
 
+    /**
+     * Connections opened so far. Per-connection counters such as
+     * PRAGMA data_version are only comparable while this stays the same.
+     */
+    long openedConnections() {
+        return openedConnections.get();
+    }
+
     void closeForCurrentThread() {
         Connection connection = threadConnection.get();
         threadConnection.remove();
@@ -182,6 +192,7 @@ final class DaoConnectionContext {
                 }
 
                 activeConnections.add(connection);
+                openedConnections.incrementAndGet();
                 return connection;
             } catch (Exception error) {
                 closeQuietly(connection);
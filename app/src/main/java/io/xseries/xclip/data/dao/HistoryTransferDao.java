@@ -0,0 +1,684 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.dao;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonWriter;
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.event.ClipChangeEvent;
+import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
+import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
+import io.xseries.xclip.domain.service.TagNamePolicy;
+import io.xseries.xclip.domain.service.TagNamePolicy.NormalizedTagName;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Streaming NDJSON export and import of clipboard history.
+ *
+ * Export walks clip_entries by id keyset with tags joined and writes one JSON
+ * object per line; import parses one line at a time and commits batches
+ * bounded by row count and content size. Neither direction holds more than
+ * one page or batch of rows in memory.
+ * Imported clips use the same duplicate keys and tag normalization as captured
+ * clips, and exact duplicates of existing rows are merged instead of inserted.
+ */
+public final class HistoryTransferDao implements AutoCloseable {
+
+    public static final String FILE_EXTENSION = ".ndjson";
+
+    static final int EXPORT_PAGE_SIZE = 256;
+    static final int IMPORT_BATCH_SIZE = 512;
+    static final long IMPORT_BATCH_MAX_CHARS = 8L * 1024L * 1024L;
+
+    private static final int IO_BUFFER_CHARS = 64 * 1024;
+    private static final int TAG_CACHE_LIMIT = 256;
+
+    private final DaoConnectionContext connections;
+    private final ClipChangeBus changes;
+
+    public HistoryTransferDao(String jdbcUrl) {
+        this(jdbcUrl, new ClipChangeBus());
+    }
+
+    /**
+     * @param changes receives one {@link ClipChangeEvent.Imported} per import
+     *                that committed rows
+     */
+    public HistoryTransferDao(String jdbcUrl, ClipChangeBus changes) {
+        this.connections = new DaoConnectionContext(jdbcUrl);
+        this.changes = Objects.requireNonNull(changes, "changes");
+    }
+
+    public ExportResult exportTo(Path target) {
+        Objects.requireNonNull(target, "target");
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(target), StandardCharsets.UTF_8),
+                IO_BUFFER_CHARS
+        )) {
+            return exportTo(writer);
+        } catch (IOException e) {
+            throw new RuntimeException("exportTo failed", e);
+        }
+    }
+
+    /**
+     * Writes every text clip as one JSON line, ordered by id. Image clips
+     * have no text to export; database backups include them.
+     *
+     * Each keyset page is read on its own statement, so concurrent capture is
+     * never blocked for the whole export; rows inserted during the export may
+     * or may not be included.
+     */
+    public ExportResult exportTo(Writer target) {
+        Objects.requireNonNull(target, "target");
+        long startedAt = System.nanoTime();
+        long rows = 0L;
+
+        String sql = """
+                SELECT c.id, c.content, c.title, c.is_favorite, c.pin_order,
+                       c.created_at, c.last_copied_at, c.use_count,
+                       t.name AS tag_name
+                FROM (
+                    SELECT id, content, title, is_favorite, pin_order,
+                           created_at, last_copied_at, use_count
+                    FROM clip_entries
+                    WHERE id > ?
+                      AND (content_type IS NULL OR content_type <> 'IMAGE')
+                    ORDER BY id ASC
+                    LIMIT ?
+                ) AS c
+                LEFT JOIN clip_tags AS ct ON ct.clip_id = c.id
+                LEFT JOIN tags AS t ON t.id = ct.tag_id
+                ORDER BY c.id ASC, t.name_norm ASC
+                """;
+
+        try {
+            JsonWriter json = new JsonWriter(target);
+            json.setStrictness(Strictness.LENIENT);
+
+            long afterId = 0L;
+            while (true) {
+                int pageRows = 0;
+                try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
+                    ps.setLong(1, afterId);
+                    ps.setInt(2, EXPORT_PAGE_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        ExportedClip pending = null;
+                        while (rs.next()) {
+                            long id = rs.getLong("id");
+                            if (pending == null || pending.id != id) {
+                                if (pending != null) {
+                                    pending.write(json, target);
+                                    pageRows++;
+                                }
+                                pending = ExportedClip.read(rs);
+                            }
+                            String tagName = rs.getString("tag_name");
+                            if (tagName != null) pending.tags.add(tagName);
+                        }
+                        if (pending != null) {
+                            pending.write(json, target);
+                            pageRows++;
+                            afterId = pending.id;
+                        }
+                    }
+                }
+
+                rows += pageRows;
+                if (pageRows < EXPORT_PAGE_SIZE) break;
+            }
+
+            target.flush();
+            return new ExportResult(rows, elapsedMillis(startedAt));
+        } catch (Exception e) {
+            throw new RuntimeException("exportTo failed", e);
+        }
+    }
+
+    public ImportResult importFrom(Path source) {
+        Objects.requireNonNull(source, "source");
+        try (Reader reader = new InputStreamReader(
+                Files.newInputStream(source),
+                StandardCharsets.UTF_8
+        )) {
+            return importFrom(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("importFrom failed", e);
+        }
+    }
+
+    /**
+     * Imports NDJSON lines produced by {@link #exportTo(Writer)}.
+     *
+     * Blank lines are ignored; lines that are not a JSON object with non-blank
+     * content are counted as rejected. Batches already committed stay committed
+     * if a later batch fails, and are announced even then.
+     */
+    public ImportResult importFrom(Reader source) {
+        Objects.requireNonNull(source, "source");
+        long startedAt = System.nanoTime();
+        ImportCounters counters = new ImportCounters();
+        Map<String, Long> tagIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > TAG_CACHE_LIMIT;
+            }
+        };
+
+        try (BufferedReader reader = new BufferedReader(source, IO_BUFFER_CHARS)) {
+            List<ImportedClip> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            long batchChars = 0L;
+            String line;
+            boolean first = true;
+
+            while ((line = reader.readLine()) != null) {
+                if (first && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+                first = false;
+                if (line.isBlank()) continue;
+
+                counters.lines++;
+                ImportedClip clip = ImportedClip.parse(line);
+                if (clip == null) {
+                    counters.rejected++;
+                    continue;
+                }
+
+                batch.add(clip);
+                batchChars += clip.content.length();
+                if (batch.size() >= IMPORT_BATCH_SIZE || batchChars >= IMPORT_BATCH_MAX_CHARS) {
+                    importBatch(batch, tagIds, counters);
+                    batch.clear();
+                    batchChars = 0L;
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                importBatch(batch, tagIds, counters);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("importFrom failed", e);
+        } finally {
+            long imported = counters.inserted + counters.merged;
+            if (imported > 0) changes.publish(new ClipChangeEvent.Imported(imported));
+        }
+
+        return new ImportResult(
+                counters.lines,
+                counters.inserted,
+                counters.merged,
+                counters.rejected,
+                elapsedMillis(startedAt)
+        );
+    }
+
+    private void importBatch(
+            List<ImportedClip> batch,
+            Map<String, Long> tagIds,
+            ImportCounters counters
+    ) {
+        Map<String, Long> cacheBefore = new LinkedHashMap<>(tagIds);
+        try {
+            connections.inTransaction("importFrom batch failed", c -> {
+                int nextPinOrder = nextPinOrder(c);
+                for (ImportedClip clip : batch) {
+                    String normalized = DuplicateBehaviorPolicy.normalizeWhitespace(clip.content);
+                    DuplicateContentKeys keys = DuplicateContentKeys.from(clip.content, normalized);
+
+                    Long existingId = findExact(c, clip.content, normalized, keys.exactHash());
+                    long clipId;
+                    if (existingId == null) {
+                        Integer pinOrder = clip.favorite ? nextPinOrder++ : null;
+                        clipId = insert(c, clip, normalized, keys, pinOrder);
+                        counters.inserted++;
+                    } else {
+                        clipId = existingId;
+                        if (merge(c, clipId, clip, nextPinOrder)) nextPinOrder++;
+                        counters.merged++;
+                    }
+
+                    for (String tagName : clip.tags) {
+                        Long tagId = resolveTag(c, tagName, tagIds);
+                        if (tagId != null) assignTag(c, clipId, tagId, clip.lastCopiedAt);
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            tagIds.clear();
+            tagIds.putAll(cacheBefore);
+            throw e;
+        }
+    }
+
+    private static int nextPinOrder(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                SELECT COALESCE(MAX(pin_order), -1) + 1
+                FROM clip_entries
+                WHERE is_favorite = 1
+                """);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static Long findExact(
+            Connection c,
+            String content,
+            String normalized,
+            String exactHash
+    ) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                SELECT id, content
+                FROM clip_entries
+                WHERE content_exact_hash = ?
+                   OR (content_norm_ci_hash IS NULL AND content_norm = ?)
+                ORDER BY id ASC
+                """)) {
+            ps.setString(1, exactHash);
+            ps.setString(2, normalized);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (content.equals(rs.getString("content"))) return rs.getLong("id");
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long insert(
+            Connection c,
+            ImportedClip clip,
+            String normalized,
+            DuplicateContentKeys keys,
+            Integer pinOrder
+    ) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                INSERT INTO clip_entries(
+                    content,
+                    content_norm,
+                    content_hash,
+                    content_exact_hash,
+                    content_exact_ci_hash,
+                    content_norm_ci_hash,
+                    content_type,
+                    content_simhash,
+                    title,
+                    is_favorite,
+                    pin_order,
+                    created_at,
+                    last_copied_at,
+                    use_count
+                )
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, PreparedStatement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, clip.content);
+            ps.setString(2, normalized);
+            ps.setString(3, keys.normalizedHash());
+            ps.setString(4, keys.exactHash());
+            ps.setString(5, keys.exactCaseInsensitiveHash());
+            ps.setString(6, keys.normalizedCaseInsensitiveHash());
+            ps.setString(7, ClipEntryDao.storedType(clip.content));
+            ClipEntryDao.bindNearFingerprint(ps, 8, NearDuplicateFingerprint.of(clip.content));
+            if (clip.title == null) ps.setNull(9, Types.VARCHAR);
+            else ps.setString(9, clip.title);
+            ps.setInt(10, clip.favorite ? 1 : 0);
+            if (pinOrder == null) ps.setNull(11, Types.INTEGER);
+            else ps.setInt(11, pinOrder);
+            ps.setLong(12, clip.createdAt);
+            ps.setLong(13, clip.lastCopiedAt);
+            ps.setInt(14, clip.useCount);
+            ps.executeUpdate();
+
+            try (ResultSet keysRs = ps.getGeneratedKeys()) {
+                if (keysRs.next()) return keysRs.getLong(1);
+            }
+        }
+        throw new SQLException("Imported clip insert completed but id could not be loaded");
+    }
+
+    /**
+     * Folds an imported duplicate into the existing row.
+     *
+     * @return true when the row became pinned and consumed the next pin order
+     */
+    private static boolean merge(
+            Connection c,
+            long clipId,
+            ImportedClip clip,
+            int nextPinOrder
+    ) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                UPDATE clip_entries
+                SET last_copied_at = MAX(last_copied_at, ?),
+                    use_count = use_count + ?,
+                    title = COALESCE(title, ?)
+                WHERE id = ?
+                """)) {
+            ps.setLong(1, clip.lastCopiedAt);
+            ps.setInt(2, clip.useCount);
+            if (clip.title == null) ps.setNull(3, Types.VARCHAR);
+            else ps.setString(3, clip.title);
+            ps.setLong(4, clipId);
+            ps.executeUpdate();
+        }
+
+        if (!clip.favorite) return false;
+        try (PreparedStatement ps = c.prepareStatement("""
+                UPDATE clip_entries
+                SET is_favorite = 1,
+                    pin_order = ?
+                WHERE id = ? AND is_favorite = 0
+                """)) {
+            ps.setInt(1, nextPinOrder);
+            ps.setLong(2, clipId);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    private static Long resolveTag(
+            Connection c,
+            String rawName,
+            Map<String, Long> tagIds
+    ) throws SQLException {
+        NormalizedTagName normalized;
+        try {
+            normalized = TagNamePolicy.normalize(rawName);
+        } catch (IllegalArgumentException invalidName) {
+            return null;
+        }
+
+        Long cached = tagIds.get(normalized.identity());
+        if (cached != null) return cached;
+
+        try (PreparedStatement ps = c.prepareStatement("""
+                INSERT INTO tags(name, name_norm, created_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT(name_norm) DO NOTHING
+                """)) {
+            ps.setString(1, normalized.displayName());
+            ps.setString(2, normalized.identity());
+            ps.setLong(3, System.currentTimeMillis());
+            ps.executeUpdate();
+        }
+
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT id FROM tags WHERE name_norm = ?")) {
+            ps.setString(1, normalized.identity());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Tag insert completed but row could not be loaded");
+                }
+                long id = rs.getLong(1);
+                tagIds.put(normalized.identity(), id);
+                return id;
+            }
+        }
+    }
+
+    private static void assignTag(
+            Connection c,
+            long clipId,
+            long tagId,
+            long assignedAt
+    ) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                INSERT INTO clip_tags(clip_id, tag_id, assigned_at)
+                VALUES (?, ?, ?)
+                ON CONFLICT(clip_id, tag_id) DO NOTHING
+                """)) {
+            ps.setLong(1, clipId);
+            ps.setLong(2, tagId);
+            ps.setLong(3, assignedAt);
+            ps.executeUpdate();
+        }
+    }
+
+    private static long elapsedMillis(long startedAtNanos) {
+        return Math.max(0L, (System.nanoTime() - startedAtNanos) / 1_000_000L);
+    }
+
+    private static double rowsPerSecond(long rows, long elapsedMillis) {
+        return rows * 1000.0 / Math.max(1L, elapsedMillis);
+    }
+
+    public void closeForCurrentThread() {
+        connections.closeForCurrentThread();
+    }
+
+    public void releaseConnections() {
+        connections.releaseAllConnections();
+    }
+
+    @Override
+    public void close() {
+        connections.closeAll();
+    }
+
+    public record ExportResult(long rows, long elapsedMillis) {
+        public double rowsPerSecond() {
+            return HistoryTransferDao.rowsPerSecond(rows, elapsedMillis);
+        }
+    }
+
+    public record ImportResult(
+            long lines,
+            long insertedRows,
+            long mergedRows,
+            long rejectedLines,
+            long elapsedMillis
+    ) {
+        public long importedRows() {
+            return insertedRows + mergedRows;
+        }
+
+        public double rowsPerSecond() {
+            return HistoryTransferDao.rowsPerSecond(importedRows(), elapsedMillis);
+        }
+    }
+
+    private static final class ImportCounters {
+        private long lines;
+        private long inserted;
+        private long merged;
+        private long rejected;
+    }
+
+    private static final class ExportedClip {
+        private final long id;
+        private final String content;
+        private final String title;
+        private final boolean favorite;
+        private final Integer pinOrder;
+        private final long createdAt;
+        private final long lastCopiedAt;
+        private final int useCount;
+        private final List<String> tags = new ArrayList<>(2);
+
+        private ExportedClip(
+                long id,
+                String content,
+                String title,
+                boolean favorite,
+                Integer pinOrder,
+                long createdAt,
+                long lastCopiedAt,
+                int useCount
+        ) {
+            this.id = id;
+            this.content = content;
+            this.title = title;
+            this.favorite = favorite;
+            this.pinOrder = pinOrder;
+            this.createdAt = createdAt;
+            this.lastCopiedAt = lastCopiedAt;
+            this.useCount = useCount;
+        }
+
+        private static ExportedClip read(ResultSet rs) throws SQLException {
+            int pinOrder = rs.getInt("pin_order");
+            boolean pinOrderNull = rs.wasNull();
+            return new ExportedClip(
+                    rs.getLong("id"),
+                    rs.getString("content"),
+                    rs.getString("title"),
+                    rs.getInt("is_favorite") != 0,
+                    pinOrderNull ? null : pinOrder,
+                    rs.getLong("created_at"),
+                    rs.getLong("last_copied_at"),
+                    rs.getInt("use_count")
+            );
+        }
+
+        private void write(JsonWriter json, Writer target) throws IOException {
+            json.beginObject();
+            json.name("content").value(content);
+            if (title != null) json.name("title").value(title);
+            json.name("favorite").value(favorite);
+            if (pinOrder != null) json.name("pinOrder").value(pinOrder.longValue());
+            json.name("createdAt").value(createdAt);
+            json.name("lastCopiedAt").value(lastCopiedAt);
+            json.name("useCount").value(useCount);
+            json.name("tags").beginArray();
+            for (String tag : tags) json.value(tag);
+            json.endArray();
+            json.endObject();
+            target.write('\n');
+        }
+    }
+
+    private static final class ImportedClip {
+        private final String content;
+        private final String title;
+        private final boolean favorite;
+        private final long createdAt;
+        private final long lastCopiedAt;
+        private final int useCount;
+        private final Set<String> tags;
+
+        private ImportedClip(
+                String content,
+                String title,
+                boolean favorite,
+                long createdAt,
+                long lastCopiedAt,
+                int useCount,
+                Set<String> tags
+        ) {
+            this.content = content;
+            this.title = title;
+            this.favorite = favorite;
+            this.createdAt = createdAt;
+            this.lastCopiedAt = lastCopiedAt;
+            this.useCount = useCount;
+            this.tags = tags;
+        }
+
+        /**
+         * @return the parsed clip, or null when the line is not a valid record
+         */
+        private static ImportedClip parse(String line) {
+            JsonObject object;
+            try {
+                JsonElement element = JsonParser.parseString(line);
+                if (!element.isJsonObject()) return null;
+                object = element.getAsJsonObject();
+            } catch (RuntimeException malformed) {
+                return null;
+            }
+
+            try {
+                String content = string(object, "content");
+                if (content == null || content.isBlank()) return null;
+
+                String title = string(object, "title");
+                if (title != null && title.isBlank()) title = null;
+
+                long now = System.currentTimeMillis();
+                long createdAt = positiveLong(object, "createdAt", now);
+                long lastCopiedAt = positiveLong(object, "lastCopiedAt", createdAt);
+                int useCount = (int) Math.min(
+                        Integer.MAX_VALUE,
+                        positiveLong(object, "useCount", 1L)
+                );
+
+                Set<String> tags = new LinkedHashSet<>();
+                JsonElement rawTags = object.get("tags");
+                if (rawTags != null && rawTags.isJsonArray()) {
+                    JsonArray array = rawTags.getAsJsonArray();
+                    for (JsonElement tag : array) {
+                        if (tag.isJsonPrimitive() && tag.getAsJsonPrimitive().isString()) {
+                            tags.add(tag.getAsString());
+                        }
+                    }
+                }
+
+                JsonElement favorite = object.get("favorite");
+                return new ImportedClip(
+                        content,
+                        title,
+                        favorite != null
+                                && favorite.isJsonPrimitive()
+                                && favorite.getAsJsonPrimitive().isBoolean()
+                                && favorite.getAsBoolean(),
+                        createdAt,
+                        lastCopiedAt,
+                        useCount,
+                        tags
+                );
+            } catch (RuntimeException invalidField) {
+                return null;
+            }
+        }
+
+        private static String string(JsonObject object, String name) {
+            JsonElement value = object.get(name);
+            if (value == null || value.isJsonNull()) return null;
+            if (!value.isJsonPrimitive() || !value.getAsJsonPrimitive().isString()) {
+                throw new IllegalArgumentException(name + " must be a string");
+            }
+            return value.getAsString();
+        }
+
+        private static long positiveLong(JsonObject object, String name, long fallback) {
+            JsonElement value = object.get(name);
+            if (value == null || value.isJsonNull()) return fallback;
+            if (!value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+                throw new IllegalArgumentException(name + " must be a number");
+            }
+            long parsed = value.getAsLong();
+            return parsed > 0 ? parsed : fallback;
+        }
+    }
+}
@@ -5,6 +5,8 @@
  */
 package io.xseries.xclip.data.dao;
 
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.event.ClipChangeEvent;
 import io.xseries.xclip.data.model.ClipTag;
 import io.xseries.xclip.data.model.TagSummary;
 import io.xseries.xclip.domain.service.TagNamePolicy;
@@ -21,6 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -37,9 +40,19 @@ public final class TagDao implements AutoCloseable {
     public static final int MAX_TAG_NAME_LENGTH = TagNamePolicy.MAX_NAME_LENGTH;
 
     private final DaoConnectionContext connections;
+    private final ClipChangeBus changes;
 
     public TagDao(String jdbcUrl) {
+        this(jdbcUrl, new ClipChangeBus());
+    }
+
+    /**
+     * @param changes receives TagsChanged for assignment writes and
+     *                TagLibraryChanged for tag writes, after commit
+     */
+    public TagDao(String jdbcUrl, ClipChangeBus changes) {
         this.connections = new DaoConnectionContext(jdbcUrl);
+        this.changes = Objects.requireNonNull(changes, "changes");
     }
 
     /**
@@ -49,10 +62,12 @@ public final class TagDao implements AutoCloseable {
      */
     public ClipTag createOrGet(String rawName) {
         NormalizedTagName normalized = TagNamePolicy.normalize(rawName);
-        return connections.inTransaction(
+        ClipTag tag = connections.inTransaction(
                 "createOrGet tag failed",
                 c -> createOrGet(c, normalized)
         );
+        changes.publish(new ClipChangeEvent.TagLibraryChanged());
+        return tag;
     }
 
     private ClipTag createOrGet(Connection c, NormalizedTagName normalized) throws SQLException {
@@ -211,7 +226,7 @@ public final class TagDao implements AutoCloseable {
         requirePositiveId(clipId, "clipId");
         requirePositiveId(tagId, "tagId");
 
-        return connections.inTransaction("addTagToClip failed", c -> {
+        boolean added = connections.inTransaction("addTagToClip failed", c -> {
             requireClipExists(c, clipId);
             requireTagExists(c, tagId);
 
@@ -226,20 +241,25 @@ public final class TagDao implements AutoCloseable {
                 return ps.executeUpdate() > 0;
             }
         });
+        if (added) changes.publish(new ClipChangeEvent.TagsChanged(Set.of(clipId)));
+        return added;
     }
 
     public boolean removeTagFromClip(long clipId, long tagId) {
         requirePositiveId(clipId, "clipId");
         requirePositiveId(tagId, "tagId");
 
+        boolean removed;
         try (PreparedStatement ps = connections.connection().prepareStatement(
                 "DELETE FROM clip_tags WHERE clip_id = ? AND tag_id = ?")) {
             ps.setLong(1, clipId);
             ps.setLong(2, tagId);
-            return ps.executeUpdate() > 0;
+            removed = ps.executeUpdate() > 0;
         } catch (Exception e) {
             throw new RuntimeException("removeTagFromClip failed", e);
         }
+        if (removed) changes.publish(new ClipChangeEvent.TagsChanged(Set.of(clipId)));
+        return removed;
     }
 
     /**
@@ -282,6 +302,7 @@ public final class TagDao implements AutoCloseable {
             }
             return null;
         });
+        changes.publish(new ClipChangeEvent.TagsChanged(Set.of(clipId)));
     }
 
     /**
@@ -308,7 +329,7 @@ public final class TagDao implements AutoCloseable {
         List<Long> uniqueRemoveIds = uniquePositiveIds(removeTagIds, "removeTagIds");
         List<NormalizedTagName> normalizedNewNames = normalizeUniqueNames(createAndAssignNames);
 
-        return connections.inTransaction("apply tag edit failed", c -> {
+        List<ClipTag> created = connections.inTransaction("apply tag edit failed", c -> {
             for (Long clipId : uniqueClipIds) {
                 requireClipExists(c, clipId);
             }
@@ -361,6 +382,10 @@ public final class TagDao implements AutoCloseable {
             }
             return List.copyOf(resolvedNewTags);
         });
+
+        if (!normalizedNewNames.isEmpty()) changes.publish(new ClipChangeEvent.TagLibraryChanged());
+        changes.publish(new ClipChangeEvent.TagsChanged(new LinkedHashSet<>(uniqueClipIds)));
+        return created;
     }
 
     /**
@@ -371,6 +396,7 @@ public final class TagDao implements AutoCloseable {
         requirePositiveId(tagId, "tagId");
         NormalizedTagName normalized = TagNamePolicy.normalize(rawName);
 
+        boolean renamed;
         try (PreparedStatement ps = connections.connection().prepareStatement("""
                 UPDATE tags
                 SET name = ?, name_norm = ?
@@ -379,25 +405,31 @@ public final class TagDao implements AutoCloseable {
             ps.setString(1, normalized.displayName());
             ps.setString(2, normalized.identity());
             ps.setLong(3, tagId);
-            return ps.executeUpdate() > 0;
+            renamed = ps.executeUpdate() > 0;
         } catch (SQLException e) {
             if (isConstraintViolation(e)) {
                 throw new IllegalArgumentException("A tag with this name already exists", e);
             }
             throw new RuntimeException("renameTag failed", e);
         }
+        if (renamed) changes.publish(new ClipChangeEvent.TagLibraryChanged());
+        return renamed;
     }
 
     public boolean deleteTag(long tagId) {
         requirePositiveId(tagId, "tagId");
 
+        boolean deleted;
         try (PreparedStatement ps = connections.connection().prepareStatement(
                 "DELETE FROM tags WHERE id = ?")) {
             ps.setLong(1, tagId);
-            return ps.executeUpdate() > 0;
+            deleted = ps.executeUpdate() > 0;
         } catch (Exception e) {
             throw new RuntimeException("deleteTag failed", e);
         }
+        // Cascaded assignment removals are covered by TagLibraryChanged.
+        if (deleted) changes.publish(new ClipChangeEvent.TagLibraryChanged());
+        return deleted;
     }
 
     /**
@@ -416,11 +448,14 @@ public final class TagDao implements AutoCloseable {
                 )
                 """;
 
+        int deleted;
         try (PreparedStatement ps = connections.connection().prepareStatement(sql)) {
-            return ps.executeUpdate();
+            deleted = ps.executeUpdate();
         } catch (Exception e) {
             throw new RuntimeException("cleanupUnusedTags failed", e);
         }
+        if (deleted > 0) changes.publish(new ClipChangeEvent.TagLibraryChanged());
+        return deleted;
     }
 
     /**
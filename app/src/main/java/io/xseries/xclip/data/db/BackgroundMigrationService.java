@@ -0,0 +1,639 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.db;
+
+import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
+import io.xseries.xclip.domain.service.ClipContentClassifier;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs expensive data backfills after startup in committed, resumable chunks.
+ *
+ * Database initialization only schedules a backfill in schema_backfills. This
+ * service then processes rows in id order, computing values on a fork-join
+ * pool outside the write transaction and committing each batch together with
+ * its cursor, so a crash resumes from the last committed chunk. Connections are
+ * chunk-scoped and never held between chunks.
+ *
+ * Backup, restore, VACUUM and clear-all pause the service for their whole
+ * duration: the worker waits before its next database access until the
+ * maintenance action resumes it.
+ */
+public final class BackgroundMigrationService implements AutoCloseable {
+
+    public static final String DUPLICATE_HASHES = "duplicate_hashes";
+    public static final String CONTENT_TYPES = "content_types";
+    public static final String NEAR_DUPLICATE_FINGERPRINTS = "near_duplicate_fingerprints";
+
+    static final int CHUNK_ROWS = 512;
+    static final long CHUNK_MAX_CHARS = 16L * 1024L * 1024L;
+
+    private static final long DEFAULT_PAUSE_BETWEEN_CHUNKS_MILLIS = 15L;
+    private static final long CLOSE_TIMEOUT_MILLIS = 2_000L;
+
+    private final String jdbcUrl;
+    private final Map<String, ChunkedBackfill> backfills;
+    private final ForkJoinPool computePool;
+    private final long pauseBetweenChunksMillis;
+    private final Object chunkLock = new Object();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    // Guarded by chunkLock.
+    private boolean maintenancePaused;
+    private volatile Thread worker;
+
+    public BackgroundMigrationService(String jdbcUrl) {
+        this(
+                jdbcUrl,
+                List.of(
+                        new DuplicateHashBackfill(),
+                        new ContentTypeBackfill(),
+                        new NearDuplicateFingerprintBackfill()
+                ),
+                createComputePool(),
+                DEFAULT_PAUSE_BETWEEN_CHUNKS_MILLIS
+        );
+    }
+
+    BackgroundMigrationService(
+            String jdbcUrl,
+            List<ChunkedBackfill> backfills,
+            ForkJoinPool computePool,
+            long pauseBetweenChunksMillis
+    ) {
+        this.jdbcUrl = Objects.requireNonNull(jdbcUrl, "jdbcUrl");
+        Map<String, ChunkedBackfill> byName = new LinkedHashMap<>();
+        for (ChunkedBackfill backfill : Objects.requireNonNull(backfills, "backfills")) {
+            byName.put(backfill.name(), backfill);
+        }
+        this.backfills = Map.copyOf(byName);
+        this.computePool = Objects.requireNonNull(computePool, "computePool");
+        this.pauseBetweenChunksMillis = Math.max(0L, pauseBetweenChunksMillis);
+    }
+
+    /**
+     * Records a pending backfill, restarting its cursor if it had completed.
+     *
+     * Called inside the schema migration transaction so the schedule commits
+     * atomically with the rows it marks.
+     */
+    static void schedule(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                INSERT INTO schema_backfills(name, cursor_id, scheduled_at, completed_at)
+                VALUES (?, 0, ?, NULL)
+                ON CONFLICT(name) DO UPDATE
+                SET cursor_id = 0,
+                    scheduled_at = excluded.scheduled_at,
+                    completed_at = NULL
+                WHERE completed_at IS NOT NULL
+                """)) {
+            ps.setString(1, name);
+            ps.setLong(2, System.currentTimeMillis());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Starts draining pending backfills on a daemon thread. Safe to call once.
+     */
+    public void start() {
+        if (closed.get() || !started.compareAndSet(false, true)) return;
+
+        Thread thread = new Thread(this::runQuietly, "xclip-background-migrations");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Processes every pending backfill on the calling thread.
+     *
+     * @return true when no registered backfill remains pending
+     */
+    public boolean runPending() {
+        List<String> pending = pendingWhenNotPaused();
+        if (pending == null) return false;
+
+        for (String name : pending) {
+            ChunkedBackfill backfill = backfills.get(name);
+            if (backfill == null) continue;
+
+            while (!closed.get() && runChunk(backfill)) {
+                if (!pauseBetweenChunks()) return false;
+            }
+        }
+        List<String> remaining = pendingWhenNotPaused();
+        return remaining != null && remaining.isEmpty();
+    }
+
+    public boolean isPending(String name) {
+        return pendingBackfills().contains(name);
+    }
+
+    /**
+     * Lists registered backfills that have not completed yet.
+     */
+    public List<String> pendingBackfills() {
+        List<String> pending = new ArrayList<>();
+        try (Connection connection = open();
+             PreparedStatement ps = connection.prepareStatement("""
+                     SELECT name
+                     FROM schema_backfills
+                     WHERE completed_at IS NULL
+                     ORDER BY scheduled_at ASC, name ASC
+                     """);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String name = rs.getString("name");
+                if (backfills.containsKey(name)) pending.add(name);
+            }
+            return List.copyOf(pending);
+        } catch (Exception e) {
+            throw new RuntimeException("pendingBackfills failed", e);
+        }
+    }
+
+    /**
+     * Prevents new chunks and waits until the in-flight chunk has committed and
+     * closed its connection. The worker then waits, without touching the
+     * database, until {@link #resumeAfterMaintenance()} or {@link #close()}.
+     */
+    public void pauseForMaintenance() {
+        synchronized (chunkLock) {
+            // Taking the lock is the barrier for an in-flight chunk.
+            maintenancePaused = true;
+        }
+    }
+
+    /**
+     * Lets the worker continue after a maintenance action. Not called after
+     * clear-all or a successful restore, which exit the application.
+     */
+    public void resumeAfterMaintenance() {
+        synchronized (chunkLock) {
+            maintenancePaused = false;
+            chunkLock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits for the in-flight chunk, whose connection is closed on completion.
+     *
+     * Used before exclusive maintenance operations; later chunks open a fresh
+     * connection against whichever database file is then in place.
+     */
+    public void releaseConnections() {
+        synchronized (chunkLock) {
+            // Chunk connections are scoped to the lock.
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+
+        synchronized (chunkLock) {
+            chunkLock.notifyAll();
+        }
+        Thread thread = worker;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+            try {
+                thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        computePool.shutdownNow();
+    }
+
+    private void runQuietly() {
+        try {
+            runPending();
+        } catch (RuntimeException ignored) {
+            // The schedule stays pending and resumes on the next launch.
+        }
+    }
+
+    /**
+     * @return true when the chunk made progress and more rows may remain
+     */
+    private boolean runChunk(ChunkedBackfill backfill) {
+        synchronized (chunkLock) {
+            if (!awaitNotPaused()) return false;
+
+            try (Connection connection = open()) {
+                Long cursor = readCursor(connection, backfill.name());
+                if (cursor == null) return false;
+
+                ChunkedBackfill.PreparedChunk chunk =
+                        backfill.prepare(connection, cursor, computePool);
+
+                boolean previousAutoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    if (chunk == null) {
+                        markCompleted(connection, backfill.name());
+                    } else {
+                        chunk.apply(connection);
+                        writeCursor(connection, backfill.name(), chunk.lastId());
+                    }
+                    connection.commit();
+                } catch (Exception failure) {
+                    try {
+                        connection.rollback();
+                    } catch (Exception rollbackFailure) {
+                        failure.addSuppressed(rollbackFailure);
+                    }
+                    throw failure;
+                } finally {
+                    connection.setAutoCommit(previousAutoCommit);
+                }
+                return chunk != null;
+            } catch (Exception e) {
+                throw new RuntimeException("Background migration chunk failed: " + backfill.name(), e);
+            }
+        }
+    }
+
+    /**
+     * @return the pending backfills, or null when the service closed while
+     * maintenance held it paused
+     */
+    private List<String> pendingWhenNotPaused() {
+        synchronized (chunkLock) {
+            return awaitNotPaused() ? pendingBackfills() : null;
+        }
+    }
+
+    /**
+     * Waits on chunkLock, which the caller holds, while maintenance runs.
+     *
+     * @return false when the service closed or the worker was interrupted
+     */
+    private boolean awaitNotPaused() {
+        while (maintenancePaused && !closed.get()) {
+            try {
+                chunkLock.wait();
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !closed.get();
+    }
+
+    private boolean pauseBetweenChunks() {
+        if (pauseBetweenChunksMillis == 0L) return !closed.get();
+        try {
+            Thread.sleep(pauseBetweenChunksMillis);
+            return !closed.get();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl);
+        try {
+            SqliteConnectionConfig.configureWorkingConnection(connection);
+            return connection;
+        } catch (SQLException failure) {
+            try {
+                connection.close();
+            } catch (SQLException closeFailure) {
+                failure.addSuppressed(closeFailure);
+            }
+            throw failure;
+        }
+    }
+
+    private static Long readCursor(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT cursor_id
+                FROM schema_backfills
+                WHERE name = ? AND completed_at IS NULL
+                """)) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong("cursor_id") : null;
+            }
+        }
+    }
+
+    private static void writeCursor(Connection connection, String name, long cursor) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                UPDATE schema_backfills
+                SET cursor_id = ?
+                WHERE name = ?
+                """)) {
+            ps.setLong(1, cursor);
+            ps.setString(2, name);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void markCompleted(Connection connection, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                UPDATE schema_backfills
+                SET completed_at = ?
+                WHERE name = ? AND completed_at IS NULL
+                """)) {
+            ps.setLong(1, System.currentTimeMillis());
+            ps.setString(2, name);
+            ps.executeUpdate();
+        }
+    }
+
+    private static ForkJoinPool createComputePool() {
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger sequence = new AtomicInteger();
+        return new ForkJoinPool(
+                parallelism,
+                pool -> {
+                    ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("xclip-migration-compute-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null,
+                false
+        );
+    }
+
+    /**
+     * One resumable data backfill keyed by row id.
+     *
+     * {@link #prepare} reads and computes outside any write transaction;
+     * {@link PreparedChunk#apply} runs inside the chunk transaction.
+     */
+    interface ChunkedBackfill {
+        String name();
+
+        /**
+         * @return the next chunk after the cursor, or null when the backfill is done
+         */
+        PreparedChunk prepare(
+                Connection connection,
+                long afterId,
+                ForkJoinPool computePool
+        ) throws Exception;
+
+        interface PreparedChunk {
+            long lastId();
+
+            void apply(Connection connection) throws SQLException;
+        }
+    }
+
+    /**
+     * Recomputes all persisted duplicate hashes for rows marked by a NULL
+     * content_norm_ci_hash.
+     *
+     * The guarded UPDATE skips rows that ingest rewrote with fresh keys while
+     * the chunk was being hashed.
+     */
+    static final class DuplicateHashBackfill implements ChunkedBackfill {
+
+        @Override
+        public String name() {
+            return DUPLICATE_HASHES;
+        }
+
+        @Override
+        public PreparedChunk prepare(
+                Connection connection,
+                long afterId,
+                ForkJoinPool computePool
+        ) throws Exception {
+            List<PendingRow> rows = readPending(connection, afterId, "content_norm_ci_hash");
+
+            if (rows.isEmpty()) return null;
+
+            List<HashedRow> hashed;
+            try {
+                hashed = computePool.submit(() -> rows.parallelStream()
+                        .map(row -> new HashedRow(row.id(), DuplicateContentKeys.from(row.content())))
+                        .toList()
+                ).get();
+            } catch (ExecutionException failure) {
+                throw failure.getCause() instanceof Exception cause ? cause : failure;
+            }
+
+            long lastId = rows.get(rows.size() - 1).id();
+            return new PreparedChunk() {
+                @Override
+                public long lastId() {
+                    return lastId;
+                }
+
+                @Override
+                public void apply(Connection c) throws SQLException {
+                    try (PreparedStatement update = c.prepareStatement("""
+                            UPDATE clip_entries
+                            SET content_hash = ?,
+                                content_exact_hash = ?,
+                                content_exact_ci_hash = ?,
+                                content_norm_ci_hash = ?
+                            WHERE id = ? AND content_norm_ci_hash IS NULL
+                            """)) {
+                        for (HashedRow row : hashed) {
+                            DuplicateContentKeys keys = row.keys();
+                            update.setString(1, keys.normalizedHash());
+                            update.setString(2, keys.exactHash());
+                            update.setString(3, keys.exactCaseInsensitiveHash());
+                            update.setString(4, keys.normalizedCaseInsensitiveHash());
+                            update.setLong(5, row.id());
+                            update.addBatch();
+                        }
+                        update.executeBatch();
+                    }
+                }
+            };
+        }
+
+        private record HashedRow(long id, DuplicateContentKeys keys) {}
+    }
+
+    /**
+     * Stores the derived content type for rows created before content_type
+     * existed. Until it completes, retention cleanup classifies those rows in
+     * Java.
+     */
+    static final class ContentTypeBackfill implements ChunkedBackfill {
+
+        @Override
+        public String name() {
+            return CONTENT_TYPES;
+        }
+
+        @Override
+        public PreparedChunk prepare(
+                Connection connection,
+                long afterId,
+                ForkJoinPool computePool
+        ) throws Exception {
+            List<PendingRow> rows = readPending(connection, afterId, "content_type");
+            if (rows.isEmpty()) return null;
+
+            List<ClassifiedRow> classified;
+            try {
+                classified = computePool.submit(() -> rows.parallelStream()
+                        .map(row -> new ClassifiedRow(
+                                row.id(),
+                                ClipContentClassifier.classify(row.content()).name()
+                        ))
+                        .toList()
+                ).get();
+            } catch (ExecutionException failure) {
+                throw failure.getCause() instanceof Exception cause ? cause : failure;
+            }
+
+            long lastId = rows.get(rows.size() - 1).id();
+            return new PreparedChunk() {
+                @Override
+                public long lastId() {
+                    return lastId;
+                }
+
+                @Override
+                public void apply(Connection c) throws SQLException {
+                    try (PreparedStatement update = c.prepareStatement("""
+                            UPDATE clip_entries
+                            SET content_type = ?
+                            WHERE id = ? AND content_type IS NULL
+                            """)) {
+                        for (ClassifiedRow row : classified) {
+                            update.setString(1, row.type());
+                            update.setLong(2, row.id());
+                            update.addBatch();
+                        }
+                        update.executeBatch();
+                    }
+                }
+            };
+        }
+
+        private record ClassifiedRow(long id, String type) {}
+    }
+
+    /**
+     * Stores SimHash fingerprints for rows created before content_simhash
+     * existed. Text too short or too long for a fingerprint keeps NULL, so
+     * the cursor, not the marker, guarantees that every row is visited once.
+     * Until it completes, near-duplicate collapsing cannot match those rows.
+     */
+    static final class NearDuplicateFingerprintBackfill implements ChunkedBackfill {
+
+        @Override
+        public String name() {
+            return NEAR_DUPLICATE_FINGERPRINTS;
+        }
+
+        @Override
+        public PreparedChunk prepare(
+                Connection connection,
+                long afterId,
+                ForkJoinPool computePool
+        ) throws Exception {
+            List<PendingRow> rows = readPending(connection, afterId, "content_simhash");
+            if (rows.isEmpty()) return null;
+
+            List<FingerprintedRow> fingerprinted;
+            try {
+                fingerprinted = computePool.submit(() -> rows.parallelStream()
+                        .map(row -> new FingerprintedRow(
+                                row.id(),
+                                NearDuplicateFingerprint.of(row.content())
+                        ))
+                        .filter(row -> row.fingerprint() != null)
+                        .toList()
+                ).get();
+            } catch (ExecutionException failure) {
+                throw failure.getCause() instanceof Exception cause ? cause : failure;
+            }
+
+            long lastId = rows.get(rows.size() - 1).id();
+            return new PreparedChunk() {
+                @Override
+                public long lastId() {
+                    return lastId;
+                }
+
+                @Override
+                public void apply(Connection c) throws SQLException {
+                    try (PreparedStatement update = c.prepareStatement("""
+                            UPDATE clip_entries
+                            SET content_simhash = ?
+                            WHERE id = ? AND content_simhash IS NULL
+                            """)) {
+                        for (FingerprintedRow row : fingerprinted) {
+                            update.setLong(1, row.fingerprint());
+                            update.setLong(2, row.id());
+                            update.addBatch();
+                        }
+                        update.executeBatch();
+                    }
+                }
+            };
+        }
+
+        private record FingerprintedRow(long id, Long fingerprint) {}
+    }
+
+    /**
+     * Reads one bounded chunk of rows whose marker column is still NULL.
+     */
+    private static List<PendingRow> readPending(
+            Connection connection,
+            long afterId,
+            String markerColumn
+    ) throws SQLException {
+        List<PendingRow> rows = new ArrayList<>();
+        long chars = 0L;
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT id, content
+                FROM clip_entries
+                WHERE id > ? AND %s IS NULL
+                ORDER BY id ASC
+                LIMIT ?
+                """.formatted(markerColumn))) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, CHUNK_ROWS);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String content = rs.getString("content");
+                    rows.add(new PendingRow(rs.getLong("id"), content));
+                    chars += content.length();
+                    if (chars >= CHUNK_MAX_CHARS) break;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private record PendingRow(long id, String content) {}
+}
@@ -0,0 +1,406 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only local file for captures that could not be written to SQLite.
+ *
+ * Each record is a fixed header (magic, payload length, CRC32C of the
+ * payload) followed by the payload: format version, flags, capture time and
+ * the content as UTF-16 code units, so any clipboard string round-trips
+ * unchanged. Every append is forced to disk before it returns.
+ *
+ * Records are read back in append order. Reading stops at the first record
+ * whose header or checksum does not verify; that can only be a write torn by
+ * a crash, so the tail is truncated before the next append.
+ *
+ * Replay is at least once. A crash during {@link #drain} leaves the applied
+ * records in the file, and the next drain applies them again.
+ *
+ * A record that keeps failing for reasons of its own, rather than a busy
+ * database, would otherwise hold every later record back for good. After
+ * {@link #MAX_FAILED_ATTEMPTS} such failures in a row it is moved to a
+ * quarantine file next to the journal, in the same record format, and replay
+ * continues with the next record. Attempts are counted per session.
+ */
+public final class CaptureSpillJournal {
+
+    static final int RECORD_MAGIC = 0x58435350;
+    static final int HEADER_BYTES = 12;
+    static final int MAX_CONTENT_CHARS = 5_000_000;
+    public static final int MAX_FAILED_ATTEMPTS = 3;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_TRUNCATED = 1;
+    private static final int PAYLOAD_PREFIX_BYTES = 10;
+    private static final int MAX_PAYLOAD_BYTES =
+            PAYLOAD_PREFIX_BYTES + MAX_CONTENT_CHARS * Character.BYTES;
+
+    private final Path file;
+    private final Path quarantineFile;
+    private boolean tailVerified;
+    // The record at the head of the journal that failed last, and how often.
+    private SpilledCapture failingCapture;
+    private int failedAttempts;
+
+    public CaptureSpillJournal(Path file) {
+        this.file = Objects.requireNonNull(file, "file").toAbsolutePath();
+        this.quarantineFile = this.file.resolveSibling(this.file.getFileName() + ".quarantine");
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Records that failed {@link #MAX_FAILED_ATTEMPTS} times, kept for inspection. */
+    public Path quarantineFile() {
+        return quarantineFile;
+    }
+
+    public synchronized boolean isEmpty() {
+        try {
+            return !Files.isRegularFile(file) || Files.size(file) == 0L;
+        } catch (IOException error) {
+            return false;
+        }
+    }
+
+    /**
+     * Appends one capture and forces it to disk.
+     */
+    public synchronized void append(SpilledCapture capture) {
+        Objects.requireNonNull(capture, "capture");
+        ByteBuffer record = encode(capture);
+        try {
+            Path parent = file.getParent();
+            if (parent != null) Files.createDirectories(parent);
+            if (!tailVerified) {
+                truncateTornTail();
+                tailVerified = true;
+            }
+            try (FileChannel channel = FileChannel.open(
+                    file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND
+            )) {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+                channel.force(true);
+            }
+        } catch (IOException error) {
+            throw new RuntimeException("Failed to append capture spill journal: " + file, error);
+        }
+    }
+
+    /**
+     * Hands records to apply in append order until it returns false or the
+     * journal ends. Applied records are removed; the rejected record and
+     * everything after it stay for the next drain. A record that apply
+     * throws on is kept as well, and the exception propagates.
+     *
+     * @return the number of records applied
+     */
+    public synchronized int drain(Predicate<SpilledCapture> apply) {
+        Objects.requireNonNull(apply, "apply");
+        return replay(capture -> apply.test(capture) ? ApplyResult.APPLIED : ApplyResult.RETRY_LATER);
+    }
+
+    /**
+     * Like {@link #drain}, but apply also reports failures specific to one
+     * record. {@link ApplyResult#RETRY_LATER} stops the replay and keeps the
+     * record. {@link ApplyResult#FAILED} does the same until the record has
+     * failed {@link #MAX_FAILED_ATTEMPTS} times in a row; it is then moved to
+     * {@link #quarantineFile()} and the replay continues.
+     *
+     * @return the number of records applied; quarantined records do not count
+     */
+    public synchronized int replay(Function<SpilledCapture, ApplyResult> apply) {
+        Objects.requireNonNull(apply, "apply");
+        if (isEmpty()) return 0;
+
+        int applied = 0;
+        long keepFrom = -1L;
+        long validEnd;
+        RuntimeException failure = null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long offset = 0L;
+            while (true) {
+                Decoded decoded = readRecord(channel, offset);
+                if (decoded == null) break;
+
+                ApplyResult result;
+                try {
+                    result = Objects.requireNonNull(apply.apply(decoded.capture()), "apply result");
+                } catch (RuntimeException applyFailure) {
+                    failure = applyFailure;
+                    result = ApplyResult.RETRY_LATER;
+                }
+                if (result == ApplyResult.FAILED && failedTooOften(decoded.capture())) {
+                    try {
+                        quarantine(decoded.capture());
+                    } catch (IOException quarantineFailure) {
+                        failure = new RuntimeException(
+                                "Failed to quarantine spilled capture: " + quarantineFile,
+                                quarantineFailure
+                        );
+                        keepFrom = offset;
+                        break;
+                    }
+                    offset = decoded.nextOffset();
+                    continue;
+                }
+                if (result != ApplyResult.APPLIED) {
+                    keepFrom = offset;
+                    break;
+                }
+                clearFailure(decoded.capture());
+                applied++;
+                offset = decoded.nextOffset();
+            }
+            validEnd = keepFrom < 0 ? offset : validEnd(channel, keepFrom);
+        } catch (IOException error) {
+            throw new RuntimeException("Failed to read capture spill journal: " + file, error);
+        }
+
+        try {
+            if (keepFrom < 0) {
+                Files.deleteIfExists(file);
+                tailVerified = true;
+            } else if (keepFrom > 0) {
+                retainRange(keepFrom, validEnd);
+            }
+        } catch (IOException error) {
+            RuntimeException compactFailure = new RuntimeException(
+                    "Failed to compact capture spill journal: " + file,
+                    error
+            );
+            if (failure != null) compactFailure.addSuppressed(failure);
+            throw compactFailure;
+        }
+        if (failure != null) throw failure;
+        return applied;
+    }
+
+    /**
+     * Deletes every pending and quarantined record.
+     */
+    public synchronized void clear() {
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(quarantineFile);
+            tailVerified = true;
+            failingCapture = null;
+            failedAttempts = 0;
+        } catch (IOException error) {
+            throw new RuntimeException("Failed to delete capture spill journal: " + file, error);
+        }
+    }
+
+    /**
+     * Counts one more failure of capture.
+     *
+     * @return true when capture has now failed too often to stay in the journal
+     */
+    private boolean failedTooOften(SpilledCapture capture) {
+        if (!capture.equals(failingCapture)) {
+            failingCapture = capture;
+            failedAttempts = 0;
+        }
+        failedAttempts++;
+        if (failedAttempts < MAX_FAILED_ATTEMPTS) return false;
+
+        failingCapture = null;
+        failedAttempts = 0;
+        return true;
+    }
+
+    private void clearFailure(SpilledCapture capture) {
+        if (capture.equals(failingCapture)) {
+            failingCapture = null;
+            failedAttempts = 0;
+        }
+    }
+
+    private void quarantine(SpilledCapture capture) throws IOException {
+        ByteBuffer record = encode(capture);
+        try (FileChannel channel = FileChannel.open(
+                quarantineFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        )) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(true);
+        }
+    }
+
+    private void truncateTornTail() throws IOException {
+        if (!Files.isRegularFile(file)) return;
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        )) {
+            long end = validEnd(channel, 0L);
+            if (end < channel.size()) {
+                channel.truncate(end);
+                channel.force(true);
+            }
+        }
+    }
+
+    /** Copies [from, to) over the journal through a temporary sibling file. */
+    private void retainRange(long from, long to) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(
+                     temporary,
+                     StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING
+             )) {
+            long position = from;
+            while (position < to) {
+                position += source.transferTo(position, to - position, target);
+            }
+            target.force(true);
+        }
+        try {
+            Files.move(
+                    temporary,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (AtomicMoveNotSupportedException unsupported) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        tailVerified = true;
+    }
+
+    private static long validEnd(FileChannel channel, long offset) throws IOException {
+        while (true) {
+            Decoded decoded = readRecord(channel, offset);
+            if (decoded == null) return offset;
+            offset = decoded.nextOffset();
+        }
+    }
+
+    static ByteBuffer encode(SpilledCapture capture) {
+        String content = capture.content();
+        int payloadBytes = PAYLOAD_PREFIX_BYTES + content.length() * Character.BYTES;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payloadBytes);
+        record.position(HEADER_BYTES);
+        record.put(FORMAT_VERSION);
+        record.put((byte) (capture.truncated() ? FLAG_TRUNCATED : 0));
+        record.putLong(capture.capturedAt());
+        record.asCharBuffer().put(content);
+        record.position(record.limit());
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.array(), HEADER_BYTES, payloadBytes);
+        record.putInt(0, RECORD_MAGIC);
+        record.putInt(4, payloadBytes);
+        record.putInt(8, (int) checksum.getValue());
+        record.flip();
+        return record;
+    }
+
+    /**
+     * @return the record at offset, or null at the end of the journal or at
+     *         the first record that does not verify
+     */
+    private static Decoded readRecord(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (size - offset < HEADER_BYTES) return null;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (!readFully(channel, header, offset)) return null;
+        header.flip();
+        int magic = header.getInt();
+        int payloadBytes = header.getInt();
+        int expectedChecksum = header.getInt();
+        if (magic != RECORD_MAGIC
+                || payloadBytes < PAYLOAD_PREFIX_BYTES
+                || payloadBytes > MAX_PAYLOAD_BYTES
+                || (payloadBytes - PAYLOAD_PREFIX_BYTES) % Character.BYTES != 0
+                || size - offset - HEADER_BYTES < payloadBytes) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadBytes);
+        if (!readFully(channel, payload, offset + HEADER_BYTES)) return null;
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload.array(), 0, payloadBytes);
+        if ((int) checksum.getValue() != expectedChecksum) return null;
+
+        payload.flip();
+        if (payload.get() != FORMAT_VERSION) return null;
+        boolean truncated = (payload.get() & FLAG_TRUNCATED) != 0;
+        long capturedAt = payload.getLong();
+        String content = payload.asCharBuffer().toString();
+        return new Decoded(
+                new SpilledCapture(content, truncated, capturedAt),
+                offset + HEADER_BYTES + payloadBytes
+        );
+    }
+
+    private static boolean readFully(
+            FileChannel channel,
+            ByteBuffer buffer,
+            long position
+    ) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * What replaying one record did.
+     */
+    public enum ApplyResult {
+        /** Stored, or deliberately skipped; the record is removed. */
+        APPLIED,
+        /** Storage is unavailable for now, such as a busy or locked database. */
+        RETRY_LATER,
+        /** This record could not be stored; counted towards quarantine. */
+        FAILED
+    }
+
+    /**
+     * One capture as it left the prepare stage: the capped content, whether it
+     * is a prefix of the clipboard text, and its observation time.
+     */
+    public record SpilledCapture(String content, boolean truncated, long capturedAt) {
+        public SpilledCapture {
+            content = Objects.requireNonNull(content, "content");
+            if (content.length() > MAX_CONTENT_CHARS) {
+                throw new IllegalArgumentException("Spilled capture exceeds the clip cap");
+            }
+        }
+    }
+
+    private record Decoded(SpilledCapture capture, long nextOffset) {}
+}
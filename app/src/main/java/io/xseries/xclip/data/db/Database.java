@@ -5,19 +5,20 @@
  */
 package io.xseries.xclip.data.db;
 
-import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,6 +29,28 @@ public final class Database {
 
     public static final int CURRENT_SCHEMA_VERSION = 6;
 
+    /**
+     * Bumped whenever migrateToLatest changes without a user_version bump so
+     * stored fingerprints from older builds no longer enable the fast path.
+     */
+    static final int MIGRATION_REVISION = 6;
+
+    private static final String SCHEMA_FINGERPRINT_KEY = "schema_fingerprint";
+
+    /** clip_counters row holding the number of unpinned clips. */
+    public static final String RECENT_CLIPS_COUNTER = "recent_clips";
+
+    /**
+     * SQL for one SimHash band of content_simhash. Lookups must use this exact
+     * text for SQLite to match the band's expression index.
+     */
+    public static String nearDuplicateBandExpression(int band) {
+        return "((content_simhash >> %d) & %d)".formatted(
+                NearDuplicateFingerprint.bandShift(band),
+                NearDuplicateFingerprint.bandMask(band)
+        );
+    }
+
     private final Path dbPath;
     private final String jdbcUrl;
     private final MigrationHook migrationHook;
@@ -35,6 +58,8 @@ public final class Database {
     private final AtomicBoolean initialized = new AtomicBoolean(false);
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
+    private volatile InitReport lastInitReport = InitReport.notRun();
+
     public Database(Path dbPath) {
         this(dbPath, (connection, fromVersion, toVersion) -> {});
     }
@@ -59,9 +84,19 @@ public final class Database {
         return jdbcUrl;
     }
 
+    /**
+     * Phase timings of the most recent successful {@link #init()} call.
+     */
+    public InitReport lastInitReport() {
+        return lastInitReport;
+    }
+
     /**
      * Initializes database directory, enables WAL,
      * applies the latest base schema, and migrates existing databases.
+     *
+     * When user_version and the stored schema fingerprint already match this
+     * build, the migration transaction is skipped entirely.
      */
     public void init() {
         if (closed.get()) {
@@ -75,6 +110,7 @@ public final class Database {
 
         boolean completed = false;
         try {
+            long startedAt = System.nanoTime();
             Path parent = dbPath.getParent();
             if (parent != null) Files.createDirectories(parent);
 
@@ -84,10 +120,30 @@ public final class Database {
                 // Modern JDBC auto-loads the driver.
             }
 
+            long preparedAt = System.nanoTime();
+            long openedAt;
+            long configuredAt;
+            long checkedAt;
+            long migratedAt;
+            boolean fastPath;
             try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+                openedAt = System.nanoTime();
                 SqliteConnectionConfig.configureDatabase(connection);
-                initializeSchema(connection);
+                configuredAt = System.nanoTime();
+                fastPath = isSchemaCurrent(connection);
+                checkedAt = System.nanoTime();
+                if (!fastPath) initializeSchema(connection);
+                migratedAt = System.nanoTime();
             }
+
+            lastInitReport = new InitReport(
+                    fastPath,
+                    preparedAt - startedAt,
+                    openedAt - preparedAt,
+                    configuredAt - openedAt,
+                    checkedAt - configuredAt,
+                    migratedAt - checkedAt
+            );
             completed = true;
         } catch (Exception error) {
             throw new RuntimeException("Failed to initialize SQLite database", error);
@@ -96,6 +152,80 @@ public final class Database {
         }
     }
 
+    private boolean isSchemaCurrent(Connection connection) throws SQLException {
+        if (readUserVersion(connection) != CURRENT_SCHEMA_VERSION) return false;
+
+        String stored;
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("""
+                     SELECT 1
+                     FROM sqlite_master
+                     WHERE type = 'table' AND name = 'schema_info'
+                     """)) {
+            if (!rs.next()) return false;
+        }
+        try (java.sql.PreparedStatement ps = connection.prepareStatement(
+                "SELECT value FROM schema_info WHERE key = ?")) {
+            ps.setString(1, SCHEMA_FINGERPRINT_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                stored = rs.next() ? rs.getString(1) : null;
+            }
+        }
+        return stored != null && stored.equals(schemaFingerprint(connection));
+    }
+
+    /**
+     * Digest of this build's migration revision, base schema text, and every
+     * user-visible schema object definition currently in the database.
+     */
+    private String schemaFingerprint(Connection connection) throws SQLException {
+        StringBuilder material = new StringBuilder(4096)
+                .append(CURRENT_SCHEMA_VERSION).append('\n')
+                .append(MIGRATION_REVISION).append('\n')
+                .append(loadResourceText("/db/schema.sql")).append('\n');
+
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("""
+                     SELECT type, name, tbl_name, sql
+                     FROM sqlite_master
+                     WHERE name NOT LIKE 'sqlite_%'
+                     ORDER BY type, name
+                     """)) {
+            while (rs.next()) {
+                material.append(rs.getString("type")).append('|')
+                        .append(rs.getString("name")).append('|')
+                        .append(rs.getString("tbl_name")).append('|')
+                        .append(rs.getString("sql")).append('\n');
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(material.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte value : digest) {
+                hex.append(Character.forDigit((value >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(value & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+
+    private void writeSchemaFingerprint(Connection connection) throws SQLException {
+        String fingerprint = schemaFingerprint(connection);
+        try (java.sql.PreparedStatement ps = connection.prepareStatement("""
+                INSERT INTO schema_info(key, value)
+                VALUES (?, ?)
+                ON CONFLICT(key) DO UPDATE SET value = excluded.value
+                """)) {
+            ps.setString(1, SCHEMA_FINGERPRINT_KEY);
+            ps.setString(2, fingerprint);
+            ps.executeUpdate();
+        }
+    }
+
     private void initializeSchema(Connection connection) throws SQLException {
         int existingVersion = readUserVersion(connection);
         if (existingVersion > CURRENT_SCHEMA_VERSION) {
@@ -172,6 +302,8 @@ public final class Database {
         ensureColumn(c, "content_exact_hash", "TEXT");
         ensureColumn(c, "content_exact_ci_hash", "TEXT");
         ensureColumn(c, "content_norm_ci_hash", "TEXT");
+        ensureColumn(c, "content_type", "TEXT");
+        boolean nearFingerprintsAdded = ensureColumn(c, "content_simhash", "INTEGER");
 
         try (Statement st = c.createStatement()) {
             // Existing v1 rows did not have last_copied_at.
@@ -233,8 +365,18 @@ public final class Database {
             // duplicate windows intentionally permit equal keys in v6.
             st.execute("DROP INDEX IF EXISTS idx_clip_hash_unique;");
 
-            if (existingVersion < 6 || hasMissingDuplicateHashes(c)) {
-                backfillDuplicateHashes(c);
+            // Hashing every row is deferred to BackgroundMigrationService.
+            // A NULL content_norm_ci_hash marks rows whose keys are pending;
+            // duplicate lookups fall back to content_norm for those rows.
+            if (existingVersion < 6) {
+                st.executeUpdate("UPDATE clip_entries SET content_norm_ci_hash = NULL");
+            } else if (hasMissingDuplicateHashes(c)) {
+                st.executeUpdate("""
+                        UPDATE clip_entries
+                        SET content_norm_ci_hash = NULL
+                        WHERE content_exact_hash IS NULL
+                           OR content_exact_ci_hash IS NULL
+                        """);
             }
 
             st.execute("DROP INDEX IF EXISTS idx_clip_hash;");
@@ -260,6 +402,23 @@ public final class Database {
                     CREATE INDEX IF NOT EXISTS idx_clip_pinned_order
                     ON clip_entries(is_favorite, pin_order, last_copied_at DESC)
                     """);
+            st.execute("""
+                    CREATE INDEX IF NOT EXISTS idx_clip_recent_age
+                    ON clip_entries(is_favorite, last_copied_at DESC, id DESC)
+                    """);
+            st.execute("""
+                    CREATE INDEX IF NOT EXISTS idx_clip_type_age
+                    ON clip_entries(content_type, is_favorite, last_copied_at)
+                    """);
+            // One partial index per SimHash band. Pinned rows are never
+            // rewritten by a near-duplicate, so they are left out.
+            for (int band = 0; band < NearDuplicateFingerprint.BANDS; band++) {
+                st.execute("""
+                        CREATE INDEX IF NOT EXISTS idx_clip_simhash_b%d
+                        ON clip_entries(%s, last_copied_at DESC, id DESC)
+                        WHERE content_simhash IS NOT NULL AND is_favorite = 0
+                        """.formatted(band, nearDuplicateBandExpression(band)));
+            }
 
             // v5 tag foundation. These statements are intentionally
             // idempotent because applyBaseSchema also creates them for new DBs.
@@ -294,9 +453,131 @@ public final class Database {
                     CREATE INDEX IF NOT EXISTS idx_clip_tags_tag_id
                     ON clip_tags(tag_id, clip_id)
                     """);
+            // Image payloads stay out of clip_entries so list queries never
+            // read a blob. Deleting the clip row removes its image.
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS clip_images (
+                      clip_id   INTEGER PRIMARY KEY,
+                      phash     INTEGER NOT NULL,
+                      width     INTEGER NOT NULL,
+                      height    INTEGER NOT NULL,
+                      encoded   BLOB    NOT NULL,
+                      thumbnail BLOB,
+                      FOREIGN KEY (clip_id)
+                        REFERENCES clip_entries(id) ON DELETE CASCADE
+                    )
+                    """);
+            st.execute("""
+                    CREATE INDEX IF NOT EXISTS idx_clip_images_size
+                    ON clip_images(width, height)
+                    """);
+            st.execute("""
+                    CREATE INDEX IF NOT EXISTS idx_clip_images_pending_thumbnail
+                    ON clip_images(clip_id)
+                    WHERE thumbnail IS NULL
+                    """);
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_backfills (
+                      name         TEXT    PRIMARY KEY,
+                      cursor_id    INTEGER NOT NULL DEFAULT 0,
+                      scheduled_at INTEGER NOT NULL,
+                      completed_at INTEGER
+                    )
+                    """);
+
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_info (
+                      key   TEXT PRIMARY KEY,
+                      value TEXT NOT NULL
+                    )
+                    """);
+
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS clip_counters (
+                      name  TEXT    PRIMARY KEY,
+                      value INTEGER NOT NULL
+                    )
+                    """);
+            createRecentCounterTriggers(st);
+
+            if (hasMissingDuplicateHashes(c)) {
+                BackgroundMigrationService.schedule(c, BackgroundMigrationService.DUPLICATE_HASHES);
+            }
+            if (hasMissingContentTypes(c)) {
+                BackgroundMigrationService.schedule(c, BackgroundMigrationService.CONTENT_TYPES);
+            }
+            if (nearFingerprintsAdded) {
+                BackgroundMigrationService.schedule(
+                        c,
+                        BackgroundMigrationService.NEAR_DUPLICATE_FINGERPRINTS
+                );
+            }
+
+            // Reseeded on every migration so the triggers start from an exact count.
+            try (java.sql.PreparedStatement ps = c.prepareStatement("""
+                    INSERT INTO clip_counters(name, value)
+                    SELECT ?, COUNT(*)
+                    FROM clip_entries
+                    WHERE is_favorite = 0
+                    ON CONFLICT(name) DO UPDATE SET value = excluded.value
+                    """)) {
+                ps.setString(1, RECENT_CLIPS_COUNTER);
+                ps.executeUpdate();
+            }
 
             st.execute("PRAGMA user_version = " + CURRENT_SCHEMA_VERSION + ";");
         }
+
+        // Written last so the digest covers every object created above.
+        writeSchemaFingerprint(c);
+    }
+
+    /**
+     * Keeps the recent_clips counter in step with every insert, delete and
+     * pin-state change. Trigger bodies contain semicolons, so they live here
+     * rather than in schema.sql, which applyBaseSchema splits per statement.
+     */
+    private static void createRecentCounterTriggers(Statement st) throws SQLException {
+        st.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_clip_recent_insert
+                AFTER INSERT ON clip_entries
+                WHEN NEW.is_favorite = 0
+                BEGIN
+                  UPDATE clip_counters SET value = value + 1
+                  WHERE name = '%1$s';
+                END
+                """.formatted(RECENT_CLIPS_COUNTER));
+        st.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_clip_recent_delete
+                AFTER DELETE ON clip_entries
+                WHEN OLD.is_favorite = 0
+                BEGIN
+                  UPDATE clip_counters SET value = value - 1
+                  WHERE name = '%1$s';
+                END
+                """.formatted(RECENT_CLIPS_COUNTER));
+        st.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_clip_recent_pin
+                AFTER UPDATE OF is_favorite ON clip_entries
+                WHEN (OLD.is_favorite = 0) <> (NEW.is_favorite = 0)
+                BEGIN
+                  UPDATE clip_counters
+                  SET value = value + CASE WHEN NEW.is_favorite = 0 THEN 1 ELSE -1 END
+                  WHERE name = '%1$s';
+                END
+                """.formatted(RECENT_CLIPS_COUNTER));
+    }
+
+    private boolean hasMissingContentTypes(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("""
+                     SELECT 1
+                     FROM clip_entries
+                     WHERE content_type IS NULL
+                     LIMIT 1
+                     """)) {
+            return rs.next();
+        }
     }
 
     private boolean hasMissingDuplicateHashes(Connection c) throws SQLException {
@@ -313,64 +594,16 @@ public final class Database {
         }
     }
 
-    private void backfillDuplicateHashes(Connection c) throws SQLException {
-        long lastId = 0L;
-        final int batchSize = 16;
-
-        while (true) {
-            List<ExistingContent> rows = new ArrayList<>(batchSize);
-            try (java.sql.PreparedStatement select = c.prepareStatement("""
-                    SELECT id, content
-                    FROM clip_entries
-                    WHERE id > ?
-                    ORDER BY id ASC
-                    LIMIT ?
-                    """)) {
-                select.setLong(1, lastId);
-                select.setInt(2, batchSize);
-                try (ResultSet rs = select.executeQuery()) {
-                    while (rs.next()) {
-                        rows.add(new ExistingContent(
-                                rs.getLong("id"),
-                                rs.getString("content")
-                        ));
-                    }
-                }
-            }
-
-            if (rows.isEmpty()) return;
-
-            try (java.sql.PreparedStatement update = c.prepareStatement("""
-                    UPDATE clip_entries
-                    SET content_hash = ?,
-                        content_exact_hash = ?,
-                        content_exact_ci_hash = ?,
-                        content_norm_ci_hash = ?
-                    WHERE id = ?
-                    """)) {
-                for (ExistingContent row : rows) {
-                    DuplicateContentKeys keys = DuplicateContentKeys.from(row.content());
-                    update.setString(1, keys.normalizedHash());
-                    update.setString(2, keys.exactHash());
-                    update.setString(3, keys.exactCaseInsensitiveHash());
-                    update.setString(4, keys.normalizedCaseInsensitiveHash());
-                    update.setLong(5, row.id());
-                    update.addBatch();
-                    lastId = row.id();
-                }
-                update.executeBatch();
-            }
-        }
-    }
-
-    private record ExistingContent(long id, String content) {}
-
-    private void ensureColumn(Connection c, String columnName, String definition) throws SQLException {
-        if (tableColumns(c, "clip_entries").contains(columnName)) return;
+    /**
+     * @return true when the column was missing and has been added
+     */
+    private boolean ensureColumn(Connection c, String columnName, String definition) throws SQLException {
+        if (tableColumns(c, "clip_entries").contains(columnName)) return false;
 
         try (Statement st = c.createStatement()) {
             st.execute("ALTER TABLE clip_entries ADD COLUMN " + columnName + " " + definition + ";");
         }
+        return true;
     }
 
     private Set<String> tableColumns(Connection c, String tableName) throws SQLException {
@@ -458,6 +691,29 @@ public final class Database {
         }
     }
 
+    /**
+     * Nanosecond timings of one initialization, split by phase.
+     *
+     * prepare covers directory creation and driver loading; migration is zero
+     * when the fast path found the schema already current.
+     */
+    public record InitReport(
+            boolean fastPath,
+            long prepareNanos,
+            long openNanos,
+            long configureNanos,
+            long schemaCheckNanos,
+            long migrationNanos
+    ) {
+        public static InitReport notRun() {
+            return new InitReport(false, 0L, 0L, 0L, 0L, 0L);
+        }
+
+        public long totalNanos() {
+            return prepareNanos + openNanos + configureNanos + schemaCheckNanos + migrationNanos;
+        }
+    }
+
     @FunctionalInterface
     interface MigrationHook {
         void beforeCommit(
@@ -0,0 +1,56 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.event;
+
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of committed clip history changes.
+ *
+ * DAOs publish after their transaction commits, on the writing thread.
+ * Listeners must return quickly and hand real work to their own thread; a
+ * failing listener never fails the write or starves other listeners.
+ */
+public final class ClipChangeBus {
+
+    private final CopyOnWriteArrayList<Consumer<? super ClipChangeEvent>> listeners =
+            new CopyOnWriteArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public void addListener(Consumer<? super ClipChangeEvent> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(Consumer<? super ClipChangeEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    public void publish(ClipChangeEvent event) {
+        if (event == null) return;
+        generation.incrementAndGet();
+        for (Consumer<? super ClipChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Throwable ignored) {
+            }
+        }
+    }
+
+    /**
+     * Number of events published so far. It moves before listeners run, so a
+     * reader that saw the old value will see the new one on its next look.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    int listenerCount() {
+        return listeners.size();
+    }
+}
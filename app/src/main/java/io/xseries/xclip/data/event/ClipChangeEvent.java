@@ -0,0 +1,85 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.event;
+
+import io.xseries.xclip.data.model.ClipEntry;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Committed change to clip history, published on {@link ClipChangeBus}.
+ *
+ * Events describe what changed in enough detail for a listener holding a
+ * window of rows to patch it without a query. Changes that cannot be
+ * described row by row, such as a rule-based retention run, are announced
+ * as {@link Purged} or {@link Imported}.
+ */
+public sealed interface ClipChangeEvent {
+
+    /** A new row; always unpinned and untagged. */
+    record Inserted(ClipEntry entry) implements ClipChangeEvent {
+        public Inserted {
+            Objects.requireNonNull(entry, "entry");
+        }
+    }
+
+    /**
+     * An existing row was copied again.
+     *
+     * @param content       the row's new content, or null when unchanged
+     * @param lastCopiedAt  the row's new recency, or null when unchanged
+     */
+    record Bumped(long id, String content, Long lastCopiedAt) implements ClipChangeEvent {}
+
+    /**
+     * Rows deleted by id.
+     *
+     * @param count rows actually deleted; ids may name rows that were already gone
+     */
+    record Deleted(Set<Long> ids, int count) implements ClipChangeEvent {
+        public Deleted {
+            ids = Set.copyOf(ids);
+        }
+    }
+
+    /**
+     * Unpinned rows at or older than the cutoff were deleted: every row with
+     * lastCopiedAt below cutoffCopiedAt, plus rows at cutoffCopiedAt with an
+     * id up to cutoffId.
+     */
+    record Trimmed(long cutoffCopiedAt, long cutoffId, int count) implements ClipChangeEvent {}
+
+    /** Unpinned rows deleted by a rule the listener cannot replay. */
+    record Purged(int count) implements ClipChangeEvent {}
+
+    /**
+     * Rows inserted or merged by a history import. Imported rows can be
+     * pinned, tagged or older than existing ones, so listeners reload.
+     *
+     * @param count rows inserted or merged
+     */
+    record Imported(long count) implements ClipChangeEvent {}
+
+    /** A row was pinned or unpinned; pin order of other rows may have shifted. */
+    record PinChanged(long id, boolean pinned) implements ClipChangeEvent {}
+
+    /** The pin order changed without any row changing its pinned state. */
+    record Reordered() implements ClipChangeEvent {}
+
+    /** The title of a pinned row changed; null clears it. */
+    record Retitled(long id, String title) implements ClipChangeEvent {}
+
+    /** Tag assignments of these rows changed. */
+    record TagsChanged(Set<Long> clipIds) implements ClipChangeEvent {
+        public TagsChanged {
+            clipIds = Set.copyOf(clipIds);
+        }
+    }
+
+    /** Tags were created, renamed or deleted. */
+    record TagLibraryChanged() implements ClipChangeEvent {}
+}
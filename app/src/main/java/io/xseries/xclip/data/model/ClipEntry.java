@@ -13,6 +13,9 @@ package io.xseries.xclip.data.model;
  * the original clipboard content used by Copy/Paste.
  *
  * pinOrder is zero-based and meaningful only while the entry is pinned.
+ *
+ * For image clips content is only a caption such as "Image 1920 × 1080";
+ * the pixels live in clip_images and are loaded on demand by id.
  */
 public record ClipEntry(
         long id,
@@ -20,8 +23,20 @@ public record ClipEntry(
         String title,
         boolean favorite,
         Integer pinOrder,
-        long createdAt
+        long createdAt,
+        boolean image
 ) {
+    public ClipEntry(
+            long id,
+            String content,
+            String title,
+            boolean favorite,
+            Integer pinOrder,
+            long createdAt
+    ) {
+        this(id, content, title, favorite, pinOrder, createdAt, false);
+    }
+
     public boolean hasTitle() {
         return title != null && !title.isBlank();
     }
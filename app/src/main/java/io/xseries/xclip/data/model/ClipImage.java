@@ -0,0 +1,32 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.model;
+
+import java.util.Objects;
+
+/**
+ * Payload of an image clip, stored in clip_images beside its clip_entries row.
+ *
+ * contentHash identifies the exact encoded bytes and fills the row's
+ * duplicate-key columns. It carries an "image:" prefix, so it can never equal
+ * the hex hash of any text clip. phash is the perceptual hash used to find
+ * the same picture captured again.
+ */
+public record ClipImage(
+        String contentHash,
+        long phash,
+        int width,
+        int height,
+        byte[] encoded
+) {
+    public ClipImage {
+        contentHash = Objects.requireNonNull(contentHash, "contentHash");
+        encoded = Objects.requireNonNull(encoded, "encoded");
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("image dimensions must be positive");
+        }
+    }
+}
@@ -23,7 +23,8 @@ public record DuplicateBehaviorPolicy(
         WhitespaceMode whitespaceMode,
         CaseSensitivity caseSensitivity,
         long duplicateWindowMillis,
-        boolean exactContentMode
+        boolean exactContentMode,
+        boolean nearDuplicateMode
 ) {
 
     /**
@@ -47,6 +48,28 @@ public record DuplicateBehaviorPolicy(
         }
     }
 
+    /**
+     * Policy without near-duplicate collapsing.
+     */
+    public DuplicateBehaviorPolicy(
+            RecentDuplicatePosition recentDuplicatePosition,
+            PinnedDuplicatePosition pinnedDuplicatePosition,
+            WhitespaceMode whitespaceMode,
+            CaseSensitivity caseSensitivity,
+            long duplicateWindowMillis,
+            boolean exactContentMode
+    ) {
+        this(
+                recentDuplicatePosition,
+                pinnedDuplicatePosition,
+                whitespaceMode,
+                caseSensitivity,
+                duplicateWindowMillis,
+                exactContentMode,
+                false
+        );
+    }
+
     /**
      * Preserves the behavior that existed before configurable duplicate policies:
      * normalized whitespace, case-sensitive matching, unlimited duplicate age,
@@ -59,6 +82,7 @@ public record DuplicateBehaviorPolicy(
                 WhitespaceMode.NORMALIZE,
                 CaseSensitivity.SENSITIVE,
                 UNLIMITED_WINDOW,
+                false,
                 false
         );
     }
@@ -86,6 +110,15 @@ public record DuplicateBehaviorPolicy(
         return value;
     }
 
+    /**
+     * True when a capture with no equal row may be folded into a row whose
+     * {@link NearDuplicateFingerprint} is within the maximum distance.
+     * Exact-content mode always wins over near-duplicate mode.
+     */
+    public boolean collapsesNearDuplicates() {
+        return nearDuplicateMode && !exactContentMode;
+    }
+
     public boolean matches(String existingContent, String incomingContent) {
         return canonicalKey(existingContent).equals(canonicalKey(incomingContent));
     }
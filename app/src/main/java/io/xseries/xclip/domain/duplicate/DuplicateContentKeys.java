@@ -48,6 +48,8 @@ public record DuplicateContentKeys(
 
     public static DuplicateContentKeys from(String content) {
         String value = Objects.requireNonNull(content, "content");
+        DuplicateKeyStream.Result streamed = DuplicateKeyStream.local().build(value);
+        if (streamed != null) return streamed.keys();
         return calculate(value, DuplicateBehaviorPolicy.normalizeWhitespace(value)).keys();
     }
 
@@ -70,8 +72,10 @@ public record DuplicateContentKeys(
     /**
      * Prepares one clipboard value for the complete duplicate ingest path.
      *
-     * Normalized text, all persisted hashes, the selected lookup hash, and the
-     * canonical collision-check key are derived from one shared set of strings.
+     * All four hashes and the normalized text come from one streaming pass.
+     * The normalized value reuses the input string when normalization does not
+     * change it, and a lowercased copy is made only when the selected key kind
+     * is case-insensitive.
      */
     public static Prepared prepare(
             String content,
@@ -81,22 +85,30 @@ public record DuplicateContentKeys(
         DuplicateBehaviorPolicy effectivePolicy =
                 Objects.requireNonNull(policy, "policy");
 
-        String normalized = DuplicateBehaviorPolicy.normalizeWhitespace(value);
-        HashMaterial material = calculate(value, normalized);
-        KeyKind selectedKind = material.keys().selectedKind(effectivePolicy);
+        DuplicateKeyStream.Result streamed = DuplicateKeyStream.local().build(value);
+        String normalized;
+        DuplicateContentKeys keys;
+        if (streamed != null) {
+            normalized = streamed.normalizedContent();
+            keys = streamed.keys();
+        } else {
+            normalized = DuplicateBehaviorPolicy.normalizeWhitespace(value);
+            keys = calculate(value, normalized).keys();
+        }
+        KeyKind selectedKind = keys.selectedKind(effectivePolicy);
 
         String canonicalKey = switch (selectedKind) {
             case EXACT -> value;
-            case EXACT_CASE_INSENSITIVE -> material.exactCaseInsensitive();
+            case EXACT_CASE_INSENSITIVE -> value.toLowerCase(Locale.ROOT);
             case NORMALIZED -> normalized;
-            case NORMALIZED_CASE_INSENSITIVE -> material.normalizedCaseInsensitive();
+            case NORMALIZED_CASE_INSENSITIVE -> normalized.toLowerCase(Locale.ROOT);
         };
 
         return new Prepared(
                 normalized,
-                material.keys(),
+                keys,
                 selectedKind,
-                material.keys().hashFor(selectedKind),
+                keys.hashFor(selectedKind),
                 canonicalKey
         );
     }
@@ -145,6 +157,10 @@ public record DuplicateContentKeys(
         };
     }
 
+    /**
+     * String-based reference path. Used for caller-supplied normalized text
+     * and for input the streaming builder rejects.
+     */
     private static HashMaterial calculate(
             String value,
             String normalized
@@ -224,6 +240,14 @@ public record DuplicateContentKeys(
         EXACT,
         EXACT_CASE_INSENSITIVE,
         NORMALIZED,
-        NORMALIZED_CASE_INSENSITIVE
+        NORMALIZED_CASE_INSENSITIVE;
+
+        public boolean normalizesWhitespace() {
+            return this == NORMALIZED || this == NORMALIZED_CASE_INSENSITIVE;
+        }
+
+        public boolean caseInsensitive() {
+            return this == EXACT_CASE_INSENSITIVE || this == NORMALIZED_CASE_INSENSITIVE;
+        }
     }
 }
@@ -0,0 +1,336 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.duplicate;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * Single-pass builder for the four persisted duplicate hashes.
+ *
+ * The input is walked once by code point. Whitespace normalization is a small
+ * state machine equivalent to {@link DuplicateBehaviorPolicy#normalizeWhitespace},
+ * including the final {@link String#trim()} of control characters, and
+ * lowercasing follows {@code String.toLowerCase(Locale.ROOT)} per code point.
+ * Each code point is UTF-8 encoded into reusable buffers in front of the
+ * SHA-256 digests, so no normalized or lowercased copy is created.
+ *
+ * Streams that are still byte-identical share one digest. The exact stream
+ * rides on the normalized one while normalization has changed nothing, and
+ * each case-insensitive stream rides on its source until the first code point
+ * whose lowercase differs. A shared stream is forked by cloning the digest
+ * state at the point of divergence, so plain single-line text costs one
+ * SHA-256 pass instead of four.
+ *
+ * U+0130 and U+03A3 lowercase with context in the JDK, so input containing
+ * either one is rejected and the caller uses the string-based path instead.
+ * Instances are thread-confined and reused through {@link #local()}.
+ */
+final class DuplicateKeyStream {
+
+    private static final int BUFFER_BYTES = 8 * 1024;
+    private static final int DIGEST_BYTES = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<DuplicateKeyStream> LOCAL =
+            ThreadLocal.withInitial(DuplicateKeyStream::new);
+
+    private final DigestSink exact = new DigestSink();
+    private final DigestSink exactCaseInsensitive = new DigestSink();
+    private final DigestSink normalized = new DigestSink();
+    private final DigestSink normalizedCaseInsensitive = new DigestSink();
+
+    /** Normalized text, materialized only once it diverges from the input. */
+    private final StringBuilder normalizedText = new StringBuilder();
+    /** Run of chars <= U+0020 that trim() drops if nothing visible follows. */
+    private final StringBuilder deferred = new StringBuilder();
+    private final byte[] digestBuffer = new byte[DIGEST_BYTES];
+    private final char[] hexBuffer = new char[DIGEST_BYTES * 2];
+
+    private String source;
+    /** Source chars consumed so far, including the code point in progress. */
+    private int consumed;
+    /** Source chars already emitted to the normalized stream unchanged. */
+    private int sourceIndex;
+    private boolean started;
+    private boolean sameAsSource;
+    private boolean exactShared;
+    private boolean exactCaseInsensitiveShared;
+    private boolean normalizedCaseInsensitiveShared;
+
+    private DuplicateKeyStream() {}
+
+    static DuplicateKeyStream local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * @return keys and normalized text, or null when the input needs the
+     *         context-sensitive lowercase path
+     */
+    Result build(String value) {
+        reset(value);
+        try {
+            boolean collapseOutputStarted = false;
+            boolean pendingSpace = false;
+
+            int length = value.length();
+            while (consumed < length) {
+                int start = consumed;
+                char ch = value.charAt(start);
+                int codePoint;
+                int lower;
+                boolean whitespace;
+                if (ch < 0x80) {
+                    codePoint = ch;
+                    lower = ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch;
+                    whitespace = ch == ' '
+                            || (ch >= '\t' && ch <= '\r')
+                            || (ch >= '\u001C' && ch <= '\u001F');
+                } else {
+                    codePoint = value.codePointAt(start);
+                    if (codePoint == 0x0130 || codePoint == 0x03A3) return null;
+                    lower = Character.toLowerCase(codePoint);
+                    whitespace = Character.isWhitespace(codePoint);
+                }
+                consumed = start + Character.charCount(codePoint);
+
+                if (exactCaseInsensitiveShared && lower != codePoint) {
+                    forkExactCaseInsensitive(start);
+                }
+                if (!exactShared) exact.put(codePoint);
+                if (!exactCaseInsensitiveShared) exactCaseInsensitive.put(lower);
+
+                // Mirrors TextValues.collapseWhitespace before its trim().
+                if (whitespace) {
+                    pendingSpace = collapseOutputStarted;
+                    continue;
+                }
+                if (pendingSpace) collapsed(' ', ' ');
+                pendingSpace = false;
+                collapseOutputStarted = true;
+                collapsed(codePoint, lower);
+            }
+
+            if (exactShared && sourceIndex < length) {
+                forkExact();
+            }
+            String normalizedHash = normalized.finishHex(this);
+            String exactHash = exactShared ? normalizedHash : exact.finishHex(this);
+            return new Result(
+                    new DuplicateContentKeys(
+                            exactHash,
+                            exactCaseInsensitiveShared
+                                    ? exactHash
+                                    : exactCaseInsensitive.finishHex(this),
+                            normalizedHash,
+                            normalizedCaseInsensitiveShared
+                                    ? normalizedHash
+                                    : normalizedCaseInsensitive.finishHex(this)
+                    ),
+                    normalizedString()
+            );
+        } finally {
+            source = null;
+            if (normalizedText.capacity() > BUFFER_BYTES) {
+                normalizedText.setLength(0);
+                normalizedText.trimToSize();
+            }
+            if (deferred.capacity() > BUFFER_BYTES) {
+                deferred.setLength(0);
+                deferred.trimToSize();
+            }
+        }
+    }
+
+    private void reset(String value) {
+        source = value;
+        consumed = 0;
+        sourceIndex = 0;
+        started = false;
+        sameAsSource = true;
+        exactShared = true;
+        exactCaseInsensitiveShared = true;
+        normalizedCaseInsensitiveShared = true;
+        normalizedText.setLength(0);
+        deferred.setLength(0);
+        exact.reset();
+        exactCaseInsensitive.reset();
+        normalized.reset();
+        normalizedCaseInsensitive.reset();
+    }
+
+    /**
+     * Accepts one code point of the collapsed text and applies trim(): leading
+     * chars <= U+0020 are dropped, inner runs are deferred until a visible code
+     * point follows, and a trailing run is never emitted.
+     */
+    private void collapsed(int codePoint, int lower) {
+        if (codePoint <= ' ') {
+            if (started) deferred.append((char) codePoint);
+            return;
+        }
+        for (int index = 0; index < deferred.length(); index++) {
+            char control = deferred.charAt(index);
+            emitNormalized(control, control);
+        }
+        deferred.setLength(0);
+        started = true;
+        emitNormalized(codePoint, lower);
+    }
+
+    private void emitNormalized(int codePoint, int lower) {
+        if (sameAsSource) {
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT
+                    ? source.charAt(sourceIndex) == codePoint
+                    : source.codePointAt(sourceIndex) == codePoint) {
+                sourceIndex += Character.charCount(codePoint);
+            } else {
+                sameAsSource = false;
+                if (exactShared) forkExact();
+                normalizedText.append(source, 0, sourceIndex);
+            }
+        }
+        if (!sameAsSource) normalizedText.appendCodePoint(codePoint);
+
+        if (normalizedCaseInsensitiveShared && lower != codePoint) {
+            normalizedCaseInsensitive.copyFrom(normalized);
+            normalizedCaseInsensitiveShared = false;
+        }
+        normalized.put(codePoint);
+        if (!normalizedCaseInsensitiveShared) normalizedCaseInsensitive.put(lower);
+    }
+
+    /**
+     * Gives the exact stream its own digest. While shared, its bytes are the
+     * normalized bytes emitted so far plus the consumed source chars that the
+     * normalized stream has not emitted yet.
+     */
+    private void forkExact() {
+        exact.copyFrom(normalized);
+        exact.putSource(source, sourceIndex, consumed);
+        exactShared = false;
+    }
+
+    /**
+     * Gives the exact case-insensitive stream its own digest just before the
+     * first code point whose lowercase differs, at source offset end.
+     */
+    private void forkExactCaseInsensitive(int end) {
+        if (exactShared) {
+            exactCaseInsensitive.copyFrom(normalized);
+            exactCaseInsensitive.putSource(source, sourceIndex, end);
+        } else {
+            exactCaseInsensitive.copyFrom(exact);
+        }
+        exactCaseInsensitiveShared = false;
+    }
+
+    private String normalizedString() {
+        if (!sameAsSource) return normalizedText.toString();
+        return sourceIndex == source.length()
+                ? source
+                : source.substring(0, sourceIndex);
+    }
+
+    private String hex(byte[] digest) {
+        for (int index = 0; index < digest.length; index++) {
+            hexBuffer[index * 2] = HEX[(digest[index] >>> 4) & 0x0f];
+            hexBuffer[index * 2 + 1] = HEX[digest[index] & 0x0f];
+        }
+        return new String(hexBuffer);
+    }
+
+    record Result(DuplicateContentKeys keys, String normalizedContent) {}
+
+    /**
+     * UTF-8 encoder in front of one digest. Lone surrogates encode as '?',
+     * matching {@code String.getBytes(StandardCharsets.UTF_8)}.
+     */
+    private static final class DigestSink {
+
+        private MessageDigest digest = newSha256();
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private int position;
+
+        private void reset() {
+            digest.reset();
+            position = 0;
+        }
+
+        private void copyFrom(DigestSink other) {
+            other.flush();
+            try {
+                digest = (MessageDigest) other.digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("SHA-256 state cannot be cloned", e);
+            }
+            position = 0;
+        }
+
+        private void putSource(String value, int from, int to) {
+            for (int index = from; index < to; ) {
+                int codePoint = value.codePointAt(index);
+                put(codePoint);
+                index += Character.charCount(codePoint);
+            }
+        }
+
+        private void put(int codePoint) {
+            if (position > BUFFER_BYTES - 4) flush();
+            if (codePoint < 0x80) {
+                buffer[position++] = (byte) codePoint;
+            } else {
+                putMultiByte(codePoint);
+            }
+        }
+
+        /** Kept out of {@link #put} so the ASCII path stays small enough to inline. */
+        private void putMultiByte(int codePoint) {
+            if (codePoint < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (codePoint >> 6));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                if (Character.isSurrogate((char) codePoint)) {
+                    buffer[position++] = (byte) '?';
+                    return;
+                }
+                buffer[position++] = (byte) (0xE0 | (codePoint >> 12));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+        }
+
+        private void flush() {
+            if (position == 0) return;
+            digest.update(buffer, 0, position);
+            position = 0;
+        }
+
+        private String finishHex(DuplicateKeyStream owner) {
+            flush();
+            try {
+                digest.digest(owner.digestBuffer, 0, DIGEST_BYTES);
+            } catch (DigestException e) {
+                throw new IllegalStateException("SHA-256 digest failed", e);
+            }
+            return owner.hex(owner.digestBuffer);
+        }
+
+        private static MessageDigest newSha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (Exception e) {
+                throw new IllegalStateException("SHA-256 is unavailable", e);
+            }
+        }
+    }
+}
@@ -75,6 +75,31 @@ public final class DuplicatePolicyEngine {
             return Decision.CREATE_NEW_ENTRY;
         }
 
+        return evaluateMatched(
+                effectivePolicy,
+                existingPinned,
+                existingLastCopiedAt,
+                now
+        );
+    }
+
+    /**
+     * Evaluates a candidate whose canonical key was already confirmed equal,
+     * for example by {@code ClipEntryDao.matchesDuplicateKey}. Only the pin
+     * state and timestamp are needed, so the candidate body is never loaded.
+     */
+    public static Decision evaluateMatched(
+            DuplicateBehaviorPolicy policy,
+            boolean existingPinned,
+            long existingLastCopiedAt,
+            long now
+    ) {
+        DuplicateBehaviorPolicy effectivePolicy =
+                Objects.requireNonNull(policy, "policy");
+        if (existingLastCopiedAt < 0 || now < 0) {
+            throw new IllegalArgumentException("timestamps cannot be negative");
+        }
+
         if (!effectivePolicy.withinDuplicateWindow(existingLastCopiedAt, now)) {
             return Decision.CREATE_NEW_ENTRY;
         }
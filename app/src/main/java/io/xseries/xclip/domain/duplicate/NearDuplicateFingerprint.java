@@ -0,0 +1,144 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.duplicate;
+
+import java.util.Objects;
+
+/**
+ * 64-bit SimHash used to find near-duplicate clips.
+ *
+ * Features are the lowercase word tokens of the text. Every run of digits
+ * inside a token reads as one marker, so timestamps, counters and ids do not
+ * move the fingerprint; two texts that differ only in their numbers get the
+ * same fingerprint. A changed word moves a few bits, fewer the longer the
+ * text, measured as {@link #distance}.
+ *
+ * Near-duplicates are fingerprints at most {@link #MAX_DISTANCE} bits apart.
+ * The 64 bits are split into {@link #BANDS} contiguous bands; two
+ * fingerprints within that distance always agree on at least one whole band,
+ * so an index on each band finds every candidate without a Hamming scan.
+ *
+ * Short texts have too few features for a stable fingerprint, and very long
+ * ones are not worth the ingest time, so both get none.
+ */
+public final class NearDuplicateFingerprint {
+
+    public static final int MAX_DISTANCE = 5;
+    public static final int BANDS = MAX_DISTANCE + 1;
+
+    /** Fewer tokens than this are never fingerprinted. */
+    static final int MIN_TOKENS = 8;
+    static final int MAX_CHARS = 100_000;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int DIGIT_RUN_MARKER = '#';
+    /** Four bands of 11 bits, then two of 10. */
+    private static final int[] BAND_SHIFTS = {0, 11, 22, 33, 44, 54};
+    private static final int[] BAND_WIDTHS = {11, 11, 11, 11, 10, 10};
+
+    private NearDuplicateFingerprint() {}
+
+    /**
+     * @return the fingerprint, or null when the text has fewer than
+     *         {@link #MIN_TOKENS} tokens or more than {@link #MAX_CHARS} chars
+     */
+    public static Long of(String content) {
+        String value = Objects.requireNonNull(content, "content");
+        if (value.length() > MAX_CHARS) return null;
+
+        int[] weights = new int[Long.SIZE];
+        int tokens = 0;
+        long token = FNV_OFFSET;
+        boolean inToken = false;
+        boolean inDigits = false;
+
+        int length = value.length();
+        for (int index = 0; index <= length; ) {
+            int codePoint;
+            int width;
+            if (index < length) {
+                codePoint = value.codePointAt(index);
+                width = Character.charCount(codePoint);
+            } else {
+                codePoint = ' ';
+                width = 1;
+            }
+            index += width;
+
+            if (Character.isLetterOrDigit(codePoint)) {
+                inToken = true;
+                if (Character.isDigit(codePoint)) {
+                    if (inDigits) continue;
+                    inDigits = true;
+                    token = (token ^ DIGIT_RUN_MARKER) * FNV_PRIME;
+                } else {
+                    inDigits = false;
+                    token = (token ^ Character.toLowerCase(codePoint)) * FNV_PRIME;
+                }
+                continue;
+            }
+            if (!inToken) continue;
+
+            accumulate(weights, mix(token));
+            tokens++;
+
+            token = FNV_OFFSET;
+            inToken = false;
+            inDigits = false;
+        }
+        if (tokens < MIN_TOKENS) return null;
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (weights[bit] > 0) fingerprint |= 1L << bit;
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long left, long right) {
+        return Long.bitCount(left ^ right);
+    }
+
+    /**
+     * @return the bits of one band, lowest band first
+     */
+    public static int band(long fingerprint, int band) {
+        return (int) ((fingerprint >>> bandShift(band)) & bandMask(band));
+    }
+
+    public static int bandShift(int band) {
+        return BAND_SHIFTS[checkBand(band)];
+    }
+
+    public static int bandMask(int band) {
+        return (1 << BAND_WIDTHS[checkBand(band)]) - 1;
+    }
+
+    private static int checkBand(int band) {
+        if (band < 0 || band >= BANDS) {
+            throw new IllegalArgumentException("band out of range: " + band);
+        }
+        return band;
+    }
+
+    private static void accumulate(int[] weights, long featureHash) {
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            weights[bit] += ((featureHash >>> bit) & 1L) != 0L ? 1 : -1;
+        }
+    }
+
+    /** MurmurHash3 fmix64, so FNV's weak low bits spread over every position. */
+    private static long mix(long value) {
+        long mixed = value;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xff51afd7ed558ccdL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xc4ceb9fe1a85ec53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.duplicate;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 64-bit DCT perceptual hash used to find duplicate clipboard images.
+ *
+ * The image is reduced to a {@value #SIZE}×{@value #SIZE} luminance grid,
+ * transformed with a 2-D DCT, and the 8×8 lowest frequencies after the DC
+ * term are compared against their median, one bit each. Re-encoding, color
+ * depth and small rendering differences move few bits, so two captures of
+ * the same picture are at most {@link #MAX_DISTANCE} bits apart.
+ *
+ * Each grid cell averages a fixed {@value #SAMPLES}×{@value #SAMPLES} sample
+ * lattice instead of every source pixel, so hashing cost does not depend on
+ * the image size. Transparent pixels are composited over white.
+ */
+public final class PerceptualImageHash {
+
+    public static final int MAX_DISTANCE = 4;
+
+    static final int SIZE = 32;
+    static final int SAMPLES = 4;
+    private static final int LOW = 8;
+
+    /** COSINES[u][x] = cos((2x + 1) uπ / 2N) for the frequencies the hash reads. */
+    private static final double[][] COSINES = new double[LOW + 1][SIZE];
+
+    static {
+        for (int u = 0; u <= LOW; u++) {
+            for (int x = 0; x < SIZE; x++) {
+                COSINES[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2.0 * SIZE));
+            }
+        }
+    }
+
+    private PerceptualImageHash() {}
+
+    public static long of(BufferedImage image) {
+        Objects.requireNonNull(image, "image");
+        double[][] luma = downscale(image);
+
+        // Rows first, then columns, computing only frequencies 1..8.
+        double[][] rows = new double[SIZE][LOW];
+        for (int y = 0; y < SIZE; y++) {
+            for (int u = 1; u <= LOW; u++) {
+                double sum = 0.0;
+                for (int x = 0; x < SIZE; x++) {
+                    sum += COSINES[u][x] * luma[y][x];
+                }
+                rows[y][u - 1] = sum;
+            }
+        }
+        double[] coefficients = new double[LOW * LOW];
+        for (int v = 1; v <= LOW; v++) {
+            for (int u = 0; u < LOW; u++) {
+                double sum = 0.0;
+                for (int y = 0; y < SIZE; y++) {
+                    sum += COSINES[v][y] * rows[y][u];
+                }
+                coefficients[(v - 1) * LOW + u] = sum;
+            }
+        }
+
+        double[] sorted = coefficients.clone();
+        Arrays.sort(sorted);
+        double median = (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2.0;
+
+        long hash = 0L;
+        for (int bit = 0; bit < coefficients.length; bit++) {
+            if (coefficients[bit] > median) hash |= 1L << bit;
+        }
+        return hash;
+    }
+
+    public static int distance(long left, long right) {
+        return Long.bitCount(left ^ right);
+    }
+
+    private static double[][] downscale(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] luma = new double[SIZE][SIZE];
+        for (int cellY = 0; cellY < SIZE; cellY++) {
+            for (int cellX = 0; cellX < SIZE; cellX++) {
+                double sum = 0.0;
+                for (int sampleY = 0; sampleY < SAMPLES; sampleY++) {
+                    int y = sampleCoordinate(cellY, sampleY, height);
+                    for (int sampleX = 0; sampleX < SAMPLES; sampleX++) {
+                        int x = sampleCoordinate(cellX, sampleX, width);
+                        sum += luminance(image.getRGB(x, y));
+                    }
+                }
+                luma[cellY][cellX] = sum / (SAMPLES * SAMPLES);
+            }
+        }
+        return luma;
+    }
+
+    /** Centre of one sample sub-cell, scaled onto the source axis. */
+    private static int sampleCoordinate(int cell, int sample, int extent) {
+        double position = (cell + (sample + 0.5) / SAMPLES) / SIZE;
+        return Math.min(extent - 1, (int) (position * extent));
+    }
+
+    private static double luminance(int argb) {
+        double alpha = ((argb >>> 24) & 0xFF) / 255.0;
+        double red = (argb >>> 16) & 0xFF;
+        double green = (argb >>> 8) & 0xFF;
+        double blue = argb & 0xFF;
+        double luma = 0.299 * red + 0.587 * green + 0.114 * blue;
+        return alpha * luma + (1.0 - alpha) * 255.0;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.image;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Encoding, captions and thumbnails for image clips.
+ *
+ * Captured images are stored as PNG, so every clipboard pixel format
+ * round-trips losslessly. Thumbnails are decoded with source subsampling: the
+ * decoder skips rows and columns it does not need, so a full-screen image
+ * never has to be materialized at full size to produce one.
+ */
+public final class ClipImageCodec {
+
+    /** Captures with more pixels than this are not stored. */
+    public static final long MAX_PIXELS = 4_096L * 4_096L;
+
+    /** Thumbnails fit this box, sized for two list rows at 150% scaling. */
+    public static final int THUMBNAIL_MAX_WIDTH = 240;
+    public static final int THUMBNAIL_MAX_HEIGHT = 120;
+
+    private static final String FORMAT = "png";
+
+    private ClipImageCodec() {}
+
+    public static byte[] encode(BufferedImage image) {
+        Objects.requireNonNull(image, "image");
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                (int) Math.min(1 << 20, (long) image.getWidth() * image.getHeight())
+        );
+        try {
+            if (!ImageIO.write(image, FORMAT, out)) {
+                throw new IOException("No PNG writer for image type " + image.getType());
+            }
+        } catch (IOException error) {
+            throw new UncheckedIOException("Failed to encode clipboard image", error);
+        }
+        return out.toByteArray();
+    }
+
+    public static BufferedImage decode(byte[] encoded) {
+        Objects.requireNonNull(encoded, "encoded");
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(encoded));
+            if (image == null) throw new IOException("Unsupported image encoding");
+            return image;
+        } catch (IOException error) {
+            throw new UncheckedIOException("Failed to decode clip image", error);
+        }
+    }
+
+    /**
+     * Stored content of an image clip. Search matches it, and it is what
+     * text-only views show.
+     */
+    public static String caption(int width, int height) {
+        return String.format(Locale.ROOT, "Image %d × %d", width, height);
+    }
+
+    /**
+     * Encodes a PNG thumbnail that fits the thumbnail box. Images already
+     * inside the box are re-encoded unscaled.
+     */
+    public static byte[] thumbnail(byte[] encoded) {
+        Objects.requireNonNull(encoded, "encoded");
+        try (ImageInputStream input = ImageIO.createImageInputStream(
+                new ByteArrayInputStream(encoded)
+        )) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) throw new IOException("Unsupported image encoding");
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                // Subsample to at most twice the box, then scale smoothly.
+                int step = Math.max(1, Math.min(
+                        width / (THUMBNAIL_MAX_WIDTH * 2),
+                        height / (THUMBNAIL_MAX_HEIGHT * 2)
+                ));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return encode(scaleToFit(reader.read(0, param)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException error) {
+            throw new UncheckedIOException("Failed to create clip image thumbnail", error);
+        }
+    }
+
+    static BufferedImage scaleToFit(BufferedImage source) {
+        double scale = Math.min(
+                1.0,
+                Math.min(
+                        THUMBNAIL_MAX_WIDTH / (double) source.getWidth(),
+                        THUMBNAIL_MAX_HEIGHT / (double) source.getHeight()
+                )
+        );
+        if (scale >= 1.0) return source;
+
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(
+                    RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR
+            );
+            graphics.setRenderingHint(
+                    RenderingHints.KEY_RENDERING,
+                    RenderingHints.VALUE_RENDER_QUALITY
+            );
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+}
@@ -6,10 +6,14 @@
 package io.xseries.xclip.domain.model;
 
 /**
- * Derived clipboard-content category used by the popup UI.
+ * Derived clipboard-content category used by the popup UI and retention rules.
  *
- * The value is intentionally not persisted: it is deterministic metadata that
- * can be recalculated from the original clipboard content at any time.
+ * The value is deterministic metadata recalculated from the original content.
+ * SQLite stores {@link #name()} in content_type only so retention cleanup can
+ * run per-type rules in SQL; a NULL value means the row is not yet backfilled.
+ *
+ * {@link #IMAGE} is never derived from text. It is stored when an image
+ * capture creates the row and marks clips whose payload lives in clip_images.
  */
 public enum ClipContentType {
     TEXT("TEXT", "text"),
@@ -17,7 +21,8 @@ public enum ClipContentType {
     URL("URL", "url"),
     PATH("PATH", "path"),
     JSON("JSON", "json"),
-    COMMAND("COMMAND", "command");
+    COMMAND("COMMAND", "command"),
+    IMAGE("IMAGE", "image");
 
     private final String label;
     private final String cssClass;
@@ -0,0 +1,479 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.privacy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Single-pass detector behind {@link SensitiveContentPolicy#detect(String)}.
+ *
+ * It reproduces three former regular expressions exactly:
+ *
+ * - Payment card: {@code (?<![A-Za-z0-9])(?:\d[ -]?){12,18}\d(?![A-Za-z0-9])},
+ *   searched left to right with greedy length and resumed after each match,
+ *   followed by the leading-digit, repeated-digit and Luhn checks.
+ * - One-time code: {@code (?<!\d)\d{4,8}(?!\d)}, a maximal ASCII digit run.
+ * - Context: the multilingual keyword alternation, matched case-insensitively
+ *   with Unicode word boundaries inside the substring that extends
+ *   {@link #OTP_CONTEXT_RADIUS} chars around each code.
+ *
+ * Card matches are evaluated from their start with a lookahead bounded by the
+ * longest card (19 digits and 18 separators). Context keywords are found by
+ * one Aho-Corasick automaton over case-folded chars. Codes and keyword hits
+ * are kept only while a context window can still contain them, so every char
+ * is visited a bounded number of times and worst-case time is linear.
+ */
+final class SensitiveContentScanner {
+
+    static final int OTP_CONTEXT_RADIUS = 96;
+
+    private static final int CARD_MIN_DIGITS = 13;
+    private static final int CARD_MAX_DIGITS = 19;
+    private static final int OTP_MIN_DIGITS = 4;
+    private static final int OTP_MAX_DIGITS = 8;
+
+    /** General categories that are word chars besides alphabetic ones. */
+    private static final int WORD_TYPES = (1 << Character.NON_SPACING_MARK)
+            | (1 << Character.ENCLOSING_MARK)
+            | (1 << Character.COMBINING_SPACING_MARK)
+            | (1 << Character.DECIMAL_DIGIT_NUMBER)
+            | (1 << Character.CONNECTOR_PUNCTUATION);
+
+    /** Every literal the former OTP_CONTEXT alternation could match. */
+    static final List<String> OTP_CONTEXT_PHRASES = otpContextPhrases();
+
+    private static final KeywordAutomaton OTP_CONTEXT =
+            new KeywordAutomaton(OTP_CONTEXT_PHRASES);
+
+    private final String text;
+    private final int length;
+    private final boolean scanCards;
+    private final boolean scanCodes;
+
+    private final int[] cardDigits = new int[CARD_MAX_DIGITS];
+    private int cardDigitCount;
+
+    /** Context windows of codes that later keyword hits may still fall into. */
+    private final IntPairQueue pendingWindows = new IntPairQueue();
+    /** Keyword hits that later code windows may still contain. */
+    private final IntPairQueue keywordHits = new IntPairQueue();
+
+    private SensitiveContentScanner(String text, boolean scanCards, boolean scanCodes) {
+        this.text = text;
+        this.length = text.length();
+        this.scanCards = scanCards;
+        this.scanCodes = scanCodes;
+    }
+
+    /**
+     * @return detected kinds among the requested ones; scanning stops as soon
+     *         as every requested kind was found
+     */
+    static EnumSet<SensitiveContentPolicy.SensitiveKind> scan(
+            String text,
+            boolean cards,
+            boolean codes
+    ) {
+        return new SensitiveContentScanner(text, cards, codes).run();
+    }
+
+    private EnumSet<SensitiveContentPolicy.SensitiveKind> run() {
+        boolean cardFound = !scanCards;
+        boolean codeFound = !scanCodes;
+        int cardResume = 0;
+        int runStart = -1;
+        int state = KeywordAutomaton.ROOT;
+
+        for (int index = 0; index <= length && !(cardFound && codeFound); index++) {
+            char ch = index < length ? text.charAt(index) : '\0';
+            boolean digit = index < length && isDigit(ch);
+
+            if (!cardFound && digit && index >= cardResume
+                    && (index == 0 || !isAsciiAlphanumeric(text.charAt(index - 1)))) {
+                int end = cardMatchEnd(index);
+                if (end >= 0) {
+                    cardFound = passesCardChecks();
+                    cardResume = end;
+                }
+            }
+
+            if (codeFound) continue;
+
+            if (digit) {
+                if (runStart < 0) runStart = index;
+            } else if (runStart >= 0) {
+                int runLength = index - runStart;
+                if (runLength >= OTP_MIN_DIGITS && runLength <= OTP_MAX_DIGITS) {
+                    codeFound = addCode(runStart, index);
+                }
+                runStart = -1;
+            }
+            if (index == length) break;
+
+            state = OTP_CONTEXT.next(state, ch);
+            for (int phraseLength : OTP_CONTEXT.matchLengths(state)) {
+                codeFound |= addKeywordHit(index + 1 - phraseLength, index + 1);
+            }
+            prune(runStart >= 0 ? runStart : index + 1, index + 1);
+        }
+
+        EnumSet<SensitiveContentPolicy.SensitiveKind> result =
+                EnumSet.noneOf(SensitiveContentPolicy.SensitiveKind.class);
+        if (scanCards && cardFound) result.add(SensitiveContentPolicy.SensitiveKind.PAYMENT_CARD);
+        if (scanCodes && codeFound) result.add(SensitiveContentPolicy.SensitiveKind.ONE_TIME_CODE);
+        return result;
+    }
+
+    /**
+     * Greedy card match starting at a digit: the longest digit count in
+     * [13, 19] reachable through single separators whose last digit is not
+     * followed by an ASCII letter or digit.
+     *
+     * @return exclusive match end, or -1 when nothing matches at start
+     */
+    private int cardMatchEnd(int start) {
+        int matchEnd = -1;
+        int digits = 0;
+        int position = start;
+        while (true) {
+            cardDigits[digits++] = text.charAt(position) - '0';
+            int after = position + 1;
+            if (digits >= CARD_MIN_DIGITS
+                    && (after == length || !isAsciiAlphanumeric(text.charAt(after)))) {
+                matchEnd = after;
+                cardDigitCount = digits;
+            }
+            if (digits == CARD_MAX_DIGITS || after == length) break;
+
+            char next = text.charAt(after);
+            if (isDigit(next)) {
+                position = after;
+            } else if ((next == ' ' || next == '-')
+                    && after + 1 < length
+                    && isDigit(text.charAt(after + 1))) {
+                position = after + 1;
+            } else {
+                break;
+            }
+        }
+        return matchEnd;
+    }
+
+    private boolean passesCardChecks() {
+        int leading = cardDigits[0];
+        if (leading < 2 || leading > 6) return false;
+
+        boolean allEqual = true;
+        for (int index = 1; index < cardDigitCount && allEqual; index++) {
+            allEqual = cardDigits[index] == leading;
+        }
+        if (allEqual) return false;
+
+        int sum = 0;
+        boolean doubleDigit = false;
+        for (int index = cardDigitCount - 1; index >= 0; index--) {
+            int digit = cardDigits[index];
+            if (doubleDigit) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+            doubleDigit = !doubleDigit;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * Registers a code at [start, end) and checks its window against keyword
+     * hits already seen.
+     */
+    private boolean addCode(int start, int end) {
+        int windowStart = Math.max(0, start - OTP_CONTEXT_RADIUS);
+        int windowEnd = (int) Math.min(length, (long) end + OTP_CONTEXT_RADIUS);
+        for (int index = keywordHits.head; index < keywordHits.tail; index++) {
+            if (inWindow(keywordHits.first[index], keywordHits.second[index],
+                    windowStart, windowEnd)) {
+                return true;
+            }
+        }
+        pendingWindows.add(windowStart, windowEnd);
+        return false;
+    }
+
+    /**
+     * Registers a keyword at [start, end) and checks it against pending code
+     * windows.
+     */
+    private boolean addKeywordHit(int start, int end) {
+        for (int index = pendingWindows.head; index < pendingWindows.tail; index++) {
+            if (inWindow(start, end, pendingWindows.first[index], pendingWindows.second[index])) {
+                return true;
+            }
+        }
+        keywordHits.add(start, end);
+        return false;
+    }
+
+    /**
+     * Drops windows that end before the next keyword can end, and keyword
+     * hits that start before any future window can start.
+     */
+    private void prune(int earliestFutureCodeStart, int processed) {
+        while (pendingWindows.head < pendingWindows.tail
+                && pendingWindows.second[pendingWindows.head] <= processed) {
+            pendingWindows.head++;
+        }
+        int earliestWindowStart = earliestFutureCodeStart - OTP_CONTEXT_RADIUS;
+        while (keywordHits.head < keywordHits.tail
+                && keywordHits.first[keywordHits.head] < earliestWindowStart) {
+            keywordHits.head++;
+        }
+        pendingWindows.compact();
+        keywordHits.compact();
+    }
+
+    /**
+     * A keyword hit counts for a window when it lies inside the window and
+     * both of its ends are word boundaries within the window substring.
+     */
+    private boolean inWindow(int start, int end, int windowStart, int windowEnd) {
+        return start >= windowStart
+                && end <= windowEnd
+                && isBoundary(start, windowStart, windowEnd)
+                && isBoundary(end, windowStart, windowEnd);
+    }
+
+    /**
+     * {@code \b} under UNICODE_CHARACTER_CLASS, evaluated as if the window were
+     * a separate string: nothing exists outside it, and a surrogate pair split
+     * by the window edge reads as a lone surrogate.
+     */
+    private boolean isBoundary(int position, int windowStart, int windowEnd) {
+        boolean left = position > windowStart && isWord(codePointBefore(position, windowStart));
+        boolean right = position < windowEnd && isWord(codePointAt(position, windowEnd));
+        return left ^ right;
+    }
+
+    private int codePointBefore(int position, int windowStart) {
+        char low = text.charAt(position - 1);
+        if (Character.isLowSurrogate(low) && position - 2 >= windowStart) {
+            char high = text.charAt(position - 2);
+            if (Character.isHighSurrogate(high)) return Character.toCodePoint(high, low);
+        }
+        return low;
+    }
+
+    private int codePointAt(int position, int windowEnd) {
+        char high = text.charAt(position);
+        if (Character.isHighSurrogate(high) && position + 1 < windowEnd) {
+            char low = text.charAt(position + 1);
+            if (Character.isLowSurrogate(low)) return Character.toCodePoint(high, low);
+        }
+        return high;
+    }
+
+    /** Same set as the regex word predicate used by {@code \b} with (?U). */
+    static boolean isWord(int codePoint) {
+        if (codePoint < 0x80) {
+            return (codePoint >= 'a' && codePoint <= 'z')
+                    || (codePoint >= 'A' && codePoint <= 'Z')
+                    || (codePoint >= '0' && codePoint <= '9')
+                    || codePoint == '_';
+        }
+        return Character.isAlphabetic(codePoint)
+                || ((WORD_TYPES >> Character.getType(codePoint)) & 1) != 0
+                || codePoint == 0x200C
+                || codePoint == 0x200D;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isAsciiAlphanumeric(char ch) {
+        return isDigit(ch) || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    private static List<String> otpContextPhrases() {
+        List<String> phrases = new ArrayList<>(List.of(
+                "otp",
+                "2fa",
+                "verification code",
+                "security code",
+                "authentication code",
+                "login code",
+                "код подтверждения",
+                "одноразовый код",
+                "код безопасности",
+                "код входа",
+                "tasdiqlash kodi",
+                "bir martalik kod"
+        ));
+        for (String separator : List.of("", "-", " ")) {
+            for (String suffix : List.of("", " password", " passcode", " code")) {
+                phrases.add("one" + separator + "time" + suffix);
+            }
+            phrases.add("sign" + separator + "in code");
+        }
+        return List.copyOf(phrases);
+    }
+
+    /**
+     * Growable queue of int pairs. Entries before head are consumed; compact()
+     * reclaims them once they dominate the arrays.
+     */
+    private static final class IntPairQueue {
+        private int[] first = new int[16];
+        private int[] second = new int[16];
+        private int head;
+        private int tail;
+
+        private void add(int a, int b) {
+            if (tail == first.length) {
+                compact();
+                if (tail == first.length) {
+                    first = Arrays.copyOf(first, first.length * 2);
+                    second = Arrays.copyOf(second, second.length * 2);
+                }
+            }
+            first[tail] = a;
+            second[tail] = b;
+            tail++;
+        }
+
+        private void compact() {
+            if (head == 0 || head < tail - head) return;
+            System.arraycopy(first, head, first, 0, tail - head);
+            System.arraycopy(second, head, second, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+    }
+
+    /**
+     * Aho-Corasick automaton over case-folded chars with a dense transition
+     * table. Folding matches case-insensitive Unicode regex literals:
+     * {@code toLowerCase(toUpperCase(c))}, one UTF-16 char at a time.
+     */
+    static final class KeywordAutomaton {
+
+        static final int ROOT = 0;
+
+        private static final int[] NO_MATCHES = new int[0];
+
+        private final char[] symbols;
+        private final int[] asciiSymbols = new int[128];
+        private final int[][] transitions;
+        private final int[][] matchLengths;
+
+        KeywordAutomaton(List<String> phrases) {
+            StringBuilder alphabet = new StringBuilder();
+            List<String> folded = new ArrayList<>(phrases.size());
+            for (String phrase : phrases) {
+                StringBuilder value = new StringBuilder(phrase.length());
+                for (int index = 0; index < phrase.length(); index++) {
+                    char ch = fold(phrase.charAt(index));
+                    value.append(ch);
+                    if (alphabet.indexOf(String.valueOf(ch)) < 0) alphabet.append(ch);
+                }
+                folded.add(value.toString());
+            }
+            symbols = alphabet.toString().toCharArray();
+            Arrays.sort(symbols);
+            Arrays.fill(asciiSymbols, -1);
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                if (symbols[symbol] < 128) asciiSymbols[symbols[symbol]] = symbol;
+            }
+
+            List<int[]> trie = new ArrayList<>();
+            List<int[]> outputs = new ArrayList<>();
+            trie.add(newRow());
+            outputs.add(NO_MATCHES);
+            for (String phrase : folded) {
+                int state = ROOT;
+                for (int index = 0; index < phrase.length(); index++) {
+                    int symbol = Arrays.binarySearch(symbols, phrase.charAt(index));
+                    if (trie.get(state)[symbol] < 0) {
+                        trie.get(state)[symbol] = trie.size();
+                        trie.add(newRow());
+                        outputs.add(NO_MATCHES);
+                    }
+                    state = trie.get(state)[symbol];
+                }
+                outputs.set(state, append(outputs.get(state), phrase.length()));
+            }
+
+            transitions = trie.toArray(new int[0][]);
+            matchLengths = outputs.toArray(new int[0][]);
+            int[] failure = new int[transitions.length];
+            int[] queue = new int[transitions.length];
+            int queueHead = 0;
+            int queueTail = 0;
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                int child = transitions[ROOT][symbol];
+                if (child < 0) {
+                    transitions[ROOT][symbol] = ROOT;
+                } else {
+                    failure[child] = ROOT;
+                    queue[queueTail++] = child;
+                }
+            }
+            while (queueHead < queueTail) {
+                int state = queue[queueHead++];
+                for (int output : matchLengths[failure[state]]) {
+                    matchLengths[state] = append(matchLengths[state], output);
+                }
+                for (int symbol = 0; symbol < symbols.length; symbol++) {
+                    int child = transitions[state][symbol];
+                    int fallback = transitions[failure[state]][symbol];
+                    if (child < 0) {
+                        transitions[state][symbol] = fallback;
+                    } else {
+                        failure[child] = fallback;
+                        queue[queueTail++] = child;
+                    }
+                }
+            }
+        }
+
+        int next(int state, char ch) {
+            int symbol = symbolOf(ch);
+            return symbol < 0 ? ROOT : transitions[state][symbol];
+        }
+
+        /** Lengths of all phrases that end at the char that led to state. */
+        int[] matchLengths(int state) {
+            return matchLengths[state];
+        }
+
+        private int symbolOf(char ch) {
+            if (ch < 128) {
+                return asciiSymbols[ch >= 'A' && ch <= 'Z' ? ch + ('a' - 'A') : ch];
+            }
+            int symbol = Arrays.binarySearch(symbols, fold(ch));
+            return symbol < 0 ? -1 : symbol;
+        }
+
+        private int[] newRow() {
+            int[] row = new int[symbols.length];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        private static char fold(char ch) {
+            return Character.toLowerCase(Character.toUpperCase(ch));
+        }
+
+        private static int[] append(int[] values, int value) {
+            int[] next = Arrays.copyOf(values, values.length + 1);
+            next[values.length] = value;
+            return next;
+        }
+    }
+}
@@ -39,6 +39,7 @@ public final class ClipContentActionService {
             case JSON -> ClipPrimaryAction.COPY_FORMATTED_JSON;
             case CODE -> ClipPrimaryAction.COPY_CODE;
             case COMMAND -> ClipPrimaryAction.COPY_COMMAND;
+            case IMAGE -> ClipPrimaryAction.NONE;
         };
     }
 
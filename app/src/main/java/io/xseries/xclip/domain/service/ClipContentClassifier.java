@@ -21,10 +21,20 @@ import java.util.regex.Pattern;
  * Classification precedence is intentionally strict:
  * URL -> PATH -> JSON -> COMMAND -> CODE -> TEXT.
  * Strong signatures are preferred over broad guesses to avoid noisy badges.
+ *
+ * Each detector is gated by the cheap facts it depends on: length limits,
+ * the outer delimiters and the first non-blank line. Leading code signatures
+ * are matched at the start of the value only, and the remaining code-score
+ * features are gathered in one pass that stops as soon as the score is
+ * decided, so no input is rescanned per feature.
  */
 public final class ClipContentClassifier {
 
+    private static final int MAX_URL_CHARS = 4_096;
+    private static final int MAX_PATH_CHARS = 32_767;
+    private static final int MAX_COMMAND_CHARS = 32_767;
     private static final int MAX_JSON_SCAN_CHARS = 1_000_000;
+    private static final int CODE_SCORE_THRESHOLD = 3;
 
     private static final Pattern WINDOWS_DRIVE_PATH =
             Pattern.compile("^[A-Za-z]:[\\\\/][^\\r\\n]*$");
@@ -78,12 +88,19 @@ public final class ClipContentClassifier {
                     Pattern.CASE_INSENSITIVE | Pattern.DOTALL
             );
 
-    private static final Pattern CODE_KEYWORD =
-            Pattern.compile("\\b(?:if|else|for|while|switch|return|try|catch|throw|new)\\b");
-    private static final Pattern FUNCTION_BLOCK =
-            Pattern.compile("\\b[A-Za-z_$][\\w$]*\\s*\\([^\\r\\n)]*\\)\\s*\\{");
-    private static final Pattern INDENTED_LINE =
-            Pattern.compile("(?m)^\\s{2,}\\S");
+    private static final String[] CODE_KEYWORDS = {
+            "if", "else", "for", "while", "switch", "return", "try", "catch", "throw", "new"
+    };
+
+    private static final int FEATURE_OPEN_BRACE = 1;
+    private static final int FEATURE_CLOSE_BRACE = 1 << 1;
+    private static final int FEATURE_SEMICOLON = 1 << 2;
+    private static final int FEATURE_ARROW = 1 << 3;
+    private static final int FEATURE_COMPARISON = 1 << 4;
+    private static final int FEATURE_KEYWORD = 1 << 5;
+    private static final int FEATURE_FUNCTION_BLOCK = 1 << 6;
+    private static final int FEATURE_INDENTED_LINE = 1 << 7;
+    private static final int FEATURE_LINE_BREAK = 1 << 8;
 
     private static final Set<String> SIMPLE_COMMANDS = Set.of(
             "cd", "dir", "ls", "pwd", "cat", "type", "echo", "mkdir", "md", "rmdir", "rd",
@@ -120,19 +137,21 @@ public final class ClipContentClassifier {
             return ClipContentType.TEXT;
         }
 
-        boolean hasLineBreak = TextValues.containsLineBreak(value);
-
-        if (isUrl(value, hasLineBreak)) return ClipContentType.URL;
-        if (isPath(value, hasLineBreak)) return ClipContentType.PATH;
+        int length = value.length();
+        if (length <= MAX_PATH_CHARS) {
+            boolean hasLineBreak = TextValues.containsLineBreak(value);
+            if (isUrl(value, hasLineBreak)) return ClipContentType.URL;
+            if (isPath(value, hasLineBreak)) return ClipContentType.PATH;
+        }
         if (isJson(value)) return ClipContentType.JSON;
-        if (isCommand(value)) return ClipContentType.COMMAND;
-        if (isCode(value, hasLineBreak)) return ClipContentType.CODE;
+        if (length <= MAX_COMMAND_CHARS && isCommand(value)) return ClipContentType.COMMAND;
+        if (isCode(value)) return ClipContentType.CODE;
 
         return ClipContentType.TEXT;
     }
 
     private static boolean isUrl(String value, boolean hasLineBreak) {
-        if (value.length() > 4_096 || hasLineBreak || value.indexOf(' ') >= 0) {
+        if (value.length() > MAX_URL_CHARS || hasLineBreak || value.indexOf(' ') >= 0) {
             return false;
         }
 
@@ -151,7 +170,7 @@ public final class ClipContentClassifier {
     }
 
     private static boolean isPath(String value, boolean hasLineBreak) {
-        if (value.length() > 32_767 || hasLineBreak) return false;
+        if (value.length() > MAX_PATH_CHARS || hasLineBreak) return false;
 
         return WINDOWS_DRIVE_PATH.matcher(value).matches()
                 || WINDOWS_UNC_PATH.matcher(value).matches()
@@ -174,8 +193,6 @@ public final class ClipContentClassifier {
     }
 
     private static boolean isCommand(String value) {
-        if (value.length() > 32_767) return false;
-
         String firstLine = firstNonBlankLine(value);
         if (firstLine.isEmpty()) return false;
 
@@ -220,25 +237,208 @@ public final class ClipContentClassifier {
         return false;
     }
 
-    private static boolean isCode(String value, boolean hasLineBreak) {
-        if (CODE_FENCE.matcher(value).find()
-                || HTML_OR_XML.matcher(value).find()
-                || SQL.matcher(value).find()
-                || DECLARATIVE_CODE.matcher(value).find()) {
+    /**
+     * @param value trimmed, non-empty text
+     */
+    static boolean isCode(String value) {
+        // Every signature is anchored at the start of the value, so lookingAt
+        // replaces a find that retried the anchor at each index.
+        if (CODE_FENCE.matcher(value).lookingAt()
+                || HTML_OR_XML.matcher(value).lookingAt()
+                || SQL.matcher(value).lookingAt()
+                || DECLARATIVE_CODE.matcher(value).lookingAt()) {
             return true;
         }
+        return codeScore(value) >= CODE_SCORE_THRESHOLD;
+    }
+
+    /**
+     * Code score gathered in one pass:
+     * braces +2, semicolon +1, arrow or scope operator +1, comparison or
+     * logical operator +1, keyword +1, function block +2 and, when the value
+     * has a line break, an indented line +1.
+     *
+     * Keywords and function blocks follow the word boundaries of
+     * {@code \b} in a default-flag regex. The pass stops once the score
+     * reaches the threshold.
+     */
+    private static int codeScore(String value) {
+        int features = 0;
+        int score = 0;
+        boolean calleeOpen = false;
+
+        int length = value.length();
+        for (int index = 0; index < length; index++) {
+            char ch = value.charAt(index);
+            char previous = index > 0 ? value.charAt(index - 1) : '\0';
+            int found = 0;
+
+            switch (ch) {
+                case '{' -> found = FEATURE_OPEN_BRACE;
+                case '}' -> found = FEATURE_CLOSE_BRACE;
+                case ';' -> found = FEATURE_SEMICOLON;
+                case '>' -> {
+                    if (previous == '=' || previous == '-') found = FEATURE_ARROW;
+                }
+                case ':' -> {
+                    if (previous == ':') found = FEATURE_ARROW;
+                }
+                case '=' -> {
+                    if (previous == '=' || previous == '!') found = FEATURE_COMPARISON;
+                }
+                case '&', '|' -> {
+                    if (previous == ch) found = FEATURE_COMPARISON;
+                }
+                case '(' -> {
+                    if (!calleeOpen) calleeOpen = hasCalleeBefore(value, index);
+                }
+                case ')' -> {
+                    if (calleeOpen && openBraceFollows(value, index + 1)) {
+                        found = FEATURE_FUNCTION_BLOCK;
+                    }
+                    calleeOpen = false;
+                }
+                case '\n', '\r' -> {
+                    calleeOpen = false;
+                    found = FEATURE_LINE_BREAK;
+                }
+                default -> {
+                    if ((features & FEATURE_KEYWORD) == 0 && startsKeyword(value, index)) {
+                        found = FEATURE_KEYWORD;
+                    }
+                }
+            }
+            if ((features & FEATURE_INDENTED_LINE) == 0 && startsIndentedLine(value, index)) {
+                found |= FEATURE_INDENTED_LINE;
+            }
+
+            if ((features | found) != features) {
+                features |= found;
+                score = score(features);
+                if (score >= CODE_SCORE_THRESHOLD) return score;
+            }
+        }
+        return score;
+    }
 
+    private static int score(int features) {
         int score = 0;
+        if ((features & (FEATURE_OPEN_BRACE | FEATURE_CLOSE_BRACE))
+                == (FEATURE_OPEN_BRACE | FEATURE_CLOSE_BRACE)) {
+            score += 2;
+        }
+        if ((features & FEATURE_SEMICOLON) != 0) score++;
+        if ((features & FEATURE_ARROW) != 0) score++;
+        if ((features & FEATURE_COMPARISON) != 0) score++;
+        if ((features & FEATURE_KEYWORD) != 0) score++;
+        if ((features & FEATURE_FUNCTION_BLOCK) != 0) score += 2;
+        if ((features & (FEATURE_INDENTED_LINE | FEATURE_LINE_BREAK))
+                == (FEATURE_INDENTED_LINE | FEATURE_LINE_BREAK)) {
+            score++;
+        }
+        return score;
+    }
+
+    /**
+     * Whether a keyword starts at index with a word boundary on both sides.
+     */
+    private static boolean startsKeyword(String value, int index) {
+        char ch = value.charAt(index);
+        if (ch < 'c' || ch > 'w') return false;
+        if (index > 0 && isAsciiWord(value.charAt(index - 1))) return false;
+
+        for (String keyword : CODE_KEYWORDS) {
+            if (keyword.charAt(0) == ch
+                    && value.startsWith(keyword, index)
+                    && !wordBefore(value, index)
+                    && !wordAt(value, index + keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the '(' at index follows {@code \b[A-Za-z_$][\w$]*\s*}.
+     */
+    private static boolean hasCalleeBefore(String value, int index) {
+        int nameEnd = index;
+        while (nameEnd > 0 && isRegexWhitespace(value.charAt(nameEnd - 1))) nameEnd--;
+        int nameStart = nameEnd;
+        while (nameStart > 0 && isIdentifierPart(value.charAt(nameStart - 1))) nameStart--;
+
+        for (int start = nameStart; start < nameEnd; start++) {
+            char ch = value.charAt(start);
+            if (ch >= '0' && ch <= '9') continue;
+            if (wordBefore(value, start) != wordAt(value, start)) return true;
+        }
+        return false;
+    }
+
+    private static boolean openBraceFollows(String value, int index) {
+        while (index < value.length() && isRegexWhitespace(value.charAt(index))) index++;
+        return index < value.length() && value.charAt(index) == '{';
+    }
+
+    /**
+     * Whether index is a multiline {@code ^} position followed by at least
+     * two whitespace chars. The value is trimmed, so a visible char always
+     * follows the whitespace run.
+     */
+    private static boolean startsIndentedLine(String value, int index) {
+        if (index == 0 || index + 1 >= value.length()) return false;
 
-        if (value.contains("{") && value.contains("}")) score += 2;
-        if (value.contains(";")) score++;
-        if (value.contains("=>") || value.contains("->") || value.contains("::")) score++;
-        if (value.contains("==") || value.contains("!=") || value.contains("&&") || value.contains("||")) score++;
-        if (CODE_KEYWORD.matcher(value).find()) score++;
-        if (FUNCTION_BLOCK.matcher(value).find()) score += 2;
-        if (hasLineBreak && INDENTED_LINE.matcher(value).find()) score++;
+        char previous = value.charAt(index - 1);
+        char ch = value.charAt(index);
+        if (previous != '\n' && previous != '\r'
+                && previous != '\u2028' && previous != '\u2029' && previous != '\u0085') {
+            return false;
+        }
+        if (previous == '\r' && ch == '\n') return false;
+        return isRegexWhitespace(ch) && isRegexWhitespace(value.charAt(index + 1));
+    }
+
+    /** Left side of a default-flag regex word boundary at index. */
+    private static boolean wordBefore(String value, int index) {
+        if (index == 0) return false;
+        int codePoint = value.codePointBefore(index);
+        return isWord(codePoint)
+                || (Character.getType(codePoint) == Character.NON_SPACING_MARK
+                && hasBaseCharacter(value, index - 1));
+    }
+
+    /** Right side of a default-flag regex word boundary at index. */
+    private static boolean wordAt(String value, int index) {
+        if (index >= value.length()) return false;
+        int codePoint = value.codePointAt(index);
+        return isWord(codePoint)
+                || (Character.getType(codePoint) == Character.NON_SPACING_MARK
+                && hasBaseCharacter(value, index));
+    }
+
+    /** Non-spacing marks count as word chars only after a letter or digit. */
+    private static boolean hasBaseCharacter(String value, int index) {
+        for (int position = index; position >= 0; position--) {
+            int codePoint = value.codePointAt(position);
+            if (Character.isLetterOrDigit(codePoint)) return true;
+            if (Character.getType(codePoint) != Character.NON_SPACING_MARK) return false;
+        }
+        return false;
+    }
+
+    private static boolean isWord(int codePoint) {
+        return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+    }
+
+    private static boolean isAsciiWord(char ch) {
+        return (ch >= 'a' && ch <= 'z')
+                || (ch >= 'A' && ch <= 'Z')
+                || (ch >= '0' && ch <= '9')
+                || ch == '_';
+    }
 
-        return score >= 3;
+    private static boolean isIdentifierPart(char ch) {
+        return isAsciiWord(ch) || ch == '$';
     }
 
     private static String firstNonBlankLine(String value) {
@@ -283,7 +483,7 @@ public final class ClipContentClassifier {
 
         int argumentStart = firstSeparator;
         while (argumentStart < value.length()
-                && isCommandWhitespace(value.charAt(argumentStart))) {
+                && isRegexWhitespace(value.charAt(argumentStart))) {
             argumentStart++;
         }
         if (argumentStart >= value.length()) {
@@ -302,12 +502,13 @@ public final class ClipContentClassifier {
 
     private static int indexOfCommandWhitespace(String value, int start) {
         for (int index = start; index < value.length(); index++) {
-            if (isCommandWhitespace(value.charAt(index))) return index;
+            if (isRegexWhitespace(value.charAt(index))) return index;
         }
         return -1;
     }
 
-    private static boolean isCommandWhitespace(char ch) {
+    /** The {@code \s} set of a default-flag regex. */
+    private static boolean isRegexWhitespace(char ch) {
         return ch == ' '
                 || ch == '\t'
                 || ch == '\n'
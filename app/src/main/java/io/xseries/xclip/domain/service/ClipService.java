@@ -7,17 +7,54 @@ package io.xseries.xclip.domain.service;
 
 import io.xseries.xclip.config.Config;
 import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.dao.HistoryTransferDao;
+import io.xseries.xclip.data.dao.HistoryTransferDao.ExportResult;
+import io.xseries.xclip.data.dao.HistoryTransferDao.ImportResult;
+import io.xseries.xclip.data.db.CaptureSpillJournal;
+import io.xseries.xclip.data.db.CaptureSpillJournal.ApplyResult;
 import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
 import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
 import io.xseries.xclip.domain.duplicate.DuplicatePolicyEngine;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
 
-import java.util.List;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 public final class ClipService {
 
+    /**
+     * After a failed write, captures go straight to the spill journal until
+     * one observed at least this much later retries the replay.
+     */
+    static final long SPILL_RETRY_INTERVAL_MILLIS = 2_000L;
+
+    /**
+     * SQLite primary result codes that describe the database or the disk, not
+     * the capture: busy, locked, I/O error, full, cannot open, protocol.
+     */
+    private static final Set<Integer> TRANSIENT_SQLITE_CODES = Set.of(5, 6, 10, 13, 14, 15);
+
     private final ClipEntryDao dao;
+    private final CaptureSpillJournal spillJournal;
+    private final HistoryTransferDao transfer;
+
+    /**
+     * Serializes SQLite writes with suspension and spill replay, so spilled
+     * captures always reach storage before newer ones.
+     */
+    private final Object storageLock = new Object();
+    private boolean storageSuspended;
+    private boolean spillPending;
+    // Set by discardSpilledCaptures until resume: captures still in flight are dropped.
+    private boolean spillsDiscarded;
+    private long nextReplayAt;
 
     private volatile int retentionLimit;
     private volatile int minClipLength = 0;
@@ -36,7 +73,30 @@ public final class ClipService {
     private final AtomicLong createdEntryCounter = new AtomicLong(0);
 
     public ClipService(ClipEntryDao dao) {
+        this(dao, null);
+    }
+
+    /**
+     * @param spillJournal receives captures while storage is suspended or a
+     *                     write fails; null disables spilling, so such
+     *                     captures are lost
+     */
+    public ClipService(ClipEntryDao dao, CaptureSpillJournal spillJournal) {
+        this(dao, spillJournal, null);
+    }
+
+    /**
+     * @param transfer exports and imports NDJSON history; null disables both
+     */
+    public ClipService(
+            ClipEntryDao dao,
+            CaptureSpillJournal spillJournal,
+            HistoryTransferDao transfer
+    ) {
         this.dao = dao;
+        this.spillJournal = spillJournal;
+        this.transfer = transfer;
+        this.spillPending = spillJournal != null && !spillJournal.isEmpty();
         this.retentionLimit = clampRetention(800);
         this.minClipLength = clampMinLen(0);
     }
@@ -77,57 +137,402 @@ public final class ClipService {
     }
 
     void ingestTextAt(String text, long now) {
-        if (text == null || now < 0) return;
+        PreparedCapture capture = prepareCapture(text, now);
+        if (capture != null) persistCapture(capture);
+    }
+
+    /**
+     * CPU-only half of ingest: capture limits, duplicate keys and self-copy
+     * suppression. Returns null when the value must not be stored.
+     *
+     * The staged capture pipeline runs this on its prepare worker and hands
+     * the result to {@link #persistCapture} on the persist worker.
+     */
+    public PreparedCapture prepareCapture(String text, long now) {
+        return prepareCapture(text, false, now);
+    }
+
+    /**
+     * @param sourceTruncated true when text is only a prefix of the clipboard,
+     *                        read under {@link #maxClipChars()}
+     */
+    public PreparedCapture prepareCapture(String text, boolean sourceTruncated, long now) {
+        if (text == null || now < 0) return null;
 
         DuplicateBehaviorPolicy policy = duplicatePolicy;
-        String captured = prepareCapturedContent(text, policy);
-        if (captured == null) return;
+        CapturedContent content = prepareCapturedContent(text, sourceTruncated, policy);
+        if (content == null) return null;
+        String captured = content.text();
 
         DuplicateContentKeys.Prepared prepared =
                 DuplicateContentKeys.prepare(captured, policy);
-        if (prepared.normalizedContent().isEmpty()) return;
+        if (prepared.normalizedContent().isEmpty()) return null;
+
+        if (isSelfCopy(prepared.selectedHash(), now)) return null;
+
+        return new PreparedCapture(
+                policy,
+                captured,
+                prepared,
+                NearDuplicateFingerprint.of(captured),
+                content.truncated(),
+                now
+        );
+    }
+
+    /**
+     * Storage half of ingest: duplicate lookup, update or insert, and pruning.
+     *
+     * While storage is suspended, or after a failed write, the capture is
+     * appended to the spill journal instead. Pending spilled captures are
+     * replayed first, in order, once storage accepts writes again.
+     */
+    public void persistCapture(PreparedCapture capture) {
+        if (capture == null) return;
+
+        boolean inserted;
+        synchronized (storageLock) {
+            if (spillJournal == null) {
+                if (storageSuspended) return;
+                inserted = store(capture);
+            } else if (storageSuspended || !replayBeforeStore(capture.capturedAt())) {
+                spill(capture);
+                return;
+            } else {
+                try {
+                    inserted = store(capture);
+                } catch (RuntimeException failure) {
+                    spill(capture);
+                    nextReplayAt = capture.capturedAt() + SPILL_RETRY_INTERVAL_MILLIS;
+                    return;
+                }
+            }
+            if (inserted) maintainRetentionAfterInsert();
+        }
+    }
+
+    /**
+     * Storage half of a capture the spill journal cannot hold, such as an
+     * image. store runs under the same lock as text captures, so it never
+     * overlaps maintenance, and inserted rows advance the shared prune
+     * cadence. While storage is suspended the calling worker waits, holding
+     * the capture, until {@link #resumeStorage()}; an interrupt while waiting
+     * drops it.
+     *
+     * @param store writes the capture; returns true when it inserted a row
+     */
+    public void persistUnjournaled(BooleanSupplier store) {
+        Objects.requireNonNull(store, "store");
+
+        synchronized (storageLock) {
+            if (!awaitStorageResumed()) return;
+            if (store.getAsBoolean()) maintainRetentionAfterInsert();
+        }
+    }
+
+    /**
+     * Reads for unjournaled work, such as the stored image a thumbnail is
+     * made from, behind the same suspension gate as
+     * {@link #persistUnjournaled}, so no connection opens during maintenance.
+     *
+     * @return read's result, or null when interrupted while storage was suspended
+     */
+    public <T> T readUnjournaled(Supplier<T> read) {
+        Objects.requireNonNull(read, "read");
+        synchronized (storageLock) {
+            return awaitStorageResumed() ? read.get() : null;
+        }
+    }
+
+    /**
+     * Waits on storageLock, which the caller holds, while storage is suspended.
+     *
+     * @return false when the thread was interrupted while waiting
+     */
+    private boolean awaitStorageResumed() {
+        while (storageSuspended) {
+            try {
+                storageLock.wait();
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Routes captures to the spill journal, and holds unjournaled work, until
+     * {@link #resumeStorage()}. Waits for an in-flight write, so the caller
+     * may release connections and take the database for maintenance as soon
+     * as this returns.
+     */
+    public void suspendStorage() {
+        synchronized (storageLock) {
+            storageSuspended = true;
+        }
+    }
+
+    /**
+     * Ends a suspension and replays spilled captures.
+     */
+    public void resumeStorage() {
+        synchronized (storageLock) {
+            storageSuspended = false;
+            spillsDiscarded = false;
+            storageLock.notifyAll();
+        }
+        replaySpilledCaptures();
+    }
+
+    /**
+     * Replays spilled captures, in capture order, through the normal
+     * duplicate pipeline. Captures that cannot be written while the database
+     * is busy or unavailable stay in the journal; one that keeps failing on
+     * its own is quarantined by the journal so later ones still get through.
+     * Used at startup for captures spilled by an earlier session.
+     *
+     * Runs on the calling thread and releases its DAO connection afterwards.
+     */
+    public void replaySpilledCaptures() {
+        try {
+            synchronized (storageLock) {
+                if (!storageSuspended && spillPending) replayLocked();
+            }
+        } finally {
+            dao.closeForCurrentThread();
+        }
+    }
+
+    public ExportResult exportHistory(Path target) {
+        HistoryTransferDao transfer = requireTransfer();
+        try {
+            return transfer.exportTo(target);
+        } finally {
+            transfer.closeForCurrentThread();
+        }
+    }
+
+    /**
+     * Imports an NDJSON history file next to live capture; SQLite serializes
+     * the batches with capture writes. Imported rows bypass the per-insert
+     * prune cadence, so the history limit is applied once afterwards, also
+     * when a later batch failed after earlier ones committed.
+     */
+    public ImportResult importHistory(Path source) {
+        HistoryTransferDao transfer = requireTransfer();
+        try {
+            return transfer.importFrom(source);
+        } finally {
+            try {
+                pruneToRetentionLimit();
+            } finally {
+                transfer.closeForCurrentThread();
+                dao.closeForCurrentThread();
+            }
+        }
+    }
+
+    private HistoryTransferDao requireTransfer() {
+        if (transfer == null) throw new IllegalStateException("History transfer is not available");
+        return transfer;
+    }
 
-        if (isSelfCopy(prepared.selectedHash(), now)) return;
+    /**
+     * Applies the history limit under the storage lock, so the prune never
+     * overlaps maintenance. Skipped when interrupted while storage is suspended.
+     */
+    private void pruneToRetentionLimit() {
+        synchronized (storageLock) {
+            if (awaitStorageResumed()) dao.pruneToLimit(retentionLimit);
+        }
+    }
+
+    /**
+     * Deletes spilled captures without storing them, for local data removal.
+     * Captures still queued in the capture pipeline are dropped instead of
+     * spilled until {@link #resumeStorage()}, so none outlives the removal.
+     */
+    public void discardSpilledCaptures() {
+        if (spillJournal == null) return;
+        synchronized (storageLock) {
+            spillsDiscarded = true;
+            spillJournal.clear();
+            spillPending = false;
+        }
+    }
+
+    /**
+     * A capture observed at now may be stored only after every spilled one.
+     * Replay is retried at most once per retry interval.
+     */
+    private boolean replayBeforeStore(long now) {
+        if (!spillPending) return true;
+        if (now < nextReplayAt) return false;
+        if (replayLocked()) return true;
+
+        nextReplayAt = now + SPILL_RETRY_INTERVAL_MILLIS;
+        return false;
+    }
+
+    /**
+     * @return true when the journal is empty afterwards
+     */
+    private boolean replayLocked() {
+        int[] inserted = {0};
+        try {
+            spillJournal.replay(spilled -> {
+                try {
+                    PreparedCapture replayed = prepareCapture(
+                            spilled.content(),
+                            spilled.truncated(),
+                            spilled.capturedAt()
+                    );
+                    if (replayed != null && store(replayed)) inserted[0]++;
+                    return ApplyResult.APPLIED;
+                } catch (RuntimeException failure) {
+                    return isTransientStorageFailure(failure)
+                            ? ApplyResult.RETRY_LATER
+                            : ApplyResult.FAILED;
+                }
+            });
+        } catch (RuntimeException journalFailure) {
+            // The journal keeps every record it could not confirm as applied.
+        }
+        spillPending = !spillJournal.isEmpty();
+
+        if (inserted[0] > 0) {
+            try {
+                dao.pruneToLimit(retentionLimit);
+            } catch (RuntimeException ignored) {
+                // The next periodic prune enforces the limit.
+            }
+        }
+        return !spillPending;
+    }
+
+    /**
+     * True when failure says storage is unavailable for now, such as a busy
+     * or locked database, rather than that this capture cannot be stored.
+     */
+    static boolean isTransientStorageFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                if (TRANSIENT_SQLITE_CODES.contains(sql.getErrorCode() & 0xFF)) return true;
+                String message = sql.getMessage();
+                if (message != null) {
+                    String lower = message.toLowerCase(Locale.ROOT);
+                    if (lower.contains("database is locked") || lower.contains("sqlite_busy")) return true;
+                }
+            }
+            if (cause.getCause() == cause) break;
+        }
+        return false;
+    }
+
+    private void spill(PreparedCapture capture) {
+        if (spillsDiscarded) return;
+        spillJournal.append(new CaptureSpillJournal.SpilledCapture(
+                capture.content(),
+                capture.truncated(),
+                capture.capturedAt()
+        ));
+        spillPending = true;
+    }
+
+    /**
+     * Duplicate lookup, then near-duplicate lookup when the policy collapses
+     * near-duplicates, then update or insert.
+     *
+     * @return true when a new row was inserted
+     */
+    private boolean store(PreparedCapture capture) {
+        DuplicateBehaviorPolicy policy = capture.policy();
+        String captured = capture.content();
+        DuplicateContentKeys.Prepared prepared = capture.prepared();
+        long now = capture.capturedAt();
 
         long cutoff = duplicateCutoff(policy, now);
-        List<ClipEntryDao.DuplicateCandidate> candidates = dao.findDuplicateCandidates(
-                prepared.selectedKind(),
+        DuplicateContentKeys.KeyKind kind = prepared.selectedKind();
+        String keySource = kind.normalizesWhitespace()
+                ? prepared.normalizedContent()
+                : captured;
+        ClipEntryDao.DuplicateCandidate candidate = dao.findDuplicateCandidate(
+                kind,
                 prepared.selectedHash(),
+                keySource,
                 cutoff
         );
 
-        for (ClipEntryDao.DuplicateCandidate candidate : candidates) {
+        // Only the newest hash match is verified. An older equal row can only
+        // exist when the newest one is a hash collision, which is not worth a
+        // bulk content read on every capture.
+        if (candidate != null && dao.matchesDuplicateKey(
+                candidate.id(),
+                kind,
+                keySource,
+                prepared.canonicalKey()
+        )) {
             DuplicatePolicyEngine.Decision decision =
-                    DuplicatePolicyEngine.evaluateCanonical(
+                    DuplicatePolicyEngine.evaluateMatched(
                             policy,
-                            candidate.content(),
                             candidate.pinned(),
                             candidate.lastCopiedAt(),
-                            prepared.canonicalKey(),
                             now
                     );
 
-            if (!decision.duplicate()) continue;
-
-            if (dao.applyDuplicate(
+            if (decision.duplicate() && dao.applyDuplicate(
                     candidate.id(),
                     captured,
                     prepared.normalizedContent(),
                     prepared.keys(),
+                    capture.nearFingerprint(),
                     now,
                     decision
             )) {
-                return;
+                return false;
             }
         }
 
+        if (collapseNearDuplicate(capture, cutoff)) return false;
+
         dao.insertNew(
                 captured,
                 prepared.normalizedContent(),
                 prepared.keys(),
+                capture.nearFingerprint(),
                 now
         );
-        maintainRetentionAfterInsert();
+        return true;
+    }
+
+    /**
+     * Folds the capture into the newest unpinned row with a near fingerprint.
+     * The row takes the incoming text, so it always shows the latest variant.
+     */
+    private boolean collapseNearDuplicate(PreparedCapture capture, long cutoff) {
+        Long fingerprint = capture.nearFingerprint();
+        if (fingerprint == null || !capture.policy().collapsesNearDuplicates()) return false;
+
+        ClipEntryDao.DuplicateCandidate candidate =
+                dao.findNearDuplicateCandidate(fingerprint, cutoff);
+        if (candidate == null) return false;
+
+        DuplicatePolicyEngine.Decision decision = DuplicatePolicyEngine.evaluateMatched(
+                capture.policy(),
+                candidate.pinned(),
+                candidate.lastCopiedAt(),
+                capture.capturedAt()
+        );
+        return decision.duplicate() && dao.applyDuplicate(
+                candidate.id(),
+                capture.content(),
+                capture.prepared().normalizedContent(),
+                capture.prepared().keys(),
+                fingerprint,
+                capture.capturedAt(),
+                decision
+        );
     }
 
     /**
@@ -137,15 +542,28 @@ public final class ClipService {
         if (textThatWillBeSetToClipboard == null) return;
 
         DuplicateBehaviorPolicy policy = duplicatePolicy;
-        String captured = prepareCapturedContent(textThatWillBeSetToClipboard, policy);
+        CapturedContent captured =
+                prepareCapturedContent(textThatWillBeSetToClipboard, false, policy);
         if (captured == null) return;
 
         lastPushedDuplicateHash.set(
-                DuplicateContentKeys.selectedHashFor(captured, policy)
+                DuplicateContentKeys.selectedHashFor(captured.text(), policy)
         );
         lastPushedAtMs.set(System.currentTimeMillis());
     }
 
+    public DuplicateBehaviorPolicy duplicatePolicy() {
+        return duplicatePolicy;
+    }
+
+    /**
+     * Current capture cap in chars. The clipboard watcher reads at most this
+     * many characters, so oversized clipboard text is never materialized.
+     */
+    public int maxClipChars() {
+        return maxClipChars;
+    }
+
     /**
      * Releases the DAO connection owned by the current worker thread.
      *
@@ -156,13 +574,16 @@ public final class ClipService {
         dao.closeForCurrentThread();
     }
 
-    private String prepareCapturedContent(
+    private CapturedContent prepareCapturedContent(
             String source,
+            boolean sourceTruncated,
             DuplicateBehaviorPolicy policy
     ) {
         if (source.isBlank()) return null;
 
-        String meaningful = source.trim();
+        // A truncated source does not end where the clipboard ends, so only
+        // its leading side may be trimmed.
+        String meaningful = sourceTruncated ? trimLeading(source) : source.trim();
         if (meaningful.isEmpty()) return null;
 
         int minLen = this.minClipLength;
@@ -173,16 +594,24 @@ public final class ClipService {
         String captured = preserveCharacters ? source : meaningful;
 
         int cap = this.maxClipChars;
-        boolean truncated = cap > 0 && captured.length() > cap;
-        if (truncated) {
+        boolean capped = cap > 0 && captured.length() > cap;
+        if (capped) {
             captured = captured.substring(0, cap);
         }
 
         // meaningful is already non-empty. Only a preserved, truncated prefix
         // can become blank after the initial check.
-        return preserveCharacters && truncated && captured.isBlank()
-                ? null
-                : captured;
+        if (preserveCharacters && capped && captured.isBlank()) return null;
+        return new CapturedContent(captured, capped || sourceTruncated);
+    }
+
+    /** {@link String#trim()} applied to the leading side only. */
+    private static String trimLeading(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return value.substring(start);
     }
 
     private boolean isSelfCopy(String hash, long now) {
@@ -193,12 +622,16 @@ public final class ClipService {
         return dt >= 0 && dt <= SELF_COPY_WINDOW_MS;
     }
 
-    private long duplicateCutoff(DuplicateBehaviorPolicy policy, long now) {
+    static long duplicateCutoff(DuplicateBehaviorPolicy policy, long now) {
         long window = policy.duplicateWindowMillis();
         if (window == DuplicateBehaviorPolicy.UNLIMITED_WINDOW) return 0L;
         return window >= now ? 0L : now - window;
     }
 
+    /**
+     * Prunes every tenth insert. Called with storageLock held right after the
+     * insert, so the prune never overlaps maintenance.
+     */
     private void maintainRetentionAfterInsert() {
         int limit = this.retentionLimit;
         if (createdEntryCounter.incrementAndGet() % 10 == 0) {
@@ -206,6 +639,30 @@ public final class ClipService {
         }
     }
 
+    private record CapturedContent(String text, boolean truncated) {}
+
+    /**
+     * Immutable hand-off between the prepare and persist stages. The policy is
+     * the snapshot the keys were derived from, so a concurrent config change
+     * cannot mix key kinds within one capture. nearFingerprint is null when
+     * the content is not fingerprinted. truncated reports that the stored
+     * content is a prefix of what was on the clipboard.
+     */
+    public record PreparedCapture(
+            DuplicateBehaviorPolicy policy,
+            String content,
+            DuplicateContentKeys.Prepared prepared,
+            Long nearFingerprint,
+            boolean truncated,
+            long capturedAt
+    ) {
+        public PreparedCapture {
+            policy = Objects.requireNonNull(policy, "policy");
+            content = Objects.requireNonNull(content, "content");
+            prepared = Objects.requireNonNull(prepared, "prepared");
+        }
+    }
+
     private static int clampRetention(int v) {
         if (v < 100) return 100;
         if (v > 50_000) return 50_000;
@@ -10,6 +10,7 @@ package io.xseries.xclip.domain.service;
 
 import io.xseries.xclip.config.Config;
 import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.event.ClipChangeEvent;
 import io.xseries.xclip.domain.model.ClipContentType;
 import io.xseries.xclip.domain.retention.HistoryRetentionPolicy;
 
@@ -43,6 +44,8 @@ public final class HistoryCleanupService implements AutoCloseable {
     public static final long PERIODIC_INTERVAL_HOURS = 6L;
     public static final long EXIT_CLEANUP_TIMEOUT_MILLIS = 3_000L;
     static final int RETENTION_SCAN_BATCH_SIZE = 512;
+    static final int RETENTION_DELETE_CHUNK_SIZE = 500;
+    static final long RETENTION_CHUNK_PAUSE_MILLIS = 2L;
 
     private static final long DISABLED_CUTOFF = -1L;
 
@@ -60,6 +63,8 @@ public final class HistoryCleanupService implements AutoCloseable {
     private final AtomicBoolean started = new AtomicBoolean(false);
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private final AtomicBoolean maintenancePaused = new AtomicBoolean(false);
+    // Trigger of a pass that maintenance stopped partway, run again on resume.
+    private final AtomicReference<CleanupTrigger> pausedTrigger = new AtomicReference<>();
 
     public HistoryCleanupService(ClipEntryDao dao) {
         this(dao, Clock.systemDefaultZone(), newExecutor());
@@ -204,35 +209,45 @@ public final class HistoryCleanupService implements AutoCloseable {
                 ));
             }
 
+            long startedNanos = System.nanoTime();
             try {
-                long candidateCutoff = snapshot
-                        .candidateCutoffExclusive(nowMillis)
-                        .orElseThrow();
                 RetentionEvaluationPlan evaluation =
                         RetentionEvaluationPlan.from(snapshot, nowMillis);
-                List<Long> deleteIds = new ArrayList<>();
-
-                long afterId = 0L;
-                while (true) {
-                    List<ClipEntryDao.RetentionCandidate> candidates =
-                            dao.listRetentionCandidatesAfter(
-                                    candidateCutoff,
-                                    afterId,
-                                    RETENTION_SCAN_BATCH_SIZE
-                            );
-                    if (candidates.isEmpty()) break;
-
-                    for (ClipEntryDao.RetentionCandidate candidate : candidates) {
-                        if (evaluation.shouldDelete(candidate)) {
-                            deleteIds.add(candidate.id());
-                        }
-                    }
+                ChunkedDeletion run = new ChunkedDeletion();
 
-                    afterId = candidates.get(candidates.size() - 1).id();
-                    if (candidates.size() < RETENTION_SCAN_BATCH_SIZE) break;
+                long generalCutoff = evaluation.generalCutoffExclusive;
+                if (generalCutoff != DISABLED_CUTOFF) {
+                    drainExpired(run, generalCutoff, null);
+                }
+                for (ClipContentType type : ClipContentType.values()) {
+                    long typeCutoff = evaluation.typeCutoffsExclusive[type.ordinal()];
+                    if (typeCutoff > generalCutoff) {
+                        drainExpired(run, typeCutoff, type);
+                    }
+                }
+                if (evaluation.hasTypeRules) {
+                    drainUnclassified(
+                            run,
+                            evaluation,
+                            snapshot.candidateCutoffExclusive(nowMillis).orElseThrow()
+                    );
                 }
 
-                int deleted = dao.deleteByIds(deleteIds);
+                int deleted = run.deleted;
+                if (maintenancePaused.get()) {
+                    // A drain may have stopped before its rule was done.
+                    pausedTrigger.set(trigger);
+                    return publish(new CleanupStatus(
+                            nowMillis,
+                            trigger,
+                            CleanupOutcome.PAUSED,
+                            deleted,
+                            "Paused for data maintenance; cleanup resumes afterwards",
+                            System.nanoTime() - startedNanos,
+                            run.longestLockHoldNanos,
+                            run.chunks
+                    ));
+                }
                 return publish(new CleanupStatus(
                         nowMillis,
                         trigger,
@@ -240,8 +255,14 @@ public final class HistoryCleanupService implements AutoCloseable {
                         deleted,
                         deleted == 0
                                 ? "No eligible RECENT clips"
-                                : "Deleted " + deleted + " RECENT clip" + (deleted == 1 ? "" : "s")
+                                : "Deleted " + deleted + " RECENT clip" + (deleted == 1 ? "" : "s"),
+                        System.nanoTime() - startedNanos,
+                        run.longestLockHoldNanos,
+                        run.chunks
                 ));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return publish(failedStatus(nowMillis, trigger, interrupted));
             } catch (Throwable failure) {
                 return publish(failedStatus(nowMillis, trigger, failure));
             } finally {
@@ -250,6 +271,70 @@ public final class HistoryCleanupService implements AutoCloseable {
         }
     }
 
+    /**
+     * Deletes rows matched by one SQL rule in short autocommit chunks until the
+     * rule is drained. Each chunk releases the write lock before the next one
+     * starts, so captures and popup reads interleave with a large cleanup.
+     */
+    private void drainExpired(
+            ChunkedDeletion run,
+            long cutoffExclusive,
+            ClipContentType type
+    ) throws InterruptedException {
+        while (!maintenancePaused.get()) {
+            long started = System.nanoTime();
+            int deleted = dao.deleteExpiredChunk(
+                    cutoffExclusive,
+                    type,
+                    RETENTION_DELETE_CHUNK_SIZE
+            );
+            run.record(deleted, System.nanoTime() - started);
+            if (deleted < RETENTION_DELETE_CHUNK_SIZE) return;
+            yieldBetweenChunks();
+        }
+    }
+
+    /**
+     * Applies per-type rules to rows whose stored type has not been backfilled
+     * yet. Classification happens in Java, one bounded keyset page at a time.
+     */
+    private void drainUnclassified(
+            ChunkedDeletion run,
+            RetentionEvaluationPlan evaluation,
+            long candidateCutoff
+    ) throws InterruptedException {
+        long afterId = 0L;
+        while (!maintenancePaused.get()) {
+            List<ClipEntryDao.RetentionCandidate> candidates =
+                    dao.listUnclassifiedRetentionCandidatesAfter(
+                            candidateCutoff,
+                            afterId,
+                            RETENTION_SCAN_BATCH_SIZE
+                    );
+            if (candidates.isEmpty()) return;
+
+            List<Long> deleteIds = new ArrayList<>();
+            for (ClipEntryDao.RetentionCandidate candidate : candidates) {
+                if (evaluation.shouldDelete(candidate)) {
+                    deleteIds.add(candidate.id());
+                }
+            }
+            if (!deleteIds.isEmpty()) {
+                long started = System.nanoTime();
+                int deleted = dao.deleteByIds(deleteIds);
+                run.record(deleted, System.nanoTime() - started);
+            }
+
+            afterId = candidates.get(candidates.size() - 1).id();
+            if (candidates.size() < RETENTION_SCAN_BATCH_SIZE) return;
+            yieldBetweenChunks();
+        }
+    }
+
+    private static void yieldBetweenChunks() throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(RETENTION_CHUNK_PAUSE_MILLIS);
+    }
+
     /**
      * Prevents new cleanup work and waits until any active cleanup leaves its
      * database critical section. The service remains restartable when a
@@ -265,10 +350,14 @@ public final class HistoryCleanupService implements AutoCloseable {
     }
 
     /**
-     * Re-enables scheduled and manual cleanup after a failed maintenance action.
+     * Re-enables scheduled and manual cleanup after a maintenance action, and
+     * reschedules a pass that the maintenance stopped partway.
      */
     public void resumeAfterMaintenance() {
-        if (!closed.get()) maintenancePaused.set(false);
+        if (closed.get()) return;
+        maintenancePaused.set(false);
+        CleanupTrigger interrupted = pausedTrigger.getAndSet(null);
+        if (interrupted != null) requestCleanup(interrupted);
     }
 
     /**
@@ -390,8 +479,15 @@ public final class HistoryCleanupService implements AutoCloseable {
         );
     }
 
+    /**
+     * Rule-based deletes do not name their rows, so a pass that removed any
+     * is announced once as Purged on the DAO's change bus.
+     */
     private CleanupStatus publish(CleanupStatus next) {
         status.set(next);
+        if (next.deletedCount() > 0) {
+            dao.changes().publish(new ClipChangeEvent.Purged(next.deletedCount()));
+        }
         for (Consumer<CleanupStatus> listener : listeners) {
             notifyListener(listener, next);
         }
@@ -428,12 +524,28 @@ public final class HistoryCleanupService implements AutoCloseable {
         });
     }
 
+    /**
+     * Mutable counters for one cleanup run; confined to the cleanup thread.
+     */
+    private static final class ChunkedDeletion {
+
+        private int deleted;
+        private int chunks;
+        private long longestLockHoldNanos;
+
+        private void record(int deletedRows, long lockHoldNanos) {
+            deleted += deletedRows;
+            chunks++;
+            longestLockHoldNanos = Math.max(longestLockHoldNanos, lockHoldNanos);
+        }
+    }
+
     /**
      * Precomputed cutoffs for one cleanup run.
      *
-     * Rows older than the general RECENT cutoff can be deleted without content
-     * classification. Classification is performed only for candidates that may
-     * match a stricter per-type override.
+     * Stored content types let every rule run as a set-based SQL delete. The
+     * in-Java evaluation below is used only for rows whose type has not been
+     * backfilled yet, and classifies only when a per-type override may match.
      */
     private static final class RetentionEvaluationPlan {
 
@@ -518,15 +630,24 @@ public final class HistoryCleanupService implements AutoCloseable {
         SUCCESS,
         SKIPPED,
         FAILED,
-        TIMED_OUT
+        TIMED_OUT,
+        /** Stopped partway by data maintenance; rescheduled on resume. */
+        PAUSED
     }
 
+    /**
+     * Result of one cleanup pass. Duration, longest single write-lock hold and
+     * chunk count are zero for passes that do not run chunked retention.
+     */
     public record CleanupStatus(
             long completedAt,
             CleanupTrigger trigger,
             CleanupOutcome outcome,
             int deletedCount,
-            String detail
+            String detail,
+            long durationNanos,
+            long longestLockHoldNanos,
+            int chunkCount
     ) {
         public CleanupStatus {
             if (completedAt < 0) {
@@ -538,6 +659,19 @@ public final class HistoryCleanupService implements AutoCloseable {
                 throw new IllegalArgumentException("deletedCount cannot be negative");
             }
             detail = Objects.requireNonNullElse(detail, "").trim();
+            if (durationNanos < 0 || longestLockHoldNanos < 0 || chunkCount < 0) {
+                throw new IllegalArgumentException("cleanup metrics cannot be negative");
+            }
+        }
+
+        public CleanupStatus(
+                long completedAt,
+                CleanupTrigger trigger,
+                CleanupOutcome outcome,
+                int deletedCount,
+                String detail
+        ) {
+            this(completedAt, trigger, outcome, deletedCount, detail, 0L, 0L, 0);
         }
 
         public static CleanupStatus notRun() {
@@ -549,5 +683,13 @@ public final class HistoryCleanupService implements AutoCloseable {
                     "Cleanup has not run yet"
             );
         }
+
+        public double durationMillis() {
+            return durationNanos / 1_000_000.0;
+        }
+
+        public double longestLockHoldMillis() {
+            return longestLockHoldNanos / 1_000_000.0;
+        }
     }
 }
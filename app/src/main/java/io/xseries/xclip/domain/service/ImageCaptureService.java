@@ -0,0 +1,286 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.service;
+
+import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.dao.ClipImageDao;
+import io.xseries.xclip.data.model.ClipImage;
+import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
+import io.xseries.xclip.domain.duplicate.DuplicatePolicyEngine;
+import io.xseries.xclip.domain.duplicate.PerceptualImageHash;
+import io.xseries.xclip.domain.image.ClipImageCodec;
+
+import java.awt.image.BufferedImage;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Image clipboard ingest: perceptual-hash dedup, PNG storage and thumbnails.
+ *
+ * The watcher hands over decoded images without blocking. Hashing, encoding
+ * and SQLite writes run on one capture worker behind a queue of
+ * {@value #CAPTURE_QUEUE_CAPACITY}; when it is full the oldest pending image
+ * is dropped, so a burst of screenshots cannot pile full-size bitmaps onto
+ * the heap and the newest clipboard state always survives.
+ *
+ * A capture whose perceptual hash matches a recent image of the same size is
+ * a duplicate under the text duplicate policy: its window, and whether the
+ * row moves up, apply unchanged. Writes go through
+ * {@link ClipService#persistUnjournaled} and reads through
+ * {@link ClipService#readUnjournaled}: during backup, restore or vacuum the
+ * worker holds its image until storage resumes, and inserts share the prune
+ * cadence of text clips.
+ *
+ * Thumbnails are produced afterwards on a separate worker from the stored
+ * PNG, and {@link #start()} fills in those a previous session left missing.
+ */
+public final class ImageCaptureService implements AutoCloseable {
+
+    static final int CAPTURE_QUEUE_CAPACITY = 2;
+    static final int THUMBNAIL_SWEEP_BATCH = 64;
+
+    private static final String CONTENT_HASH_PREFIX = "image:";
+    private static final long SELF_COPY_WINDOW_MS = 1_500L;
+    private static final long STOP_TIMEOUT_MILLIS = 2_000L;
+
+    private final ClipService clipService;
+    private final ClipImageDao images;
+    private final ThreadPoolExecutor captureExecutor;
+    private final ExecutorService thumbnailExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    // Self-copy suppression (when the popup copies an image).
+    private final AtomicLong lastPushedPhash = new AtomicLong();
+    private final AtomicLong lastPushedAtMs = new AtomicLong(0);
+
+    public ImageCaptureService(ClipService clipService, ClipImageDao images) {
+        this.clipService = Objects.requireNonNull(clipService, "clipService");
+        this.images = Objects.requireNonNull(images, "images");
+        this.captureExecutor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPTURE_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "xclip-image-capture");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy()
+        );
+        this.thumbnailExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "xclip-image-thumbnails");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues thumbnails for image clips stored without one.
+     */
+    public void start() {
+        execute(thumbnailExecutor, this::sweepPendingThumbnails);
+    }
+
+    /**
+     * Entry point for the clipboard watcher. Returns without blocking.
+     *
+     * @param allowed privacy decision for this capture, evaluated on the
+     *                capture worker; callers bind it to the context they
+     *                snapshot at observation time, such as the foreground
+     *                application
+     */
+    public void submit(BufferedImage image, long observedAt, BooleanSupplier allowed) {
+        if (image == null || closed.get()) return;
+        Objects.requireNonNull(allowed, "allowed");
+        execute(captureExecutor, () -> {
+            try {
+                if (!allowed.getAsBoolean()) return;
+                capture(image, observedAt);
+            } catch (Throwable ignored) {
+                // One unreadable or unwritable image must not stop later captures.
+            }
+        });
+    }
+
+    /**
+     * Called immediately before XClip writes an image clip to the clipboard.
+     */
+    public void markPushedByApp(long phash) {
+        lastPushedPhash.set(phash);
+        lastPushedAtMs.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Hashes and encodes an image for storage.
+     *
+     * @return the payload, or null when the image exceeds
+     *         {@link ClipImageCodec#MAX_PIXELS}
+     */
+    public static ClipImage prepare(BufferedImage image) {
+        return prepare(image, PerceptualImageHash.of(image));
+    }
+
+    private static ClipImage prepare(BufferedImage image, long phash) {
+        Objects.requireNonNull(image, "image");
+        if ((long) image.getWidth() * image.getHeight() > ClipImageCodec.MAX_PIXELS) return null;
+
+        byte[] encoded = ClipImageCodec.encode(image);
+        return new ClipImage(
+                contentHash(encoded),
+                phash,
+                image.getWidth(),
+                image.getHeight(),
+                encoded
+        );
+    }
+
+    void capture(BufferedImage image, long observedAt) {
+        if ((long) image.getWidth() * image.getHeight() > ClipImageCodec.MAX_PIXELS) return;
+
+        long phash = PerceptualImageHash.of(image);
+        if (isSelfCopy(phash, observedAt)) return;
+
+        ClipImage prepared = prepare(image, phash);
+        if (prepared == null) return;
+
+        long[] insertedId = {0L};
+        clipService.persistUnjournaled(() -> {
+            long id = store(prepared, observedAt);
+            insertedId[0] = id;
+            return id > 0;
+        });
+        if (insertedId[0] > 0) {
+            long id = insertedId[0];
+            execute(thumbnailExecutor, () -> createThumbnail(id));
+        }
+    }
+
+    /**
+     * @return id of the inserted clip, or zero when a duplicate absorbed it
+     */
+    private long store(ClipImage image, long now) {
+        DuplicateBehaviorPolicy policy = clipService.duplicatePolicy();
+        long cutoff = ClipService.duplicateCutoff(policy, now);
+
+        ClipEntryDao.DuplicateCandidate candidate = images.findDuplicateCandidate(
+                image.phash(),
+                image.width(),
+                image.height(),
+                cutoff
+        );
+        if (candidate != null) {
+            DuplicatePolicyEngine.Decision decision = DuplicatePolicyEngine.evaluateMatched(
+                    policy,
+                    candidate.pinned(),
+                    candidate.lastCopiedAt(),
+                    now
+            );
+            if (decision.duplicate() && images.applyDuplicate(candidate.id(), now, decision)) {
+                return 0L;
+            }
+        }
+        return images.insert(image, now);
+    }
+
+    private void sweepPendingThumbnails() {
+        long afterId = 0L;
+        while (!closed.get()) {
+            List<Long> pending;
+            long cursor = afterId;
+            try {
+                pending = clipService.readUnjournaled(
+                        () -> images.listPendingThumbnails(cursor, THUMBNAIL_SWEEP_BATCH)
+                );
+            } catch (RuntimeException unavailable) {
+                return;
+            }
+            if (pending == null) return;
+            for (long id : pending) {
+                if (closed.get()) return;
+                createThumbnail(id);
+            }
+            if (pending.size() < THUMBNAIL_SWEEP_BATCH) return;
+            afterId = pending.get(pending.size() - 1);
+        }
+    }
+
+    private void createThumbnail(long id) {
+        try {
+            ClipImage image = clipService.readUnjournaled(() -> images.load(id));
+            if (image == null) return;
+
+            byte[] thumbnail = ClipImageCodec.thumbnail(image.encoded());
+            clipService.persistUnjournaled(() -> {
+                images.storeThumbnail(id, thumbnail);
+                return false;
+            });
+        } catch (Throwable ignored) {
+            // The row stays pending; the next start retries it.
+        }
+    }
+
+    private boolean isSelfCopy(long phash, long now) {
+        long pushedAt = lastPushedAtMs.get();
+        if (pushedAt == 0L) return false;
+
+        long dt = now - pushedAt;
+        return dt >= 0
+                && dt <= SELF_COPY_WINDOW_MS
+                && PerceptualImageHash.distance(phash, lastPushedPhash.get())
+                        <= PerceptualImageHash.MAX_DISTANCE;
+    }
+
+    private void execute(ExecutorService executor, Runnable task) {
+        if (closed.get()) return;
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Closed concurrently.
+        }
+    }
+
+    static String contentHash(byte[] encoded) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(encoded);
+            return CONTENT_HASH_PREFIX + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is unavailable", e);
+        }
+    }
+
+    /**
+     * Stops both workers. A pending capture is discarded; an in-flight write
+     * gets {@value #STOP_TIMEOUT_MILLIS} ms to finish.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+
+        captureExecutor.shutdownNow();
+        thumbnailExecutor.shutdownNow();
+        try {
+            captureExecutor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            thumbnailExecutor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
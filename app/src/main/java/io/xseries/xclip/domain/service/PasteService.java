@@ -14,11 +14,12 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 /**
  * Coordinates direct paste:
- * 1. writes text to the clipboard;
+ * 1. writes text, or an image, to the clipboard;
  * 2. hides XClip;
  * 3. restores the previously active external window;
  * 4. sends Ctrl+V.
@@ -148,7 +149,15 @@ public final class PasteService implements AutoCloseable {
             // Clipboard write can still proceed. Self-copy suppression is best effort.
         }
 
-        if (!clipboardWriter.write(text)) {
+        return paste(() -> clipboardWriter.write(text), hidePopup);
+    }
+
+    /**
+     * Direct paste of content the caller writes to the clipboard itself,
+     * such as an image. The caller also owns self-copy suppression.
+     */
+    public StartResult paste(BooleanSupplier writeClipboard, Runnable hidePopup) {
+        if (writeClipboard == null || !writeClipboard.getAsBoolean()) {
             return StartResult.CLIPBOARD_UNAVAILABLE;
         }
 
@@ -31,12 +31,17 @@ import java.util.Objects;
  * remain reusable after checkpoint, vacuum, and backup operations. A successful
  * restore is followed by application exit so all runtime state is reconstructed
  * from the restored files on the next launch.
+ *
+ * The popup startup snapshot caches the first page of clip text. It is deleted
+ * with the data it mirrors on clear-all and restore, so cleared or replaced
+ * clips never reappear in the next launch's first frame.
  */
 public final class DataOwnershipService {
 
     private final Database database;
     private final Path dataDir;
     private final Path configPath;
+    private final Path popupSnapshotPath;
     private final List<Runnable> databaseConnectionReleasers;
     private final DatabaseMaintenanceService maintenance;
 
@@ -52,6 +57,7 @@ public final class DataOwnershipService {
                 database,
                 AppPaths.dataDir(),
                 AppPaths.configPath(),
+                AppPaths.popupSnapshotPath(),
                 databaseConnectionReleasers == null
                         ? List.of()
                         : Arrays.stream(databaseConnectionReleasers)
@@ -64,11 +70,13 @@ public final class DataOwnershipService {
             Database database,
             Path dataDir,
             Path configPath,
+            Path popupSnapshotPath,
             List<Runnable> databaseConnectionReleasers
     ) {
         this.database = Objects.requireNonNull(database, "database");
         this.dataDir = Objects.requireNonNull(dataDir, "dataDir");
         this.configPath = Objects.requireNonNull(configPath, "configPath");
+        this.popupSnapshotPath = Objects.requireNonNull(popupSnapshotPath, "popupSnapshotPath");
         this.databaseConnectionReleasers = List.copyOf(
                 Objects.requireNonNullElse(databaseConnectionReleasers, List.of())
         );
@@ -118,11 +126,15 @@ public final class DataOwnershipService {
 
     public RestoreResult restoreBackup(Path source) {
         releaseDatabaseConnections();
-        return maintenance.restoreBackup(source);
+        RestoreResult result = maintenance.restoreBackup(source);
+        // The restored history replaces the rows the snapshot shows.
+        deletePopupSnapshot();
+        return result;
     }
 
     public void clearAllData() {
         releaseDatabaseConnections();
+        deletePopupSnapshot();
 
         // Delete configuration first. If SQLite deletion is blocked by another
         // process, the still-running app can reopen its intact database and the
@@ -139,6 +151,17 @@ public final class DataOwnershipService {
         database.deleteDatabaseFile();
     }
 
+    private void deletePopupSnapshot() {
+        try {
+            Files.deleteIfExists(popupSnapshotPath);
+        } catch (Exception error) {
+            throw new RuntimeException(
+                    "Failed to delete popup snapshot: " + popupSnapshotPath,
+                    error
+            );
+        }
+    }
+
     private void releaseDatabaseConnections() {
         RuntimeException failure = null;
 
@@ -0,0 +1,69 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads at most maxChars + 1 characters from a text reader. The extra
+ * character only proves that the source is longer; it is never returned.
+ *
+ * CRLF line ends are read as LF, as AWT does for clipboard text, and the cap
+ * counts the normalized text. A CR that ends one transfer is held until the
+ * next character shows whether it starts a CRLF; lone CRs are kept.
+ *
+ * The transfer buffer is reused between reads, so the only allocation that
+ * grows with the clipboard is the result itself, which is bounded by the cap.
+ * Instances are confined to one thread.
+ */
+final class CappedTextReader {
+
+    static final int BUFFER_CHARS = 8 * 1024;
+
+    private final char[] buffer = new char[BUFFER_CHARS];
+
+    /**
+     * @param maxChars cap in chars; zero or negative reads everything
+     */
+    ClipboardText read(Reader reader, int maxChars) throws IOException {
+        long limit = maxChars > 0 ? maxChars + 1L : Long.MAX_VALUE;
+        StringBuilder text = new StringBuilder((int) Math.min(limit, BUFFER_CHARS));
+        boolean pendingCr = false;
+
+        // Every character read adds at most one normalized character, so the
+        // held CR is counted to keep the read within limit.
+        while (text.length() + (pendingCr ? 1 : 0) < limit) {
+            int wanted = (int) Math.min(buffer.length, limit - text.length() - (pendingCr ? 1 : 0));
+            int read = reader.read(buffer, 0, wanted);
+            if (read < 0) break;
+
+            for (int index = 0; index < read; index++) {
+                char c = buffer[index];
+                if (pendingCr) {
+                    pendingCr = false;
+                    if (c == '\n') {
+                        text.append('\n');
+                        continue;
+                    }
+                    text.append('\r');
+                }
+                if (c == '\r') {
+                    pendingCr = true;
+                } else {
+                    text.append(c);
+                }
+            }
+        }
+        if (pendingCr) text.append('\r');
+
+        if (text.length() > maxChars && maxChars > 0) {
+            text.setLength(maxChars);
+            return new ClipboardText(text.toString(), true);
+        }
+        return ClipboardText.complete(text.toString());
+    }
+}
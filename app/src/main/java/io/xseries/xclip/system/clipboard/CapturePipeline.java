@@ -0,0 +1,390 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Staged clipboard ingest: observe, gate, prepare, persist.
+ *
+ * The watcher thread only observes. {@link #submit(ClipboardText)} snapshots the
+ * observation context (the foreground application) and returns without
+ * blocking. Privacy evaluation, duplicate-key preparation and SQLite writes
+ * each run on one dedicated daemon worker behind a bounded queue, so storage
+ * latency never delays the next clipboard poll.
+ *
+ * Back-pressure never blocks the producer. When a queue is full, a new
+ * capture first supersedes a pending capture with the same text (merge);
+ * otherwise the oldest pending capture is dropped so the newest clipboard
+ * state always survives.
+ *
+ * The persist worker is the only pipeline thread that touches storage.
+ * onPersistWorkerStopped runs on it before it exits, which lets the DAO close
+ * that thread's connection.
+ */
+public final class CapturePipeline<C, P> implements AutoCloseable {
+
+    public static final int GATE_QUEUE_CAPACITY = 32;
+    public static final int PREPARE_QUEUE_CAPACITY = 16;
+    public static final int PERSIST_QUEUE_CAPACITY = 16;
+
+    private static final long STAGE_STOP_TIMEOUT_MILLIS = 2_000L;
+
+    private final Supplier<C> observeContext;
+    private final BiPredicate<String, C> gate;
+    private final BiFunction<ClipboardText, Long, P> prepare;
+    private final Consumer<P> persist;
+
+    private final StageCounters observeCounters = new StageCounters("observe", 0);
+    private final Stage<C, P> gateStage;
+    private final Stage<C, P> prepareStage;
+    private final Stage<C, P> persistStage;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * @param observeContext runs on the submitting thread; failures yield null
+     * @param gate           runs on the gate worker; failures allow capture
+     * @param prepare        runs on the prepare worker with the capped text and
+     *                       its observation time; null skips the capture
+     * @param persist        runs on the persist worker
+     */
+    public CapturePipeline(
+            Supplier<C> observeContext,
+            BiPredicate<String, C> gate,
+            BiFunction<ClipboardText, Long, P> prepare,
+            Consumer<P> persist,
+            Runnable onPersistWorkerStopped
+    ) {
+        this.observeContext = Objects.requireNonNull(observeContext, "observeContext");
+        this.gate = Objects.requireNonNull(gate, "gate");
+        this.prepare = Objects.requireNonNull(prepare, "prepare");
+        this.persist = Objects.requireNonNull(persist, "persist");
+        Objects.requireNonNull(onPersistWorkerStopped, "onPersistWorkerStopped");
+
+        this.persistStage = new Stage<>(
+                "persist",
+                PERSIST_QUEUE_CAPACITY,
+                this::runPersist,
+                onPersistWorkerStopped
+        );
+        this.prepareStage = new Stage<>(
+                "prepare",
+                PREPARE_QUEUE_CAPACITY,
+                this::runPrepare,
+                () -> {}
+        );
+        this.gateStage = new Stage<>(
+                "gate",
+                GATE_QUEUE_CAPACITY,
+                this::runGate,
+                () -> {}
+        );
+        persistStage.start();
+        prepareStage.start();
+        gateStage.start();
+    }
+
+    /**
+     * Observe stage entry point, called by the clipboard watcher.
+     */
+    public void submit(ClipboardText text) {
+        if (text == null || closed.get()) return;
+
+        long started = System.nanoTime();
+        C context;
+        try {
+            context = observeContext.get();
+        } catch (Throwable ignored) {
+            context = null;
+        }
+        Capture<C, P> capture = new Capture<>(text, System.currentTimeMillis(), context);
+        observeCounters.accepted();
+        gateStage.offer(capture);
+        observeCounters.completed(System.nanoTime() - started, false);
+    }
+
+    /**
+     * Current per-stage queue depth, drop/merge counts and latency, in
+     * pipeline order. Stage latency spans queue wait plus processing.
+     */
+    public List<StageMetrics> metrics() {
+        return List.of(
+                observeCounters.snapshot(0),
+                gateStage.metrics(),
+                prepareStage.metrics(),
+                persistStage.metrics()
+        );
+    }
+
+    private void runGate(Capture<C, P> capture) {
+        boolean allowed;
+        try {
+            allowed = gate.test(capture.text.text(), capture.context);
+        } catch (Throwable ignored) {
+            allowed = true;
+        }
+        if (allowed) prepareStage.offer(capture);
+    }
+
+    private void runPrepare(Capture<C, P> capture) {
+        P prepared = prepare.apply(capture.text, capture.observedAtMillis);
+        if (prepared == null) return;
+
+        capture.prepared = prepared;
+        persistStage.offer(capture);
+    }
+
+    private void runPersist(Capture<C, P> capture) {
+        persist.accept(capture.prepared);
+    }
+
+    /**
+     * Stops accepting captures, drains each stage in order and stops its
+     * worker. A stage that does not drain within the timeout is interrupted.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+
+        boolean interrupted = false;
+        for (Stage<C, P> stage : List.of(gateStage, prepareStage, persistStage)) {
+            interrupted |= stage.finish(STAGE_STOP_TIMEOUT_MILLIS);
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    public record StageMetrics(
+            String stage,
+            int depth,
+            int capacity,
+            int maxDepth,
+            long accepted,
+            long completed,
+            long merged,
+            long dropped,
+            long failed,
+            long totalLatencyNanos,
+            long maxLatencyNanos
+    ) {
+        public double averageLatencyMillis() {
+            return completed == 0
+                    ? 0.0
+                    : totalLatencyNanos / (double) completed / 1_000_000.0;
+        }
+
+        public double maxLatencyMillis() {
+            return maxLatencyNanos / 1_000_000.0;
+        }
+    }
+
+    /** One clipboard value travelling through the stages. */
+    private static final class Capture<C, P> {
+        private final ClipboardText text;
+        private final long observedAtMillis;
+        private final C context;
+        /** Written by the prepare worker before the hand-off to persist. */
+        private P prepared;
+
+        private Capture(ClipboardText text, long observedAtMillis, C context) {
+            this.text = text;
+            this.observedAtMillis = observedAtMillis;
+            this.context = context;
+        }
+    }
+
+    private record Pending<C, P>(Capture<C, P> capture, long enqueuedAtNanos) {}
+
+    private static final class StageCounters {
+        private final String name;
+        private final int capacity;
+        private int maxDepth;
+        private long accepted;
+        private long completed;
+        private long merged;
+        private long dropped;
+        private long failed;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+
+        private StageCounters(String name, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+        }
+
+        private synchronized void accepted() {
+            accepted++;
+        }
+
+        private synchronized void depth(int depth) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        private synchronized void merged() {
+            merged++;
+        }
+
+        private synchronized void dropped() {
+            dropped++;
+        }
+
+        private synchronized void completed(long latencyNanos, boolean failure) {
+            completed++;
+            if (failure) failed++;
+            totalLatencyNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        }
+
+        private synchronized StageMetrics snapshot(int depth) {
+            return new StageMetrics(
+                    name,
+                    depth,
+                    capacity,
+                    maxDepth,
+                    accepted,
+                    completed,
+                    merged,
+                    dropped,
+                    failed,
+                    totalLatencyNanos,
+                    maxLatencyNanos
+            );
+        }
+    }
+
+    private static final class Stage<C, P> {
+
+        private final StageCounters counters;
+        private final int capacity;
+        private final Consumer<Capture<C, P>> handler;
+        private final Runnable onWorkerStopped;
+        private final ArrayDeque<Pending<C, P>> queue = new ArrayDeque<>();
+        private final Thread worker;
+        private boolean finishing;
+
+        private Stage(
+                String name,
+                int capacity,
+                Consumer<Capture<C, P>> handler,
+                Runnable onWorkerStopped
+        ) {
+            this.counters = new StageCounters(name, capacity);
+            this.capacity = capacity;
+            this.handler = handler;
+            this.onWorkerStopped = onWorkerStopped;
+            this.worker = new Thread(this::runWorker, "xclip-capture-" + name);
+            this.worker.setDaemon(true);
+        }
+
+        private void start() {
+            worker.start();
+        }
+
+        private void offer(Capture<C, P> capture) {
+            synchronized (this) {
+                if (finishing) {
+                    counters.dropped();
+                    return;
+                }
+                counters.accepted();
+                if (queue.size() >= capacity && !supersedeEqual(capture.text)) {
+                    queue.pollFirst();
+                    counters.dropped();
+                }
+                queue.addLast(new Pending<>(capture, System.nanoTime()));
+                counters.depth(queue.size());
+                notifyAll();
+            }
+        }
+
+        /** Removes a pending capture whose text the new capture repeats. */
+        private boolean supersedeEqual(ClipboardText text) {
+            Iterator<Pending<C, P>> pending = queue.descendingIterator();
+            while (pending.hasNext()) {
+                if (pending.next().capture().text.equals(text)) {
+                    pending.remove();
+                    counters.merged();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized Pending<C, P> take() throws InterruptedException {
+            while (queue.isEmpty() && !finishing) {
+                wait();
+            }
+            return queue.pollFirst();
+        }
+
+        private void runWorker() {
+            try {
+                while (true) {
+                    Pending<C, P> next = take();
+                    if (next == null) return;
+
+                    boolean failure = false;
+                    try {
+                        handler.accept(next.capture());
+                    } catch (Throwable ignored) {
+                        failure = true;
+                    }
+                    counters.completed(System.nanoTime() - next.enqueuedAtNanos(), failure);
+                }
+            } catch (InterruptedException ignored) {
+                // close() gave up waiting for the drain.
+            } finally {
+                try {
+                    onWorkerStopped.run();
+                } catch (Throwable ignored) {
+                }
+            }
+        }
+
+        private StageMetrics metrics() {
+            int depth;
+            synchronized (this) {
+                depth = queue.size();
+            }
+            return counters.snapshot(depth);
+        }
+
+        /**
+         * @return true when the calling thread was interrupted while waiting
+         */
+        private boolean finish(long timeoutMillis) {
+            synchronized (this) {
+                finishing = true;
+                notifyAll();
+            }
+
+            boolean interrupted = false;
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (worker.isAlive()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    worker.interrupt();
+                    break;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+                } catch (InterruptedException interruption) {
+                    interrupted = true;
+                }
+            }
+            return interrupted;
+        }
+    }
+}
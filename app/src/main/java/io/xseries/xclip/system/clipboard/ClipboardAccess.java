@@ -1,4 +1,3 @@
-
 /*
  * XClip — Windows Clipboard Manager
  * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
@@ -6,11 +5,276 @@
  */
 package io.xseries.xclip.system.clipboard;
 
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.platform.win32.BaseTSD;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
 import java.awt.Toolkit;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.Transferable;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * System clipboard access.
+ *
+ * The change token is the Windows clipboard sequence number, a counter kept by
+ * the window station, so it is queried without opening the clipboard.
+ *
+ * Capped reads on Windows lock the CF_UNICODETEXT handle and copy UTF-16 chars
+ * straight from native memory, so at most the cap plus one character reaches
+ * the Java heap. Windows stores that text with CRLF line ends; they are read
+ * as LF, the same text AWT would return. AWT would first copy the whole native buffer and decode it
+ * into a String. Elsewhere, or when the native path is unavailable, capped
+ * reads go through an AWT reader for a text/plain flavor. Richer flavors such
+ * as HTML or RTF are never chosen, so the markup is not stored as the clip.
+ *
+ * Images are decoded by AWT. On Windows the CF_DIB header is read first, so
+ * an image over the pixel cap is skipped before any pixel is copied.
+ */
+public final class ClipboardAccess implements ClipboardSource {
+
+    private static final int CF_UNICODETEXT = 13;
+    private static final int CF_DIB = 8;
+    /** biWidth and biHeight of the BITMAPINFOHEADER that starts a CF_DIB. */
+    private static final int DIB_HEADER_MIN_BYTES = 12;
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "")
+            .toLowerCase(Locale.ROOT)
+            .contains("win");
+
+    private interface ClipboardApi extends Library {
+        ClipboardApi INSTANCE = Native.load("user32", ClipboardApi.class);
+
+        int GetClipboardSequenceNumber();
+        boolean IsClipboardFormatAvailable(int format);
+        boolean OpenClipboard(Pointer owner);
+        boolean CloseClipboard();
+        Pointer GetClipboardData(int format);
+    }
+
+    private interface GlobalMemoryApi extends Library {
+        GlobalMemoryApi INSTANCE = Native.load("kernel32", GlobalMemoryApi.class);
+
+        Pointer GlobalLock(Pointer memory);
+        boolean GlobalUnlock(Pointer memory);
+        BaseTSD.SIZE_T GlobalSize(Pointer memory);
+    }
+
+    /**
+     * Locks CF_UNICODETEXT and hands its chars to a read while the handle is
+     * locked. Tests replace it with in-memory text.
+     */
+    interface NativeText {
+        /**
+         * @return the result of read, or null when the clipboard has no text
+         * @throws IllegalStateException when another process holds the clipboard
+         */
+        ClipboardText read(NativeTextRead read) throws IOException;
+    }
+
+    interface NativeTextRead {
+        ClipboardText read(Reader text) throws IOException;
+    }
+
+    private final NativeText nativeText;
+
+    private volatile boolean sequenceNumberAvailable = WINDOWS;
+    private volatile boolean nativeReadAvailable;
+
+    /** Guarded by this; capped reads come from the watcher thread only. */
+    private final CappedTextReader cappedReader = new CappedTextReader();
+
+    public ClipboardAccess() {
+        this(ClipboardAccess::readUnicodeText, WINDOWS);
+    }
+
+    ClipboardAccess(NativeText nativeText, boolean nativeReadAvailable) {
+        this.nativeText = nativeText;
+        this.nativeReadAvailable = nativeReadAvailable;
+    }
+
+    @Override
+    public long changeToken() {
+        if (!sequenceNumberAvailable) return UNKNOWN_CHANGE_TOKEN;
+
+        try {
+            // Zero means the process lacks WINSTA_ACCESSCLIPBOARD access.
+            int sequence = ClipboardApi.INSTANCE.GetClipboardSequenceNumber();
+            return sequence == 0
+                    ? UNKNOWN_CHANGE_TOKEN
+                    : Integer.toUnsignedLong(sequence);
+        } catch (Throwable unavailable) {
+            sequenceNumberAvailable = false;
+            return UNKNOWN_CHANGE_TOKEN;
+        }
+    }
 
-public final class ClipboardAccess {
+    @Override
+    public synchronized ClipboardText readText(int maxChars) {
+        if (nativeReadAvailable) {
+            try {
+                return readNativeText(maxChars);
+            } catch (IllegalStateException busy) {
+                throw busy;
+            } catch (Throwable unavailable) {
+                nativeReadAvailable = false;
+            }
+        }
+        return readAwtText(maxChars);
+    }
+
+    private ClipboardText readNativeText(int maxChars) throws IOException {
+        return nativeText.read(text -> cappedReader.read(text, maxChars));
+    }
+
+    private static ClipboardText readUnicodeText(NativeTextRead read) throws IOException {
+        if (!ClipboardApi.INSTANCE.IsClipboardFormatAvailable(CF_UNICODETEXT)) return null;
+        if (!ClipboardApi.INSTANCE.OpenClipboard(null)) {
+            throw new IllegalStateException("Clipboard is open in another process");
+        }
+        try {
+            Pointer handle = ClipboardApi.INSTANCE.GetClipboardData(CF_UNICODETEXT);
+            if (handle == null) return null;
+
+            Pointer data = GlobalMemoryApi.INSTANCE.GlobalLock(handle);
+            if (data == null) return null;
+            try {
+                long capacityChars =
+                        GlobalMemoryApi.INSTANCE.GlobalSize(handle).longValue() / Character.BYTES;
+                return read.read(new NativeUtf16Reader(data, capacityChars));
+            } finally {
+                GlobalMemoryApi.INSTANCE.GlobalUnlock(handle);
+            }
+        } finally {
+            ClipboardApi.INSTANCE.CloseClipboard();
+        }
+    }
+
+    private ClipboardText readAwtText(int maxChars) {
+        var clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+        var contents = clipboard.getContents(null);
+        if (contents == null) return null;
+
+        try (Reader reader = plainTextReader(contents)) {
+            if (reader == null) return null;
+            return cappedReader.read(reader, maxChars);
+        } catch (IllegalStateException busy) {
+            throw busy;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens the plain text of contents as a stream.
+     *
+     * {@link DataFlavor#selectBestTextFlavor} ranks text/html, text/rtf and
+     * other markup above text/plain, so the choice is limited to text/plain
+     * flavors first. {@link DataFlavor#stringFlavor} is the fallback, as it was
+     * for uncapped reads.
+     *
+     * @return a reader, or null when contents offers no plain text
+     */
+    static Reader plainTextReader(Transferable contents)
+            throws UnsupportedFlavorException, IOException {
+        DataFlavor[] plain = Arrays.stream(contents.getTransferDataFlavors())
+                .filter(flavor -> flavor != null && flavor.isMimeTypeEqual("text/plain"))
+                .toArray(DataFlavor[]::new);
+        DataFlavor best = DataFlavor.selectBestTextFlavor(plain);
+        if (best != null) return best.getReaderForText(contents);
+
+        if (!contents.isDataFlavorSupported(DataFlavor.stringFlavor)) return null;
+        return contents.getTransferData(DataFlavor.stringFlavor) instanceof String text
+                ? new StringReader(text)
+                : null;
+    }
+
+    @Override
+    public synchronized BufferedImage readImage(long maxPixels) {
+        if (nativeReadAvailable) {
+            try {
+                long pixels = readNativeImagePixels();
+                if (pixels == 0L) return null;
+                if (maxPixels > 0 && pixels > maxPixels) return null;
+            } catch (IllegalStateException busy) {
+                throw busy;
+            } catch (Throwable unavailable) {
+                // AWT still reads the image; only the early size check is lost.
+            }
+        }
+        return readAwtImage(maxPixels);
+    }
+
+    /**
+     * @return pixel count from the CF_DIB header, or zero without an image
+     */
+    private long readNativeImagePixels() {
+        if (!ClipboardApi.INSTANCE.IsClipboardFormatAvailable(CF_DIB)) return 0L;
+        if (!ClipboardApi.INSTANCE.OpenClipboard(null)) {
+            throw new IllegalStateException("Clipboard is open in another process");
+        }
+        try {
+            Pointer handle = ClipboardApi.INSTANCE.GetClipboardData(CF_DIB);
+            if (handle == null) return 0L;
+            if (GlobalMemoryApi.INSTANCE.GlobalSize(handle).longValue() < DIB_HEADER_MIN_BYTES) {
+                return 0L;
+            }
+
+            Pointer data = GlobalMemoryApi.INSTANCE.GlobalLock(handle);
+            if (data == null) return 0L;
+            try {
+                // A negative height marks a top-down bitmap.
+                long width = Math.abs((long) data.getInt(4));
+                long height = Math.abs((long) data.getInt(8));
+                return width * height;
+            } finally {
+                GlobalMemoryApi.INSTANCE.GlobalUnlock(handle);
+            }
+        } finally {
+            ClipboardApi.INSTANCE.CloseClipboard();
+        }
+    }
+
+    private BufferedImage readAwtImage(long maxPixels) {
+        try {
+            var clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+            if (!clipboard.isDataFlavorAvailable(DataFlavor.imageFlavor)) return null;
+            if (!(clipboard.getData(DataFlavor.imageFlavor) instanceof Image image)) return null;
+
+            int width = image.getWidth(null);
+            int height = image.getHeight(null);
+            if (width <= 0 || height <= 0) return null;
+            if (maxPixels > 0 && (long) width * height > maxPixels) return null;
+            return toBufferedImage(image, width, height);
+        } catch (IllegalStateException busy) {
+            throw busy;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static BufferedImage toBufferedImage(Image image, int width, int height) {
+        if (image instanceof BufferedImage buffered) return buffered;
+
+        BufferedImage copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = copy.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return copy;
+    }
 
     public String getTextSafely() {
         try {
@@ -40,4 +304,75 @@ public final class ClipboardAccess {
             return false;
         }
     }
+
+    public boolean setImageSafely(BufferedImage image) {
+        if (image == null) return false;
+
+        try {
+            var clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+            clipboard.setContents(new ImageSelection(image), null);
+            return true;
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
+
+    private record ImageSelection(BufferedImage image) implements Transferable {
+
+        @Override
+        public DataFlavor[] getTransferDataFlavors() {
+            return new DataFlavor[] {DataFlavor.imageFlavor};
+        }
+
+        @Override
+        public boolean isDataFlavorSupported(DataFlavor flavor) {
+            return DataFlavor.imageFlavor.equals(flavor);
+        }
+
+        @Override
+        public Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException {
+            if (!isDataFlavorSupported(flavor)) throw new UnsupportedFlavorException(flavor);
+            return image;
+        }
+    }
+
+    /**
+     * NUL-terminated UTF-16 text in locked global memory. Never reads past
+     * the allocation, even when the terminator is missing.
+     */
+    private static final class NativeUtf16Reader extends Reader {
+
+        private final Pointer data;
+        private final long capacityChars;
+        private long position;
+        private boolean terminated;
+
+        private NativeUtf16Reader(Pointer data, long capacityChars) {
+            this.data = data;
+            this.capacityChars = capacityChars;
+        }
+
+        @Override
+        public int read(char[] target, int offset, int length) {
+            if (terminated) return -1;
+
+            int count = (int) Math.min(length, capacityChars - position);
+            if (count <= 0) return -1;
+
+            data.read(position * Character.BYTES, target, offset, count);
+            for (int index = 0; index < count; index++) {
+                if (target[offset + index] == '\0') {
+                    terminated = true;
+                    count = index;
+                    break;
+                }
+            }
+            position += count;
+            return count == 0 && terminated ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -30,6 +30,14 @@ final class ClipboardObservationState {
         }
     }
 
+    /**
+     * Forgets the last text, for when the clipboard moved on to non-text
+     * content; copying that text again is then a new observation.
+     */
+    void clear() {
+        lastSeenText = null;
+    }
+
     String lastSeenText() {
         return lastSeenText;
     }
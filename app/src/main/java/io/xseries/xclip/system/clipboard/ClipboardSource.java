@@ -0,0 +1,52 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Clipboard as seen by the watcher.
+ *
+ * {@link #changeToken()} is cheap and must not transfer clipboard data. The
+ * watcher reads text only when the token differs from the one recorded with
+ * its last successful read, so an unchanged clipboard costs one token query per
+ * poll regardless of its size.
+ */
+public interface ClipboardSource {
+
+    /** Token value meaning "unknown"; the watcher then reads text every poll. */
+    long UNKNOWN_CHANGE_TOKEN = Long.MIN_VALUE;
+
+    /**
+     * @return a value that changes whenever the clipboard contents change, or
+     *         {@link #UNKNOWN_CHANGE_TOKEN} when the platform cannot tell
+     */
+    long changeToken();
+
+    /**
+     * Reads at most maxChars characters. Implementations must not materialize
+     * more than the cap plus one character, so oversized clipboard text cannot
+     * grow the heap beyond the configured clip size.
+     *
+     * @param maxChars cap in chars; zero or negative means no cap
+     * @return clipboard text, or null when the clipboard holds no text
+     * @throws IllegalStateException when another process holds the clipboard
+     */
+    ClipboardText readText(int maxChars);
+
+    /**
+     * Reads a clipboard bitmap. Sources without image support return null.
+     *
+     * @param maxPixels images with more pixels are skipped; zero or negative
+     *                  means no cap
+     * @return the image, or null when the clipboard holds none or it is over
+     *         the cap
+     * @throws IllegalStateException when another process holds the clipboard
+     */
+    default BufferedImage readImage(long maxPixels) {
+        return null;
+    }
+}
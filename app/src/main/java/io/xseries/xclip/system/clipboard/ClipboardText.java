@@ -0,0 +1,25 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import java.util.Objects;
+
+/**
+ * Clipboard text as read under a character cap.
+ *
+ * @param text      at most the requested number of characters
+ * @param truncated true when the clipboard held more text than was read
+ */
+public record ClipboardText(String text, boolean truncated) {
+
+    public ClipboardText {
+        text = Objects.requireNonNull(text, "text");
+    }
+
+    public static ClipboardText complete(String text) {
+        return new ClipboardText(text, false);
+    }
+}
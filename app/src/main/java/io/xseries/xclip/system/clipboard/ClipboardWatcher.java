@@ -5,6 +5,7 @@
  */
 package io.xseries.xclip.system.clipboard;
 
+import java.awt.image.BufferedImage;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.RejectedExecutionException;
@@ -15,6 +16,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.function.Predicate;
 
 public final class ClipboardWatcher implements AutoCloseable {
@@ -26,11 +28,13 @@ public final class ClipboardWatcher implements AutoCloseable {
     private static final int DEFAULT_MAX_TEXT_LEN = 500_000;
     private static final long WORKER_STOP_TIMEOUT_SECONDS = 2L;
 
-    private final java.util.function.IntSupplier maxTextLen;
+    private final IntSupplier maxTextLen;
     private final ScheduledExecutorService exec;
 
-    private final ClipboardAccess access;
-    private final Consumer<String> onText;
+    private final ClipboardSource source;
+    private final Consumer<ClipboardText> onText;
+    private final Consumer<BufferedImage> onImage;
+    private final long maxImagePixels;
     private final BooleanSupplier isPaused;
     private final Predicate<String> isCaptureAllowed;
     private final Runnable onWorkerStopped;
@@ -45,6 +49,12 @@ public final class ClipboardWatcher implements AutoCloseable {
     private final ClipboardObservationState observationState =
             new ClipboardObservationState();
 
+    /**
+     * Change token recorded with the last completed read. While the source
+     * reports the same token, the clipboard is not read at all.
+     */
+    private long lastReadToken = ClipboardSource.UNKNOWN_CHANGE_TOKEN;
+
     /** Pause transition tracking */
     private volatile boolean wasPaused = false;
 
@@ -54,13 +64,13 @@ public final class ClipboardWatcher implements AutoCloseable {
     private int consecutiveNoChange = 0;
 
     public ClipboardWatcher(
-            ClipboardAccess access,
-            Consumer<String> onText,
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
             BooleanSupplier isPaused,
             Predicate<String> isCaptureAllowed
     ) {
         this(
-                access,
+                source,
                 onText,
                 isPaused,
                 isCaptureAllowed,
@@ -69,16 +79,66 @@ public final class ClipboardWatcher implements AutoCloseable {
     }
 
     public ClipboardWatcher(
-            ClipboardAccess access,
-            Consumer<String> onText,
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
             BooleanSupplier isPaused,
             Predicate<String> isCaptureAllowed,
             Runnable onWorkerStopped
     ) {
-        this.access = Objects.requireNonNull(access);
+        this(
+                source,
+                onText,
+                isPaused,
+                isCaptureAllowed,
+                onWorkerStopped,
+                () -> DEFAULT_MAX_TEXT_LEN
+        );
+    }
+
+    public ClipboardWatcher(
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
+            BooleanSupplier isPaused,
+            Predicate<String> isCaptureAllowed,
+            Runnable onWorkerStopped,
+            IntSupplier maxTextLen
+    ) {
+        this(
+                source,
+                onText,
+                isPaused,
+                isCaptureAllowed,
+                onWorkerStopped,
+                maxTextLen,
+                null,
+                0L
+        );
+    }
+
+    /**
+     * @param onImage        receives images copied while not paused; null
+     *                       ignores images. Images are read only when the
+     *                       source reports change tokens and the clipboard
+     *                       holds no text.
+     * @param maxImagePixels larger images are skipped without being decoded
+     *                       where the source supports it
+     */
+    public ClipboardWatcher(
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
+            BooleanSupplier isPaused,
+            Predicate<String> isCaptureAllowed,
+            Runnable onWorkerStopped,
+            IntSupplier maxTextLen,
+            Consumer<BufferedImage> onImage,
+            long maxImagePixels
+    ) {
+        this.source = Objects.requireNonNull(source);
         this.onText = Objects.requireNonNull(onText);
+        this.onImage = onImage;
+        this.maxImagePixels = maxImagePixels;
         this.isPaused = Objects.requireNonNull(isPaused);
-        this.maxTextLen = () -> DEFAULT_MAX_TEXT_LEN;
+        this.maxTextLen = Objects.requireNonNull(maxTextLen);
         this.isCaptureAllowed = Objects.requireNonNull(isCaptureAllowed);
         this.onWorkerStopped = Objects.requireNonNull(onWorkerStopped);
         this.exec = newWorkerExecutor();
@@ -129,7 +189,15 @@ public final class ClipboardWatcher implements AutoCloseable {
 
     private void tickSafely() {
         if (closed.get()) return;
+        scheduleNext(poll());
+    }
 
+    /**
+     * One polling step on the watcher thread.
+     *
+     * @return delay before the next poll in milliseconds
+     */
+    long poll() {
         try {
             boolean pausedNow = isPaused.getAsBoolean();
 
@@ -144,8 +212,7 @@ public final class ClipboardWatcher implements AutoCloseable {
                 // reset idle backoff while paused
                 consecutiveNoChange = 0;
 
-                scheduleNext(600);
-                return;
+                return 600;
             }
 
             if (wasPaused) {
@@ -155,27 +222,27 @@ public final class ClipboardWatcher implements AutoCloseable {
 
                 consecutiveNoChange = 0;
 
-                scheduleNext(BASE_POLL_MS);
-                return;
+                return BASE_POLL_MS;
             }
 
             // ----------------------------
             // Normal capture
             // ----------------------------
-            String raw = access.getTextSafely();
-            if (raw == null) {
+            Observation observed = readIfChanged(onImage != null);
+            if (observed != null && observed.image() != null) {
+                // Text copied before the image is new again once it returns.
+                observationState.clear();
+                consecutiveNoChange = 0;
                 consecutiveFailures = 0;
-                consecutiveNoChange++;
-                scheduleNext(idleDelayMs());
-                return;
+                onImage.accept(observed.image());
+                return MIN_POLL_MS;
             }
 
-            String captured = applySafetyCap(raw);
-            if (captured == null || captured.isBlank()) {
+            ClipboardText read = observed == null ? null : observed.text();
+            if (read == null || read.text().isBlank()) {
                 consecutiveFailures = 0;
                 consecutiveNoChange++;
-                scheduleNext(idleDelayMs());
-                return;
+                return idleDelayMs();
             }
 
             // Exact observation belongs to the watcher; duplicate normalization
@@ -183,42 +250,78 @@ public final class ClipboardWatcher implements AutoCloseable {
             // content cannot be ingested later after a foreground-window switch.
             // This prevents excluded content from being captured later merely because
             // the user switched to another application without changing the clipboard.
+            String captured = read.text();
             if (!observationState.markIfChanged(captured)) {
                 consecutiveFailures = 0;
                 consecutiveNoChange++;
-                scheduleNext(idleDelayMs());
-                return;
+                return idleDelayMs();
             }
             consecutiveNoChange = 0;
 
             if (captureAllowedFailOpen(isCaptureAllowed, captured)) {
-                onText.accept(captured);
+                onText.accept(read);
             }
 
             consecutiveFailures = 0;
-            scheduleNext(MIN_POLL_MS);
+            return MIN_POLL_MS;
 
         } catch (Exception e) {
             consecutiveNoChange = 0;
 
             consecutiveFailures++;
-            scheduleNext(backoffDelayMs(consecutiveFailures));
+            return backoffDelayMs(consecutiveFailures);
         }
     }
 
-    private void snapshotClipboardIntoLastSeen() {
+    /**
+     * Reads the clipboard only when the change token moved since the last
+     * completed read. A busy clipboard leaves the recorded token untouched so
+     * the change is picked up by a later poll.
+     *
+     * Text is read under the safety cap, so oversized clipboard content is
+     * never materialized beyond it. An image is read only when there is no
+     * text and the token is known; without a token the same image would be
+     * decoded again on every poll.
+     *
+     * @return the observation, or null when unchanged or busy
+     */
+    private Observation readIfChanged(boolean readImages) {
+        long token = source.changeToken();
+        boolean tokenKnown = token != ClipboardSource.UNKNOWN_CHANGE_TOKEN;
+        if (tokenKnown && token == lastReadToken) {
+            return null;
+        }
+
+        ClipboardText text;
+        BufferedImage image = null;
         try {
-            String raw = access.getTextSafely();
-            if (raw == null) return;
+            text = source.readText(maxTextLen.getAsInt());
+            if (text == null && readImages && tokenKnown) {
+                image = source.readImage(maxImagePixels);
+            }
+        } catch (IllegalStateException busy) {
+            return null;
+        }
+        // The token is taken before the read. If the clipboard changed in
+        // between, the next poll sees a newer token and reads again.
+        lastReadToken = token;
+        return new Observation(text, image);
+    }
 
-            String captured = applySafetyCap(raw);
-            if (captured == null || captured.isBlank()) return;
+    private void snapshotClipboardIntoLastSeen() {
+        try {
+            // Images present at a barrier are skipped with their token.
+            Observation observed = readIfChanged(false);
+            ClipboardText read = observed == null ? null : observed.text();
+            if (read == null || read.text().isBlank()) return;
 
-            observationState.snapshot(captured);
+            observationState.snapshot(read.text());
         } catch (Exception ignored) {
         }
     }
 
+    private record Observation(ClipboardText text, BufferedImage image) {}
+
     static boolean captureAllowedFailOpen(
             Predicate<String> capturePolicy,
             String content
@@ -245,16 +348,6 @@ public final class ClipboardWatcher implements AutoCloseable {
         return MAX_POLL_MS;
     }
 
-    private String applySafetyCap(String value) {
-        if (value == null) return null;
-
-        int cap = maxTextLen.getAsInt();
-        if (cap > 0 && value.length() > cap) {
-            return value.substring(0, cap);
-        }
-        return value;
-    }
-
     private void releaseWorkerResources() {
         if (!workerCleanupCompleted.compareAndSet(false, true)) return;
         try {
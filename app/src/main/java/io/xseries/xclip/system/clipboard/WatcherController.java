@@ -6,10 +6,14 @@
  */
 package io.xseries.xclip.system.clipboard;
 
+import io.xseries.xclip.config.Config;
+
+import java.awt.image.BufferedImage;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.function.Predicate;
 
 /**
@@ -23,11 +27,14 @@ import java.util.function.Predicate;
  */
 public final class WatcherController implements AutoCloseable {
 
-    private final ClipboardAccess access;
-    private final Consumer<String> onText;
+    private final ClipboardSource source;
+    private final Consumer<ClipboardText> onText;
     private final BooleanSupplier isPaused;
     private final Predicate<String> isCaptureAllowed;
     private final Runnable onWorkerStopped;
+    private final IntSupplier maxTextLen;
+    private final Consumer<BufferedImage> onImage;
+    private final long maxImagePixels;
 
     private final Object lock = new Object();
     private final AtomicBoolean enabled = new AtomicBoolean(false);
@@ -35,13 +42,13 @@ public final class WatcherController implements AutoCloseable {
     private ClipboardWatcher watcher;
 
     public WatcherController(
-            ClipboardAccess access,
-            Consumer<String> onText,
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
             BooleanSupplier isPaused,
             Predicate<String> isCaptureAllowed
     ) {
         this(
-                access,
+                source,
                 onText,
                 isPaused,
                 isCaptureAllowed,
@@ -50,17 +57,90 @@ public final class WatcherController implements AutoCloseable {
     }
 
     public WatcherController(
-            ClipboardAccess access,
-            Consumer<String> onText,
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
             BooleanSupplier isPaused,
             Predicate<String> isCaptureAllowed,
             Runnable onWorkerStopped
     ) {
-        this.access = Objects.requireNonNull(access);
+        this(
+                source,
+                onText,
+                isPaused,
+                isCaptureAllowed,
+                onWorkerStopped,
+                () -> Config.DEFAULT_MAX_CLIP_CHARS
+        );
+    }
+
+    public WatcherController(
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
+            BooleanSupplier isPaused,
+            Predicate<String> isCaptureAllowed,
+            Runnable onWorkerStopped,
+            IntSupplier maxTextLen
+    ) {
+        this(
+                source,
+                onText,
+                isPaused,
+                isCaptureAllowed,
+                onWorkerStopped,
+                maxTextLen,
+                null,
+                0L
+        );
+    }
+
+    /**
+     * Observe-only watcher: onText and onImage hand captures to workers that
+     * make the privacy decision and store them, so the watcher thread neither
+     * filters text nor owns resources to release.
+     *
+     * @param onImage receives copied images; null ignores images
+     */
+    public WatcherController(
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
+            BooleanSupplier isPaused,
+            IntSupplier maxTextLen,
+            Consumer<BufferedImage> onImage,
+            long maxImagePixels
+    ) {
+        this(
+                source,
+                onText,
+                isPaused,
+                text -> true,
+                () -> {},
+                maxTextLen,
+                onImage,
+                maxImagePixels
+        );
+    }
+
+    /**
+     * @param onImage receives copied images; null ignores images
+     */
+    public WatcherController(
+            ClipboardSource source,
+            Consumer<ClipboardText> onText,
+            BooleanSupplier isPaused,
+            Predicate<String> isCaptureAllowed,
+            Runnable onWorkerStopped,
+            IntSupplier maxTextLen,
+            Consumer<BufferedImage> onImage,
+            long maxImagePixels
+    ) {
+        this.source = Objects.requireNonNull(source);
         this.onText = Objects.requireNonNull(onText);
         this.isPaused = Objects.requireNonNull(isPaused);
         this.isCaptureAllowed = Objects.requireNonNull(isCaptureAllowed);
         this.onWorkerStopped = Objects.requireNonNull(onWorkerStopped);
+        this.maxTextLen = Objects.requireNonNull(maxTextLen);
+        this.onImage = onImage;
+        this.maxImagePixels = maxImagePixels;
     }
 
     public boolean isEnabled() {
@@ -117,11 +197,14 @@ public final class WatcherController implements AutoCloseable {
 
     private ClipboardWatcher createAndStartWatcher() {
         ClipboardWatcher next = new ClipboardWatcher(
-                access,
+                source,
                 onText,
                 isPaused,
                 isCaptureAllowed,
-                onWorkerStopped
+                onWorkerStopped,
+                maxTextLen,
+                onImage,
+                maxImagePixels
         );
         next.start();
         return next;
@@ -57,6 +57,32 @@ public final class ClipboardPrivacyGate {
     }
 
     public boolean isCaptureAllowed(String content) {
+        return isCaptureAllowed(content, foregroundSnapshot());
+    }
+
+    /**
+     * Resolves the foreground application at observation time.
+     *
+     * The staged capture pipeline calls this on the polling thread and runs
+     * {@link #isCaptureAllowed(String, Optional)} later on its gate worker, so
+     * a window switch while a capture is queued cannot change the exclusion
+     * decision. Nothing is resolved when no exclusions are configured.
+     */
+    public Optional<ForegroundApplication> foregroundSnapshot() {
+        if (policy.get().excludedApplications().empty()) return Optional.empty();
+
+        try {
+            Optional<ForegroundApplication> application = resolver.get();
+            return application == null ? Optional.empty() : application;
+        } catch (Throwable ignored) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isCaptureAllowed(
+            String content,
+            Optional<ForegroundApplication> foregroundSnapshot
+    ) {
         GatePolicy current = policy.get();
 
         try {
@@ -65,14 +91,28 @@ public final class ClipboardPrivacyGate {
             // Sensitive-content inspection is best effort and fail-open.
         }
 
+        return isApplicationAllowed(current, foregroundSnapshot);
+    }
+
+    /**
+     * Process exclusions alone, for content that has no text to inspect,
+     * such as images.
+     */
+    public boolean isApplicationAllowed(Optional<ForegroundApplication> foregroundSnapshot) {
+        return isApplicationAllowed(policy.get(), foregroundSnapshot);
+    }
+
+    private static boolean isApplicationAllowed(
+            GatePolicy current,
+            Optional<ForegroundApplication> foregroundSnapshot
+    ) {
         ExcludedApplicationPolicy excluded = current.excludedApplications();
         if (excluded.empty()) return true;
 
         try {
-            Optional<ForegroundApplication> application = resolver.get();
-            if (application == null || application.isEmpty()) return true;
+            if (foregroundSnapshot == null || foregroundSnapshot.isEmpty()) return true;
 
-            ForegroundApplication foreground = application.get();
+            ForegroundApplication foreground = foregroundSnapshot.get();
             if (!foreground.hasExecutableName()) return true;
 
             return !excluded.excludes(foreground.executableName());
@@ -17,6 +17,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import javax.swing.*;
 import javax.swing.border.CompoundBorder;
@@ -91,7 +92,7 @@ public final class TrayController {
     private final Object trayLifecycleLock = new Object();
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
     private volatile Runnable onOpen = () -> {};
-    private volatile Runnable onHotkeyOpen = () -> {};
+    private volatile LongConsumer onHotkeyOpen = receivedAt -> {};
     private volatile Runnable onExit = () -> {};
     private volatile long lastHotkeyRecoveryMillis;
 
@@ -107,9 +108,13 @@ public final class TrayController {
         notifyHotkeyStatusListener(listener, hotkeyStatus.get());
     }
 
-    public void install(Runnable onOpen, Runnable onHotkeyOpen, Runnable onExit) {
+    /**
+     * @param onHotkeyOpen runs on the FX thread with the {@link System#nanoTime()}
+     *                     at which the hotkey message was received
+     */
+    public void install(Runnable onOpen, LongConsumer onHotkeyOpen, Runnable onExit) {
         this.onOpen = onOpen != null ? onOpen : () -> {};
-        this.onHotkeyOpen = onHotkeyOpen != null ? onHotkeyOpen : () -> {};
+        this.onHotkeyOpen = onHotkeyOpen != null ? onHotkeyOpen : receivedAt -> {};
         this.onExit = onExit != null ? onExit : () -> {};
         shuttingDown.set(false);
         ensureRuntimeHealthy();
@@ -533,7 +538,7 @@ public final class TrayController {
         hideTrayMenu();
         removeTrayIcon();
         onOpen = () -> {};
-        onHotkeyOpen = () -> {};
+        onHotkeyOpen = receivedAt -> {};
         onExit = () -> {};
 
         EventQueue.invokeLater(() -> {
@@ -653,7 +658,7 @@ public final class TrayController {
     // -------------------------
     // Hotkey logic (Windows)
     // -------------------------
-    private synchronized void startGlobalHotkey(Runnable onOpen) {
+    private synchronized void startGlobalHotkey(LongConsumer onOpen) {
         if (shuttingDown.get()) return;
         if (!isWindows()) {
             updateHotkeyStatus(HotkeyRegistrationStatus.UNSUPPORTED);
@@ -702,7 +707,8 @@ public final class TrayController {
                     if (result == 0 || result == -1) break;
 
                     if (msg.message == WinUser.WM_HOTKEY) {
-                        Platform.runLater(onOpen);
+                        long receivedAt = System.nanoTime();
+                        Platform.runLater(() -> onOpen.accept(receivedAt));
                     }
 
                     user32.TranslateMessage(msg);
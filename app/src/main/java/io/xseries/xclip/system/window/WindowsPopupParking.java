@@ -0,0 +1,96 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.window;
+
+import com.sun.jna.platform.win32.User32;
+import com.sun.jna.platform.win32.WinDef;
+import com.sun.jna.platform.win32.WinUser;
+import javafx.stage.Stage;
+
+import java.util.Objects;
+
+/**
+ * Keeps a shown stage realized while it is out of sight.
+ *
+ * Parking hides only the native window. JavaFX still treats the stage as
+ * showing, so its scene keeps applied CSS, laid-out cells and rendered
+ * content, and keeps taking model changes. Unparking shows the same native
+ * window again in place, which skips the peer creation, CSS pass and first
+ * layout that a regular Stage.show() pays.
+ *
+ * A hidden native window has no taskbar button and is not listed in
+ * Alt+Tab. Outside Windows, or when the window handle cannot be resolved,
+ * {@link #park()} returns false and the caller hides the stage instead.
+ */
+public final class WindowsPopupParking {
+
+    private final Stage stage;
+    private WinDef.HWND hwnd;
+    private boolean parked;
+
+    private WindowsPopupParking(Stage stage) {
+        this.stage = Objects.requireNonNull(stage, "stage");
+        stage.showingProperty().addListener((obs, oldValue, showing) -> {
+            // A hidden stage gets a new native window on its next show.
+            if (!showing) {
+                hwnd = null;
+                parked = false;
+            }
+        });
+    }
+
+    public static WindowsPopupParking forStage(Stage stage) {
+        return new WindowsPopupParking(stage);
+    }
+
+    public boolean isParked() {
+        return parked;
+    }
+
+    /** Hides the native window of a showing stage; false when not possible. */
+    public boolean park() {
+        if (parked) return true;
+        if (!stage.isShowing()) return false;
+        WinDef.HWND handle = handle();
+        if (handle == null) return false;
+
+        try {
+            User32.INSTANCE.ShowWindow(handle, WinUser.SW_HIDE);
+        } catch (Throwable ignored) {
+            return false;
+        }
+        parked = true;
+        return true;
+    }
+
+    /** Shows a parked window again in its current position and size. */
+    public boolean unpark() {
+        if (!parked) return false;
+        parked = false;
+        WinDef.HWND handle = hwnd;
+        if (handle == null) return false;
+
+        try {
+            User32.INSTANCE.ShowWindow(handle, WinUser.SW_SHOW);
+            User32.INSTANCE.SetForegroundWindow(handle);
+            return true;
+        } catch (Throwable ignored) {
+            return false;
+        }
+    }
+
+    private WinDef.HWND handle() {
+        if (!WindowsTitleBar.isWindows()) return null;
+        try {
+            if (hwnd == null || !User32.INSTANCE.IsWindow(hwnd)) {
+                hwnd = WindowsTitleBar.findWindowHandle(stage);
+            }
+        } catch (Throwable ignored) {
+            hwnd = null;
+        }
+        return hwnd;
+    }
+}
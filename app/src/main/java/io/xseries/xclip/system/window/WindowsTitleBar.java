@@ -81,7 +81,7 @@ public final class WindowsTitleBar {
         }
     }
 
-    private static WinDef.HWND findWindowHandle(Stage stage) {
+    static WinDef.HWND findWindowHandle(Stage stage) {
         String expectedTitle = stage.getTitle();
         if (expectedTitle == null || expectedTitle.isBlank()) return null;
 
@@ -120,7 +120,7 @@ public final class WindowsTitleBar {
         return Native.toString(buffer);
     }
 
-    private static boolean isWindows() {
+    static boolean isWindows() {
         String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
         return os.contains("win");
     }
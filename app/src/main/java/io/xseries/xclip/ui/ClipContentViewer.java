@@ -0,0 +1,360 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui;
+
+import io.xseries.xclip.system.window.WindowsTitleBar;
+import io.xseries.xclip.ui.popup.ClipContentPager;
+import io.xseries.xclip.ui.popup.ClipContentPager.Match;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-only viewer for the whole body of one text clip.
+ *
+ * The FX thread only ever touches the rows on screen. Indexing, page reads
+ * and searches run on the caller's executor, one chunk per task, so a page
+ * read or a find never waits behind the whole index and closing the dialog
+ * stops the work after the current chunk.
+ */
+public final class ClipContentViewer {
+
+    private static final double ROW_HEIGHT = 20.0;
+
+    private ClipContentViewer() {}
+
+    /**
+     * Shows the viewer and blocks until it is closed.
+     *
+     * @param executor single background thread that owns every storage read
+     */
+    public static void show(Stage owner, String title, ClipContentPager pager, ExecutorService executor) {
+        Objects.requireNonNull(owner, "owner");
+        Objects.requireNonNull(pager, "pager");
+        Objects.requireNonNull(executor, "executor");
+        new Session(pager, executor).show(owner, title == null || title.isBlank() ? "Clip" : title);
+    }
+
+    private static final class Session {
+
+        private final ClipContentPager pager;
+        private final ExecutorService executor;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean indexUpdateScheduled = new AtomicBoolean();
+        private final Set<Integer> pendingPages = new HashSet<>();
+        private final RowList rows = new RowList();
+        private final ListView<Integer> listView = new ListView<>(rows);
+        private final Label status = label("", "clip-viewer-status");
+        private final Label progress = label("", "clip-viewer-progress");
+        private int lastMatchOffset = -1;
+        private long searchGeneration;
+
+        Session(ClipContentPager pager, ExecutorService executor) {
+            this.pager = pager;
+            this.executor = executor;
+        }
+
+        void show(Stage owner, String title) {
+            Dialog<Void> dialog = new Dialog<>();
+            ButtonType closeType = new ButtonType("Close", ButtonBar.ButtonData.CANCEL_CLOSE);
+
+            dialog.setTitle("View clip");
+            dialog.initOwner(owner);
+            dialog.initModality(Modality.WINDOW_MODAL);
+            dialog.setResizable(true);
+
+            DialogPane pane = dialog.getDialogPane();
+            pane.setHeaderText(null);
+            pane.setGraphic(null);
+            pane.getButtonTypes().setAll(closeType);
+            UiStyles.applyDialog(pane);
+            pane.getStyleClass().addAll("x-dialog", "dialog-standard", "clip-viewer-dialog");
+            pane.setMinWidth(560);
+            pane.setPrefWidth(760);
+            pane.setMinHeight(420);
+            pane.setPrefHeight(620);
+
+            Label eyebrow = label("FULL CLIP", "dialog-eyebrow");
+            Label heading = label(title, "dialog-heading");
+
+            TextField lineField = new TextField();
+            lineField.setPromptText("Line");
+            lineField.setPrefColumnCount(7);
+            lineField.setAccessibleText("Go to line");
+            lineField.setAccessibleHelp("Enter a line number and press Enter.");
+            lineField.getStyleClass().add("dialog-text-field");
+            lineField.setOnAction(e -> jumpToLine(lineField.getText()));
+
+            TextField findField = new TextField();
+            findField.setPromptText("Find in clip");
+            findField.setAccessibleText("Find in clip");
+            findField.setAccessibleHelp("Press Enter to find the next match. Matching ignores case.");
+            findField.getStyleClass().add("dialog-text-field");
+            HBox.setHgrow(findField, Priority.ALWAYS);
+            findField.textProperty().addListener((obs, oldValue, newValue) -> lastMatchOffset = -1);
+            findField.setOnAction(e -> findNext(findField.getText()));
+
+            Button findButton = new Button("Find next");
+            findButton.getStyleClass().add("clip-viewer-find-button");
+            findButton.setOnAction(e -> findNext(findField.getText()));
+
+            HBox toolbar = new HBox(8, findField, findButton, lineField);
+            toolbar.setAlignment(Pos.CENTER_LEFT);
+
+            listView.getStyleClass().add("clip-viewer-list");
+            listView.setFixedCellSize(ROW_HEIGHT);
+            listView.setCellFactory(view -> new RowCell());
+            listView.setAccessibleText("Clip text");
+            VBox.setVgrow(listView, Priority.ALWAYS);
+
+            Region footerSpacer = new Region();
+            HBox.setHgrow(footerSpacer, Priority.ALWAYS);
+            HBox footer = new HBox(8, status, footerSpacer, progress);
+            footer.setAlignment(Pos.CENTER_LEFT);
+
+            VBox content = new VBox(10, eyebrow, heading, toolbar, listView, footer);
+            content.getStyleClass().add("clip-viewer-content");
+            pane.setContent(content);
+
+            dialog.setOnShown(event -> {
+                Object window = pane.getScene().getWindow();
+                if (window instanceof Stage dialogStage) {
+                    WindowsTitleBar.applyDarkTitleBar(dialogStage);
+                    dialogStage.setMinWidth(560);
+                    dialogStage.setMinHeight(420);
+                }
+                Platform.runLater(findField::requestFocus);
+            });
+            dialog.setOnHidden(event -> closed.set(true));
+
+            updateIndexState();
+            submit(this::indexNextChunk);
+            dialog.showAndWait();
+            closed.set(true);
+        }
+
+        // Background thread.
+
+        private void indexNextChunk() {
+            if (closed.get()) return;
+            boolean more = pager.indexNextChunk();
+            publishIndexState();
+            if (more) submit(this::indexNextChunk);
+        }
+
+        private void publishIndexState() {
+            if (!indexUpdateScheduled.compareAndSet(false, true)) return;
+            Platform.runLater(() -> {
+                indexUpdateScheduled.set(false);
+                updateIndexState();
+            });
+        }
+
+        // FX thread.
+
+        private void updateIndexState() {
+            int openRow = rows.size() - 1;
+            rows.grow(pager.rowCount());
+            // The row that was still growing may be final now and need its text.
+            if (openRow >= 0 && pager.isRowFinal(openRow) && pager.cachedRow(openRow) == null) {
+                listView.refresh();
+            }
+            progress.setText(pager.indexComplete()
+                    ? lineCountText(pager.lineCount())
+                    : "Indexing… " + Math.round(pager.indexProgress() * 100) + "%");
+        }
+
+        private void requestPage(int page) {
+            if (!pendingPages.add(page)) return;
+            submit(() -> {
+                if (!closed.get()) pager.page(page);
+                Platform.runLater(() -> {
+                    pendingPages.remove(page);
+                    if (!closed.get()) listView.refresh();
+                });
+            });
+        }
+
+        private void jumpToLine(String text) {
+            int parsed;
+            try {
+                parsed = Integer.parseInt(text == null ? "" : text.trim()) - 1;
+            } catch (NumberFormatException invalid) {
+                status.setText("Enter a line number");
+                return;
+            }
+            int line = parsed;
+            if (line < 0) {
+                status.setText("Enter a line number");
+                return;
+            }
+            int row = pager.rowOfLine(line);
+            if (row >= 0) {
+                status.setText("");
+                showRow(row);
+                return;
+            }
+            if (pager.indexComplete()) {
+                status.setText("The clip has " + lineCountText(pager.lineCount()).toLowerCase());
+                return;
+            }
+            status.setText("Looking for line " + (line + 1) + "…");
+            submit(() -> {
+                while (!closed.get() && pager.rowOfLine(line) < 0 && pager.indexNextChunk()) {
+                    // Index only as far as the line.
+                }
+                int found = pager.rowOfLine(line);
+                Platform.runLater(() -> {
+                    updateIndexState();
+                    if (found >= 0) {
+                        status.setText("");
+                        showRow(found);
+                    } else {
+                        status.setText("The clip has " + lineCountText(pager.lineCount()).toLowerCase());
+                    }
+                });
+            });
+        }
+
+        private void findNext(String query) {
+            if (query == null || query.isEmpty()) return;
+            long generation = ++searchGeneration;
+            int from = lastMatchOffset + 1;
+            status.setText("Searching…");
+            submit(() -> {
+                if (closed.get()) return;
+                Match match = pager.findNext(query, from, true);
+                boolean wrapped = false;
+                if (match == null && from > 0) {
+                    match = pager.findNext(query, 0, true);
+                    wrapped = match != null;
+                }
+                Match result = match;
+                boolean fromTop = wrapped;
+                Platform.runLater(() -> {
+                    if (generation != searchGeneration || closed.get()) return;
+                    updateIndexState();
+                    if (result == null) {
+                        lastMatchOffset = -1;
+                        status.setText("No matches");
+                        return;
+                    }
+                    lastMatchOffset = result.offset();
+                    showRow(result.row());
+                    status.setText((fromTop ? "Wrapped to the top · " : "")
+                            + "Match on line " + (pager.lineOfRow(result.row()) + 1)
+                            + ", column " + (result.column() + 1));
+                });
+            });
+        }
+
+        private void showRow(int row) {
+            rows.grow(pager.rowCount());
+            if (row < 0 || row >= rows.size()) return;
+            listView.getSelectionModel().clearAndSelect(row);
+            listView.scrollTo(Math.max(0, row - 3));
+        }
+
+        private void submit(Runnable task) {
+            if (closed.get()) return;
+            try {
+                executor.submit(task);
+            } catch (RejectedExecutionException shutdown) {
+                closed.set(true);
+            }
+        }
+
+        private final class RowCell extends ListCell<Integer> {
+
+            private final Label lineNumber = label("", "clip-viewer-line-number");
+
+            RowCell() {
+                getStyleClass().add("clip-viewer-row");
+                lineNumber.setMinWidth(64);
+                lineNumber.setAlignment(Pos.CENTER_RIGHT);
+            }
+
+            @Override
+            protected void updateItem(Integer row, boolean empty) {
+                super.updateItem(row, empty);
+                if (empty || row == null) {
+                    setText(null);
+                    setGraphic(null);
+                    return;
+                }
+
+                lineNumber.setText(pager.startsLine(row) ? Integer.toString(pager.lineOfRow(row) + 1) : "");
+                setGraphic(lineNumber);
+
+                String text = pager.cachedRow(row);
+                if (text == null) {
+                    setText("");
+                    if (pager.isRowFinal(row)) requestPage(pager.pageOf(row));
+                    return;
+                }
+                setText(text);
+            }
+        }
+    }
+
+    /** Row indices 0..size-1; grows in place as the index finds more rows. */
+    private static final class RowList extends ObservableListBase<Integer> {
+
+        private int size;
+
+        @Override
+        public Integer get(int index) {
+            Objects.checkIndex(index, size);
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void grow(int newSize) {
+            if (newSize <= size) return;
+            int from = size;
+            beginChange();
+            size = newSize;
+            nextAdd(from, newSize);
+            endChange();
+        }
+    }
+
+    private static String lineCountText(int lines) {
+        return lines == 1 ? "1 line" : String.format("%,d lines", lines);
+    }
+
+    private static Label label(String text, String styleClass) {
+        Label label = new Label(text);
+        label.getStyleClass().add(styleClass);
+        return label;
+    }
+}
@@ -10,13 +10,19 @@ import io.xseries.xclip.ui.popup.ClipRowCell.PreviewData;
 import io.xseries.xclip.ui.popup.PopupActionBar;
 import io.xseries.xclip.ui.popup.PopupActionBar.StatusTone;
 import io.xseries.xclip.ui.popup.PopupActionsMenu;
+import io.xseries.xclip.ui.popup.PopupChangeApplier;
 import io.xseries.xclip.ui.popup.PopupFilterBar;
 import io.xseries.xclip.ui.popup.QuickHelpPopover;
+import io.xseries.xclip.ui.popup.ClipContentPager;
 import io.xseries.xclip.ui.popup.ClipPreviewPolicy;
 import io.xseries.xclip.ui.popup.PopupHeader;
+import io.xseries.xclip.ui.popup.PopupHotTier;
+import io.xseries.xclip.ui.popup.PopupOpenLatency;
 import io.xseries.xclip.ui.popup.PopupKeyBindings;
+import io.xseries.xclip.ui.popup.PopupPageWindow;
 import io.xseries.xclip.ui.popup.PopupPerformancePolicy;
 import io.xseries.xclip.ui.popup.PopupReloadCache;
+import io.xseries.xclip.ui.popup.PopupRowContent;
 import io.xseries.xclip.ui.popup.PopupRows;
 import io.xseries.xclip.ui.popup.ReloadRequestGate;
 import io.xseries.xclip.ui.popup.SearchAssistBar;
@@ -24,8 +30,11 @@ import io.xseries.xclip.ui.popup.SearchAssistOverlayPolicy;
 import io.xseries.xclip.ui.popup.TagEditorModel.EditPlan;
 import io.xseries.xclip.ui.popup.TagFilterModel;
 import io.xseries.xclip.ui.popup.BoundedLruCache;
+import io.xseries.xclip.ui.popup.ByteBoundedLruCache;
 import io.xseries.xclip.ui.popup.PopupTitleBar;
 import io.xseries.xclip.ui.popup.PopupRow;
+import io.xseries.xclip.ui.popup.PopupRowDiff;
+import io.xseries.xclip.ui.popup.PopupStartupSnapshot;
 import io.xseries.xclip.ui.popup.PopupRow.ClipRow;
 import io.xseries.xclip.ui.popup.PopupRow.SectionRow;
 import io.xseries.xclip.ui.popup.PopupViewState;
@@ -35,12 +44,17 @@ import io.xseries.xclip.ui.components.SvgIcon;
 import io.xseries.xclip.ui.components.UiIcon;
 import io.xseries.xclip.system.window.WindowChromeController;
 import io.xseries.xclip.system.window.WindowsListScrollEdgeSupport;
+import io.xseries.xclip.system.window.WindowsPopupParking;
 import io.xseries.xclip.system.window.WindowChromeController.WindowBounds;
 import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.dao.ClipImageDao;
 import io.xseries.xclip.data.dao.TagDao;
+import io.xseries.xclip.data.event.ClipChangeEvent;
 import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipImage;
 import io.xseries.xclip.data.model.ClipTag;
 import io.xseries.xclip.data.model.TagSummary;
+import io.xseries.xclip.domain.image.ClipImageCodec;
 import io.xseries.xclip.domain.model.ClipContentType;
 import io.xseries.xclip.domain.model.ClipPrimaryAction;
 import io.xseries.xclip.domain.model.ClipViewScope;
@@ -51,6 +65,7 @@ import io.xseries.xclip.domain.search.SearchQueryParser;
 import io.xseries.xclip.domain.service.ClipContentActionService;
 import io.xseries.xclip.domain.service.ClipContentClassifier;
 import io.xseries.xclip.domain.service.ClipService;
+import io.xseries.xclip.domain.service.ImageCaptureService;
 import io.xseries.xclip.domain.service.PasteService;
 import io.xseries.xclip.system.ExternalOpenService;
 import io.xseries.xclip.system.clipboard.ClipboardAccess;
@@ -65,6 +80,8 @@ import javafx.geometry.Rectangle2D;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseButton;
@@ -77,6 +94,9 @@ import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Duration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -84,6 +104,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public final class PopupWindow {
@@ -122,6 +145,8 @@ public final class PopupWindow {
     private final Stage stage;
     private final WindowChromeController windowChrome;
     private final WindowsListScrollEdgeSupport listScrollEdgeSupport;
+    // Hidden popups stay realized between opens where the platform allows it.
+    private final WindowsPopupParking parking;
     private final BorderPane root = new BorderPane();
     private final TextField searchField = new TextField();
     private SearchAssistBar searchAssistBar;
@@ -147,6 +172,8 @@ public final class PopupWindow {
     private final ClipboardAccess clipboard;
     private final ClipService clipService;
     private final PasteService pasteService;
+    private final ClipImageDao imageDao;
+    private final ImageCaptureService imageCapture;
     private final ExternalOpenService externalOpenService = new ExternalOpenService();
 
     private final Runnable onOpenSettings;
@@ -166,6 +193,26 @@ public final class PopupWindow {
             new BoundedLruCache<>(PopupPerformancePolicy.CONTENT_TYPE_CACHE_CAPACITY);
     private final PopupReloadCache reloadCache =
             new PopupReloadCache(PopupPerformancePolicy.TAG_ASSIGNMENT_CACHE_CAPACITY);
+    // Newest clips plus pinned ones, kept current from the change bus.
+    private final PopupHotTier hotTier = new PopupHotTier();
+    private final AtomicBoolean hotTierFillScheduled = new AtomicBoolean();
+    private final PopupOpenLatency openLatency = new PopupOpenLatency(
+            PopupPerformancePolicy.OPEN_LATENCY_SAMPLES,
+            PopupPerformancePolicy.OPEN_FRAME_BUDGET_NANOS
+    );
+    private Runnable pendingFirstFrame;
+    // Last session's first page, shown read-only until storage opens.
+    private volatile PopupStartupSnapshot startupSnapshot;
+    private java.util.Set<Long> snapshotTruncatedIds = java.util.Set.of();
+    private final CountDownLatch storageOpen = new CountDownLatch(1);
+    private volatile Path startupSnapshotFile;
+    private volatile long writtenSnapshotEpoch = -1;
+    private final Object snapshotWriteLock = new Object();
+    // Decoded thumbnails are weighed in bytes: entry counts say nothing about pixels.
+    private final ByteBoundedLruCache<Long, Image> thumbnailCache = new ByteBoundedLruCache<>(
+            PopupPerformancePolicy.THUMBNAIL_CACHE_BYTES,
+            image -> 4L * (long) image.getWidth() * (long) image.getHeight()
+    );
 
     // v1.1 UX state
     private final Label countLabel = new Label();
@@ -174,6 +221,7 @@ public final class PopupWindow {
 
     // v1.2: current query (lowercased) for highlighting in cells
     private volatile String currentQueryLower = "";
+    private String renderedQueryLower = "";
     private volatile String currentQueryRaw = "";
 
     // prevent auto-hide while modal dialog is shown (Clear confirmation)
@@ -189,6 +237,20 @@ public final class PopupWindow {
         return t;
     });
 
+    // Thumbnail reads must not queue behind list reloads on the DB executor.
+    private final ExecutorService thumbnailExec = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "xclip-thumbnails");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Full-clip viewers page through a clip on their own thread so long reads never delay reloads.
+    private final ExecutorService viewerExec = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "xclip-clip-viewer");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final ScheduledExecutorService debounceExec = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "xclip-search-debounce");
         t.setDaemon(true);
@@ -198,6 +260,22 @@ public final class PopupWindow {
     private volatile ScheduledFuture<?> pendingSearch;
     private final ReloadRequestGate reloadGate = new ReloadRequestGate();
 
+    // Committed storage changes, drained on the FX thread in one batch per pulse.
+    private final ConcurrentLinkedQueue<ClipChangeEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean changeDrainScheduled = new AtomicBoolean();
+    private final Consumer<ClipChangeEvent> changeListener = this::onClipChange;
+    // What the last applied reload showed; change batches patch this window.
+    private long appliedReloadGeneration;
+    private SearchExecutionPlan appliedPlan;
+    private int displayedClipCount;
+
+    // Loaded rows beyond the first reload; FX thread only.
+    private PopupPageWindow pageWindow = new PopupPageWindow(
+            PopupPerformancePolicy.scrollWindowRows(io.xseries.xclip.config.Config.DEFAULT_UI_CLIP_LIMIT)
+    );
+    private boolean loadingNextPage;
+    private boolean loadingPreviousPage;
+
     private final PauseTransition autoHideDelay = new PauseTransition(Duration.millis(160));
 
     private record ContentTypeOption(ClipContentType type, String label) {
@@ -244,13 +322,65 @@ public final class PopupWindow {
             ClipService clipService,
             Runnable onOpenSettings,
             Runnable onTogglePaused,
-            PasteService pasteService
+            PasteService pasteService,
+            ClipImageDao imageDao,
+            ImageCaptureService imageCapture
     ) {
+        this(
+                dao,
+                tagDao,
+                clipboard,
+                clipService,
+                onOpenSettings,
+                onTogglePaused,
+                pasteService,
+                imageDao,
+                imageCapture,
+                null
+        );
+    }
+
+    /**
+     * @param startupSnapshot rows to show while storage is still opening, or
+     *                        null when storage is open already; with a
+     *                        snapshot every database read waits for
+     *                        {@link #storageOpened()}
+     */
+    public PopupWindow(
+            ClipEntryDao dao,
+            TagDao tagDao,
+            ClipboardAccess clipboard,
+            ClipService clipService,
+            Runnable onOpenSettings,
+            Runnable onTogglePaused,
+            PasteService pasteService,
+            ClipImageDao imageDao,
+            ImageCaptureService imageCapture,
+            PopupStartupSnapshot startupSnapshot
+    ) {
+        if (startupSnapshot == null) {
+            storageOpen.countDown();
+        } else {
+            this.startupSnapshot = startupSnapshot;
+            this.snapshotTruncatedIds = startupSnapshot.truncatedIds();
+            for (PopupStartupSnapshot.Row row : startupSnapshot.rows()) {
+                contentTypeCache.put(row.id(), new ContentTypeCache(
+                        PopupPerformancePolicy.fingerprint(PopupRowContent.head(row.content())),
+                        row.type()
+                ));
+            }
+            // Queued ahead of every read, so nothing touches SQLite mid-migration.
+            dbExec.execute(this::awaitStorageOpen);
+            thumbnailExec.execute(this::awaitStorageOpen);
+        }
+
         this.dao = java.util.Objects.requireNonNull(dao, "dao");
         this.tagDao = tagDao;
         this.clipboard = java.util.Objects.requireNonNull(clipboard, "clipboard");
         this.clipService = clipService;
         this.pasteService = java.util.Objects.requireNonNull(pasteService);
+        this.imageDao = java.util.Objects.requireNonNull(imageDao, "imageDao");
+        this.imageCapture = java.util.Objects.requireNonNull(imageCapture, "imageCapture");
         this.onOpenSettings = (onOpenSettings != null) ? onOpenSettings : (() -> {});
         this.onTogglePaused = (onTogglePaused != null) ? onTogglePaused : (() -> {});
         this.actionsMenu = createPopupActionsMenu();
@@ -273,6 +403,7 @@ public final class PopupWindow {
         // R2.2 custom chrome: the undecorated stage is controlled entirely
         // through one window-state controller and a JavaFX title bar.
         windowChrome = WindowChromeController.forStage(stage, this::hide);
+        parking = WindowsPopupParking.forStage(stage);
         applyAdaptiveWindowMinimum(
                 toWindowBounds(Screen.getPrimary().getVisualBounds())
         );
@@ -695,7 +826,9 @@ public final class PopupWindow {
             if (actionBar != null) actionBar.showHints();
         });
 
+        dao.changes().addListener(changeListener);
         reloadNow("");
+        scheduleHotTierFill();
     }
 
     private void configureKeyboardUx(
@@ -1039,6 +1172,11 @@ public final class PopupWindow {
                 performPrimaryTypeActionForSelection();
             }
 
+            @Override
+            public void viewFullContent() {
+                viewSelectedFullContent();
+            }
+
             @Override
             public void editTags() {
                 editTagsSelected();
@@ -1180,10 +1318,25 @@ public final class PopupWindow {
                 return ClipPreviewPolicy.expandedPreview(fullContent);
             }
 
+            @Override
+            public Image cachedThumbnail(long id) {
+                return thumbnailCache.get(id);
+            }
+
+            @Override
+            public void loadThumbnail(long id, Consumer<Image> onLoaded) {
+                PopupWindow.this.loadThumbnail(id, onLoaded);
+            }
+
             @Override
             public void refreshList() {
                 listView.refresh();
             }
+
+            @Override
+            public void rowShown(int index) {
+                onRowShown(index);
+            }
         };
     }
 
@@ -1497,6 +1650,7 @@ public final class PopupWindow {
         this.configService = configService;
         this.config = (config != null) ? config : io.xseries.xclip.config.Config.defaults();
         this.uiClipLimit = this.config.uiClipLimit();
+        refillHotTier();
 
         WindowBounds configuredNormalBounds = new WindowBounds(
                 this.config.windowX(),
@@ -1534,6 +1688,7 @@ public final class PopupWindow {
         if (config == null) return;
         this.config = config.normalized();
         this.uiClipLimit = this.config.uiClipLimit();
+        refillHotTier();
 
         Platform.runLater(() -> {
             if (stage.isShowing()) {
@@ -1555,7 +1710,7 @@ public final class PopupWindow {
 
     private void scheduleWindowPersist() {
         if (configService == null || config == null) return;
-        if (!stage.isShowing() || windowChrome.isIconified()) return;
+        if (!isPopupVisible() || windowChrome.isIconified()) return;
         windowSaveDebounce.playFromStart();
     }
 
@@ -1563,7 +1718,7 @@ public final class PopupWindow {
         if (configService == null || config == null) return;
 
         // Do not persist transient minimized or hidden native geometry.
-        if (!stage.isShowing() || windowChrome.isIconified()) return;
+        if (!isPopupVisible() || windowChrome.isIconified()) return;
 
         boolean maximized = windowChrome.isMaximized();
         java.util.Optional<WindowBounds> persistedBounds =
@@ -1636,7 +1791,7 @@ public final class PopupWindow {
      * visible negative-coordinate windows are preserved unchanged.
      */
     private void recoverWindowForCurrentTopology() {
-        if (!stage.isShowing() || windowChrome.isIconified()) return;
+        if (!isPopupVisible() || windowChrome.isIconified()) return;
 
         WindowBounds requested = windowChrome.normalBounds()
                 .orElseGet(() -> windowChrome.persistenceBounds()
@@ -1702,7 +1857,7 @@ public final class PopupWindow {
                 );
             }
             updateEmptyStateText();
-            if (changed && stage.isShowing()) {
+            if (changed && isPopupVisible()) {
                 showToast(
                         paused ? "Capturing paused" : "Capturing resumed",
                         paused ? StatusTone.WARNING : StatusTone.SUCCESS
@@ -1743,23 +1898,20 @@ public final class PopupWindow {
     /**
      * Used only by the global hotkey path. Captures the currently active
      * external application before XClip takes focus.
+     *
+     * @param hotkeyReceivedNanos {@link System#nanoTime()} at which the
+     *                            hotkey message arrived
      */
-    public void showOrFocusForPaste() {
+    public void showOrFocusForPaste(long hotkeyReceivedNanos) {
         pasteService.prepareTargetForPaste();
+        boolean warm = parking.isParked();
+        boolean opening = warm || !stage.isShowing();
         showOrFocusInternal();
+        if (opening) measureFirstFrame(hotkeyReceivedNanos, warm);
     }
 
-    /**
-     * Reloads the visible popup after an external storage mutation such as
-     * scheduled history cleanup. Safe to call from any thread.
-     */
-    public void refreshFromStorage() {
-        reloadCache.invalidateTotalClipCount();
-        reloadCache.invalidateAllTagAssignments();
-
-        Runnable refresh = () -> reloadNow(searchField.getText());
-        if (Platform.isFxApplicationThread()) refresh.run();
-        else Platform.runLater(refresh);
+    public PopupOpenLatency.Summary openLatency() {
+        return openLatency.summary();
     }
 
     private void showOrFocusInternal() {
@@ -1769,6 +1921,20 @@ public final class PopupWindow {
         boolean first = !windowStateAppliedOnce;
         windowStateAppliedOnce = true;
 
+        // A parked window already holds the current first page: the drain
+        // kept it patched while out of sight, so only reveal it.
+        if (parking.isParked() && parking.unpark()) {
+            windowChrome.restoreFromMinimized();
+            recoverWindowForCurrentTopology();
+            clearSelection();
+            revealAnchor();
+            stage.toFront();
+            stage.requestFocus();
+            root.requestFocus();
+            Platform.runLater(root::requestFocus);
+            return;
+        }
+
         if (!stage.isShowing()) {
             stage.show();
         }
@@ -1792,7 +1958,7 @@ public final class PopupWindow {
 
         root.requestFocus();
         Platform.runLater(root::requestFocus);
-        reloadCache.invalidateTotalClipCount();
+        // Served from the reload cache unless storage moved since last shown.
         reloadNow(searchField.getText());
     }
 
@@ -1843,18 +2009,177 @@ public final class PopupWindow {
         actionsMenu.hide();
         quickHelp.hide();
         searchAssistPopup.hide();
-        stage.hide();
+        if (parking.isParked()) return;
+        if (!parking.park()) {
+            stage.hide();
+            return;
+        }
+        // Render the first page now so the next open only has to reveal it.
+        reloadNow(searchField.getText());
+    }
+
+    /** Shown on screen, as opposed to hidden or parked out of sight. */
+    private boolean isPopupVisible() {
+        return stage.isShowing() && !parking.isParked();
+    }
+
+    /**
+     * Leaves the read-only start: queued reads run, and a regular reload
+     * reconciles the snapshot rows with the database.
+     */
+    public void storageOpened() {
+        if (startupSnapshot == null) return;
+        startupSnapshot = null;
+        snapshotTruncatedIds = java.util.Set.of();
+        storageOpen.countDown();
+        reloadNow(searchField.getText());
+    }
+
+    /**
+     * Keeps the plain first page in {@code file} for the next cold start:
+     * rewritten periodically while the history changes and once on shutdown.
+     */
+    public void enableStartupSnapshot(Path file) {
+        startupSnapshotFile = java.util.Objects.requireNonNull(file, "file");
+        try {
+            debounceExec.scheduleWithFixedDelay(
+                    () -> writeStartupSnapshot(false),
+                    PopupPerformancePolicy.STARTUP_SNAPSHOT_INTERVAL_MS,
+                    PopupPerformancePolicy.STARTUP_SNAPSHOT_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS
+            );
+        } catch (RejectedExecutionException ignored) {
+            // Popup is shutting down.
+        }
+    }
+
+    /**
+     * Stops snapshot writes for the rest of the session and drops the hot
+     * tier, before clear-all or restore replaces the data both mirror. The
+     * exit that follows then cannot write the old rows back to disk.
+     */
+    public void discardStartupSnapshot() {
+        synchronized (snapshotWriteLock) {
+            // Waits out a periodic write already in progress.
+            startupSnapshotFile = null;
+        }
+        hotTier.invalidate();
+    }
+
+    private void awaitStorageOpen() {
+        try {
+            storageOpen.await();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** True, with a hint, while the popup still shows last session's rows. */
+    private boolean awaitingStorage() {
+        if (startupSnapshot == null) return false;
+        showToast("History is still opening…", StatusTone.NEUTRAL);
+        return true;
+    }
+
+    /** True, with a hint, when a snapshot row holds only the head of its clip. */
+    private boolean awaitingFullContent(List<ClipEntry> clips) {
+        if (startupSnapshot == null) return false;
+        for (ClipEntry clip : clips) {
+            if (snapshotTruncatedIds.contains(clip.id())) {
+                showToast("History is still opening…", StatusTone.NEUTRAL);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the plain first page from the hot tier. Skipped while nothing
+     * changed since the last write, and while the tier is cold, except on
+     * exit with clear-on-exit, where stale recent rows must not outlive it.
+     */
+    private void writeStartupSnapshot(boolean exiting) {
+        synchronized (snapshotWriteLock) {
+            writeStartupSnapshotLocked(exiting);
+        }
+    }
+
+    private void writeStartupSnapshotLocked(boolean exiting) {
+        Path file = startupSnapshotFile;
+        if (file == null || startupSnapshot != null) return;
+
+        long epoch = hotTier.epoch();
+        if (!exiting && epoch == writtenSnapshotEpoch) return;
+
+        boolean clearsRecent = exiting
+                && config != null
+                && config.historyRetentionPolicy().clearRecentOnExit();
+        int rows = Math.min(Math.max(1, uiClipLimit), PopupPerformancePolicy.STARTUP_SNAPSHOT_ROWS);
+        PopupReloadCache.ReloadResult page = hotTier.serve(
+                SearchExecutionPlan.combine(SearchQueryParser.parse(""), ClipViewScope.ALL, null, null),
+                rows,
+                this::contentTypeFor
+        );
+        try {
+            if (page == null) {
+                if (clearsRecent) Files.deleteIfExists(file);
+                return;
+            }
+            PopupStartupSnapshot snapshot = PopupStartupSnapshot.capture(
+                    page.entries(),
+                    page.tagsByClipId(),
+                    page.availableTags(),
+                    page.totalClipCount(),
+                    this::contentTypeFor,
+                    rows,
+                    PopupPerformancePolicy.STARTUP_SNAPSHOT_CONTENT_CHARS,
+                    System.currentTimeMillis()
+            );
+            PopupStartupSnapshot.write(file, clearsRecent ? snapshot.pinnedOnly() : snapshot);
+            writtenSnapshotEpoch = epoch;
+        } catch (IOException | RuntimeException ignored) {
+            // The snapshot only speeds up the next start; storage stays authoritative.
+        }
+    }
+
+    /**
+     * Records the time from the hotkey to the end of the first pulse that
+     * lays out the shown popup; the frame is committed right after it.
+     */
+    private void measureFirstFrame(long hotkeyReceivedNanos, boolean warm) {
+        Scene scene = stage.getScene();
+        if (scene == null) return;
+        if (pendingFirstFrame != null) scene.removePostLayoutPulseListener(pendingFirstFrame);
+
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            if (pendingFirstFrame != listener[0]) return;
+            pendingFirstFrame = null;
+            openLatency.record(System.nanoTime() - hotkeyReceivedNanos, warm);
+            // Listeners cannot be removed while the pulse iterates them.
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+        };
+        pendingFirstFrame = listener[0];
+        scene.addPostLayoutPulseListener(listener[0]);
+        Platform.requestNextPulse();
     }
 
     public void shutdown() {
+        writeStartupSnapshot(true);
+        dao.changes().removeListener(changeListener);
+        pendingChanges.clear();
         listScrollEdgeSupport.close();
         reloadGate.invalidate();
         if (pendingSearch != null) pendingSearch.cancel(false);
         previewCache.clear();
         contentTypeCache.clear();
         reloadCache.clear();
+        hotTier.invalidate();
+        thumbnailCache.clear();
         pasteService.close();
         dbExec.shutdownNow();
+        thumbnailExec.shutdownNow();
+        viewerExec.shutdownNow();
         debounceExec.shutdownNow();
     }
 
@@ -1889,7 +2214,7 @@ public final class PopupWindow {
 
     private void restorePopupFocus() {
         Platform.runLater(() -> {
-            if (!stage.isShowing()) return;
+            if (!isPopupVisible()) return;
             stage.toFront();
             stage.requestFocus();
             listView.requestFocus();
@@ -1923,14 +2248,14 @@ public final class PopupWindow {
     private void syncSearchAssistOverlay(boolean active) {
         if (!active
                 || searchAssistAnchor == null
-                || !stage.isShowing()
+                || !isPopupVisible()
                 || searchAssistAnchor.getScene() == null) {
             searchAssistPopup.hide();
             return;
         }
 
         Platform.runLater(() -> {
-            if (!stage.isShowing() || searchAssistAnchor.getScene() == null) {
+            if (!isPopupVisible() || searchAssistAnchor.getScene() == null) {
                 searchAssistPopup.hide();
                 return;
             }
@@ -2017,126 +2342,587 @@ public final class PopupWindow {
         long requestGeneration = reloadGate.nextRequest();
 
         currentQueryRaw = normQuery;
-        currentQueryLower = executionPlan.text().isEmpty()
+        String highlightQuery = executionPlan.text().isEmpty()
                 ? ""
                 : executionPlan.text().toLowerCase(Locale.ROOT);
+        currentQueryLower = highlightQuery;
 
         Platform.runLater(this::updateEmptyStateText);
 
-        dbExec.submit(() -> {
-            int limit = Math.max(1, uiClipLimit);
-            int candidateLimit = PopupPerformancePolicy.candidateLimit(
-                    limit,
-                    executionPlan.derivedTypeFilteringActive()
-            );
-
-            int totalClipCount = reloadCache.totalClipCount(dao::countAll);
-            if (!reloadGate.isCurrent(requestGeneration)) return;
+        int limit = Math.max(1, uiClipLimit);
+        int windowRows = PopupPerformancePolicy.scrollWindowRows(limit);
+
+        // Plain opens are answered from memory, without a trip through the
+        // DB thread; the tier declines anything it cannot judge on its own.
+        // Until storage opens the startup snapshot stands in for the tier.
+        PopupStartupSnapshot snapshot = startupSnapshot;
+        PopupReloadCache.ReloadResult hot = snapshot != null
+                ? snapshot.serve(executionPlan, limit)
+                : hotTier.serve(executionPlan, limit, this::contentTypeFor);
+        if (hot != null) {
+            List<PopupRow> preparedRows = PopupRows.build(hot.entries(), hot.tagsByClipId());
+            if (Platform.isFxApplicationThread()) {
+                applyReloadResult(requestGeneration, executionPlan, hot, preparedRows, snap, highlightQuery, windowRows);
+            } else {
+                Platform.runLater(() -> applyReloadResult(
+                        requestGeneration,
+                        executionPlan,
+                        hot,
+                        preparedRows,
+                        snap,
+                        highlightQuery,
+                        windowRows
+                ));
+            }
+            return;
+        }
 
-            List<ClipEntry> candidates = executionPlan.unsatisfiable()
-                    ? List.of()
-                    : dao.queryLatest(
-                            executionPlan.text(),
-                            candidateLimit,
-                            executionPlan.scope().favoriteFilter(),
-                            executionPlan.toolbarTagId(),
-                            executionPlan.requiredTagIdentities(),
-                            executionPlan.excludedTagIdentities()
-                    );
+        dbExec.submit(() -> {
+            // Read before the data it guards; on an idle system this pragma is
+            // the only storage access a reload makes.
+            ClipEntryDao.StorageVersion storageVersion = dao.storageVersion();
+            PopupReloadCache.ReloadResult loaded = reloadCache.result(executionPlan, limit, storageVersion);
+            if (loaded == null) {
+                loaded = loadReloadResult(executionPlan, limit, requestGeneration);
+                if (loaded == null) return;
+                reloadCache.storeResult(executionPlan, limit, storageVersion, loaded);
+            }
             if (!reloadGate.isCurrent(requestGeneration)) return;
 
-            List<ClipEntry> list = SearchQueryExecutor.apply(
-                    candidates,
+            PopupReloadCache.ReloadResult result = loaded;
+            List<PopupRow> preparedRows = PopupRows.build(result.entries(), result.tagsByClipId());
+            Platform.runLater(() -> applyReloadResult(
+                    requestGeneration,
                     executionPlan,
-                    limit,
-                    this::contentTypeFor
-            );
-            if (!reloadGate.isCurrent(requestGeneration)) return;
+                    result,
+                    preparedRows,
+                    snap,
+                    highlightQuery,
+                    windowRows
+            ));
+        });
+    }
+
+    private void applyReloadResult(
+            long requestGeneration,
+            SearchExecutionPlan executionPlan,
+            PopupReloadCache.ReloadResult loaded,
+            List<PopupRow> preparedRows,
+            MultiSelectionSnapshot snap,
+            String highlightQuery,
+            int windowRows
+    ) {
+        if (!reloadGate.isCurrent(requestGeneration)) return;
+
+        List<ClipEntry> loadedEntries = loaded.entries();
+        List<ClipTag> availableTags = loaded.availableTags();
+        int totalClipCount = loaded.totalClipCount();
+        int visibleClipCount = loadedEntries.size();
+        boolean complete = loaded.complete();
+
+        if (!searchSuggestionTags.equals(availableTags)) {
+            searchSuggestionTags = availableTags;
+            syncTagFilterOptions(availableTags);
+        }
+        updateSearchAssist();
+        if (pageWindow.maxRecentRows() != windowRows) {
+            pageWindow = new PopupPageWindow(windowRows);
+        }
+        pageWindow.reset(loadedEntries, complete);
+        PopupRowDiff.apply(items, PopupRowDiff.compute(items, preparedRows));
+        appliedReloadGeneration = requestGeneration;
+        appliedPlan = executionPlan;
+        // Rows kept by the diff are not re-rendered on their own, so a
+        // changed highlight needs an explicit pass over visible cells.
+        if (!highlightQuery.equals(renderedQueryLower)) {
+            renderedQueryLower = highlightQuery;
+            listView.refresh();
+        }
+        updateCountLabel(visibleClipCount, totalClipCount);
 
-            List<Long> visibleClipIds = new ArrayList<>(list.size());
-            for (ClipEntry entry : list) {
-                visibleClipIds.add(entry.id());
+        updateEmptyStateText();
+
+        if (items.isEmpty()) {
+            listView.getSelectionModel().clearSelection();
+            selectionAnchorIndex = -1;
+            updateSelectionUi();
+            return;
+        }
+
+        // --- restore multi-selection by ids ---
+        // Diffed rows keep their selection, so the model is only
+        // rewritten when it no longer matches the snapshot.
+        java.util.Set<Long> ids = (snap == null) ? java.util.Set.of() : snap.ids();
+        List<Integer> wanted = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            for (int i = 0; i < items.size(); i++) {
+                PopupRow r = items.get(i);
+                if (r instanceof ClipRow cr && ids.contains(cr.entry().id())) {
+                    wanted.add(i);
+                }
             }
+        }
+        boolean restoredAny = !wanted.isEmpty();
 
-            Map<Long, List<ClipTag>> tagsByClipId = tagDao == null
-                    ? Map.of()
-                    : reloadCache.tagAssignments(
-                            visibleClipIds,
-                            tagDao::listForClips
-                    );
+        if (!new java.util.HashSet<>(listView.getSelectionModel().getSelectedIndices())
+                .equals(new java.util.HashSet<>(wanted))) {
+            listView.getSelectionModel().clearSelection();
+            for (int i : wanted) {
+                listView.getSelectionModel().select(i);
+            }
+        }
+
+        // restore anchorIndex from anchorId (if possible)
+        if (snap != null && snap.anchorId() > 0) {
+            for (int i = 0; i < items.size(); i++) {
+                PopupRow r = items.get(i);
+                if (r instanceof ClipRow cr && cr.entry().id() == snap.anchorId()) {
+                    selectionAnchorIndex = i;
+                    break;
+                }
+            }
+        }
+
+        // Keep the popup neutral when no user selection can be restored.
+        if (!restoredAny) {
+            selectionAnchorIndex = -1;
+        }
+
+        // finally: always show top context
+        revealAnchor();
+        updateSelectionUi();
+    }
+
+    private void refillHotTier() {
+        hotTier.invalidate();
+        scheduleHotTierFill();
+    }
+
+    private void scheduleHotTierFill() {
+        if (!hotTierFillScheduled.compareAndSet(false, true)) return;
+        try {
+            dbExec.execute(this::fillHotTier);
+        } catch (RejectedExecutionException ignored) {
+            // Popup is shutting down.
+            hotTierFillScheduled.set(false);
+        }
+    }
+
+    /**
+     * Reads the hot tier from storage on the DB thread. Types and previews
+     * are classified here too, so serving a type filter from the tier on the
+     * FX thread only hits caches.
+     */
+    private void fillHotTier() {
+        hotTierFillScheduled.set(false);
+        int recentCapacity = Math.max(PopupPerformancePolicy.HOT_TIER_RECENT_CLIPS, uiClipLimit);
+
+        for (int attempt = 0; attempt < PopupPerformancePolicy.HOT_TIER_FILL_ATTEMPTS; attempt++) {
+            long epoch = hotTier.epoch();
+            List<ClipEntry> pinned = dao.queryLatest(
+                    "",
+                    PopupPerformancePolicy.HOT_TIER_MAX_PINNED + 1,
+                    Boolean.TRUE,
+                    null,
+                    List.of(),
+                    List.of()
+            );
+            // A pin board this large is left to SQLite.
+            if (pinned.size() > PopupPerformancePolicy.HOT_TIER_MAX_PINNED) return;
+            List<ClipEntry> recent = dao.queryLatest(
+                    "",
+                    recentCapacity + 1,
+                    Boolean.FALSE,
+                    null,
+                    List.of(),
+                    List.of()
+            );
+            boolean historyComplete = recent.size() <= recentCapacity;
+            if (!historyComplete) recent = recent.subList(0, recentCapacity);
+
+            List<ClipEntry> rows = new ArrayList<>(pinned.size() + recent.size());
+            rows.addAll(pinned);
+            rows.addAll(recent);
+            Map<Long, List<ClipTag>> tags = tagAssignmentsFor(rows);
             List<ClipTag> availableTags = tagDao == null
                     ? List.of()
                     : reloadCache.availableTags(tagDao::listAll);
-            if (!reloadGate.isCurrent(requestGeneration)) return;
+            int totalClipCount = dao.countAll();
+            for (ClipEntry entry : rows) {
+                contentTypeFor(entry);
+                if (!entry.image()) getPreviewData(entry.id(), entry.content());
+            }
 
-            List<PopupRow> preparedRows = PopupRows.build(list, tagsByClipId);
-            int visibleClipCount = list.size();
+            PopupHotTier.Contents contents = new PopupHotTier.Contents(
+                    pinned,
+                    recent,
+                    historyComplete,
+                    tags,
+                    availableTags,
+                    totalClipCount
+            );
+            if (hotTier.install(epoch, contents, recentCapacity)) return;
+        }
+    }
 
-            Platform.runLater(() -> {
-                if (!reloadGate.isCurrent(requestGeneration)) return;
+    /**
+     * Reads one reload's rows and metadata from storage, or returns null once
+     * a newer request has superseded this one.
+     */
+    private PopupReloadCache.ReloadResult loadReloadResult(
+            SearchExecutionPlan plan,
+            int limit,
+            long requestGeneration
+    ) {
+        int candidateLimit = PopupPerformancePolicy.candidateLimit(
+                limit,
+                plan.derivedTypeFilteringActive()
+        );
 
-                if (!searchSuggestionTags.equals(availableTags)) {
-                    searchSuggestionTags = availableTags;
-                    syncTagFilterOptions(availableTags);
-                }
-                updateSearchAssist();
-                items.setAll(preparedRows);
-                countLabel.setText("Clips " + totalClipCount);
-                countLabel.setAccessibleText(
-                        visibleClipCount < totalClipCount
-                                ? "Showing " + visibleClipCount + " of " + totalClipCount + " clips"
-                                : totalClipCount + (totalClipCount == 1 ? " clip" : " clips")
+        int totalClipCount = reloadCache.totalClipCount(dao::countAll);
+        if (!reloadGate.isCurrent(requestGeneration)) return null;
+
+        List<ClipEntry> candidates = plan.unsatisfiable()
+                ? List.of()
+                : dao.queryLatest(
+                        plan.text(),
+                        candidateLimit,
+                        plan.scope().favoriteFilter(),
+                        plan.toolbarTagId(),
+                        plan.requiredTagIdentities(),
+                        plan.excludedTagIdentities()
                 );
-                countLabel.setTooltip(visibleClipCount < totalClipCount
-                        ? new Tooltip("Showing " + visibleClipCount + " of " + totalClipCount + " clips")
-                        : null);
+        if (!reloadGate.isCurrent(requestGeneration)) return null;
 
-                updateEmptyStateText();
+        List<ClipEntry> list = SearchQueryExecutor.apply(
+                candidates,
+                plan,
+                limit,
+                this::contentTypeFor
+        );
+        if (!reloadGate.isCurrent(requestGeneration)) return null;
+        // A short candidate page means nothing past the window matches.
+        boolean complete = list.size() < limit && candidates.size() < candidateLimit;
 
-                if (items.isEmpty()) {
-                    listView.getSelectionModel().clearSelection();
-                    selectionAnchorIndex = -1;
-                    updateSelectionUi();
-                    return;
-                }
+        List<Long> visibleClipIds = new ArrayList<>(list.size());
+        for (ClipEntry entry : list) {
+            visibleClipIds.add(entry.id());
+        }
 
-                // --- restore multi-selection by ids ---
-                listView.getSelectionModel().clearSelection();
+        Map<Long, List<ClipTag>> tagsByClipId = tagDao == null
+                ? Map.of()
+                : reloadCache.tagAssignments(
+                        visibleClipIds,
+                        tagDao::listForClips
+                );
+        List<ClipTag> availableTags = tagDao == null
+                ? List.of()
+                : reloadCache.availableTags(tagDao::listAll);
+        if (!reloadGate.isCurrent(requestGeneration)) return null;
 
-                boolean restoredAny = false;
-                java.util.Set<Long> ids = (snap == null) ? java.util.Set.of() : snap.ids();
+        return new PopupReloadCache.ReloadResult(list, tagsByClipId, availableTags, totalClipCount, complete);
+    }
 
-                if (!ids.isEmpty()) {
-                    for (int i = 0; i < items.size(); i++) {
-                        PopupRow r = items.get(i);
-                        if (r instanceof ClipRow cr && ids.contains(cr.entry().id())) {
-                            listView.getSelectionModel().select(i);
-                            restoredAny = true;
-                        }
-                    }
-                }
+    private PopupPageWindow.PageSource pageSource(SearchExecutionPlan plan) {
+        return new PopupPageWindow.PageSource() {
+            @Override
+            public List<ClipEntry> after(ClipEntryDao.PageCursor cursor, int limit) {
+                return dao.queryLatestAfter(
+                        plan.text(),
+                        limit,
+                        plan.scope().favoriteFilter(),
+                        plan.toolbarTagId(),
+                        plan.requiredTagIdentities(),
+                        plan.excludedTagIdentities(),
+                        cursor
+                );
+            }
 
-                // restore anchorIndex from anchorId (if possible)
-                if (snap != null && snap.anchorId() > 0) {
-                    for (int i = 0; i < items.size(); i++) {
-                        PopupRow r = items.get(i);
-                        if (r instanceof ClipRow cr && cr.entry().id() == snap.anchorId()) {
-                            selectionAnchorIndex = i;
-                            break;
-                        }
-                    }
-                }
+            @Override
+            public List<ClipEntry> before(ClipEntryDao.PageCursor cursor, int limit) {
+                return dao.queryRecentBefore(
+                        plan.text(),
+                        limit,
+                        plan.scope().favoriteFilter(),
+                        plan.toolbarTagId(),
+                        plan.requiredTagIdentities(),
+                        plan.excludedTagIdentities(),
+                        cursor
+                );
+            }
+        };
+    }
+
+    /** Rows the SQL cannot filter itself; null when every fetched row is kept. */
+    private Predicate<ClipEntry> pageFilter(SearchExecutionPlan plan) {
+        if (!plan.derivedTypeFilteringActive()) return null;
+        return entry -> plan.matchesType(contentTypeFor(entry));
+    }
 
-                // Keep the popup neutral when no user selection can be restored.
-                if (!restoredAny) {
-                    selectionAnchorIndex = -1;
+    private Map<Long, List<ClipTag>> tagAssignmentsFor(List<ClipEntry> entries) {
+        if (tagDao == null || entries.isEmpty()) return Map.of();
+
+        List<Long> clipIds = new ArrayList<>(entries.size());
+        for (ClipEntry entry : entries) {
+            clipIds.add(entry.id());
+        }
+        return reloadCache.tagAssignments(clipIds, tagDao::listForClips);
+    }
+
+    /**
+     * Requests the adjacent keyset page once a rendered row comes within
+     * {@link PopupPerformancePolicy#SCROLL_PREFETCH_ROWS} of either end of
+     * the loaded rows.
+     */
+    private void onRowShown(int index) {
+        if (index < 0 || !isPopupVisible()) return;
+
+        if (pageWindow.hasMoreAfter()
+                && index >= items.size() - PopupPerformancePolicy.SCROLL_PREFETCH_ROWS) {
+            loadAdjacentPage(true);
+        }
+        int pinnedRows = pageWindow.pinnedCount();
+        int firstRecentIndex = pinnedRows + (pinnedRows > 0 ? 1 : 0) + 1;
+        if (pageWindow.hasMoreBefore()
+                && index <= firstRecentIndex + PopupPerformancePolicy.SCROLL_PREFETCH_ROWS) {
+            loadAdjacentPage(false);
+        }
+    }
+
+    private void loadAdjacentPage(boolean forward) {
+        if (forward ? loadingNextPage : loadingPreviousPage) return;
+        SearchExecutionPlan plan = appliedPlan;
+        long generation = appliedReloadGeneration;
+        if (plan == null || !reloadGate.isCurrent(generation)) return;
+        ClipEntryDao.PageCursor cursor = forward ? pageWindow.nextCursor() : pageWindow.previousCursor();
+        if (cursor == null) return;
+
+        long windowVersion = pageWindow.version();
+        if (forward) loadingNextPage = true;
+        else loadingPreviousPage = true;
+
+        dbExec.submit(() -> {
+            PopupPageWindow.Page page = null;
+            Map<Long, List<ClipTag>> tags = Map.of();
+            try {
+                if (reloadGate.isCurrent(generation)) {
+                    PopupPageWindow.PageSource source = pageSource(plan);
+                    page = forward
+                            ? PopupPageWindow.readAfter(
+                                    source,
+                                    cursor,
+                                    PopupPerformancePolicy.SCROLL_PAGE_SIZE,
+                                    pageFilter(plan),
+                                    PopupPerformancePolicy.TYPE_FILTER_SCAN_LIMIT
+                            )
+                            : PopupPageWindow.readBefore(
+                                    source,
+                                    cursor,
+                                    PopupPerformancePolicy.SCROLL_PAGE_SIZE,
+                                    pageFilter(plan),
+                                    PopupPerformancePolicy.TYPE_FILTER_SCAN_LIMIT
+                            );
+                    tags = tagAssignmentsFor(page.entries());
                 }
+            } finally {
+                PopupPageWindow.Page loaded = page;
+                Map<Long, List<ClipTag>> loadedTags = tags;
+                Platform.runLater(() -> {
+                    if (forward) loadingNextPage = false;
+                    else loadingPreviousPage = false;
+                    if (loaded == null
+                            || !reloadGate.isCurrent(generation)
+                            || pageWindow.version() != windowVersion) {
+                        return;
+                    }
+                    applyPage(forward, loaded, loadedTags);
+                });
+            }
+        });
+    }
+
+    private void applyPage(
+            boolean forward,
+            PopupPageWindow.Page page,
+            Map<Long, List<ClipTag>> pageTags
+    ) {
+        Map<Long, List<ClipTag>> tagsByClipId = new HashMap<>(pageTags);
+        for (PopupRow row : items) {
+            if (row instanceof ClipRow clipRow) tagsByClipId.put(clipRow.entry().id(), clipRow.tags());
+        }
+
+        // Rows dropped or added above the viewport would shift it; keep the
+        // row that was on top, and the selection anchor, on the same clip.
+        int firstVisible = firstVisibleRowIndex();
+        long topClipId = clipIdAt(firstVisible);
+        long anchorClipId = clipIdAt(selectionAnchorIndex);
+
+        if (forward) pageWindow.append(page);
+        else pageWindow.prepend(page);
+        PopupRowDiff.apply(
+                items,
+                PopupRowDiff.compute(items, PopupRows.build(pageWindow.entries(), tagsByClipId))
+        );
+
+        int topIndex = indexOfClip(topClipId);
+        if (topIndex >= 0 && topIndex != firstVisible) listView.scrollTo(topIndex);
+        if (anchorClipId > 0) selectionAnchorIndex = indexOfClip(anchorClipId);
+
+        updateCountLabel(pageWindow.size(), displayedClipCount);
+        updateSelectionUi();
+
+        // A type-filtered scan can end without a kept row; keep going while
+        // the viewport still sits at the end.
+        if (forward && page.entries().isEmpty() && pageWindow.hasMoreAfter()) {
+            loadAdjacentPage(true);
+        }
+    }
+
+    private long clipIdAt(int index) {
+        if (index < 0 || index >= items.size()) return -1;
+        return items.get(index) instanceof ClipRow row ? row.entry().id() : -1;
+    }
+
+    private int indexOfClip(long clipId) {
+        if (clipId <= 0) return -1;
+        for (int index = 0; index < items.size(); index++) {
+            if (items.get(index) instanceof ClipRow row && row.entry().id() == clipId) return index;
+        }
+        return -1;
+    }
+
+    private int firstVisibleRowIndex() {
+        if (listView.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+            IndexedCell<?> cell = flow.getFirstVisibleCell();
+            if (cell != null) return cell.getIndex();
+        }
+        return -1;
+    }
+
+    private void updateCountLabel(int visibleClipCount, int totalClipCount) {
+        displayedClipCount = totalClipCount;
+        countLabel.setText("Clips " + totalClipCount);
+        countLabel.setAccessibleText(
+                visibleClipCount < totalClipCount
+                        ? "Showing " + visibleClipCount + " of " + totalClipCount + " clips"
+                        : totalClipCount + (totalClipCount == 1 ? " clip" : " clips")
+        );
+        countLabel.setTooltip(visibleClipCount < totalClipCount
+                ? new Tooltip("Showing " + visibleClipCount + " of " + totalClipCount + " clips")
+                : null);
+    }
+
+    /**
+     * Bus listener; runs on the thread that committed the change. Caches are
+     * invalidated here so a reload that starts before the FX drain already
+     * misses them, then the event is queued for {@link #drainClipChanges}.
+     */
+    private void onClipChange(ClipChangeEvent event) {
+        if (event instanceof ClipChangeEvent.TagsChanged changed) {
+            reloadCache.invalidateTagAssignments(changed.clipIds());
+        } else if (event instanceof ClipChangeEvent.TagLibraryChanged) {
+            reloadCache.invalidateAvailableTags();
+            reloadCache.invalidateAllTagAssignments();
+        } else if (event instanceof ClipChangeEvent.Deleted deleted) {
+            reloadCache.invalidateTotalClipCount();
+            reloadCache.invalidateTagAssignments(deleted.ids());
+            previewCache.removeKeys(deleted.ids());
+            contentTypeCache.removeKeys(deleted.ids());
+        } else if (event instanceof ClipChangeEvent.Trimmed
+                || event instanceof ClipChangeEvent.Purged) {
+            reloadCache.invalidateTotalClipCount();
+            reloadCache.invalidateAllTagAssignments();
+        } else if (event instanceof ClipChangeEvent.Imported) {
+            reloadCache.invalidateTotalClipCount();
+            reloadCache.invalidateAvailableTags();
+            reloadCache.invalidateAllTagAssignments();
+        } else if (event instanceof ClipChangeEvent.Inserted inserted) {
+            reloadCache.invalidateTotalClipCount();
+            // Classified while the full text is at hand; rows keep only its head.
+            if (PopupRowContent.mayBeHead(inserted.entry())) contentTypeFor(inserted.entry());
+        } else if (event instanceof ClipChangeEvent.Bumped bumped && bumped.content() != null) {
+            previewCache.remove(bumped.id());
+            contentTypeCache.remove(bumped.id());
+            if (bumped.content().length() >= PopupPerformancePolicy.ROW_CONTENT_CHARS - 1) {
+                contentTypeFor(bumped.id(), bumped.content());
+            }
+        }
+
+        if (!hotTier.apply(event)) scheduleHotTierFill();
+
+        pendingChanges.add(event);
+        if (changeDrainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drainClipChanges);
+        }
+    }
+
+    /**
+     * Applies queued changes to the visible rows when the current plan can
+     * judge them from the events alone, and re-queries otherwise. A hidden
+     * popup drops the batch: showing it always reloads.
+     */
+    private void drainClipChanges() {
+        changeDrainScheduled.set(false);
+        List<ClipChangeEvent> events = new ArrayList<>();
+        for (ClipChangeEvent event; (event = pendingChanges.poll()) != null; ) {
+            events.add(event);
+        }
+        if (events.isEmpty() || !stage.isShowing()) return;
+
+        SearchExecutionPlan plan = appliedPlan;
+        if (plan == null || !reloadGate.isCurrent(appliedReloadGeneration)) {
+            // A reload is in flight and may have read storage before the commit.
+            reloadNow(searchField.getText());
+            return;
+        }
+
+        Predicate<ClipEntry> filter = PopupHotTier.needsDatabase(plan)
+                ? null
+                : entry -> plan.matchesScope(entry.favorite()) && plan.matchesType(contentTypeFor(entry));
+
+        PopupChangeApplier.Result result = PopupChangeApplier.apply(
+                items,
+                events,
+                filter,
+                Math.max(Math.max(1, uiClipLimit), pageWindow.size()),
+                !pageWindow.hasMoreAfter(),
+                pageWindow.hasMoreBefore()
+        );
+        if (result.requery()) {
+            reloadNow(searchField.getText());
+            return;
+        }
+
+        PopupRowDiff.apply(
+                items,
+                PopupRowDiff.compute(items, PopupRows.build(result.entries(), result.tagsByClipId()))
+        );
+        pageWindow.patch(result.entries(), result.complete());
+        int visibleClipCount = result.entries().size();
+        updateCountLabel(
+                visibleClipCount,
+                Math.max(visibleClipCount, displayedClipCount + result.countDelta())
+        );
+        updateEmptyStateText();
+        updateSelectionUi();
 
-                // finally: always show top context
-                revealAnchor();
-                updateSelectionUi();
+        int hotCount = hotTier.totalClipCount();
+        if (hotCount >= 0) {
+            // The tier has applied the same events already.
+            updateCountLabel(visibleClipCount, Math.max(visibleClipCount, hotCount));
+        } else if (result.countDelta() != 0) {
+            // The delta shows at once; the stored count settles any event
+            // that a concurrent reload had already counted.
+            long generation = appliedReloadGeneration;
+            dbExec.submit(() -> {
+                int totalClipCount = reloadCache.totalClipCount(dao::countAll);
+                Platform.runLater(() -> {
+                    if (reloadGate.isCurrent(generation)) {
+                        updateCountLabel(visibleClipCount, totalClipCount);
+                    }
+                });
             });
-        });
+        }
     }
 
     private int findFirstClipIndex() {
@@ -2169,7 +2955,12 @@ public final class PopupWindow {
     private void pasteSelectedOrFirst() {
         List<ClipEntry> selected = getSelectedClipsOrdered();
 
+        if (selected.size() == 1) {
+            pasteEntry(selected.get(0));
+            return;
+        }
         if (!selected.isEmpty()) {
+            if (awaitingFullContent(selected)) return;
             pasteText(joinClipContents(selected));
             return;
         }
@@ -2183,8 +2974,20 @@ public final class PopupWindow {
     }
 
     private void pasteEntry(ClipEntry entry) {
-        if (entry == null) return;
-        pasteText(entry.content());
+        if (entry == null || awaitingFullContent(List.of(entry))) return;
+        if (entry.image()) {
+            withClipImage(entry, image -> {
+                PasteService.StartResult result = pasteService.paste(
+                        () -> pushImage(image),
+                        this::hideForPaste
+                );
+                if (result == PasteService.StartResult.CLIPBOARD_UNAVAILABLE) {
+                    showToast("Clipboard unavailable", StatusTone.ERROR);
+                }
+            });
+            return;
+        }
+        withFullContent(List.of(entry), texts -> pasteText(texts.get(0)));
     }
 
     private void pasteText(String text) {
@@ -2197,8 +3000,13 @@ public final class PopupWindow {
     private void copySelectedOrFirst() {
         List<ClipEntry> selected = getSelectedClipsOrdered();
 
+        if (selected.size() == 1) {
+            copyEntry(selected.get(0));
+            return;
+        }
         if (!selected.isEmpty()) {
-            copyText(joinClipContents(selected));
+            if (awaitingFullContent(selected)) return;
+            copyJoinedClipContents(selected);
             return;
         }
 
@@ -2210,15 +3018,129 @@ public final class PopupWindow {
         }
     }
 
-    private String joinClipContents(List<ClipEntry> clips) {
-        return clips.stream()
-                .map(e -> e.content() == null ? "" : e.content())
-                .collect(java.util.stream.Collectors.joining("\n"));
+    /** Images have no text form; a mixed selection joins its text clips only. */
+    private void copyJoinedClipContents(List<ClipEntry> clips) {
+        List<ClipEntry> textClips = clips.stream().filter(e -> !e.image()).toList();
+        withFullContent(textClips, texts -> copyText(String.join("\n", texts)));
+    }
+
+    /**
+     * Hands the text of clips to onReady on the FX thread. Rows hold only
+     * the head of long clips, so those are read in full by id on the DB
+     * thread first; short clips are handed over at once.
+     */
+    private void withFullContent(List<ClipEntry> clips, Consumer<List<String>> onReady) {
+        if (clips.stream().noneMatch(PopupRowContent::mayBeHead)) {
+            onReady.accept(clips.stream()
+                    .map(e -> e.content() == null ? "" : e.content())
+                    .toList());
+            return;
+        }
+
+        List<ClipEntry> requested = List.copyOf(clips);
+        try {
+            dbExec.execute(() -> {
+                List<String> texts = new ArrayList<>(requested.size());
+                try {
+                    for (ClipEntry clip : requested) {
+                        String text = PopupRowContent.mayBeHead(clip)
+                                ? dao.contentSlice(clip.id(), 0, Integer.MAX_VALUE)
+                                : java.util.Objects.requireNonNullElse(clip.content(), "");
+                        if (text == null) {
+                            texts = null;
+                            break;
+                        }
+                        texts.add(text);
+                    }
+                } catch (RuntimeException e) {
+                    texts = null;
+                }
+                List<String> loaded = texts;
+                Platform.runLater(() -> {
+                    if (loaded == null) {
+                        showToast("Clip no longer exists", StatusTone.WARNING);
+                    } else {
+                        onReady.accept(loaded);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Popup is shutting down.
+        }
     }
 
     private void copyEntry(ClipEntry entry) {
-        if (entry == null) return;
-        copyText(entry.content());
+        if (entry == null || awaitingFullContent(List.of(entry))) return;
+        if (entry.image()) {
+            withClipImage(entry, image -> {
+                if (pushImage(image)) {
+                    hide();
+                } else {
+                    showToast("Clipboard unavailable", StatusTone.ERROR);
+                }
+            });
+            return;
+        }
+        withFullContent(List.of(entry), texts -> copyText(texts.get(0)));
+    }
+
+    /**
+     * Reads and decodes the stored pixels off the FX thread, then hands the
+     * image back on it. Full-size images are only decoded on copy or paste.
+     */
+    private void withClipImage(ClipEntry entry, Consumer<java.awt.image.BufferedImage> onReady) {
+        long id = entry.id();
+        try {
+            dbExec.execute(() -> {
+                java.awt.image.BufferedImage decoded;
+                try {
+                    ClipImage stored = imageDao.load(id);
+                    decoded = stored == null ? null : ClipImageCodec.decode(stored.encoded());
+                    if (decoded != null) imageCapture.markPushedByApp(stored.phash());
+                } catch (RuntimeException e) {
+                    decoded = null;
+                }
+                java.awt.image.BufferedImage image = decoded;
+                Platform.runLater(() -> {
+                    if (image == null) {
+                        showToast("Image unavailable", StatusTone.ERROR);
+                    } else {
+                        onReady.accept(image);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Popup is shutting down.
+        }
+    }
+
+    private boolean pushImage(java.awt.image.BufferedImage image) {
+        return clipboard.setImageSafely(image);
+    }
+
+    private void loadThumbnail(long id, Consumer<Image> onLoaded) {
+        try {
+            thumbnailExec.execute(() -> {
+                Image image;
+                try {
+                    byte[] thumbnail = imageDao.loadThumbnail(id);
+                    if (thumbnail == null) {
+                        // Not generated yet: derive one for display only.
+                        ClipImage stored = imageDao.load(id);
+                        if (stored == null) return;
+                        thumbnail = ClipImageCodec.thumbnail(stored.encoded());
+                    }
+                    image = new Image(new java.io.ByteArrayInputStream(thumbnail));
+                    if (image.isError()) return;
+                } catch (RuntimeException e) {
+                    return;
+                }
+                thumbnailCache.put(id, image);
+                Platform.runLater(() -> onLoaded.accept(image));
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Popup is shutting down.
+        }
     }
 
     private void copyText(String text) {
@@ -2248,8 +3170,14 @@ public final class PopupWindow {
         if (entry == null) return;
 
         ClipPrimaryAction action = primaryActionFor(entry);
-        String content = entry.content() == null ? "" : entry.content();
+        if (action == ClipPrimaryAction.NONE) {
+            showToast("No type action available", StatusTone.WARNING);
+            return;
+        }
+        withFullContent(List.of(entry), texts -> performPrimaryTypeAction(action, texts.get(0)));
+    }
 
+    private void performPrimaryTypeAction(ClipPrimaryAction action, String content) {
         switch (action) {
             case OPEN_URL -> handleExternalOpenResult(
                     externalOpenService.openUrl(content),
@@ -2301,6 +3229,7 @@ public final class PopupWindow {
     }
 
     private void manageTagsLibrary() {
+        if (awaitingStorage()) return;
         if (tagDao == null) {
             showToast("Tags are unavailable", StatusTone.WARNING);
             return;
@@ -2312,7 +3241,7 @@ public final class PopupWindow {
                 List<TagSummary> summaries = tagDao.listAllWithUsage();
 
                 Platform.runLater(() -> {
-                    if (!stage.isShowing()) return;
+                    if (!isPopupVisible()) return;
 
                     TagManagementDialog.Actions dialogActions = new TagManagementDialog.Actions() {
                         @Override
@@ -2379,7 +3308,53 @@ public final class PopupWindow {
         });
     }
 
+    private void viewSelectedFullContent() {
+        if (awaitingStorage()) return;
+        List<ClipEntry> selected = getSelectedClipsOrdered();
+        if (selected.size() != 1 || selected.get(0).image()) return;
+
+        ClipEntry entry = selected.get(0);
+        String title = entry.hasTitle() ? entry.title() : "Clip #" + entry.id();
+
+        viewerExec.submit(() -> {
+            try {
+                int length = dao.contentLength(entry.id());
+                if (length < 0) {
+                    Platform.runLater(() -> showToast("Clip no longer exists", StatusTone.WARNING));
+                    return;
+                }
+                ClipContentPager pager = new ClipContentPager(new ClipContentPager.ContentSource() {
+                    @Override
+                    public int length() {
+                        return length;
+                    }
+
+                    @Override
+                    public String read(int start, int count) {
+                        return dao.contentSlice(entry.id(), start, count);
+                    }
+                });
+
+                Platform.runLater(() -> {
+                    if (!isPopupVisible()) return;
+                    showPopupModal(() -> {
+                        ClipContentViewer.show(stage, title, pager, viewerExec);
+                        return null;
+                    });
+                });
+            } catch (Throwable failure) {
+                Platform.runLater(() -> showOperationError(
+                        "Clip unavailable",
+                        "Open clip failed",
+                        "The clip could not be read",
+                        "No clipboard data was changed. Reopen XClip and try again."
+                ));
+            }
+        });
+    }
+
     private void editTagsSelected() {
+        if (awaitingStorage()) return;
         List<ClipEntry> selected = getSelectedClipsOrdered();
         if (selected.isEmpty()) return;
         if (tagDao == null) {
@@ -2400,7 +3375,7 @@ public final class PopupWindow {
                         ));
 
                 Platform.runLater(() -> {
-                    if (!stage.isShowing()) return;
+                    if (!isPopupVisible()) return;
 
                     java.util.Optional<EditPlan> result = showPopupModal(() ->
                             TagEditorDialog.show(
@@ -2478,6 +3453,7 @@ public final class PopupWindow {
     }
 
     private void toggleFavoriteSelected() {
+        if (awaitingStorage()) return;
         List<ClipEntry> selected = getSelectedClipsOrdered();
         if (selected.isEmpty()) return;
 
@@ -2507,6 +3483,7 @@ public final class PopupWindow {
     }
 
     private void moveSelectedPinned(PinnedMoveAction action) {
+        if (awaitingStorage()) return;
         List<ClipEntry> selected = getSelectedClipsOrdered();
         if (selected.size() != 1 || !selected.get(0).favorite()) {
             showToast("Select one pinned clip", StatusTone.WARNING);
@@ -2548,6 +3525,7 @@ public final class PopupWindow {
     }
 
     private void renameSelectedPinned() {
+        if (awaitingStorage()) return;
         List<ClipEntry> selected = getSelectedClipsOrdered();
         if (selected.size() != 1 || !selected.get(0).favorite()) {
             showToast("Select one pinned clip", StatusTone.WARNING);
@@ -2590,6 +3568,7 @@ public final class PopupWindow {
     }
 
     private void clearSelectedTitle() {
+        if (awaitingStorage()) return;
         List<ClipEntry> selected = getSelectedClipsOrdered();
         if (selected.size() != 1 || !selected.get(0).favorite()) {
             showToast("Select one pinned clip", StatusTone.WARNING);
@@ -2667,6 +3646,7 @@ public final class PopupWindow {
     }
 
     private void deleteSelected() {
+        if (awaitingStorage()) return;
         List<ClipEntry> selected = getSelectedClipsOrdered();
         if (selected.isEmpty()) return;
 
@@ -2719,6 +3699,7 @@ public final class PopupWindow {
     }
 
     private void clearHistoryNonFavorites() {
+        if (awaitingStorage()) return;
         java.util.List<Long> visibleNonFavoriteIds = new java.util.ArrayList<>();
 
         for (PopupRow row : items) {
@@ -2868,18 +3849,23 @@ public final class PopupWindow {
 
     private ClipContentType contentTypeFor(ClipEntry entry) {
         if (entry == null) return ClipContentType.TEXT;
+        if (entry.image()) return ClipContentType.IMAGE;
+        return contentTypeFor(entry.id(), entry.content());
+    }
 
-        String content = entry.content() == null ? "" : entry.content();
+    private ClipContentType contentTypeFor(long id, String text) {
+        // Keyed by the head, so a row cut to its head keeps the type its full text had.
+        String content = text == null ? "" : text;
         PopupPerformancePolicy.ContentFingerprint fingerprint =
-                PopupPerformancePolicy.fingerprint(content);
-        ContentTypeCache cached = contentTypeCache.get(entry.id());
+                PopupPerformancePolicy.fingerprint(PopupRowContent.head(content));
+        ContentTypeCache cached = contentTypeCache.get(id);
 
         if (cached != null && cached.fingerprint().equals(fingerprint)) {
             return cached.type();
         }
 
         ClipContentType type = ClipContentClassifier.classify(content);
-        contentTypeCache.put(entry.id(), new ContentTypeCache(fingerprint, type));
+        contentTypeCache.put(id, new ContentTypeCache(fingerprint, type));
         return type;
     }
 
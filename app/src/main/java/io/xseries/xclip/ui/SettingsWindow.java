@@ -9,6 +9,8 @@ import io.xseries.xclip.AppVersion;
 import io.xseries.xclip.config.AppPaths;
 import io.xseries.xclip.config.Config;
 import io.xseries.xclip.config.ConfigService;
+import io.xseries.xclip.data.dao.HistoryTransferDao;
+import io.xseries.xclip.data.db.BackgroundMigrationService;
 import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
 import io.xseries.xclip.domain.privacy.ExcludedApplicationPolicy;
 import io.xseries.xclip.domain.privacy.SensitiveContentPolicy;
@@ -41,6 +43,7 @@ import io.xseries.xclip.ui.settings.SettingsDraftSession;
 import io.xseries.xclip.ui.settings.SettingsDraftValidation;
 import io.xseries.xclip.ui.settings.SettingsField;
 import io.xseries.xclip.ui.settings.SettingsPage;
+import io.xseries.xclip.ui.settings.SettingsPageViews;
 import io.xseries.xclip.ui.settings.SettingsResponsivePolicy;
 import io.xseries.xclip.ui.settings.SettingsSidebarNavigationPolicy;
 import io.xseries.xclip.ui.settings.SettingsValidationIssue;
@@ -102,6 +105,9 @@ import java.util.function.Supplier;
  * Apply persists config.json and immediately updates runtime behavior. Closing
  * the window discards unapplied edits and restores controls from the last saved
  * configuration snapshot.
+ *
+ * Page layouts are built the first time their sidebar entry is selected, and
+ * the Data page reads database status in the background once it exists.
  */
 public final class SettingsWindow {
 
@@ -118,8 +124,8 @@ public final class SettingsWindow {
     private final Label pageTitleLabel = new Label();
     private final Label pageDescriptionLabel = new Label();
     private final StackPane pageHost = new StackPane();
-    private final EnumMap<SettingsPage, ScrollPane> pageViews =
-            new EnumMap<>(SettingsPage.class);
+    private final SettingsPageViews<ScrollPane> pageViews =
+            new SettingsPageViews<>(this::buildPage, this::pageBuilt);
     private final EnumMap<SettingsPage, ToggleButton> navigationButtons =
             new EnumMap<>(SettingsPage.class);
     private SettingsPage selectedPage = SettingsPage.GENERAL;
@@ -132,6 +138,7 @@ public final class SettingsWindow {
     private final DataOwnershipService dataOwnershipService;
     private final ExternalOpenService externalOpenService = new ExternalOpenService();
     private final HistoryCleanupService historyCleanupService;
+    private final BackgroundMigrationService backgroundMigrations;
 
     private Config current;
     private final SettingsDraftSession draftSession;
@@ -156,6 +163,7 @@ public final class SettingsWindow {
     private final TextField duplicateCustomWindowMillis;
     private final CheckBox duplicateExactContentMode;
     private final Label duplicateExactOverrideHint;
+    private final CheckBox duplicateNearDuplicateMode;
     private final Button resetDuplicateDefaultsBtn;
 
     private final TextArea excludedApplications;
@@ -172,6 +180,7 @@ public final class SettingsWindow {
     private final Spinner<Integer> retentionPathDays;
     private final Spinner<Integer> retentionJsonDays;
     private final Spinner<Integer> retentionCommandDays;
+    private final Spinner<Integer> retentionImageDays;
     private final CheckBox clearRecentOnExit;
     private final Label cleanupStatusLabel;
     private final Button runCleanupNowBtn;
@@ -186,6 +195,7 @@ public final class SettingsWindow {
     private final Label statusLabel = new Label();
     private final AtomicBoolean dataOperationRunning = new AtomicBoolean(false);
     private ShortcutsSettingsPage.View shortcutsPageView;
+    private Runnable beforeLocalDataReplaced = () -> {};
     private DataSettingsPage.View dataPageView;
     private PauseTransition statusHide;
     private final java.util.function.Consumer<Config> onConfigApplied;
@@ -197,6 +207,7 @@ public final class SettingsWindow {
             TrayController trayController,
             DataOwnershipService dataOwnershipService,
             HistoryCleanupService historyCleanupService,
+            BackgroundMigrationService backgroundMigrations,
             Config initial,
             java.util.function.Consumer<Config> onConfigApplied
     ) {
@@ -206,6 +217,7 @@ public final class SettingsWindow {
         this.trayController = Objects.requireNonNull(trayController);
         this.dataOwnershipService = Objects.requireNonNull(dataOwnershipService);
         this.historyCleanupService = Objects.requireNonNull(historyCleanupService);
+        this.backgroundMigrations = Objects.requireNonNull(backgroundMigrations);
         this.current = (initial == null ? Config.defaults() : initial).normalized();
         this.draftSession = new SettingsDraftSession(this.current);
         this.onConfigApplied = onConfigApplied != null ? onConfigApplied : cfg -> {};
@@ -332,6 +344,11 @@ public final class SettingsWindow {
         duplicateExactOverrideHint.setWrapText(true);
         duplicateExactOverrideHint.getStyleClass().add("settings-override-hint");
 
+        duplicateNearDuplicateMode = new CheckBox("Collapse near-duplicates");
+        duplicateNearDuplicateMode.setAccessibleHelp(
+                "Fold a copy that differs from a recent clip only in numbers or a few words into that clip."
+        );
+
         resetDuplicateDefaultsBtn = new Button("Reset duplicate defaults");
         resetDuplicateDefaultsBtn.setAccessibleHelp(
                 "Restore the safe duplicate behavior that XClip used before preferences existed."
@@ -391,6 +408,7 @@ public final class SettingsWindow {
         retentionPathDays = typeRetentionSpinner(initialRetention, io.xseries.xclip.domain.model.ClipContentType.PATH);
         retentionJsonDays = typeRetentionSpinner(initialRetention, io.xseries.xclip.domain.model.ClipContentType.JSON);
         retentionCommandDays = typeRetentionSpinner(initialRetention, io.xseries.xclip.domain.model.ClipContentType.COMMAND);
+        retentionImageDays = typeRetentionSpinner(initialRetention, io.xseries.xclip.domain.model.ClipContentType.IMAGE);
 
         clearRecentOnExit = new CheckBox("Clear all RECENT clips when XClip exits");
         clearRecentOnExit.setAccessibleHelp(
@@ -452,103 +470,6 @@ public final class SettingsWindow {
 
         registerValidationControls();
 
-        pageViews.put(
-                SettingsPage.GENERAL,
-                GeneralSettingsPage.create(
-                        watcherEnabled,
-                        startMinimized,
-                        startOnBoot
-                )
-        );
-        pageViews.put(
-                SettingsPage.CAPTURE,
-                CaptureSettingsPage.create(
-                        minClipLength,
-                        maxClipChars,
-                        uiClipLimit
-                )
-        );
-        pageViews.put(
-                SettingsPage.HISTORY,
-                HistorySettingsPage.create(new HistorySettingsPage.Controls(
-                        maxHistory,
-                        retentionRecentEnabled,
-                        retentionRecentDays,
-                        retentionTextDays,
-                        retentionCodeDays,
-                        retentionUrlDays,
-                        retentionPathDays,
-                        retentionJsonDays,
-                        retentionCommandDays,
-                        clearRecentOnExit,
-                        cleanupStatusLabel,
-                        runCleanupNowBtn,
-                        resetRetentionDefaultsBtn
-                ))
-        );
-        pageViews.put(
-                SettingsPage.DUPLICATE_BEHAVIOR,
-                DuplicateBehaviorSettingsPage.create(
-                        new DuplicateBehaviorSettingsPage.Controls(
-                                duplicateRecentPosition,
-                                duplicatePinnedPosition,
-                                duplicateWhitespaceMode,
-                                duplicateCaseSensitivity,
-                                duplicateWindowPreset,
-                                duplicateCustomWindowMillis,
-                                duplicateExactContentMode,
-                                duplicateExactOverrideHint,
-                                resetDuplicateDefaultsBtn
-                        )
-                )
-        );
-        pageViews.put(
-                SettingsPage.PRIVACY,
-                PrivacySettingsPage.create(new PrivacySettingsPage.Controls(
-                        excludedApplications,
-                        clearExcludedApplicationsBtn,
-                        paymentCardAction,
-                        oneTimeCodeAction,
-                        resetSensitiveRulesBtn
-                ))
-        );
-        pageViews.put(
-                SettingsPage.APPEARANCE,
-                AppearanceSettingsPage.create()
-        );
-        shortcutsPageView = ShortcutsSettingsPage.create(
-                trayController.hotkeyStatus()
-        );
-        pageViews.put(SettingsPage.SHORTCUTS, shortcutsPageView.root());
-
-        dataPageView = DataSettingsPage.create(
-                AppPaths.dataDir(),
-                AppPaths.dbPath(),
-                AppPaths.configPath(),
-                dataOwnershipService::openDataFolder,
-                this::refreshDatabaseStatusFlow,
-                this::checkDatabaseIntegrityFlow,
-                this::checkpointWalFlow,
-                this::optimizeDatabaseFlow,
-                this::createBackupFlow,
-                this::restoreBackupFlow,
-                this::scheduleRetentionCleanup,
-                this::clearRecentFlow,
-                this::clearAllDataFlow,
-                this::showStatus
-        );
-        pageViews.put(SettingsPage.DATA, dataPageView.root());
-
-        pageViews.put(
-                SettingsPage.ABOUT,
-                AboutSettingsPage.create(
-                        AppVersion.VERSION,
-                        this::openProductLink,
-                        this::showThirdPartyNotices
-                )
-        );
-
-        configurePageAccessibility();
 
         Button cancelBtn = new Button("Cancel");
         cancelBtn.setAccessibleText("Cancel Settings changes");
@@ -653,6 +574,7 @@ public final class SettingsWindow {
         wireDirtyForIntSpinner(retentionPathDays);
         wireDirtyForIntSpinner(retentionJsonDays);
         wireDirtyForIntSpinner(retentionCommandDays);
+        wireDirtyForIntSpinner(retentionImageDays);
 
         watcherEnabled.selectedProperty().addListener(
                 (observable, oldValue, newValue) -> refreshDraftStateUnlessSyncing()
@@ -692,6 +614,10 @@ public final class SettingsWindow {
                 }
         );
 
+        duplicateNearDuplicateMode.selectedProperty().addListener(
+                (observable, oldValue, newValue) -> refreshDraftStateUnlessSyncing()
+        );
+
         resetDuplicateDefaultsBtn.setOnAction(
                 event -> resetDuplicateControlsToDefaults()
         );
@@ -738,9 +664,9 @@ public final class SettingsWindow {
                 );
             }
         }));
-        trayController.addHotkeyStatusListener(status -> Platform.runLater(
-                () -> shortcutsPageView.updateHotkeyStatus(status)
-        ));
+        trayController.addHotkeyStatusListener(status -> Platform.runLater(() -> {
+            if (shortcutsPageView != null) shortcutsPageView.updateHotkeyStatus(status);
+        }));
 
         internalSync = true;
         syncUiFromDraft(draftSession.current());
@@ -748,6 +674,14 @@ public final class SettingsWindow {
         renderDraftState();
     }
 
+    /**
+     * Runs on a background thread before clear-all or restore replaces the
+     * local data, to stop caches of the old data from being written back.
+     */
+    public void setBeforeLocalDataReplaced(Runnable action) {
+        beforeLocalDataReplaced = action != null ? action : () -> {};
+    }
+
     public void show() {
         if (!stage.isShowing()) {
             internalSync = true;
@@ -767,7 +701,8 @@ public final class SettingsWindow {
         stage.requestFocus();
         selectPage(selectedPage);
         Platform.runLater(this::focusSelectedNavigation);
-        if (!dataOperationRunning.get()) refreshDatabaseStatusFlow();
+        // An unbuilt Data page reads the status when it is first selected.
+        if (dataPageView != null && !dataOperationRunning.get()) refreshDatabaseStatusFlow();
     }
 
     private void apply() {
@@ -844,7 +779,8 @@ public final class SettingsWindow {
                         duplicateCaseSensitivity.getValue(),
                         duplicateWindowPreset.getValue(),
                         duplicateCustomWindowMillis.getText(),
-                        duplicateExactContentMode.isSelected()
+                        duplicateExactContentMode.isSelected(),
+                        duplicateNearDuplicateMode.isSelected()
                 ),
                 new SettingsDraft.Privacy(
                         excludedApplications.getText(),
@@ -860,6 +796,7 @@ public final class SettingsWindow {
                         spinnerText(retentionPathDays),
                         spinnerText(retentionJsonDays),
                         spinnerText(retentionCommandDays),
+                        spinnerText(retentionImageDays),
                         clearRecentOnExit.isSelected()
                 )
         );
@@ -926,6 +863,7 @@ public final class SettingsWindow {
         setSpinnerText(retentionPathDays, value.pathDays());
         setSpinnerText(retentionJsonDays, value.jsonDays());
         setSpinnerText(retentionCommandDays, value.commandDays());
+        setSpinnerText(retentionImageDays, value.imageDays());
         clearRecentOnExit.setSelected(value.clearRecentOnExit());
         syncRetentionAvailability();
     }
@@ -949,6 +887,7 @@ public final class SettingsWindow {
             case SKIPPED -> "skipped";
             case FAILED -> "failed";
             case TIMED_OUT -> "timed out";
+            case PAUSED -> "paused";
             case NOT_RUN -> "not run";
         };
         String text = "Last cleanup: " + result + " • " + status.deletedCount()
@@ -970,6 +909,7 @@ public final class SettingsWindow {
         duplicateWindowPreset.setValue(value.windowPreset());
         duplicateCustomWindowMillis.setText(value.customWindowMillis());
         duplicateExactContentMode.setSelected(value.exactContentMode());
+        duplicateNearDuplicateMode.setSelected(value.nearDuplicateMode());
         syncDuplicateWindowEditor();
         syncDuplicateMatchingAvailability();
     }
@@ -985,6 +925,7 @@ public final class SettingsWindow {
         boolean exact = duplicateExactContentMode.isSelected();
         duplicateWhitespaceMode.setDisable(exact);
         duplicateCaseSensitivity.setDisable(exact);
+        duplicateNearDuplicateMode.setDisable(exact);
         duplicateExactOverrideHint.setManaged(exact);
         duplicateExactOverrideHint.setVisible(exact);
     }
@@ -1139,7 +1080,10 @@ public final class SettingsWindow {
     private void restoreValidatedBackup(Path source) {
         runExclusiveDatabaseOperation(
                 "Restoring XClip backup…",
-                () -> dataOwnershipService.restoreBackup(source),
+                () -> {
+                    beforeLocalDataReplaced.run();
+                    return dataOwnershipService.restoreBackup(source);
+                },
                 result -> {
                     String text = DatabaseMaintenanceText.restore(result);
                     dataPageView.updateBackupStatus(text);
@@ -1179,6 +1123,86 @@ public final class SettingsWindow {
         return chooser;
     }
 
+    private void exportHistoryFlow() {
+        if (dataOperationRunning.get()) {
+            showStatus("Data maintenance is already running");
+            return;
+        }
+
+        FileChooser chooser = historyFileChooser(false);
+        chooser.setInitialFileName(
+                "XClip-history-"
+                        + BACKUP_FILE_TIME_FORMAT.format(Instant.now())
+                        + HistoryTransferDao.FILE_EXTENSION
+        );
+        File selected = chooser.showSaveDialog(stage);
+        if (selected == null) return;
+
+        Path target = selected.toPath();
+        runDatabaseReadOperation(
+                "Exporting clipboard history…",
+                () -> clipService.exportHistory(target),
+                result -> {
+                    dataPageView.updateTransferStatus(
+                            DatabaseMaintenanceText.historyExport(target, result)
+                    );
+                    showStatus("History exported");
+                },
+                "Failed to export history"
+        );
+    }
+
+    /**
+     * Imports next to live capture rather than as an exclusive operation:
+     * the import only adds rows, and ClipService prunes to the history limit
+     * under its storage lock once the file is read.
+     */
+    private void importHistoryFlow() {
+        if (dataOperationRunning.get()) {
+            showStatus("Data maintenance is already running");
+            return;
+        }
+
+        FileChooser chooser = historyFileChooser(true);
+        File selected = chooser.showOpenDialog(stage);
+        if (selected == null) return;
+
+        Path source = selected.toPath();
+        runDatabaseReadOperation(
+                "Importing clipboard history…",
+                () -> clipService.importHistory(source),
+                result -> {
+                    dataPageView.updateTransferStatus(
+                            DatabaseMaintenanceText.historyImport(source, result)
+                    );
+                    showStatus("History imported");
+                },
+                "Failed to import history"
+        );
+    }
+
+    private FileChooser historyFileChooser(boolean importing) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(importing
+                ? "Import XClip history"
+                : "Export XClip history");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter(
+                        "XClip history (*" + HistoryTransferDao.FILE_EXTENSION + ")",
+                        "*" + HistoryTransferDao.FILE_EXTENSION
+                )
+        );
+
+        try {
+            Path home = Path.of(System.getProperty("user.home"));
+            if (Files.isDirectory(home)) {
+                chooser.setInitialDirectory(home.toFile());
+            }
+        } catch (Exception ignored) {
+        }
+        return chooser;
+    }
+
     private <T> void runDatabaseReadOperation(
             String runningMessage,
             Supplier<T> operation,
@@ -1225,8 +1249,11 @@ public final class SettingsWindow {
         CompletableFuture.supplyAsync(() -> {
             boolean paused = false;
             try {
-                watcherController.disable();
+                // The watcher keeps observing; captures are spilled to the
+                // journal until storage resumes.
+                clipService.suspendStorage();
                 historyCleanupService.pauseForMaintenance();
+                backgroundMigrations.pauseForMaintenance();
                 paused = true;
 
                 T result = operation.get();
@@ -1261,9 +1288,9 @@ public final class SettingsWindow {
     }
 
     private void resumeRuntimeAfterDatabaseMaintenance() {
+        backgroundMigrations.resumeAfterMaintenance();
         historyCleanupService.resumeAfterMaintenance();
-        if (current.watcherEnabled()) watcherController.enable();
-        else watcherController.disable();
+        clipService.resumeStorage();
     }
 
     private void showDatabaseOperationError(
@@ -1380,10 +1407,14 @@ public final class SettingsWindow {
         boolean cleanupPaused = false;
         try {
             watcherController.disable();
+            clipService.suspendStorage();
             historyCleanupService.pauseForMaintenance();
+            backgroundMigrations.pauseForMaintenance();
             cleanupPaused = true;
 
+            beforeLocalDataReplaced.run();
             dataOwnershipService.clearAllData();
+            clipService.discardSpilledCaptures();
 
             historyCleanupService.close();
             cleanupPaused = false;
@@ -1391,10 +1422,15 @@ public final class SettingsWindow {
         } catch (Throwable failure) {
             if (cleanupPaused) {
                 try {
+                    backgroundMigrations.resumeAfterMaintenance();
                     historyCleanupService.resumeAfterMaintenance();
                 } catch (Throwable ignored) {
                 }
             }
+            try {
+                clipService.resumeStorage();
+            } catch (Throwable ignored) {
+            }
             try {
                 if (current.watcherEnabled()) watcherController.enable();
             } catch (Throwable ignored) {
@@ -1562,6 +1598,10 @@ public final class SettingsWindow {
                 SettingsField.RETENTION_COMMAND_DAYS,
                 retentionCommandDays.getEditor()
         );
+        validationControls.put(
+                SettingsField.RETENTION_IMAGE_DAYS,
+                retentionImageDays.getEditor()
+        );
         validationControls.put(
                 SettingsField.DUPLICATE_RECENT_POSITION,
                 duplicateRecentPosition
@@ -1963,14 +2003,107 @@ public final class SettingsWindow {
         return pane;
     }
 
+    private ScrollPane buildPage(SettingsPage page) {
+        return switch (page) {
+            case GENERAL -> GeneralSettingsPage.create(
+                    watcherEnabled,
+                    startMinimized,
+                    startOnBoot
+            );
+            case CAPTURE -> CaptureSettingsPage.create(
+                    minClipLength,
+                    maxClipChars,
+                    uiClipLimit
+            );
+            case HISTORY -> HistorySettingsPage.create(new HistorySettingsPage.Controls(
+                    maxHistory,
+                    retentionRecentEnabled,
+                    retentionRecentDays,
+                    retentionTextDays,
+                    retentionCodeDays,
+                    retentionUrlDays,
+                    retentionPathDays,
+                    retentionJsonDays,
+                    retentionCommandDays,
+                    retentionImageDays,
+                    clearRecentOnExit,
+                    cleanupStatusLabel,
+                    runCleanupNowBtn,
+                    resetRetentionDefaultsBtn
+            ));
+            case DUPLICATE_BEHAVIOR -> DuplicateBehaviorSettingsPage.create(
+                    new DuplicateBehaviorSettingsPage.Controls(
+                            duplicateRecentPosition,
+                            duplicatePinnedPosition,
+                            duplicateWhitespaceMode,
+                            duplicateCaseSensitivity,
+                            duplicateWindowPreset,
+                            duplicateCustomWindowMillis,
+                            duplicateExactContentMode,
+                            duplicateExactOverrideHint,
+                            duplicateNearDuplicateMode,
+                            resetDuplicateDefaultsBtn
+                    )
+            );
+            case PRIVACY -> PrivacySettingsPage.create(new PrivacySettingsPage.Controls(
+                    excludedApplications,
+                    clearExcludedApplicationsBtn,
+                    paymentCardAction,
+                    oneTimeCodeAction,
+                    resetSensitiveRulesBtn
+            ));
+            case APPEARANCE -> AppearanceSettingsPage.create();
+            case SHORTCUTS -> {
+                shortcutsPageView = ShortcutsSettingsPage.create(
+                        trayController.hotkeyStatus()
+                );
+                yield shortcutsPageView.root();
+            }
+            case DATA -> {
+                dataPageView = DataSettingsPage.create(
+                        AppPaths.dataDir(),
+                        AppPaths.dbPath(),
+                        AppPaths.configPath(),
+                        dataOwnershipService::openDataFolder,
+                        this::refreshDatabaseStatusFlow,
+                        this::checkDatabaseIntegrityFlow,
+                        this::checkpointWalFlow,
+                        this::optimizeDatabaseFlow,
+                        this::createBackupFlow,
+                        this::restoreBackupFlow,
+                        this::exportHistoryFlow,
+                        this::importHistoryFlow,
+                        this::scheduleRetentionCleanup,
+                        this::clearRecentFlow,
+                        this::clearAllDataFlow,
+                        this::showStatus
+                );
+                yield dataPageView.root();
+            }
+            case ABOUT -> AboutSettingsPage.create(
+                    AppVersion.VERSION,
+                    this::openProductLink,
+                    this::showThirdPartyNotices
+            );
+        };
+    }
+
+    /** Brings a page built just now up to date and starts its own loads. */
+    private void pageBuilt(SettingsPage page, ScrollPane view) {
+        configurePageAccessibility(page, view);
+        if (page == SettingsPage.DATA) {
+            updateCleanupStatus(historyCleanupService.status());
+            dataPageView.setMaintenanceBusy(dataOperationRunning.get());
+            if (!dataOperationRunning.get()) {
+                dataPageView.updateDatabaseStatus("Reading database status…");
+                refreshDatabaseStatusFlow();
+            }
+        }
+    }
+
     private void selectPage(SettingsPage page) {
         SettingsPage next = page == null ? SettingsPage.GENERAL : page;
         ScrollPane view = pageViews.get(next);
-        if (view == null) {
-            throw new IllegalStateException(
-                    "Missing Settings page view: " + next
-            );
-        }
 
         selectedPage = next;
         pageTitleLabel.setText(next.title());
@@ -1989,19 +2122,14 @@ public final class SettingsWindow {
         }
     }
 
-    private void configurePageAccessibility() {
-        for (SettingsPage page : SettingsPage.values()) {
-            ScrollPane view = pageViews.get(page);
-            if (view == null) continue;
-
-            view.setAccessibleText(
-                    SettingsAccessibilityText.pageContentLabel(page)
-            );
-            view.setAccessibleHelp(
-                    SettingsAccessibilityText.pageContentHelp(page)
-            );
-            view.setPannable(true);
-        }
+    private static void configurePageAccessibility(SettingsPage page, ScrollPane view) {
+        view.setAccessibleText(
+                SettingsAccessibilityText.pageContentLabel(page)
+        );
+        view.setAccessibleHelp(
+                SettingsAccessibilityText.pageContentHelp(page)
+        );
+        view.setPannable(true);
     }
 
     private static SettingsResponsivePolicy.WindowSize initialWindowSize() {
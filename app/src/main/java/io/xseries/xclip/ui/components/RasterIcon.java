@@ -0,0 +1,161 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.components;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.css.CssMetaData;
+import javafx.css.SimpleStyleableObjectProperty;
+import javafx.css.StyleConverter;
+import javafx.css.Styleable;
+import javafx.css.StyleableObjectProperty;
+import javafx.css.StyleableProperty;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.stage.Screen;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single-node icon for high-count places such as virtualized list rows.
+ *
+ * {@link SvgIcon} builds a pane, a group and one shape per SVG element for
+ * every use, and each of them takes part in CSS, layout and rendering. A
+ * raster icon is one {@link ImageView} showing a snapshot of the same vector
+ * shapes, rendered once per icon, size, color and render scale and shared
+ * through a bounded cache.
+ *
+ * Colors still come from CSS: the icon carries the {@code svg-icon} style
+ * class plus the caller's classes, and {@code -fx-icon-color} resolves the
+ * same {@code -x-icon-color} looked-up color the vector icon uses, including
+ * pseudo-class overrides such as hover or selection.
+ */
+public final class RasterIcon extends ImageView {
+
+    /** Icons times colors times scales in use at once; well above the popup's needs. */
+    private static final int CACHE_CAPACITY = 256;
+
+    private static final RasterIconCache<Image> CACHE = new RasterIconCache<>(CACHE_CAPACITY);
+
+    private static final CssMetaData<RasterIcon, Paint> ICON_COLOR = new CssMetaData<>(
+            "-fx-icon-color",
+            StyleConverter.getPaintConverter(),
+            Color.WHITE
+    ) {
+        @Override
+        public boolean isSettable(RasterIcon node) {
+            return !node.iconColor.isBound();
+        }
+
+        @Override
+        public StyleableProperty<Paint> getStyleableProperty(RasterIcon node) {
+            return node.iconColor;
+        }
+    };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+    static {
+        List<CssMetaData<? extends Styleable, ?>> metaData = new ArrayList<>(ImageView.getClassCssMetaData());
+        metaData.add(ICON_COLOR);
+        CSS_META_DATA = List.copyOf(metaData);
+    }
+
+    private final UiIcon icon;
+    private final double iconSize;
+    private final StyleableObjectProperty<Paint> iconColor =
+            new SimpleStyleableObjectProperty<>(ICON_COLOR, this, "iconColor", Color.WHITE);
+    private final ChangeListener<Number> renderScaleListener = (obs, oldValue, newValue) -> refresh();
+    private Window observedWindow;
+
+    private RasterIcon(UiIcon icon, double iconSize, String... extraStyleClasses) {
+        this.icon = Objects.requireNonNull(icon, "icon");
+        this.iconSize = SvgIcon.normalizeSize(iconSize);
+
+        getStyleClass().addAll("svg-icon", "raster-icon");
+        if (extraStyleClasses != null) {
+            for (String styleClass : extraStyleClasses) {
+                if (styleClass != null && !styleClass.isBlank()) {
+                    getStyleClass().add(styleClass);
+                }
+            }
+        }
+
+        setFitWidth(this.iconSize);
+        setFitHeight(this.iconSize);
+        setPreserveRatio(false);
+        setSmooth(true);
+        setMouseTransparent(true);
+        setFocusTraversable(false);
+        setPickOnBounds(false);
+
+        iconColor.addListener((obs, oldValue, newValue) -> refresh());
+        ObservableValue<Window> window = sceneProperty().flatMap(Scene::windowProperty);
+        window.addListener((obs, oldWindow, newWindow) -> observeWindow(newWindow));
+        observeWindow(window.getValue());
+    }
+
+    public static RasterIcon of(UiIcon icon, double iconSize, String... extraStyleClasses) {
+        return new RasterIcon(icon, iconSize, extraStyleClasses);
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return getClassCssMetaData();
+    }
+
+    public UiIcon icon() {
+        return icon;
+    }
+
+    /** Drops every rendered icon, for example after stylesheets were reloaded. */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /** Icons rendered so far; stays flat while scrolling once the cache is warm. */
+    public static long renderCount() {
+        return CACHE.renders();
+    }
+
+    private void observeWindow(Window window) {
+        if (observedWindow == window) return;
+        if (observedWindow != null) observedWindow.renderScaleXProperty().removeListener(renderScaleListener);
+        observedWindow = window;
+        if (observedWindow != null) observedWindow.renderScaleXProperty().addListener(renderScaleListener);
+        refresh();
+    }
+
+    private void refresh() {
+        Color color = iconColor.get() instanceof Color solid ? solid : Color.WHITE;
+        RasterIconCache.Key key = RasterIconCache.Key.of(icon, iconSize, argb(color), renderScale());
+        setImage(CACHE.get(key, k -> SvgIcon.rasterize(k.icon(), k.size(), color, k.scale())));
+    }
+
+    private double renderScale() {
+        double scale = observedWindow != null
+                ? observedWindow.getRenderScaleX()
+                : Screen.getPrimary().getOutputScaleX();
+        return Double.isFinite(scale) && scale > 0 ? scale : 1.0;
+    }
+
+    private static int argb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.components;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Bounded access-order cache of rendered icons, keyed by everything that
+ * changes the pixels.
+ *
+ * Color and render scale are part of the key, so a stylesheet or theme that
+ * resolves a different color, or a window moving to a monitor with another
+ * DPI, simply renders new entries; the old ones age out of the bound.
+ *
+ * Rendering happens on the FX thread, which is the only caller.
+ */
+final class RasterIconCache<V> {
+
+    /**
+     * @param sizeHundredths icon size in layout pixels × 100
+     * @param argb           resolved icon color
+     * @param scaleHundredths render scale × 100
+     */
+    record Key(UiIcon icon, int sizeHundredths, int argb, int scaleHundredths) {
+        Key {
+            Objects.requireNonNull(icon, "icon");
+        }
+
+        static Key of(UiIcon icon, double size, int argb, double scale) {
+            return new Key(icon, hundredths(size), argb, hundredths(scale));
+        }
+
+        double size() {
+            return sizeHundredths / 100.0;
+        }
+
+        double scale() {
+            return scaleHundredths / 100.0;
+        }
+
+        private static int hundredths(double value) {
+            return (int) Math.round(value * 100.0);
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, V> values;
+    private long renders;
+
+    RasterIconCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.values = new LinkedHashMap<>(Math.min(capacity, 64), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > RasterIconCache.this.capacity;
+            }
+        };
+    }
+
+    V get(Key key, Function<Key, V> renderer) {
+        Objects.requireNonNull(key, "key");
+        V cached = values.get(key);
+        if (cached != null) return cached;
+
+        V rendered = Objects.requireNonNull(renderer.apply(key), "rendered icon");
+        renders++;
+        values.put(key, rendered);
+        return rendered;
+    }
+
+    void clear() {
+        values.clear();
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /** Icons rendered since the cache was created; cache hits do not count. */
+    long renders() {
+        return renders;
+    }
+}
@@ -7,8 +7,12 @@
  */
 package io.xseries.xclip.ui.components;
 
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -21,6 +25,7 @@ import javafx.scene.shape.SVGPath;
 import javafx.scene.shape.Shape;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.transform.Transform;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -42,6 +47,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * Lucide icons are parsed once into immutable shape specifications. Every UI
  * use receives fresh JavaFX nodes, so icons can be safely reused by virtualized
  * cells and styled through the {@code -x-icon-color} looked-up CSS color.
+ * Rows and other high-count places use {@link RasterIcon}, which shows a
+ * cached snapshot of the same shapes in a single node.
  */
 public final class SvgIcon extends StackPane {
 
@@ -81,26 +88,49 @@ public final class SvgIcon extends StackPane {
         return new SvgIcon(icon, iconSize, extraStyleClasses);
     }
 
+    /**
+     * Renders an icon into an image of {@code size × renderScale} pixels for
+     * {@link RasterIcon}. Must run on the FX thread.
+     */
+    static Image rasterize(UiIcon icon, double size, Color color, double renderScale) {
+        Objects.requireNonNull(icon, "icon");
+        Objects.requireNonNull(color, "color");
+        IconDefinition definition = CACHE.computeIfAbsent(icon, SvgIcon::loadDefinition);
+        Group graphic = new Group(shapes(definition, color));
+
+        double pixels = Math.max(1.0, Math.ceil(normalizeSize(size) * renderScale));
+        double scale = pixels / Math.max(definition.viewWidth(), definition.viewHeight());
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(scale, scale));
+        // The viewport keeps the whole view box even when the shapes leave margins.
+        parameters.setViewport(new Rectangle2D(0, 0, pixels, pixels));
+        return graphic.snapshot(parameters, new WritableImage((int) pixels, (int) pixels));
+    }
+
     private static Node buildGraphic(IconDefinition definition, double requestedSize) {
+        Group graphic = new Group(shapes(definition, Color.WHITE));
+        double scale = requestedSize / Math.max(definition.viewWidth(), definition.viewHeight());
+        graphic.setScaleX(scale);
+        graphic.setScaleY(scale);
+        graphic.setMouseTransparent(true);
+        return graphic;
+    }
+
+    private static List<Node> shapes(IconDefinition definition, Color color) {
         List<Node> nodes = new ArrayList<>(definition.shapes().size());
         for (ShapeSpec spec : definition.shapes()) {
-            Shape shape = createShape(spec, definition.defaults());
+            Shape shape = createShape(spec, definition.defaults(), color);
             if (shape != null) nodes.add(shape);
         }
 
         if (nodes.isEmpty()) {
             throw new IllegalStateException("SVG icon has no renderable vector shapes");
         }
-
-        Group graphic = new Group(nodes);
-        double scale = requestedSize / Math.max(definition.viewWidth(), definition.viewHeight());
-        graphic.setScaleX(scale);
-        graphic.setScaleY(scale);
-        graphic.setMouseTransparent(true);
-        return graphic;
+        return nodes;
     }
 
-    private static Shape createShape(ShapeSpec spec, Map<String, String> defaults) {
+    private static Shape createShape(ShapeSpec spec, Map<String, String> defaults, Color color) {
         Map<String, String> attrs = merged(defaults, spec.attributes());
         Shape shape = switch (spec.tag()) {
             case "path" -> createPath(attrs);
@@ -133,12 +163,12 @@ public final class SvgIcon extends StackPane {
         boolean filled = !fill.isBlank() && !"none".equalsIgnoreCase(fill);
 
         if (filled) {
-            shape.setFill(Color.WHITE);
+            shape.setFill(color);
             shape.setStroke(Color.TRANSPARENT);
             shape.getStyleClass().add("svg-icon-fill");
         } else {
             shape.setFill(Color.TRANSPARENT);
-            shape.setStroke(Color.WHITE);
+            shape.setStroke(color);
             shape.setStrokeWidth(number(attrs, "stroke-width", 2.0));
             shape.setStrokeLineCap(parseLineCap(attrs.get("stroke-linecap")));
             shape.setStrokeLineJoin(parseLineJoin(attrs.get("stroke-linejoin")));
@@ -341,7 +371,7 @@ public final class SvgIcon extends StackPane {
         }
     }
 
-    private static double normalizeSize(double iconSize) {
+    static double normalizeSize(double iconSize) {
         if (!Double.isFinite(iconSize) || iconSize <= 0) return 16.0;
         return iconSize;
     }
@@ -0,0 +1,85 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Synchronized access-order cache bounded by the summed weight of its values.
+ *
+ * Decoded thumbnails differ in size by orders of magnitude, so an entry bound
+ * alone cannot hold the heap steady; a byte budget can. A value heavier than
+ * the whole budget is not cached.
+ */
+public final class ByteBoundedLruCache<K, V> {
+
+    private final long maxBytes;
+    private final ToLongFunction<? super V> weigher;
+    private final LinkedHashMap<K, Weighted<V>> values = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private record Weighted<V>(V value, long bytes) {}
+
+    public ByteBoundedLruCache(long maxBytes, ToLongFunction<? super V> weigher) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.weigher = Objects.requireNonNull(weigher, "weigher");
+    }
+
+    public synchronized V get(K key) {
+        Weighted<V> entry = values.get(key);
+        return entry == null ? null : entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+
+        long weight = Math.max(0L, weigher.applyAsLong(value));
+        Weighted<V> previous = values.remove(key);
+        if (previous != null) bytes -= previous.bytes();
+        if (weight > maxBytes) return;
+
+        values.put(key, new Weighted<>(value, weight));
+        bytes += weight;
+
+        Iterator<Map.Entry<K, Weighted<V>>> eldest = values.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    public synchronized V remove(K key) {
+        Weighted<V> entry = values.remove(key);
+        if (entry == null) return null;
+        bytes -= entry.bytes();
+        return entry.value();
+    }
+
+    public synchronized void clear() {
+        values.clear();
+        bytes = 0L;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Line index and page reader behind the full-clip viewer.
+ *
+ * The clip body stays in storage. Indexing walks it in fixed-size chunks and
+ * records where every display row starts; rows are read back a page at a time
+ * and kept in a small LRU, so a multi-megabyte clip never sits in a cell or on
+ * the FX thread. Lines longer than {@code maxRowChars} continue on extra
+ * display rows, which keeps every rendered string short.
+ *
+ * Offsets are code points, matching SQLite {@code length()} and
+ * {@code substr()} on text columns.
+ *
+ * Indexing, page reads and search run on one background thread. Row lookups
+ * ({@link #rowCount()}, {@link #cachedRow(int)}, {@link #lineOfRow(int)}) are
+ * cheap and safe from the FX thread.
+ */
+public final class ClipContentPager {
+
+    /** Random access to a clip body in code points. */
+    public interface ContentSource {
+        /** Length in code points, or -1 when the clip is gone. */
+        int length();
+
+        /** Up to {@code length} code points from {@code start}; shorter at the end. */
+        String read(int start, int length);
+    }
+
+    /**
+     * @param offset code point offset of the match
+     * @param row    display row holding the match
+     * @param column code point column of the match within that row
+     */
+    public record Match(int offset, int row, int column) {}
+
+    private final ContentSource source;
+    private final int length;
+    private final int chunkChars;
+    private final int maxRowChars;
+    private final int rowsPerPage;
+    private final BoundedLruCache<Integer, List<String>> pages;
+
+    private int[] rowStarts = new int[1_024];
+    private int[] rowLines = new int[1_024];
+    private int rowCount = 1;
+    private int lineCount = 1;
+    private int indexedTo;
+    private boolean complete;
+
+    public ClipContentPager(ContentSource source) {
+        this(
+                source,
+                PopupPerformancePolicy.VIEWER_CHUNK_CHARS,
+                PopupPerformancePolicy.VIEWER_MAX_ROW_CHARS,
+                PopupPerformancePolicy.VIEWER_ROWS_PER_PAGE,
+                PopupPerformancePolicy.VIEWER_CACHED_PAGES
+        );
+    }
+
+    ClipContentPager(ContentSource source, int chunkChars, int maxRowChars, int rowsPerPage, int cachedPages) {
+        this.source = Objects.requireNonNull(source, "source");
+        if (chunkChars < 1 || maxRowChars < 1 || rowsPerPage < 1) {
+            throw new IllegalArgumentException("chunk, row and page sizes must be positive");
+        }
+        this.length = Math.max(0, source.length());
+        this.chunkChars = chunkChars;
+        this.maxRowChars = maxRowChars;
+        this.rowsPerPage = rowsPerPage;
+        this.pages = new BoundedLruCache<>(Math.max(1, cachedPages));
+        this.complete = length == 0;
+    }
+
+    /** Clip length in code points. */
+    public int length() {
+        return length;
+    }
+
+    public int rowsPerPage() {
+        return rowsPerPage;
+    }
+
+    /** Display rows indexed so far; grows until {@link #indexComplete()}. */
+    public synchronized int rowCount() {
+        return rowCount;
+    }
+
+    /** Logical lines started so far. */
+    public synchronized int lineCount() {
+        return lineCount;
+    }
+
+    public synchronized boolean indexComplete() {
+        return complete;
+    }
+
+    /** Share of the body indexed, from 0 to 1. */
+    public synchronized double indexProgress() {
+        return length == 0 ? 1.0 : Math.min(1.0, indexedTo / (double) length);
+    }
+
+    /**
+     * Indexes the next chunk of the body.
+     *
+     * @return false once the whole body is indexed
+     */
+    public boolean indexNextChunk() {
+        int from;
+        synchronized (this) {
+            if (complete) return false;
+            from = indexedTo;
+        }
+        String chunk = source.read(from, chunkChars);
+
+        synchronized (this) {
+            if (chunk == null || chunk.isEmpty()) {
+                // The clip shrank or vanished underneath; index what was read.
+                complete = true;
+                return false;
+            }
+            int offset = from;
+            int index = 0;
+            while (index < chunk.length()) {
+                int codePoint = chunk.codePointAt(index);
+                index += Character.charCount(codePoint);
+                if (codePoint != '\n' && offset - rowStarts[rowCount - 1] >= maxRowChars) {
+                    addRow(offset, rowLines[rowCount - 1]);
+                }
+                offset++;
+                if (codePoint == '\n') {
+                    addRow(offset, lineCount);
+                    lineCount++;
+                }
+            }
+            indexedTo = offset;
+            if (indexedTo >= length) complete = true;
+            return !complete;
+        }
+    }
+
+    /** Indexes every chunk up to and including {@code offset}. */
+    public void indexThrough(int offset) {
+        while (true) {
+            synchronized (this) {
+                if (complete || indexedTo > offset) return;
+            }
+            if (!indexNextChunk()) return;
+        }
+    }
+
+    /** Text of an indexed row if its page is loaded, else null. Never reads storage. */
+    public String cachedRow(int row) {
+        List<String> page = pages.get(row / rowsPerPage);
+        int index = row % rowsPerPage;
+        return page == null || index >= page.size() ? null : page.get(index);
+    }
+
+    public int pageOf(int row) {
+        return Math.max(0, row) / rowsPerPage;
+    }
+
+    /** True when the row's text can no longer change as indexing continues. */
+    public synchronized boolean isRowFinal(int row) {
+        return row >= 0 && (row < rowCount - 1 || (complete && row < rowCount));
+    }
+
+    /**
+     * Reads one page of final display rows, without line breaks. A page the
+     * index has only partly reached is read again once more of its rows are
+     * final.
+     */
+    public List<String> page(int pageIndex) {
+        List<String> cached = pages.get(pageIndex);
+        if (cached != null && cached.size() == rowsPerPage) return cached;
+
+        int firstRow = pageIndex * rowsPerPage;
+        int[] starts;
+        synchronized (this) {
+            int lastRow = Math.min(firstRow + rowsPerPage, rowCount);
+            // The newest row may still grow while indexing continues.
+            if (!complete && lastRow == rowCount) lastRow--;
+            if (firstRow < 0 || lastRow <= firstRow) return List.of();
+            if (cached != null && cached.size() >= lastRow - firstRow) return cached;
+
+            starts = new int[lastRow - firstRow + 1];
+            for (int row = firstRow; row < lastRow; row++) starts[row - firstRow] = rowStarts[row];
+            starts[starts.length - 1] = lastRow < rowCount ? rowStarts[lastRow] : length;
+        }
+
+        String text = source.read(starts[0], starts[starts.length - 1] - starts[0]);
+        if (text == null) text = "";
+        List<String> rows = new ArrayList<>(starts.length - 1);
+        int position = 0;
+        for (int row = 0; row < starts.length - 1; row++) {
+            int end = advance(text, position, starts[row + 1] - starts[row]);
+            rows.add(stripLineBreak(text.substring(position, end)));
+            position = end;
+        }
+        List<String> page = List.copyOf(rows);
+        pages.put(pageIndex, page);
+        return page;
+    }
+
+    /** Zero-based logical line a display row belongs to. */
+    public synchronized int lineOfRow(int row) {
+        if (row < 0 || row >= rowCount) return -1;
+        return rowLines[row];
+    }
+
+    /** True when the row starts a logical line rather than continuing one. */
+    public synchronized boolean startsLine(int row) {
+        if (row < 0 || row >= rowCount) return false;
+        return row == 0 || rowLines[row] != rowLines[row - 1];
+    }
+
+    /** First display row of a zero-based line, or -1 when not indexed yet. */
+    public synchronized int rowOfLine(int line) {
+        if (line < 0 || line >= lineCount) return -1;
+        int low = 0;
+        int high = rowCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rowLines[middle] < line) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /** Display row holding a code point offset, or -1 when not indexed yet. */
+    public synchronized int rowOfOffset(int offset) {
+        if (offset < 0 || (!complete && offset >= indexedTo)) return -1;
+        int index = Arrays.binarySearch(rowStarts, 0, rowCount, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Finds the next occurrence of {@code query} at or after {@code fromOffset},
+     * scanning chunk by chunk. The chunk holding a match is indexed so the
+     * match has a row.
+     *
+     * Case is ignored per character on the chunk as read. Lowercasing the
+     * whole chunk first would shift indices after characters whose lowercase
+     * form is longer, such as U+0130, and put every later match off by one.
+     *
+     * @return the match, or null when there is none before the end
+     */
+    public Match findNext(String query, int fromOffset, boolean ignoreCase) {
+        if (query == null || query.isEmpty()) return null;
+        int overlap = query.codePointCount(0, query.length()) - 1;
+
+        int position = Math.max(0, fromOffset);
+        while (position < length) {
+            if (Thread.currentThread().isInterrupted()) return null;
+            String chunk = source.read(position, chunkChars + overlap);
+            if (chunk == null || chunk.isEmpty()) return null;
+            int hit = indexOf(chunk, query, ignoreCase);
+            if (hit >= 0) {
+                int offset = position + chunk.codePointCount(0, hit);
+                indexThrough(offset);
+                int row = rowOfOffset(offset);
+                int column;
+                synchronized (this) {
+                    column = row < 0 ? 0 : offset - rowStarts[row];
+                }
+                return new Match(offset, row, column);
+            }
+            position += chunkChars;
+        }
+        return null;
+    }
+
+    /** Char index of needle in haystack, both as read, or -1. */
+    private static int indexOf(String haystack, String needle, boolean ignoreCase) {
+        if (!ignoreCase) return haystack.indexOf(needle);
+        int last = haystack.length() - needle.length();
+        for (int index = 0; index <= last; index++) {
+            // A match never starts inside a surrogate pair.
+            if (index > 0
+                    && Character.isLowSurrogate(haystack.charAt(index))
+                    && Character.isHighSurrogate(haystack.charAt(index - 1))) {
+                continue;
+            }
+            if (haystack.regionMatches(true, index, needle, 0, needle.length())) return index;
+        }
+        return -1;
+    }
+
+    private void addRow(int start, int line) {
+        if (rowCount == rowStarts.length) {
+            int capacity = rowStarts.length * 2;
+            rowStarts = Arrays.copyOf(rowStarts, capacity);
+            rowLines = Arrays.copyOf(rowLines, capacity);
+        }
+        rowStarts[rowCount] = start;
+        rowLines[rowCount] = line;
+        rowCount++;
+    }
+
+    /** Char index {@code codePoints} code points past {@code from}, clamped to the text. */
+    private static int advance(String text, int from, int codePoints) {
+        int index = from;
+        for (int step = 0; step < codePoints && index < text.length(); step++) {
+            index += Character.charCount(text.codePointAt(index));
+        }
+        return index;
+    }
+
+    private static String stripLineBreak(String row) {
+        int end = row.length();
+        if (end > 0 && row.charAt(end - 1) == '\n') end--;
+        if (end > 0 && row.charAt(end - 1) == '\r') end--;
+        return end == row.length() ? row : row.substring(0, end);
+    }
+}
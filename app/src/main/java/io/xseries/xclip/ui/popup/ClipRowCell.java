@@ -7,10 +7,11 @@ package io.xseries.xclip.ui.popup;
 
 import io.xseries.xclip.data.model.ClipEntry;
 import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.image.ClipImageCodec;
 import io.xseries.xclip.domain.model.ClipContentType;
 import io.xseries.xclip.domain.model.ClipPrimaryAction;
 import io.xseries.xclip.domain.service.ClipContentActionService;
-import io.xseries.xclip.ui.components.SvgIcon;
+import io.xseries.xclip.ui.components.RasterIcon;
 import io.xseries.xclip.ui.components.UiIcon;
 import io.xseries.xclip.ui.popup.PopupRow.ClipRow;
 import io.xseries.xclip.ui.popup.PopupRow.SectionRow;
@@ -28,6 +29,8 @@ import javafx.scene.control.ListCell;
 import javafx.scene.control.OverrunStyle;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.HBox;
@@ -46,6 +49,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Consumer;
 
 /**
  * Reusable list cell for section headers and clipboard-entry cards.
@@ -53,9 +57,15 @@ import java.util.Locale;
  * The cell keeps one stable node tree per ListCell so ListView virtualization
  * remains intact while exposing the stronger visual hierarchy used by the new
  * XClip reference: selection, pin state, content, type, time, and overflow.
+ * Row glyphs are {@link RasterIcon}s, one cached image node each, so a clip
+ * row carries four icon nodes instead of fifteen vector nodes.
  *
  * Clipboard content is never shown in an automatic row-hover tooltip. Long
  * previews are opened only through explicit More / E interactions.
+ *
+ * Image clips show a thumbnail above their caption. A thumbnail missing from
+ * the controller's cache is requested asynchronously and applied only if the
+ * cell still shows the same clip when it arrives.
  */
 public final class ClipRowCell extends ListCell<PopupRow> {
 
@@ -75,10 +85,17 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         void setExpanded(long id, boolean expanded);
         PreviewData previewData(long id, String fullContent);
         String expandedPreview(String fullContent);
+        Image cachedThumbnail(long id);
+        void loadThumbnail(long id, Consumer<Image> onLoaded);
         void refreshList();
+        /** Called for every row a cell renders, so paging can follow the viewport. */
+        void rowShown(int index);
     }
 
     private static final int PINNED_COMPACT_CHAR_LIMIT = 220;
+    // Stored thumbnails fit a box sized for 150% scaling.
+    private static final double THUMBNAIL_WIDTH = ClipImageCodec.THUMBNAIL_MAX_WIDTH / 1.5;
+    private static final double THUMBNAIL_HEIGHT = ClipImageCodec.THUMBNAIL_MAX_HEIGHT / 1.5;
     private static final PseudoClass SECTION_PC = PseudoClass.getPseudoClass("section");
     private static final PseudoClass FAVORITE_PC = PseudoClass.getPseudoClass("favorite");
     private static final PseudoClass COMPACT_PC = PseudoClass.getPseudoClass("compact");
@@ -90,6 +107,10 @@ public final class ClipRowCell extends ListCell<PopupRow> {
     // Section row UI
     private final HBox sectionRoot = new HBox(6);
     private final StackPane sectionIcon = new StackPane();
+    private final RasterIcon sectionPinnedIcon =
+            RasterIcon.of(UiIcon.PIN, 13, "section-icon", "section-icon-pinned");
+    private final RasterIcon sectionRecentIcon =
+            RasterIcon.of(UiIcon.ROTATE_CCW_CLOCK, 13, "section-icon", "section-icon-recent");
     private final Label sectionTitle = new Label();
     private final Label sectionCount = new Label();
 
@@ -110,6 +131,8 @@ public final class ClipRowCell extends ListCell<PopupRow> {
     private final Label pinnedTitleLabel = new Label();
     private final Label pinnedPreviewLabel = new Label();
     private final Hyperlink toggleLink = new Hyperlink();
+    private final StackPane thumbnailFrame = new StackPane();
+    private final ImageView thumbnailView = new ImageView();
 
     private ClipEntry renderedEntry;
     private ClipContentType renderedType;
@@ -158,14 +181,14 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         pinAccent.setMaxWidth(2);
         pinAccent.setMaxHeight(Double.MAX_VALUE);
 
-        SvgIcon checkGlyph = SvgIcon.of(UiIcon.CHECK, 11, "selection-check-icon");
+        RasterIcon checkGlyph = RasterIcon.of(UiIcon.CHECK, 11, "selection-check-icon");
         selectionIndicator.getChildren().add(checkGlyph);
         selectionIndicator.getStyleClass().add("selection-indicator");
         selectionIndicator.setMinSize(18, 18);
         selectionIndicator.setPrefSize(18, 18);
         selectionIndicator.setMaxSize(18, 18);
 
-        SvgIcon pinGlyph = SvgIcon.of(UiIcon.PIN, 12, "row-pin-icon");
+        RasterIcon pinGlyph = RasterIcon.of(UiIcon.PIN, 12, "row-pin-icon");
         pinIndicator.getChildren().add(pinGlyph);
         pinIndicator.getStyleClass().add("row-pin-indicator");
         pinIndicator.setMinSize(18, 18);
@@ -189,6 +212,18 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         tagChips.setManaged(false);
         tagChips.setVisible(false);
 
+        thumbnailView.setPreserveRatio(true);
+        thumbnailView.setSmooth(true);
+        thumbnailView.setFitWidth(THUMBNAIL_WIDTH);
+        thumbnailView.setFitHeight(THUMBNAIL_HEIGHT);
+        // Fixed height: rows must not jump when a thumbnail arrives.
+        thumbnailFrame.setAlignment(Pos.CENTER_LEFT);
+        thumbnailFrame.setMinHeight(THUMBNAIL_HEIGHT);
+        thumbnailFrame.setPrefHeight(THUMBNAIL_HEIGHT);
+        thumbnailFrame.setMaxHeight(THUMBNAIL_HEIGHT);
+        thumbnailFrame.getStyleClass().add("clip-thumbnail");
+        thumbnailFrame.getChildren().add(thumbnailView);
+
         toggleLink.getStyleClass().add("clip-toggle");
         toggleLink.setPadding(Insets.EMPTY);
         toggleLink.setFocusTraversable(false);
@@ -220,7 +255,7 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         timeLabel.setWrapText(false);
         timeLabel.setMinWidth(76);
 
-        SvgIcon collapseIcon = SvgIcon.of(UiIcon.CHEVRON_DOWN, 12, "row-collapse-icon");
+        RasterIcon collapseIcon = RasterIcon.of(UiIcon.CHEVRON_DOWN, 12, "row-collapse-icon");
         collapseIcon.setRotate(180);
         collapseButton.setGraphic(collapseIcon);
         collapseButton.setContentDisplay(javafx.scene.control.ContentDisplay.LEFT);
@@ -232,7 +267,7 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         collapseButton.setVisible(false);
         collapseButton.setOnAction(event -> collapseCurrentPreview(event));
 
-        moreButton.setGraphic(SvgIcon.of(UiIcon.ELLIPSIS_VERTICAL, 13, "row-more-icon"));
+        moreButton.setGraphic(RasterIcon.of(UiIcon.ELLIPSIS_VERTICAL, 13, "row-more-icon"));
         moreButton.setFocusTraversable(false);
         moreButton.setAccessibleText("More actions");
         moreButton.setTooltip(new Tooltip("More actions"));
@@ -346,6 +381,7 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         setCollapseButtonVisible(false);
 
         if (empty || item == null) {
+            thumbnailView.setImage(null);
             renderedEntry = null;
             renderedType = null;
             renderedTime = "";
@@ -363,6 +399,8 @@ public final class ClipRowCell extends ListCell<PopupRow> {
             return;
         }
 
+        controller.rowShown(getIndex());
+
         if (item instanceof SectionRow sectionRow) {
             renderSection(sectionRow);
             return;
@@ -375,14 +413,13 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         pseudoClassStateChanged(SECTION_PC, true);
 
         boolean pinned = "PINNED".equalsIgnoreCase(row.title());
-        sectionIcon.getChildren().setAll(SvgIcon.of(
-                pinned ? UiIcon.PIN : UiIcon.ROTATE_CCW_CLOCK,
-                13,
-                "section-icon",
-                pinned ? "section-icon-pinned" : "section-icon-recent"
-        ));
+        RasterIcon icon = pinned ? sectionPinnedIcon : sectionRecentIcon;
+        if (sectionIcon.getChildren().size() != 1 || sectionIcon.getChildren().get(0) != icon) {
+            sectionIcon.getChildren().setAll(icon);
+        }
         sectionTitle.setText(row.title());
         sectionCount.setText(Integer.toString(row.count()));
+        thumbnailView.setImage(null);
         renderedEntry = null;
         renderedType = null;
         renderedTime = "";
@@ -450,9 +487,10 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         } else {
             renderRecent(entry, full, id);
         }
+        renderedEntry = entry;
+        renderThumbnail(entry);
         appendTagChips();
 
-        renderedEntry = entry;
         renderedTags = row.tags();
         renderedType = contentType;
         renderedTime = formatTime(entry.createdAt());
@@ -564,6 +602,25 @@ public final class ClipRowCell extends ListCell<PopupRow> {
         }
     }
 
+    private void renderThumbnail(ClipEntry entry) {
+        if (!entry.image()) {
+            thumbnailView.setImage(null);
+            return;
+        }
+
+        clipLeft.getChildren().add(0, thumbnailFrame);
+        long id = entry.id();
+        Image cached = controller.cachedThumbnail(id);
+        thumbnailView.setImage(cached);
+        if (cached != null) return;
+
+        controller.loadThumbnail(id, image -> {
+            if (renderedEntry != null && renderedEntry.id() == id) {
+                thumbnailView.setImage(image);
+            }
+        });
+    }
+
     private void renderTagChips(List<ClipTag> tags) {
         TagChipPolicy.Summary summary = TagChipPolicy.summarize(tags);
         tagChips.getChildren().clear();
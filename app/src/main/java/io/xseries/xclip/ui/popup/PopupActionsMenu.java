@@ -31,6 +31,7 @@ public final class PopupActionsMenu {
         void paste();
         void copy();
         void performPrimaryTypeAction();
+        void viewFullContent();
         void editTags();
         void manageTags();
         boolean tagsAvailable();
@@ -51,6 +52,7 @@ public final class PopupActionsMenu {
     private final MenuItem pasteItem = item("Paste", UiIcon.CLIPBOARD_PASTE);
     private final MenuItem copyItem = item("Copy", UiIcon.COPY);
     private final MenuItem typeActionItem = new MenuItem();
+    private final MenuItem viewItem = item("View full clip…", UiIcon.SQUARE);
     private final MenuItem tagsItem = item("Tags…", UiIcon.TAGS);
     private final MenuItem manageTagsItem = item("Manage tags…", UiIcon.TAG);
     private final MenuItem pinItem = item("Pin selected", UiIcon.PIN);
@@ -81,6 +83,8 @@ public final class PopupActionsMenu {
         typeActionItem.setOnAction(e -> actions.performPrimaryTypeAction());
         typeActionItem.setVisible(false);
 
+        viewItem.setOnAction(e -> actions.viewFullContent());
+
         tagsItem.setOnAction(e -> actions.editTags());
         manageTagsItem.setOnAction(e -> actions.manageTags());
 
@@ -106,6 +110,7 @@ public final class PopupActionsMenu {
                 pasteItem,
                 copyItem,
                 typeActionItem,
+                viewItem,
                 tagsItem,
                 manageTagsItem,
                 pinItem,
@@ -177,6 +182,8 @@ public final class PopupActionsMenu {
                 shouldPin ? "menu-pin-icon" : "menu-unpin-icon"
         ));
 
+        viewItem.setDisable(single == null || single.image());
+
         boolean singlePinned = single != null && single.favorite();
         renameItem.setDisable(!singlePinned);
         clearTitleItem.setDisable(!singlePinned || !single.hasTitle());
@@ -0,0 +1,247 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.event.ClipChangeEvent;
+import io.xseries.xclip.data.event.ClipChangeEvent.Bumped;
+import io.xseries.xclip.data.event.ClipChangeEvent.Deleted;
+import io.xseries.xclip.data.event.ClipChangeEvent.Inserted;
+import io.xseries.xclip.data.event.ClipChangeEvent.Retitled;
+import io.xseries.xclip.data.event.ClipChangeEvent.TagsChanged;
+import io.xseries.xclip.data.event.ClipChangeEvent.Trimmed;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.ui.popup.PopupRow.ClipRow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Applies committed clip changes to the rows the popup already shows.
+ *
+ * The window is the popup's bounded query result: pinned rows in pin order,
+ * then unpinned rows newest first. A change is applied in memory when the
+ * result is still determined by what the window holds; otherwise the caller
+ * re-runs the query. In particular:
+ * - a filter is available only for plans without text or tag terms, whose
+ *   membership depends on nothing but scope and content type;
+ * - pin changes and tag changes on shown rows re-query, since the new pin
+ *   order or tag chips are not part of the event;
+ * - removing a row from a window that was cut off at the limit re-queries to
+ *   pull in the next row.
+ *
+ * A window scrolled deep into the history has dropped its top rows. New and
+ * bumped unpinned rows then land above it and only change the count, and
+ * removals leave a gap that the next page read fills, so none of them
+ * re-query and move the user back to the top.
+ *
+ * The filter judges a new or bumped clip by its full text; the row kept in
+ * the window holds only its head, like every other popup row.
+ */
+public final class PopupChangeApplier {
+
+    private PopupChangeApplier() {}
+
+    /**
+     * @param entries    new window in query order
+     * @param complete   true when the window holds every matching row
+     * @param countDelta change of the total persisted clip count
+     */
+    public record Result(
+            List<ClipEntry> entries,
+            Map<Long, List<ClipTag>> tagsByClipId,
+            boolean complete,
+            int countDelta,
+            boolean requery
+    ) {
+        static Result requeryNeeded() {
+            return new Result(List.of(), Map.of(), false, 0, true);
+        }
+    }
+
+    /**
+     * @param rows     rows currently shown
+     * @param filter   membership test for the current plan, or null when the
+     *                 plan needs the database to decide membership
+     * @param limit    maximum rows the query returns
+     * @param complete true when the shown rows are every matching row
+     */
+    public static Result apply(
+            List<PopupRow> rows,
+            List<ClipChangeEvent> events,
+            Predicate<ClipEntry> filter,
+            int limit,
+            boolean complete
+    ) {
+        return apply(rows, events, filter, limit, complete, false);
+    }
+
+    /**
+     * @param topDropped true when unpinned rows above the shown ones were
+     *                   dropped while scrolling
+     */
+    public static Result apply(
+            List<PopupRow> rows,
+            List<ClipChangeEvent> events,
+            Predicate<ClipEntry> filter,
+            int limit,
+            boolean complete,
+            boolean topDropped
+    ) {
+        List<ClipEntry> window = new ArrayList<>();
+        Map<Long, List<ClipTag>> tags = new HashMap<>();
+        for (PopupRow row : rows == null ? List.<PopupRow>of() : rows) {
+            if (row instanceof ClipRow clip) {
+                window.add(clip.entry());
+                tags.put(clip.entry().id(), clip.tags());
+            }
+        }
+
+        int safeLimit = Math.max(1, limit);
+        boolean windowComplete = complete;
+        int countDelta = 0;
+
+        for (ClipChangeEvent event : events == null ? List.<ClipChangeEvent>of() : events) {
+            if (event instanceof Inserted inserted) {
+                countDelta++;
+                ClipEntry entry = inserted.entry();
+                if (topDropped && !entry.favorite()) {
+                    removeById(window, entry.id());
+                    continue;
+                }
+                if (filter == null) return Result.requeryNeeded();
+                if (!filter.test(entry)) continue;
+
+                removeById(window, entry.id());
+                int index = recentPosition(window, entry);
+                if (index == window.size() && !windowComplete) continue;
+                window.add(index, PopupRowContent.bounded(entry));
+                tags.put(entry.id(), List.of());
+                if (window.size() > safeLimit) {
+                    ClipEntry dropped = window.remove(window.size() - 1);
+                    tags.remove(dropped.id());
+                    windowComplete = false;
+                }
+            } else if (event instanceof Bumped bumped) {
+                int index = indexOf(window, bumped.id());
+                if (index < 0) {
+                    if (bumped.content() == null && bumped.lastCopiedAt() == null) continue;
+                    if (topDropped) continue;
+                    return Result.requeryNeeded();
+                }
+
+                ClipEntry current = window.get(index);
+                if (topDropped && !current.favorite() && bumped.lastCopiedAt() != null) {
+                    window.remove(index);
+                    tags.remove(current.id());
+                    continue;
+                }
+                boolean contentChanged = bumped.content() != null
+                        && !bumped.content().equals(current.content());
+                if (contentChanged && filter == null) return Result.requeryNeeded();
+
+                ClipEntry updated = new ClipEntry(
+                        current.id(),
+                        contentChanged ? bumped.content() : current.content(),
+                        current.title(),
+                        current.favorite(),
+                        current.pinOrder(),
+                        bumped.lastCopiedAt() == null ? current.createdAt() : bumped.lastCopiedAt(),
+                        current.image()
+                );
+                window.remove(index);
+                if (filter != null && !filter.test(updated)) {
+                    tags.remove(updated.id());
+                    if (!windowComplete && !topDropped) return Result.requeryNeeded();
+                    continue;
+                }
+                window.add(
+                        updated.favorite() ? index : recentPosition(window, updated),
+                        PopupRowContent.bounded(updated)
+                );
+            } else if (event instanceof Deleted deleted) {
+                countDelta -= deleted.count();
+                boolean removed = window.removeIf(entry -> deleted.ids().contains(entry.id()));
+                if (!removed) continue;
+                if (!windowComplete && !topDropped) return Result.requeryNeeded();
+                deleted.ids().forEach(tags::remove);
+            } else if (event instanceof Trimmed trimmed) {
+                // Rows past the window are older still, so nothing needs refilling.
+                countDelta -= trimmed.count();
+                window.removeIf(entry -> {
+                    boolean gone = !entry.favorite()
+                            && (entry.createdAt() < trimmed.cutoffCopiedAt()
+                            || (entry.createdAt() == trimmed.cutoffCopiedAt()
+                            && entry.id() <= trimmed.cutoffId()));
+                    if (gone) tags.remove(entry.id());
+                    return gone;
+                });
+            } else if (event instanceof Retitled retitled) {
+                if (filter == null) return Result.requeryNeeded();
+                int index = indexOf(window, retitled.id());
+                if (index < 0) continue;
+
+                ClipEntry current = window.get(index);
+                window.set(index, new ClipEntry(
+                        current.id(),
+                        current.content(),
+                        retitled.title(),
+                        current.favorite(),
+                        current.pinOrder(),
+                        current.createdAt(),
+                        current.image()
+                ));
+            } else if (event instanceof TagsChanged changed) {
+                if (filter == null) return Result.requeryNeeded();
+                for (long id : changed.clipIds()) {
+                    if (indexOf(window, id) >= 0) return Result.requeryNeeded();
+                }
+            } else {
+                return Result.requeryNeeded();
+            }
+        }
+
+        Map<Long, List<ClipTag>> visibleTags = new HashMap<>();
+        for (ClipEntry entry : window) {
+            visibleTags.put(entry.id(), Objects.requireNonNullElse(tags.get(entry.id()), List.of()));
+        }
+        return new Result(List.copyOf(window), Map.copyOf(visibleTags), windowComplete, countDelta, false);
+    }
+
+    /**
+     * Index at which an unpinned entry belongs: after every pinned row and
+     * every unpinned row copied later, or equally late with a higher id.
+     */
+    private static int recentPosition(List<ClipEntry> window, ClipEntry entry) {
+        int index = 0;
+        while (index < window.size()) {
+            ClipEntry other = window.get(index);
+            if (!other.favorite()
+                    && (other.createdAt() < entry.createdAt()
+                    || (other.createdAt() == entry.createdAt() && other.id() < entry.id()))) {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private static int indexOf(List<ClipEntry> window, long id) {
+        for (int index = 0; index < window.size(); index++) {
+            if (window.get(index).id() == id) return index;
+        }
+        return -1;
+    }
+
+    private static void removeById(List<ClipEntry> window, long id) {
+        int index = indexOf(window, id);
+        if (index >= 0) window.remove(index);
+    }
+}
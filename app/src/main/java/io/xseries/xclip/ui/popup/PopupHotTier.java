@@ -0,0 +1,308 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.event.ClipChangeEvent;
+import io.xseries.xclip.data.event.ClipChangeEvent.Bumped;
+import io.xseries.xclip.data.event.ClipChangeEvent.Deleted;
+import io.xseries.xclip.data.event.ClipChangeEvent.Inserted;
+import io.xseries.xclip.data.event.ClipChangeEvent.Retitled;
+import io.xseries.xclip.data.event.ClipChangeEvent.Trimmed;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.model.ClipContentType;
+import io.xseries.xclip.domain.search.SearchExecutionPlan;
+import io.xseries.xclip.domain.search.SearchQueryExecutor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Memory-resident copy of the rows most popup opens show: every pinned clip
+ * plus the newest unpinned ones, with their tags, the tag library and the
+ * total clip count.
+ *
+ * The tier is filled from storage once and then kept current write-through
+ * from committed clip changes. Row changes the events describe fully, such
+ * as inserts, bumps, deletions, trims and retitles, are applied in place.
+ * Anything else (pin moves, tag edits, rule-based purges, a bumped row from
+ * deep history) leaves the tier cold until the next fill.
+ *
+ * Rows keep only the head of their content ({@link PopupRowContent}), so
+ * a tier of long clips costs no more than one of short ones.
+ *
+ * A warm tier answers plans without text or tag terms, whose rows depend on
+ * nothing but scope and content type. Text search and pages past the tier
+ * still go to SQLite.
+ *
+ * All methods are thread-safe: fills run on the popup's DB executor, events
+ * arrive on committing threads and serving happens on the FX thread.
+ */
+public final class PopupHotTier {
+
+    /**
+     * Rows read from storage for {@link #install}.
+     *
+     * @param pinned          every pinned row in pin order
+     * @param recent          newest unpinned rows, newest first
+     * @param historyComplete true when {@code recent} holds every unpinned row
+     */
+    public record Contents(
+            List<ClipEntry> pinned,
+            List<ClipEntry> recent,
+            boolean historyComplete,
+            Map<Long, List<ClipTag>> tagsByClipId,
+            List<ClipTag> availableTags,
+            int totalClipCount
+    ) {
+        public Contents {
+            pinned = PopupRowContent.bounded(pinned);
+            recent = PopupRowContent.bounded(recent);
+            tagsByClipId = Map.copyOf(tagsByClipId);
+            availableTags = List.copyOf(availableTags);
+        }
+    }
+
+    private final List<ClipEntry> pinned = new ArrayList<>();
+    private final List<ClipEntry> recent = new ArrayList<>();
+    private final Map<Long, List<ClipTag>> tagsByClipId = new HashMap<>();
+    private List<ClipTag> availableTags = List.of();
+    private int totalClipCount;
+    private int recentCapacity;
+    private boolean historyComplete;
+    private boolean warm;
+    private long epoch;
+
+    /** Changes whenever an event arrives or the tier is dropped. */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    public synchronized boolean isWarm() {
+        return warm;
+    }
+
+    /** Total persisted clip count, or -1 while the tier is cold. */
+    public synchronized int totalClipCount() {
+        return warm ? totalClipCount : -1;
+    }
+
+    /**
+     * Fills the tier with rows read since {@code readEpoch}. Returns false,
+     * leaving the tier cold, when a change arrived during the read: the rows
+     * may or may not include it.
+     *
+     * @param recentCapacity unpinned rows to keep as new ones arrive
+     */
+    public synchronized boolean install(long readEpoch, Contents contents, int recentCapacity) {
+        Objects.requireNonNull(contents, "contents");
+        if (readEpoch != epoch) return false;
+
+        pinned.clear();
+        pinned.addAll(contents.pinned());
+        recent.clear();
+        recent.addAll(contents.recent());
+        tagsByClipId.clear();
+        for (ClipEntry entry : pinned) tagsByClipId.put(entry.id(), tagsFor(contents, entry));
+        for (ClipEntry entry : recent) tagsByClipId.put(entry.id(), tagsFor(contents, entry));
+        availableTags = contents.availableTags();
+        totalClipCount = Math.max(0, contents.totalClipCount());
+        this.recentCapacity = Math.max(1, recentCapacity);
+        historyComplete = contents.historyComplete();
+        warm = true;
+        trimRecent();
+        return true;
+    }
+
+    /** Drops the rows; the tier serves nothing until the next install. */
+    public synchronized void invalidate() {
+        epoch++;
+        warm = false;
+        pinned.clear();
+        recent.clear();
+        tagsByClipId.clear();
+        availableTags = List.of();
+    }
+
+    /**
+     * Applies one committed change.
+     *
+     * @return true when the tier is still warm
+     */
+    public synchronized boolean apply(ClipChangeEvent event) {
+        epoch++;
+        if (!warm) return false;
+
+        if (event instanceof Inserted inserted) {
+            ClipEntry entry = PopupRowContent.bounded(inserted.entry());
+            remove(entry.id());
+            recent.add(recentPosition(entry), entry);
+            tagsByClipId.put(entry.id(), List.of());
+            totalClipCount++;
+            trimRecent();
+        } else if (event instanceof Bumped bumped) {
+            if (!bump(bumped)) invalidate();
+        } else if (event instanceof Deleted deleted) {
+            deleted.ids().forEach(this::remove);
+            totalClipCount = Math.max(0, totalClipCount - deleted.count());
+        } else if (event instanceof Trimmed trimmed) {
+            recent.removeIf(entry -> {
+                boolean gone = entry.createdAt() < trimmed.cutoffCopiedAt()
+                        || (entry.createdAt() == trimmed.cutoffCopiedAt()
+                        && entry.id() <= trimmed.cutoffId());
+                if (gone) tagsByClipId.remove(entry.id());
+                return gone;
+            });
+            totalClipCount = Math.max(0, totalClipCount - trimmed.count());
+        } else if (event instanceof Retitled retitled) {
+            int index = indexOf(pinned, retitled.id());
+            if (index >= 0) pinned.set(index, withTitle(pinned.get(index), retitled.title()));
+        } else {
+            invalidate();
+        }
+
+        // Deletions shrink the recent run; refill before it stops covering a page.
+        if (warm && !historyComplete && recent.size() < recentCapacity / 2) invalidate();
+        return warm;
+    }
+
+    /**
+     * Rows for a plan the tier can judge on its own, or null when the plan
+     * needs SQLite: text or tag terms, a cold tier, or more matching rows
+     * than the tier holds.
+     */
+    public synchronized PopupReloadCache.ReloadResult serve(
+            SearchExecutionPlan plan,
+            int limit,
+            Function<ClipEntry, ClipContentType> classifier
+    ) {
+        Objects.requireNonNull(plan, "plan");
+        if (!warm || needsDatabase(plan)) return null;
+
+        int safeLimit = Math.max(1, limit);
+        List<ClipEntry> rows = new ArrayList<>(pinned.size() + recent.size());
+        rows.addAll(pinned);
+        rows.addAll(recent);
+        List<ClipEntry> matched = SearchQueryExecutor.apply(rows, plan, safeLimit + 1, classifier);
+
+        // Rows outside the tier are older unpinned ones.
+        boolean coversHistory = historyComplete || !plan.matchesScope(false);
+        if (matched.size() <= safeLimit && !coversHistory) return null;
+
+        List<ClipEntry> entries = matched.size() > safeLimit ? matched.subList(0, safeLimit) : matched;
+        Map<Long, List<ClipTag>> tags = new HashMap<>();
+        for (ClipEntry entry : entries) {
+            tags.put(entry.id(), tagsByClipId.getOrDefault(entry.id(), List.of()));
+        }
+        return new PopupReloadCache.ReloadResult(
+                entries,
+                tags,
+                availableTags,
+                Math.max(totalClipCount, entries.size()),
+                matched.size() <= safeLimit
+        );
+    }
+
+    /** Plans with text or tag terms; their rows depend on storage the tier does not mirror. */
+    public static boolean needsDatabase(SearchExecutionPlan plan) {
+        return !plan.text().isEmpty()
+                || plan.toolbarTagId() != null
+                || !plan.requiredTagIdentities().isEmpty()
+                || !plan.excludedTagIdentities().isEmpty();
+    }
+
+    synchronized int size() {
+        return pinned.size() + recent.size();
+    }
+
+    private boolean bump(Bumped bumped) {
+        if (bumped.content() == null && bumped.lastCopiedAt() == null) return true;
+
+        int pinnedIndex = indexOf(pinned, bumped.id());
+        if (pinnedIndex >= 0) {
+            pinned.set(pinnedIndex, bumpedEntry(pinned.get(pinnedIndex), bumped));
+            return true;
+        }
+        int index = indexOf(recent, bumped.id());
+        if (index < 0) {
+            // A content change deep in the history stays there; a recency
+            // change brings a row the tier never read to the top.
+            return bumped.lastCopiedAt() == null;
+        }
+        ClipEntry updated = bumpedEntry(recent.remove(index), bumped);
+        recent.add(recentPosition(updated), updated);
+        return true;
+    }
+
+    private void trimRecent() {
+        while (recent.size() > recentCapacity) {
+            tagsByClipId.remove(recent.remove(recent.size() - 1).id());
+            historyComplete = false;
+        }
+    }
+
+    private void remove(long id) {
+        int index = indexOf(pinned, id);
+        if (index >= 0) pinned.remove(index);
+        index = indexOf(recent, id);
+        if (index >= 0) recent.remove(index);
+        tagsByClipId.remove(id);
+    }
+
+    /** Index before the first unpinned row copied earlier, or equally late with a lower id. */
+    private int recentPosition(ClipEntry entry) {
+        int index = 0;
+        while (index < recent.size()) {
+            ClipEntry other = recent.get(index);
+            if (other.createdAt() < entry.createdAt()
+                    || (other.createdAt() == entry.createdAt() && other.id() < entry.id())) {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private static ClipEntry bumpedEntry(ClipEntry current, Bumped bumped) {
+        return new ClipEntry(
+                current.id(),
+                bumped.content() == null ? current.content() : PopupRowContent.head(bumped.content()),
+                current.title(),
+                current.favorite(),
+                current.pinOrder(),
+                bumped.lastCopiedAt() == null ? current.createdAt() : bumped.lastCopiedAt(),
+                current.image()
+        );
+    }
+
+    private static ClipEntry withTitle(ClipEntry current, String title) {
+        return new ClipEntry(
+                current.id(),
+                current.content(),
+                title,
+                current.favorite(),
+                current.pinOrder(),
+                current.createdAt(),
+                current.image()
+        );
+    }
+
+    private static List<ClipTag> tagsFor(Contents contents, ClipEntry entry) {
+        List<ClipTag> tags = contents.tagsByClipId().get(entry.id());
+        return tags == null ? List.of() : List.copyOf(tags);
+    }
+
+    private static int indexOf(List<ClipEntry> entries, long id) {
+        for (int index = 0; index < entries.size(); index++) {
+            if (entries.get(index).id() == id) return index;
+        }
+        return -1;
+    }
+}
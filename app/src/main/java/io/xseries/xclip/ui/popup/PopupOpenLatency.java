@@ -0,0 +1,132 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Time from a received global hotkey to the first frame the popup painted.
+ *
+ * The first open of a session builds the native window, applies CSS and lays
+ * out every row, so it is kept apart. Later opens either reveal the parked
+ * window ("warm") or show a hidden stage again ("cold"); the percentiles cover
+ * warm opens only, since those are the ones held to one refresh interval.
+ *
+ * Samples live in a fixed ring, so the recorder never grows with uptime.
+ */
+public final class PopupOpenLatency {
+
+    /**
+     * @param warmSamples     warm opens in the ring
+     * @param lastNanos       most recent open of any kind, or -1
+     * @param lastWarm        whether that open revealed a parked window
+     * @param firstShowNanos  first open of the session, or -1
+     * @param overFrameBudget warm opens in the ring slower than the frame budget
+     */
+    public record Summary(
+            int warmSamples,
+            long lastNanos,
+            boolean lastWarm,
+            long firstShowNanos,
+            long p50Nanos,
+            long p95Nanos,
+            long maxNanos,
+            int overFrameBudget,
+            long frameBudgetNanos
+    ) {
+        /** One diagnostic log line, or null before the first open. */
+        public String describe() {
+            if (lastNanos < 0) return null;
+
+            StringBuilder text = new StringBuilder("hotkey to first frame: first open ")
+                    .append(millis(firstShowNanos));
+            if (warmSamples == 0) return text.toString();
+
+            return text.append(", warm p50 ")
+                    .append(millis(p50Nanos))
+                    .append(", p95 ")
+                    .append(millis(p95Nanos))
+                    .append(", max ")
+                    .append(millis(maxNanos))
+                    .append(" over ")
+                    .append(warmSamples)
+                    .append(warmSamples == 1 ? " open" : " opens")
+                    .append(", ")
+                    .append(overFrameBudget)
+                    .append(" over the ")
+                    .append(millis(frameBudgetNanos))
+                    .append(" frame budget")
+                    .toString();
+        }
+
+        private static String millis(long nanos) {
+            return String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0);
+        }
+    }
+
+    private final long[] warm;
+    private final long frameBudgetNanos;
+    private int count;
+    private int next;
+    private long lastNanos = -1;
+    private boolean lastWarm;
+    private long firstShowNanos = -1;
+
+    public PopupOpenLatency(int capacity, long frameBudgetNanos) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        if (frameBudgetNanos < 1) throw new IllegalArgumentException("frameBudgetNanos must be positive");
+        this.warm = new long[capacity];
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * @param nanos      hotkey-to-first-frame time; negative values are ignored
+     * @param warmWindow true when the open revealed a parked window
+     */
+    public synchronized void record(long nanos, boolean warmWindow) {
+        if (nanos < 0) return;
+
+        lastNanos = nanos;
+        lastWarm = warmWindow;
+        if (firstShowNanos < 0) {
+            firstShowNanos = nanos;
+            return;
+        }
+        if (!warmWindow) return;
+
+        warm[next] = nanos;
+        next = (next + 1) % warm.length;
+        count = Math.min(count + 1, warm.length);
+    }
+
+    public synchronized Summary summary() {
+        long[] sorted = Arrays.copyOf(warm, count);
+        Arrays.sort(sorted);
+        int over = 0;
+        for (long sample : sorted) {
+            if (sample > frameBudgetNanos) over++;
+        }
+        return new Summary(
+                count,
+                lastNanos,
+                lastWarm,
+                firstShowNanos,
+                percentile(sorted, 50),
+                percentile(sorted, 95),
+                count == 0 ? -1 : sorted[count - 1],
+                over,
+                frameBudgetNanos
+        );
+    }
+
+    /** Nearest-rank percentile, or -1 without samples. */
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) return -1;
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.dao.ClipEntryDao.PageCursor;
+import io.xseries.xclip.data.model.ClipEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Bounded slice of the popup history that grows as the list scrolls.
+ *
+ * Pinned rows are always kept. Unpinned rows form one contiguous run of at
+ * most {@code maxRecentRows}: appending past the bound drops rows from the
+ * top, and paging back up drops them from the bottom again, so a walk through
+ * a 50k history never holds more than one window of rows. Rows keep only
+ * the head of their content ({@link PopupRowContent}).
+ *
+ * Each direction keeps its own scan cursor. With derived type filters a page
+ * may skip rows, and the cursor remembers where the scan stopped rather than
+ * where the last kept row was.
+ *
+ * Every change bumps {@link #version()}; a page read for an older version
+ * must be discarded by the caller.
+ */
+public final class PopupPageWindow {
+
+    /** Storage reads in popup order, as the clip DAO offers them. */
+    public interface PageSource {
+        List<ClipEntry> after(PageCursor cursor, int limit);
+
+        List<ClipEntry> before(PageCursor cursor, int limit);
+    }
+
+    /**
+     * @param entries kept rows in popup order, content bounded
+     * @param cursor  where the scan stopped, or null when it reached the end
+     */
+    public record Page(List<ClipEntry> entries, PageCursor cursor) {
+        public Page {
+            entries = PopupRowContent.bounded(entries);
+        }
+    }
+
+    private final int maxRecentRows;
+    private final List<ClipEntry> pinned = new ArrayList<>();
+    private final List<ClipEntry> recent = new ArrayList<>();
+    private PageCursor next;
+    private PageCursor previous;
+    private long version;
+
+    public PopupPageWindow(int maxRecentRows) {
+        if (maxRecentRows < 1) {
+            throw new IllegalArgumentException("maxRecentRows must be positive");
+        }
+        this.maxRecentRows = maxRecentRows;
+    }
+
+    /**
+     * Replaces the window with rows read from the top of the history.
+     *
+     * @param complete true when no matching row follows {@code entries}
+     */
+    public void reset(List<ClipEntry> entries, boolean complete) {
+        replace(entries, complete, false);
+    }
+
+    /**
+     * Replaces the rows after live changes were applied to them, keeping the
+     * window where it is: rows dropped above it stay reachable by paging up.
+     */
+    public void patch(List<ClipEntry> entries, boolean complete) {
+        replace(entries, complete, hasMoreBefore());
+    }
+
+    public List<ClipEntry> entries() {
+        List<ClipEntry> entries = new ArrayList<>(pinned.size() + recent.size());
+        entries.addAll(pinned);
+        entries.addAll(recent);
+        return List.copyOf(entries);
+    }
+
+    public int size() {
+        return pinned.size() + recent.size();
+    }
+
+    public int maxRecentRows() {
+        return maxRecentRows;
+    }
+
+    public int pinnedCount() {
+        return pinned.size();
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean hasMoreAfter() {
+        return next != null;
+    }
+
+    /** True when unpinned rows above the window were dropped. */
+    public boolean hasMoreBefore() {
+        return previous != null;
+    }
+
+    public PageCursor nextCursor() {
+        return next;
+    }
+
+    public PageCursor previousCursor() {
+        return previous;
+    }
+
+    /**
+     * Appends a page read after {@link #nextCursor()}.
+     *
+     * @return unpinned rows dropped from the top to stay within the bound
+     */
+    public int append(Page page) {
+        Objects.requireNonNull(page, "page");
+        for (ClipEntry entry : page.entries()) {
+            if (entry.favorite()) pinned.add(entry);
+            else recent.add(entry);
+        }
+        next = page.cursor();
+
+        int overflow = recent.size() - maxRecentRows;
+        if (overflow > 0) {
+            recent.subList(0, overflow).clear();
+            previous = PageCursor.after(recent.get(0));
+        }
+        version++;
+        return Math.max(0, overflow);
+    }
+
+    /**
+     * Prepends a page read before {@link #previousCursor()}.
+     *
+     * @return unpinned rows dropped from the bottom to stay within the bound
+     */
+    public int prepend(Page page) {
+        Objects.requireNonNull(page, "page");
+        recent.addAll(0, page.entries());
+        previous = page.cursor();
+
+        int dropped = trimBottom();
+        if (dropped > 0) next = cursorAfterLast();
+        version++;
+        return dropped;
+    }
+
+    /**
+     * Reads the next {@code pageSize} kept rows after {@code cursor}, scanning
+     * at most {@code scanLimit} rows so a rare type filter cannot stall a page.
+     *
+     * @param keep row filter, or null to keep every row
+     */
+    public static Page readAfter(
+            PageSource source,
+            PageCursor cursor,
+            int pageSize,
+            Predicate<ClipEntry> keep,
+            int scanLimit
+    ) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(cursor, "cursor");
+        int limit = Math.max(1, pageSize);
+        List<ClipEntry> kept = new ArrayList<>();
+        PageCursor position = cursor;
+        int scanned = 0;
+
+        while (true) {
+            List<ClipEntry> batch = source.after(position, limit);
+            for (ClipEntry entry : batch) {
+                if (keep == null || keep.test(entry)) kept.add(entry);
+            }
+            if (batch.size() < limit) return new Page(kept, null);
+
+            position = PageCursor.after(batch.get(batch.size() - 1));
+            scanned += batch.size();
+            if (kept.size() >= limit || scanned >= scanLimit) return new Page(kept, position);
+        }
+    }
+
+    /**
+     * Reads up to {@code pageSize} kept unpinned rows before {@code cursor};
+     * the page is in popup order.
+     */
+    public static Page readBefore(
+            PageSource source,
+            PageCursor cursor,
+            int pageSize,
+            Predicate<ClipEntry> keep,
+            int scanLimit
+    ) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(cursor, "cursor");
+        int limit = Math.max(1, pageSize);
+        List<ClipEntry> kept = new ArrayList<>();
+        PageCursor position = cursor;
+        int scanned = 0;
+
+        while (true) {
+            List<ClipEntry> batch = source.before(position, limit);
+            List<ClipEntry> keptBatch = new ArrayList<>();
+            for (ClipEntry entry : batch) {
+                if (keep == null || keep.test(entry)) keptBatch.add(entry);
+            }
+            kept.addAll(0, keptBatch);
+            if (batch.size() < limit) return new Page(kept, null);
+
+            position = PageCursor.after(batch.get(0));
+            scanned += batch.size();
+            if (kept.size() >= limit || scanned >= scanLimit) return new Page(kept, position);
+        }
+    }
+
+    private void replace(List<ClipEntry> entries, boolean complete, boolean moreBefore) {
+        pinned.clear();
+        recent.clear();
+        for (ClipEntry entry : entries == null ? List.<ClipEntry>of() : entries) {
+            if (entry == null) continue;
+            ClipEntry row = PopupRowContent.bounded(entry);
+            if (row.favorite()) pinned.add(row);
+            else recent.add(row);
+        }
+        boolean trimmed = trimBottom() > 0;
+        next = complete && !trimmed ? null : cursorAfterLast();
+        if (!moreBefore) previous = null;
+        else if (!recent.isEmpty()) previous = PageCursor.after(recent.get(0));
+        version++;
+    }
+
+    private int trimBottom() {
+        int overflow = recent.size() - maxRecentRows;
+        if (overflow <= 0) return 0;
+        recent.subList(maxRecentRows, recent.size()).clear();
+        return overflow;
+    }
+
+    private PageCursor cursorAfterLast() {
+        if (!recent.isEmpty()) return PageCursor.after(recent.get(recent.size() - 1));
+        if (!pinned.isEmpty()) return PageCursor.after(pinned.get(pinned.size() - 1));
+        return null;
+    }
+}
@@ -15,10 +15,57 @@ public final class PopupPerformancePolicy {
     public static final int PREVIEW_CACHE_CAPACITY = 4_096;
     public static final int CONTENT_TYPE_CACHE_CAPACITY = 8_192;
     public static final int TAG_ASSIGNMENT_CACHE_CAPACITY = 8_192;
+    /**
+     * Content characters kept per row in reload results, the scroll window
+     * and the hot tier; past the expanded preview, so rows render from it.
+     */
+    public static final int ROW_CONTENT_CHARS = 8_192;
+    /** Reload results kept per plan; covers toggling between a few filters. */
+    public static final int RELOAD_RESULT_CACHE_CAPACITY = 8;
+    /** Decoded row thumbnails; about 140 at the largest thumbnail size. */
+    public static final long THUMBNAIL_CACHE_BYTES = 16L * 1024 * 1024;
     public static final long SEARCH_DEBOUNCE_MS = 150L;
+    /** Rows read per keyset page once the list scrolls past the first reload. */
+    public static final int SCROLL_PAGE_SIZE = 200;
+    /** Unpinned rows kept loaded; rows beyond it are dropped and re-read on demand. */
+    public static final int SCROLL_WINDOW_ROWS = 1_000;
+    /** Distance from either end of the loaded rows at which the next page is requested. */
+    public static final int SCROLL_PREFETCH_ROWS = 40;
+    /** Newest unpinned clips held in memory for opens without text or tag terms. */
+    public static final int HOT_TIER_RECENT_CLIPS = 500;
+    /** Pin boards beyond this stay in SQLite; the tier then serves nothing. */
+    public static final int HOT_TIER_MAX_PINNED = 2_000;
+    /** Fills retried when a change lands mid-read, before waiting for the next change. */
+    public static final int HOT_TIER_FILL_ATTEMPTS = 3;
+    /** One refresh interval at 60 Hz; a parked popup should paint within it. */
+    public static final long OPEN_FRAME_BUDGET_NANOS = 16_666_667L;
+    /** Recent hotkey opens kept for the latency summary. */
+    public static final int OPEN_LATENCY_SAMPLES = 128;
+    /** Rows of the first page written for the next cold start. */
+    public static final int STARTUP_SNAPSHOT_ROWS = 200;
+    /** Characters kept per snapshot row; well past the row preview. */
+    public static final int STARTUP_SNAPSHOT_CONTENT_CHARS = 2_000;
+    /** Interval between snapshot writes while the history keeps changing. */
+    public static final long STARTUP_SNAPSHOT_INTERVAL_MS = 60_000L;
+    /** Code points the full-clip viewer reads per indexing or search step. */
+    public static final int VIEWER_CHUNK_CHARS = 65_536;
+    /** Longest display row; longer lines wrap onto continuation rows. */
+    public static final int VIEWER_MAX_ROW_CHARS = 2_000;
+    /** Display rows read from storage together. */
+    public static final int VIEWER_ROWS_PER_PAGE = 256;
+    /** Pages of display rows the viewer keeps decoded. */
+    public static final int VIEWER_CACHED_PAGES = 32;
 
     private PopupPerformancePolicy() {}
 
+    /**
+     * Upper bound of unpinned rows the popup keeps loaded while scrolling;
+     * always at least one page beyond the first reload.
+     */
+    public static int scrollWindowRows(int uiLimit) {
+        return Math.max(SCROLL_WINDOW_ROWS, Math.max(1, uiLimit) + SCROLL_PAGE_SIZE);
+    }
+
     public static int candidateLimit(int uiLimit, boolean typeFilterActive) {
         int safeUiLimit = Math.max(1, uiLimit);
         if (!typeFilterActive) return safeUiLimit;
@@ -5,7 +5,10 @@
  */
 package io.xseries.xclip.ui.popup;
 
+import io.xseries.xclip.data.dao.ClipEntryDao.StorageVersion;
+import io.xseries.xclip.data.model.ClipEntry;
 import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.search.SearchExecutionPlan;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -22,10 +25,20 @@ import java.util.function.Supplier;
 /**
  * Reuses popup reload metadata that is stable across incremental search requests.
  *
- * Clip rows themselves are never cached here. The cache only retains:
+ * The cache retains:
  * - total persisted clip count until a storage mutation invalidates it;
  * - the tag library until tag metadata changes;
- * - bounded immutable tag assignments keyed by clip id.
+ * - bounded immutable tag assignments keyed by clip id;
+ * - the last few complete reload results keyed by plan and limit, valid only
+ *   while the storage version they were read under is current.
+ *
+ * Clip rows are only ever held with bounded content: a result keeps the head
+ * of each clip ({@link PopupRowContent}), never a full body of up to the
+ * capture cap, so eight stored results stay small.
+ *
+ * A storage version that moved without any published event means something
+ * wrote outside the change bus, so every cached kind is dropped. Every
+ * explicit invalidation drops the stored results as well.
  *
  * Loaders are invoked by PopupWindow's single DB executor. Public invalidation
  * methods remain thread-safe because external cleanup can request a refresh
@@ -41,8 +54,72 @@ public final class PopupReloadCache {
     private int totalClipCount;
     private boolean totalClipCountLoaded;
 
+    private final BoundedLruCache<ResultKey, ReloadResult> results;
+    private StorageVersion resultsVersion;
+    private StorageVersion lastSeenVersion;
+
+    private record ResultKey(SearchExecutionPlan plan, int limit) {}
+
+    /**
+     * Everything one popup reload reads from storage, with row content
+     * bounded by {@link PopupRowContent}.
+     *
+     * @param complete true when no matching row exists past {@code entries}
+     */
+    public record ReloadResult(
+            List<ClipEntry> entries,
+            Map<Long, List<ClipTag>> tagsByClipId,
+            List<ClipTag> availableTags,
+            int totalClipCount,
+            boolean complete
+    ) {
+        public ReloadResult {
+            entries = PopupRowContent.bounded(entries);
+            tagsByClipId = Map.copyOf(tagsByClipId);
+            availableTags = List.copyOf(availableTags);
+        }
+    }
+
     public PopupReloadCache(int tagAssignmentCapacity) {
+        this(tagAssignmentCapacity, PopupPerformancePolicy.RELOAD_RESULT_CACHE_CAPACITY);
+    }
+
+    public PopupReloadCache(int tagAssignmentCapacity, int resultCapacity) {
         assignmentsByClipId = new BoundedLruCache<>(tagAssignmentCapacity);
+        results = new BoundedLruCache<>(resultCapacity);
+    }
+
+    /**
+     * Returns the stored result for this plan when storage is still at
+     * {@code version}, or null. A different version drops every stored result.
+     */
+    public synchronized ReloadResult result(SearchExecutionPlan plan, int limit, StorageVersion version) {
+        Objects.requireNonNull(version, "version");
+        if (version.changedSilentlySince(lastSeenVersion)) {
+            clear();
+        }
+        lastSeenVersion = version;
+        if (!version.equals(resultsVersion)) {
+            results.clear();
+            resultsVersion = version;
+            return null;
+        }
+        return results.get(new ResultKey(plan, limit));
+    }
+
+    /**
+     * Stores a result read under {@code version}; ignored when a newer version
+     * was seen or an invalidation happened since {@link #result} was asked.
+     */
+    public synchronized void storeResult(
+            SearchExecutionPlan plan,
+            int limit,
+            StorageVersion version,
+            ReloadResult result
+    ) {
+        Objects.requireNonNull(result, "result");
+        if (version == null || !version.equals(resultsVersion)) return;
+        results.put(new ResultKey(plan, limit), result);
     }
 
     public synchronized int totalClipCount(IntSupplier loader) {
@@ -112,19 +189,29 @@ public final class PopupReloadCache {
 
     public synchronized void invalidateTotalClipCount() {
         totalClipCountLoaded = false;
+        invalidateResults();
     }
 
     public synchronized void invalidateAvailableTags() {
         availableTags = List.of();
         availableTagsLoaded = false;
+        invalidateResults();
     }
 
     public void invalidateTagAssignments(Collection<Long> clipIds) {
         assignmentsByClipId.removeKeys(clipIds);
+        invalidateResults();
     }
 
     public void invalidateAllTagAssignments() {
         assignmentsByClipId.clear();
+        invalidateResults();
+    }
+
+    /** Drops stored reload results; a result read before this is not stored. */
+    public synchronized void invalidateResults() {
+        results.clear();
+        resultsVersion = null;
     }
 
     public void clear() {
@@ -133,6 +220,10 @@ public final class PopupReloadCache {
         invalidateAllTagAssignments();
     }
 
+    synchronized int cachedResultCount() {
+        return results.size();
+    }
+
     int cachedAssignmentCount() {
         return assignmentsByClipId.size();
     }
@@ -0,0 +1,71 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.model.ClipEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounds the clip content that popup rows carry.
+ *
+ * Reload results, the scroll window and the hot tier keep rows in memory
+ * across reloads, and one clip may hold up to the capture cap. Rows there
+ * keep only the head of their content, {@link PopupPerformancePolicy#ROW_CONTENT_CHARS}
+ * characters, which is more than a row or its expanded preview shows. A row
+ * whose content reaches that bound may be a head only; copy, paste and type
+ * actions read such clips in full by id, as the full-clip viewer does.
+ */
+public final class PopupRowContent {
+
+    private PopupRowContent() {}
+
+    /** The entry itself, or a copy holding the head of its content. */
+    public static ClipEntry bounded(ClipEntry entry) {
+        if (entry == null || entry.image() || entry.content() == null) return entry;
+        if (entry.content().length() <= PopupPerformancePolicy.ROW_CONTENT_CHARS) return entry;
+        return new ClipEntry(
+                entry.id(),
+                head(entry.content()),
+                entry.title(),
+                entry.favorite(),
+                entry.pinOrder(),
+                entry.createdAt(),
+                false
+        );
+    }
+
+    /** An immutable copy of entries, each bounded. */
+    public static List<ClipEntry> bounded(List<ClipEntry> entries) {
+        List<ClipEntry> bounded = new ArrayList<>(entries.size());
+        for (ClipEntry entry : entries) {
+            bounded.add(bounded(entry));
+        }
+        return List.copyOf(bounded);
+    }
+
+    /** Content cut to the row bound, never between a surrogate pair. */
+    public static String head(String content) {
+        if (content == null || content.length() <= PopupPerformancePolicy.ROW_CONTENT_CHARS) {
+            return content;
+        }
+        int end = PopupPerformancePolicy.ROW_CONTENT_CHARS;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) end--;
+        return content.substring(0, end);
+    }
+
+    /**
+     * True when the row's content may be only the head of its clip. Content
+     * exactly at the bound is included, so such a clip is read once more.
+     */
+    public static boolean mayBeHead(ClipEntry entry) {
+        return entry != null
+                && !entry.image()
+                && entry.content() != null
+                && entry.content().length() >= PopupPerformancePolicy.ROW_CONTENT_CHARS - 1;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.ui.popup.PopupRow.ClipRow;
+import io.xseries.xclip.ui.popup.PopupRow.SectionRow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keyed diff between two popup row lists.
+ *
+ * Clip rows are keyed by clip id and section rows by title; row equality is
+ * the version, so a changed title, pin state or tag list updates the row in
+ * place. Rows that keep their relative order stay untouched, which lets the
+ * list keep their cells and selection. Everything else becomes a removal or
+ * an insertion, applied as a few range mutations instead of one setAll.
+ */
+public final class PopupRowDiff {
+
+    private PopupRowDiff() {}
+
+    public sealed interface Operation permits Remove, Insert, Update {}
+
+    /** Removes {@code count} rows starting at {@code from}. */
+    public record Remove(int from, int count) implements Operation {}
+
+    /** Inserts {@code rows} before {@code index}. */
+    public record Insert(int index, List<PopupRow> rows) implements Operation {
+        public Insert {
+            rows = List.copyOf(rows);
+        }
+    }
+
+    /** Replaces the row at {@code index} with a newer version of the same key. */
+    public record Update(int index, PopupRow row) implements Operation {}
+
+    /**
+     * Operations that turn {@code current} into {@code next} when applied in
+     * order. Indices refer to the list as left by the preceding operations.
+     */
+    public static List<Operation> compute(List<PopupRow> current, List<PopupRow> next) {
+        List<PopupRow> from = current == null ? List.of() : current;
+        List<PopupRow> to = next == null ? List.of() : next;
+        if (from.isEmpty() && to.isEmpty()) return List.of();
+        if (from.isEmpty()) return List.of(new Insert(0, to));
+        if (to.isEmpty()) return List.of(new Remove(0, from.size()));
+
+        Map<Object, Integer> nextIndex = indexByKey(to);
+        if (nextIndex == null || indexByKey(from) == null) {
+            return List.of(new Remove(0, from.size()), new Insert(0, to));
+        }
+
+        int[] targets = new int[from.size()];
+        for (int i = 0; i < from.size(); i++) {
+            targets[i] = nextIndex.getOrDefault(key(from.get(i)), -1);
+        }
+        boolean[] kept = longestIncreasingRun(targets);
+
+        List<Operation> operations = new ArrayList<>();
+        for (int end = from.size() - 1; end >= 0; ) {
+            if (kept[end]) {
+                end--;
+                continue;
+            }
+            int start = end;
+            while (start > 0 && !kept[start - 1]) start--;
+            operations.add(new Remove(start, end - start + 1));
+            end = start - 1;
+        }
+
+        List<PopupRow> survivors = new ArrayList<>();
+        for (int i = 0; i < from.size(); i++) {
+            if (kept[i]) survivors.add(from.get(i));
+        }
+
+        int survivor = 0;
+        List<PopupRow> pending = new ArrayList<>();
+        for (int index = 0; index < to.size(); index++) {
+            PopupRow row = to.get(index);
+            if (survivor < survivors.size()
+                    && key(survivors.get(survivor)).equals(key(row))) {
+                flushInsert(operations, index - pending.size(), pending);
+                if (!survivors.get(survivor).equals(row)) {
+                    operations.add(new Update(index, row));
+                }
+                survivor++;
+            } else {
+                pending.add(row);
+            }
+        }
+        flushInsert(operations, to.size() - pending.size(), pending);
+        return List.copyOf(operations);
+    }
+
+    /** Applies {@link #compute} operations to a mutable list. */
+    public static void apply(List<PopupRow> target, List<Operation> operations) {
+        Objects.requireNonNull(target, "target");
+        if (operations == null) return;
+        for (Operation operation : operations) {
+            if (operation instanceof Remove remove) {
+                target.subList(remove.from(), remove.from() + remove.count()).clear();
+            } else if (operation instanceof Insert insert) {
+                target.addAll(insert.index(), insert.rows());
+            } else if (operation instanceof Update update) {
+                target.set(update.index(), update.row());
+            }
+        }
+    }
+
+    private static void flushInsert(List<Operation> operations, int index, List<PopupRow> pending) {
+        if (pending.isEmpty()) return;
+        operations.add(new Insert(index, pending));
+        pending.clear();
+    }
+
+    private static Object key(PopupRow row) {
+        if (row instanceof ClipRow clip) return clip.entry().id();
+        return ((SectionRow) row).title();
+    }
+
+    /** Null when two rows share a key; the caller then replaces the list wholesale. */
+    private static Map<Object, Integer> indexByKey(List<PopupRow> rows) {
+        Map<Object, Integer> index = new HashMap<>(rows.size() * 2);
+        for (int i = 0; i < rows.size(); i++) {
+            PopupRow row = rows.get(i);
+            if (row == null || index.putIfAbsent(key(row), i) != null) return null;
+        }
+        return index;
+    }
+
+    /**
+     * Marks one longest strictly increasing subsequence of non-negative
+     * targets: the rows that can stay where they are.
+     */
+    private static boolean[] longestIncreasingRun(int[] targets) {
+        int n = targets.length;
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        Arrays.fill(previous, -1);
+        int length = 0;
+
+        for (int i = 0; i < n; i++) {
+            int target = targets[i];
+            if (target < 0) continue;
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (targets[tails[mid]] < target) low = mid + 1;
+                else high = mid;
+            }
+            if (low > 0) previous[i] = tails[low - 1];
+            tails[low] = i;
+            if (low == length) length++;
+        }
+
+        boolean[] kept = new boolean[n];
+        for (int i = length == 0 ? -1 : tails[length - 1]; i >= 0; i = previous[i]) {
+            kept[i] = true;
+        }
+        return kept;
+    }
+}
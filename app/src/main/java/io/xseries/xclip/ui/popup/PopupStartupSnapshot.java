@@ -0,0 +1,238 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import com.google.gson.Gson;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.model.ClipContentType;
+import io.xseries.xclip.domain.search.SearchExecutionPlan;
+import io.xseries.xclip.domain.search.SearchQueryExecutor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The plain first page of the popup as it was last rendered, kept in a small
+ * file next to the database so a cold start can show it before SQLite opens.
+ *
+ * Rows hold what the list needs to draw them: ids, pin state, title, content
+ * type, tags and the head of the content. Content longer than the cap is cut
+ * and marked, so such a row can be shown but not copied until storage opens.
+ * Image rows are left out; their thumbnails live in the database.
+ *
+ * The file is replaced atomically. A missing, unreadable or foreign file
+ * reads as no snapshot; the popup then waits for storage as before.
+ */
+public record PopupStartupSnapshot(
+        int formatVersion,
+        long savedAt,
+        int totalClipCount,
+        List<Row> rows,
+        List<ClipTag> availableTags
+) {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Gson GSON = new Gson();
+
+    /**
+     * @param truncated true when {@code content} is only the head of the clip
+     */
+    public record Row(
+            long id,
+            String content,
+            String title,
+            boolean pinned,
+            Integer pinOrder,
+            long lastCopiedAt,
+            ClipContentType type,
+            boolean truncated,
+            List<ClipTag> tags
+    ) {
+        public Row {
+            content = Objects.requireNonNullElse(content, "");
+            type = Objects.requireNonNullElse(type, ClipContentType.TEXT);
+            tags = tags == null ? List.of() : List.copyOf(tags);
+        }
+
+        public ClipEntry entry() {
+            return new ClipEntry(id, content, title, pinned, pinOrder, lastCopiedAt);
+        }
+    }
+
+    public PopupStartupSnapshot {
+        rows = rows == null ? List.of() : List.copyOf(rows);
+        availableTags = availableTags == null ? List.of() : List.copyOf(availableTags);
+        totalClipCount = Math.max(totalClipCount, rows.size());
+    }
+
+    /** Placeholder for a first start: no rows, storage decides everything. */
+    public static PopupStartupSnapshot empty() {
+        return new PopupStartupSnapshot(FORMAT_VERSION, 0L, 0, List.of(), List.of());
+    }
+
+    /**
+     * Builds a snapshot from a plain first page in popup order.
+     *
+     * @param maxRows  rows kept, counted after image rows are skipped
+     * @param maxChars content characters kept per row
+     */
+    public static PopupStartupSnapshot capture(
+            List<ClipEntry> entries,
+            Map<Long, List<ClipTag>> tagsByClipId,
+            List<ClipTag> availableTags,
+            int totalClipCount,
+            Function<ClipEntry, ClipContentType> classifier,
+            int maxRows,
+            int maxChars,
+            long savedAt
+    ) {
+        Objects.requireNonNull(classifier, "classifier");
+        int rowLimit = Math.max(0, maxRows);
+        int charLimit = Math.max(1, maxChars);
+        List<Row> rows = new ArrayList<>();
+        for (ClipEntry entry : entries == null ? List.<ClipEntry>of() : entries) {
+            if (rows.size() >= rowLimit) break;
+            if (entry == null || entry.image()) continue;
+
+            String content = entry.content() == null ? "" : entry.content();
+            boolean truncated = content.length() > charLimit;
+            if (truncated) content = headOf(content, charLimit);
+            rows.add(new Row(
+                    entry.id(),
+                    content,
+                    entry.title(),
+                    entry.favorite(),
+                    entry.pinOrder(),
+                    entry.createdAt(),
+                    classifier.apply(entry),
+                    truncated,
+                    tagsByClipId == null ? List.of() : tagsByClipId.get(entry.id())
+            ));
+        }
+        return new PopupStartupSnapshot(FORMAT_VERSION, savedAt, totalClipCount, rows, availableTags);
+    }
+
+    /** The same snapshot without unpinned rows, for histories cleared on exit. */
+    public PopupStartupSnapshot pinnedOnly() {
+        List<Row> pinned = rows.stream().filter(Row::pinned).toList();
+        int pinnedCount = pinned.size();
+        return new PopupStartupSnapshot(formatVersion, savedAt, pinnedCount, pinned, availableTags);
+    }
+
+    /** True when the rows are every clip in the history, so any filter over them is exact. */
+    public boolean coversHistory() {
+        return totalClipCount <= rows.size();
+    }
+
+    /** Ids of rows whose content was cut. */
+    public Set<Long> truncatedIds() {
+        Set<Long> ids = new HashSet<>();
+        for (Row row : rows) {
+            if (row.truncated()) ids.add(row.id());
+        }
+        return Set.copyOf(ids);
+    }
+
+    /**
+     * Rows for a plan that needs no text or tag terms, judged like the hot
+     * tier judges them; null when the plan needs SQLite.
+     */
+    public PopupReloadCache.ReloadResult serve(SearchExecutionPlan plan, int limit) {
+        Objects.requireNonNull(plan, "plan");
+        if (PopupHotTier.needsDatabase(plan)) return null;
+
+        Map<Long, ClipContentType> types = new HashMap<>();
+        Map<Long, List<ClipTag>> tags = new HashMap<>();
+        List<ClipEntry> entries = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            entries.add(row.entry());
+            types.put(row.id(), row.type());
+            tags.put(row.id(), row.tags());
+        }
+
+        int safeLimit = Math.max(1, limit);
+        List<ClipEntry> matched = SearchQueryExecutor.apply(
+                entries,
+                plan,
+                safeLimit + 1,
+                entry -> types.getOrDefault(entry.id(), ClipContentType.TEXT)
+        );
+        List<ClipEntry> page = matched.size() > safeLimit ? matched.subList(0, safeLimit) : matched;
+        Map<Long, List<ClipTag>> pageTags = new HashMap<>();
+        for (ClipEntry entry : page) pageTags.put(entry.id(), tags.get(entry.id()));
+        return new PopupReloadCache.ReloadResult(
+                page,
+                pageTags,
+                availableTags,
+                Math.max(totalClipCount, page.size()),
+                matched.size() <= safeLimit && coversHistory()
+        );
+    }
+
+    /** Reads a snapshot; empty when the file is missing, damaged or of another format. */
+    public static Optional<PopupStartupSnapshot> read(Path file) {
+        Objects.requireNonNull(file, "file");
+        if (!Files.isRegularFile(file)) return Optional.empty();
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            PopupStartupSnapshot snapshot = GSON.fromJson(reader, PopupStartupSnapshot.class);
+            if (snapshot == null || snapshot.formatVersion() != FORMAT_VERSION) return Optional.empty();
+            for (Row row : snapshot.rows()) {
+                if (row == null) return Optional.empty();
+            }
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException damaged) {
+            return Optional.empty();
+        }
+    }
+
+    /** Replaces the file through a temporary sibling, so readers see the old or the new snapshot. */
+    public static void write(Path file, PopupStartupSnapshot snapshot) throws IOException {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(snapshot, "snapshot");
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            GSON.toJson(snapshot, writer);
+        }
+        try {
+            Files.move(
+                    temporary,
+                    file,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (AtomicMoveNotSupportedException unsupported) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Cuts at a code point boundary so the head never ends in half a surrogate pair. */
+    private static String headOf(String content, int maxChars) {
+        int end = maxChars;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) end--;
+        return content.substring(0, end);
+    }
+}
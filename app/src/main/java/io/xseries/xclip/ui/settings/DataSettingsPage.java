@@ -40,6 +40,8 @@ public final class DataSettingsPage {
             Runnable optimizeDatabase,
             Runnable createBackup,
             Runnable restoreBackup,
+            Runnable exportHistory,
+            Runnable importHistory,
             Runnable runRetentionCleanup,
             Runnable clearRecent,
             Runnable clearAllData,
@@ -67,6 +69,8 @@ public final class DataSettingsPage {
         );
         Runnable backupAction = Objects.requireNonNull(createBackup, "createBackup");
         Runnable restoreAction = Objects.requireNonNull(restoreBackup, "restoreBackup");
+        Runnable exportAction = Objects.requireNonNull(exportHistory, "exportHistory");
+        Runnable importAction = Objects.requireNonNull(importHistory, "importHistory");
         Runnable cleanupAction = Objects.requireNonNull(
                 runRetentionCleanup,
                 "runRetentionCleanup"
@@ -175,6 +179,33 @@ public final class DataSettingsPage {
                 )
         );
 
+        Label transferStatus = statusLabel(
+                "Export writes text clips with their tags as one JSON object per line. Import merges exact duplicates and then applies the history limit.",
+                "History export and import status"
+        );
+
+        Button exportHistoryButton = subtleButton(
+                "Export history",
+                "Write every text clip, its pin state and tags to an .ndjson file.",
+                exportAction
+        );
+        Button importHistoryButton = subtleButton(
+                "Import history",
+                "Add clips from an XClip .ndjson export; exact duplicates are merged into existing clips.",
+                importAction
+        );
+
+        VBox transfer = section(
+                "History export and import",
+                "Exports are readable line-delimited JSON. Images are not exported; use a backup to keep them.",
+                transferStatus,
+                actionRow(
+                        Pos.CENTER_LEFT,
+                        exportHistoryButton,
+                        importHistoryButton
+                )
+        );
+
         Button clearData = new Button("Clear ALL data");
         clearData.setAccessibleHelp(
                 "Permanently delete clipboard history, database sidecars, and configuration."
@@ -195,10 +226,11 @@ public final class DataSettingsPage {
         dangerBox.getStyleClass().addAll("settings-section", "danger-box");
 
         return new View(
-                pageScroll(locations, diagnostics, maintenance, backup, dangerBox),
+                pageScroll(locations, diagnostics, maintenance, backup, transfer, dangerBox),
                 databaseStatus,
                 cleanupStatus,
                 backupStatus,
+                transferStatus,
                 List.of(
                         refreshStatus,
                         checkIntegrity,
@@ -208,6 +240,8 @@ public final class DataSettingsPage {
                         clearRecentButton,
                         createBackupButton,
                         restoreBackupButton,
+                        exportHistoryButton,
+                        importHistoryButton,
                         clearData
                 )
         );
@@ -283,6 +317,7 @@ public final class DataSettingsPage {
             Label databaseStatus,
             Label cleanupStatus,
             Label backupStatus,
+            Label transferStatus,
             List<Button> maintenanceButtons
     ) {
         public View {
@@ -290,6 +325,7 @@ public final class DataSettingsPage {
             databaseStatus = Objects.requireNonNull(databaseStatus, "databaseStatus");
             cleanupStatus = Objects.requireNonNull(cleanupStatus, "cleanupStatus");
             backupStatus = Objects.requireNonNull(backupStatus, "backupStatus");
+            transferStatus = Objects.requireNonNull(transferStatus, "transferStatus");
             maintenanceButtons = List.copyOf(
                     Objects.requireNonNull(maintenanceButtons, "maintenanceButtons")
             );
@@ -307,6 +343,10 @@ public final class DataSettingsPage {
             backupStatus.setText(Objects.requireNonNullElse(text, ""));
         }
 
+        public void updateTransferStatus(String text) {
+            transferStatus.setText(Objects.requireNonNullElse(text, ""));
+        }
+
         public void setMaintenanceBusy(boolean busy) {
             for (Button button : maintenanceButtons) {
                 button.setDisable(busy);
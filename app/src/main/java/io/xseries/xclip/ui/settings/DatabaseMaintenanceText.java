@@ -5,6 +5,8 @@
  */
 package io.xseries.xclip.ui.settings;
 
+import io.xseries.xclip.data.dao.HistoryTransferDao.ExportResult;
+import io.xseries.xclip.data.dao.HistoryTransferDao.ImportResult;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService.BackupDescriptor;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService.BackupResult;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService.CheckpointResult;
@@ -99,6 +101,22 @@ public final class DatabaseMaintenanceText {
                 + " · config schema " + value.configSchemaVersion();
     }
 
+    public static String historyExport(Path target, ExportResult result) {
+        ExportResult value = Objects.requireNonNull(result, "result");
+        return "History exported: " + fileName(target)
+                + " · " + value.rows() + " clips"
+                + " · " + formatRate(value.rowsPerSecond());
+    }
+
+    public static String historyImport(Path source, ImportResult result) {
+        ImportResult value = Objects.requireNonNull(result, "result");
+        return "History imported: " + fileName(source)
+                + " · " + value.insertedRows() + " new"
+                + " · " + value.mergedRows() + " merged"
+                + " · " + value.rejectedLines() + " rejected lines"
+                + " · " + formatRate(value.rowsPerSecond());
+    }
+
     public static String formatBytes(long bytes) {
         long safe = Math.max(0L, bytes);
         if (safe < 1_024L) return safe + " B";
@@ -118,6 +136,10 @@ public final class DatabaseMaintenanceText {
         return safe + " B";
     }
 
+    private static String formatRate(double clipsPerSecond) {
+        return String.format(Locale.ROOT, "%.0f clips/s", Math.max(0.0, clipsPerSecond));
+    }
+
     private static String fileName(Path path) {
         Path value = Objects.requireNonNull(path, "path");
         Path name = value.getFileName();
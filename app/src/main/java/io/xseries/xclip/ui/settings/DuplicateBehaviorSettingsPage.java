@@ -36,6 +36,7 @@ public final class DuplicateBehaviorSettingsPage {
             TextField customWindowMillis,
             CheckBox exactContentMode,
             Label exactOverrideHint,
+            CheckBox nearDuplicateMode,
             Button resetDefaults
     ) {}
 
@@ -61,13 +62,20 @@ public final class DuplicateBehaviorSettingsPage {
                 controls.exactContentMode(),
                 controls.exactOverrideHint()
         );
-        addSettingRow(
+        row = addSettingRow(
                 grid,
                 row,
                 "Exact content mode",
                 "Compares every character exactly and overrides Whitespace and Letter case.",
                 exactControl
         );
+        addSettingRow(
+                grid,
+                row,
+                "Near-duplicates",
+                "Folds text that differs only in numbers or a few words into the newest RECENT clip.",
+                controls.nearDuplicateMode()
+        );
 
         var actions = actionRow(
                 Pos.CENTER_RIGHT,
@@ -106,6 +106,28 @@ public final class DuplicateSettingsModel {
             WindowPreset windowPreset,
             String customWindowMillis,
             boolean exactContentMode
+    ) {
+        return toPolicy(
+                recentPosition,
+                pinnedPosition,
+                whitespaceMode,
+                caseSensitivity,
+                windowPreset,
+                customWindowMillis,
+                exactContentMode,
+                false
+        );
+    }
+
+    public static DuplicateBehaviorPolicy toPolicy(
+            DuplicateBehaviorPolicy.RecentDuplicatePosition recentPosition,
+            DuplicateBehaviorPolicy.PinnedDuplicatePosition pinnedPosition,
+            DuplicateBehaviorPolicy.WhitespaceMode whitespaceMode,
+            DuplicateBehaviorPolicy.CaseSensitivity caseSensitivity,
+            WindowPreset windowPreset,
+            String customWindowMillis,
+            boolean exactContentMode,
+            boolean nearDuplicateMode
     ) {
         return new DuplicateBehaviorPolicy(
                 Objects.requireNonNull(recentPosition, "recentPosition"),
@@ -113,7 +135,8 @@ public final class DuplicateSettingsModel {
                 Objects.requireNonNull(whitespaceMode, "whitespaceMode"),
                 Objects.requireNonNull(caseSensitivity, "caseSensitivity"),
                 resolveWindowMillis(windowPreset, customWindowMillis),
-                exactContentMode
+                exactContentMode,
+                nearDuplicateMode
         );
     }
 
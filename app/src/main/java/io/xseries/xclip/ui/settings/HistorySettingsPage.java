@@ -35,6 +35,7 @@ public final class HistorySettingsPage {
             Spinner<Integer> retentionPathDays,
             Spinner<Integer> retentionJsonDays,
             Spinner<Integer> retentionCommandDays,
+            Spinner<Integer> retentionImageDays,
             CheckBox clearRecentOnExit,
             Label cleanupStatusLabel,
             Button runCleanupNow,
@@ -72,6 +73,7 @@ public final class HistorySettingsPage {
         row = addSettingRow(retentionGrid, row, "PATH override", "Days to keep PATH clips. Zero disables this type-specific rule.", controls.retentionPathDays());
         row = addSettingRow(retentionGrid, row, "JSON override", "Days to keep JSON clips. Zero disables this type-specific rule.", controls.retentionJsonDays());
         row = addSettingRow(retentionGrid, row, "COMMAND override", "Days to keep COMMAND clips. Zero disables this type-specific rule.", controls.retentionCommandDays());
+        row = addSettingRow(retentionGrid, row, "IMAGE override", "Days to keep IMAGE clips. Zero disables this type-specific rule.", controls.retentionImageDays());
         addControlRow(retentionGrid, row, controls.clearRecentOnExit());
 
         Label hint = new Label(
@@ -191,6 +191,13 @@ public record SettingsDraft(
                 HistoryRetentionPolicy.MAX_MAX_AGE_DAYS,
                 issues
         );
+        Integer retentionImageDays = parseInteger(
+                retention.imageDays(),
+                SettingsField.RETENTION_IMAGE_DAYS,
+                HistoryRetentionPolicy.TYPE_RULE_DISABLED,
+                HistoryRetentionPolicy.MAX_MAX_AGE_DAYS,
+                issues
+        );
 
         DuplicateBehaviorPolicy duplicatePolicy = validateDuplicate(issues);
         ExcludedApplicationPolicy excludedPolicy = validateExcludedApplications(issues);
@@ -203,7 +210,8 @@ public record SettingsDraft(
                 && retentionUrlDays != null
                 && retentionPathDays != null
                 && retentionJsonDays != null
-                && retentionCommandDays != null) {
+                && retentionCommandDays != null
+                && retentionImageDays != null) {
             EnumMap<ClipContentType, Integer> typeDays =
                     new EnumMap<>(ClipContentType.class);
             typeDays.put(ClipContentType.TEXT, retentionTextDays);
@@ -212,6 +220,7 @@ public record SettingsDraft(
             typeDays.put(ClipContentType.PATH, retentionPathDays);
             typeDays.put(ClipContentType.JSON, retentionJsonDays);
             typeDays.put(ClipContentType.COMMAND, retentionCommandDays);
+            typeDays.put(ClipContentType.IMAGE, retentionImageDays);
             retentionPolicy = new HistoryRetentionPolicy(
                     retention.recentEnabled(),
                     retentionRecentDays,
@@ -286,7 +295,8 @@ public record SettingsDraft(
                     duplicate.caseSensitivity(),
                     duplicate.windowPreset(),
                     duplicate.customWindowMillis(),
-                    duplicate.exactContentMode()
+                    duplicate.exactContentMode(),
+                    duplicate.nearDuplicateMode()
             );
         } catch (IllegalArgumentException error) {
             issues.add(new SettingsValidationIssue(
@@ -420,7 +430,8 @@ public record SettingsDraft(
             DuplicateBehaviorPolicy.CaseSensitivity caseSensitivity,
             WindowPreset windowPreset,
             String customWindowMillis,
-            boolean exactContentMode
+            boolean exactContentMode,
+            boolean nearDuplicateMode
     ) {
         public Duplicate {
             customWindowMillis = Objects.requireNonNullElse(
@@ -429,6 +440,27 @@ public record SettingsDraft(
             );
         }
 
+        public Duplicate(
+                DuplicateBehaviorPolicy.RecentDuplicatePosition recentPosition,
+                DuplicateBehaviorPolicy.PinnedDuplicatePosition pinnedPosition,
+                DuplicateBehaviorPolicy.WhitespaceMode whitespaceMode,
+                DuplicateBehaviorPolicy.CaseSensitivity caseSensitivity,
+                WindowPreset windowPreset,
+                String customWindowMillis,
+                boolean exactContentMode
+        ) {
+            this(
+                    recentPosition,
+                    pinnedPosition,
+                    whitespaceMode,
+                    caseSensitivity,
+                    windowPreset,
+                    customWindowMillis,
+                    exactContentMode,
+                    false
+            );
+        }
+
         public static Duplicate fromPolicy(DuplicateBehaviorPolicy policy) {
             DuplicateBehaviorPolicy value = Objects.requireNonNull(policy, "policy");
             return new Duplicate(
@@ -440,7 +472,8 @@ public record SettingsDraft(
                     DuplicateSettingsModel.customWindowText(
                             value.duplicateWindowMillis()
                     ),
-                    value.exactContentMode()
+                    value.exactContentMode(),
+                    value.nearDuplicateMode()
             );
         }
     }
@@ -467,6 +500,7 @@ public record SettingsDraft(
             String pathDays,
             String jsonDays,
             String commandDays,
+            String imageDays,
             boolean clearRecentOnExit
     ) {
         public Retention {
@@ -477,6 +511,7 @@ public record SettingsDraft(
             pathDays = Objects.requireNonNullElse(pathDays, "");
             jsonDays = Objects.requireNonNullElse(jsonDays, "");
             commandDays = Objects.requireNonNullElse(commandDays, "");
+            imageDays = Objects.requireNonNullElse(imageDays, "");
         }
 
         public static Retention fromPolicy(HistoryRetentionPolicy policy) {
@@ -490,6 +525,7 @@ public record SettingsDraft(
                     integerText(value.maxAgeDaysFor(ClipContentType.PATH)),
                     integerText(value.maxAgeDaysFor(ClipContentType.JSON)),
                     integerText(value.maxAgeDaysFor(ClipContentType.COMMAND)),
+                    integerText(value.maxAgeDaysFor(ClipContentType.IMAGE)),
                     value.clearRecentOnExit()
             );
         }
@@ -31,6 +31,7 @@ public enum SettingsField {
     RETENTION_PATH_DAYS(SettingsPage.HISTORY, "PATH retention days"),
     RETENTION_JSON_DAYS(SettingsPage.HISTORY, "JSON retention days"),
     RETENTION_COMMAND_DAYS(SettingsPage.HISTORY, "COMMAND retention days"),
+    RETENTION_IMAGE_DAYS(SettingsPage.HISTORY, "IMAGE retention days"),
     CLEAR_RECENT_ON_EXIT(SettingsPage.HISTORY, "Clear RECENT on exit"),
 
     DUPLICATE_RECENT_POSITION(SettingsPage.DUPLICATE_BEHAVIOR, "Recent duplicates"),
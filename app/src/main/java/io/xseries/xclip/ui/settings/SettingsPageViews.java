@@ -0,0 +1,59 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.settings;
+
+import java.util.EnumMap;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Settings page views built the first time their sidebar entry is selected.
+ *
+ * Opening Settings then costs one page regardless of how many pages exist.
+ * The editable controls stay owned by the window, so the draft session reads
+ * and validates every field whether or not its page was ever shown; only the
+ * layout around them, and any data a page loads for itself, is deferred.
+ */
+public final class SettingsPageViews<V> {
+
+    private final Function<SettingsPage, V> factory;
+    private final BiConsumer<SettingsPage, V> onBuilt;
+    private final EnumMap<SettingsPage, V> views = new EnumMap<>(SettingsPage.class);
+
+    /**
+     * @param factory builds one page view
+     * @param onBuilt runs once per page right after it was built, to start
+     *                the page's own loads
+     */
+    public SettingsPageViews(Function<SettingsPage, V> factory, BiConsumer<SettingsPage, V> onBuilt) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.onBuilt = onBuilt != null ? onBuilt : (page, view) -> {};
+    }
+
+    /** The page's view, building it on first use. */
+    public V get(SettingsPage page) {
+        Objects.requireNonNull(page, "page");
+        V existing = views.get(page);
+        if (existing != null) return existing;
+
+        V view = factory.apply(page);
+        if (view == null) {
+            throw new IllegalStateException("Missing Settings page view: " + page);
+        }
+        views.put(page, view);
+        onBuilt.accept(page, view);
+        return view;
+    }
+
+    public boolean isBuilt(SettingsPage page) {
+        return views.containsKey(page);
+    }
+
+    public int builtCount() {
+        return views.size();
+    }
+}
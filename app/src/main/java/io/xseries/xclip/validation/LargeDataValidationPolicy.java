@@ -26,10 +26,15 @@ public final class LargeDataValidationPolicy {
     public static final int RAPID_SEARCH_CHURN_ITERATIONS = 120;
     public static final int POPUP_RESULT_LIMIT = 200;
     public static final int MEASUREMENT_SAMPLES = 15;
+    public static final int INGEST_SAMPLE_COUNT = 2_000;
+    public static final int IMAGE_CLIP_COUNT = 300;
+    public static final int IMAGE_WIDTH = 2_560;
+    public static final int IMAGE_HEIGHT = 1_440;
 
     public static final long MAX_HEAP_MIB = 768L;
     public static final long MAX_USED_HEAP_MIB = 700L;
     public static final long MAX_DATABASE_MIB = 512L;
+    public static final long DUPLICATE_KEYS_MAX_ALLOCATED_BYTES = 64L * 1024L;
 
     public static final long FIXTURE_1K_MAX_MILLIS = 15_000L;
     public static final long FIXTURE_10K_MAX_MILLIS = 30_000L;
@@ -41,15 +46,27 @@ public final class LargeDataValidationPolicy {
 
     public static final long POPUP_PIPELINE_P95_MAX_MILLIS = 1_000L;
     public static final long POPUP_FX_MATERIALIZATION_P95_MAX_MILLIS = 500L;
+    public static final long POPUP_FX_REFRESH_P95_MAX_MILLIS = 50L;
     public static final long POPUP_OPEN_COMPOSITE_P95_MAX_MILLIS = 1_500L;
+    public static final long HOT_TIER_FILL_MAX_MILLIS = 1_000L;
+    public static final long POPUP_HOT_OPEN_P95_MAX_MILLIS = 25L;
+    public static final long POPUP_HOTKEY_TO_LIST_P95_MAX_MILLIS = 525L;
     public static final long SEARCH_P95_MAX_MILLIS = 1_500L;
     public static final long TAG_SEARCH_P95_MAX_MILLIS = 2_000L;
     public static final long TYPE_FILTER_P95_MAX_MILLIS = 2_000L;
     public static final long DUPLICATE_LOOKUP_P95_MAX_MILLIS = 1_500L;
+    public static final long NEAR_DUPLICATE_LOOKUP_P95_MAX_MILLIS = 1L;
     public static final long ROW_BUILD_P95_MAX_MILLIS = 250L;
     public static final long LARGE_CLIP_POLICY_MAX_MILLIS = 500L;
+    public static final long SENSITIVE_SCAN_P95_MAX_MILLIS = 250L;
+    public static final long CLASSIFY_P95_MAX_MILLIS = 100L;
     public static final long RETENTION_CLEANUP_MAX_MILLIS = 20_000L;
+    public static final long RETENTION_LOCK_HOLD_MAX_MILLIS = 250L;
+    public static final long INGEST_P99_MAX_MILLIS = 100L;
     public static final long SEARCH_CHURN_TOTAL_MAX_MILLIS = 45_000L;
+    public static final long IMAGE_PREPARE_P95_MAX_MILLIS = 750L;
+    public static final long IMAGE_DUPLICATE_LOOKUP_P95_MAX_MILLIS = 25L;
+    public static final long IMAGE_THUMBNAIL_P95_MAX_MILLIS = 250L;
     public static final long FX_QUEUE_P95_MAX_MILLIS = 250L;
     public static final long FX_QUEUE_MAX_STALL_MILLIS = 1_000L;
 
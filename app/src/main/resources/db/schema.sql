@@ -6,6 +6,8 @@ CREATE TABLE IF NOT EXISTS clip_entries (
   content_exact_hash    TEXT,
   content_exact_ci_hash TEXT,
   content_norm_ci_hash  TEXT,
+  content_type          TEXT,
+  content_simhash       INTEGER,
   title                 TEXT,
   is_favorite           INTEGER NOT NULL DEFAULT 0,
   pin_order             INTEGER,
@@ -40,3 +42,32 @@ ON tags(name COLLATE NOCASE, id);
 
 CREATE INDEX IF NOT EXISTS idx_clip_tags_tag_id
 ON clip_tags(tag_id, clip_id);
+
+CREATE TABLE IF NOT EXISTS clip_images (
+  clip_id   INTEGER PRIMARY KEY,
+  phash     INTEGER NOT NULL,
+  width     INTEGER NOT NULL,
+  height    INTEGER NOT NULL,
+  encoded   BLOB    NOT NULL,
+  thumbnail BLOB,
+  FOREIGN KEY (clip_id) REFERENCES clip_entries(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_clip_images_size
+ON clip_images(width, height);
+
+CREATE INDEX IF NOT EXISTS idx_clip_images_pending_thumbnail
+ON clip_images(clip_id)
+WHERE thumbnail IS NULL;
+
+CREATE TABLE IF NOT EXISTS schema_backfills (
+  name         TEXT    PRIMARY KEY,
+  cursor_id    INTEGER NOT NULL DEFAULT 0,
+  scheduled_at INTEGER NOT NULL,
+  completed_at INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS clip_counters (
+  name  TEXT    PRIMARY KEY,
+  value INTEGER NOT NULL
+);
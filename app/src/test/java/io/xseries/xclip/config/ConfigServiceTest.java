@@ -103,6 +103,26 @@ class ConfigServiceTest {
                 policy.caseSensitivity());
         assertEquals(0, policy.duplicateWindowMillis());
         assertFalse(policy.exactContentMode());
+        assertFalse(policy.nearDuplicateMode());
+    }
+
+    @Test
+    void nearDuplicateModeRoundTrips() {
+        Path path = tempDir.resolve("config.json");
+        DuplicateBehaviorPolicy near = new DuplicateBehaviorPolicy(
+                DuplicateBehaviorPolicy.RecentDuplicatePosition.MOVE_TO_TOP,
+                DuplicateBehaviorPolicy.PinnedDuplicatePosition.PRESERVE_PIN_POSITION,
+                DuplicateBehaviorPolicy.WhitespaceMode.NORMALIZE,
+                DuplicateBehaviorPolicy.CaseSensitivity.SENSITIVE,
+                DuplicateBehaviorPolicy.UNLIMITED_WINDOW,
+                false,
+                true
+        );
+
+        new ConfigService(path).save(Config.defaults().withDuplicateBehaviorPolicy(near));
+        Config loaded = new ConfigService(path).loadOrCreate();
+
+        assertEquals(near, loaded.duplicateBehaviorPolicy());
     }
     @Test
     void migratesV2PrivacyDefaultsAndSanitizesManualEntries() throws Exception {
@@ -165,7 +165,8 @@ class ConfigTest {
                 45,
                 Map.of(
                         ClipContentType.URL, 7,
-                        ClipContentType.COMMAND, 2
+                        ClipContentType.COMMAND, 2,
+                        ClipContentType.IMAGE, 14
                 ),
                 true
         );
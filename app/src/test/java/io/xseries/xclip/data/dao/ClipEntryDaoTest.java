@@ -9,8 +9,11 @@
 package io.xseries.xclip.data.dao;
 
 import io.xseries.xclip.data.db.Database;
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.event.ClipChangeEvent;
 import io.xseries.xclip.data.model.ClipEntry;
 import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -19,7 +22,9 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -433,6 +438,292 @@ class ClipEntryDaoTest {
     }
 
 
+    @Test
+    void pruneToLimitSeeksCutoffAndTracksRecentCount() {
+        Path dbPath = tempDir.resolve("prune.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl());
+        try {
+            for (int index = 0; index < 10; index++) {
+                // Pairs share last_copied_at so the id tie-break is exercised.
+                dao.insert("t" + index, "t" + index, "hash-t" + index, 1_000L + index / 2);
+            }
+            long pinnedId = idFor(dao, "t0");
+            dao.setFavorite(pinnedId, true);
+            assertEquals(9, dao.countRecent());
+
+            assertEquals(0, dao.pruneToLimit(9));
+            assertEquals(6, dao.pruneToLimit(3));
+
+            assertEquals(3, dao.countRecent());
+            assertEquals(List.of("t9", "t8", "t7"), dao.listLatest(10, false).stream()
+                    .map(ClipEntry::content)
+                    .toList());
+            assertEquals(List.of("t0"), pinnedContents(dao));
+
+            dao.setFavorite(pinnedId, false);
+            assertEquals(4, dao.countRecent());
+            dao.deleteAllNonFavorites();
+            assertEquals(0, dao.countRecent());
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void nearDuplicateLookupFindsNewestUnpinnedRowWithinDistance() {
+        Path dbPath = tempDir.resolve("near-lookup.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl());
+        try {
+            String older = "job 41 finished in 12 seconds on worker alpha with no errors";
+            String newer = "job 97 finished in 3 seconds on worker alpha with no errors";
+            String unrelated = "please remember to water the plants before leaving for the trip";
+            insertPlain(dao, older, 1_000L);
+            insertPlain(dao, unrelated, 2_000L);
+            insertPlain(dao, newer, 3_000L);
+            long newerId = dao.listLatest(1).get(0).id();
+
+            long probe = NearDuplicateFingerprint.of(
+                    "job 5 finished in 80 seconds on worker alpha with no errors"
+            );
+            ClipEntryDao.DuplicateCandidate candidate = dao.findNearDuplicateCandidate(probe, 0L);
+            assertEquals(newerId, candidate.id());
+            assertEquals(3_000L, candidate.lastCopiedAt());
+            assertFalse(candidate.pinned());
+            assertNull(dao.findNearDuplicateCandidate(probe, 3_001L));
+
+            dao.setFavorite(newerId, true);
+            assertEquals(1_000L, dao.findNearDuplicateCandidate(probe, 0L).lastCopiedAt());
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void committedMutationsArePublishedOnTheBus() {
+        Path dbPath = tempDir.resolve("events.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipChangeBus bus = new ClipChangeBus();
+        List<ClipChangeEvent> events = new ArrayList<>();
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl(), bus);
+        try {
+            bus.addListener(event -> {
+                events.add(event);
+                // Listeners run after commit, so the change is already visible.
+                if (event instanceof ClipChangeEvent.Inserted inserted) {
+                    assertEquals(inserted.entry().id(), dao.listLatest(1).get(0).id());
+                }
+            });
+
+            long first = dao.insertNew("alpha", "alpha", DuplicateContentKeys.from("alpha"), 1_000L);
+            long second = dao.insertNew("beta", "beta", DuplicateContentKeys.from("beta"), 2_000L);
+            assertEquals(new ClipChangeEvent.Inserted(dao.listLatest(1).get(0)), events.get(1));
+
+            dao.setFavorite(first, true);
+            dao.setFavorite(first, true);
+            dao.setTitle(first, "Pinned alpha");
+            dao.deleteByIds(List.of(second, second));
+
+            assertEquals(List.of(
+                    new ClipChangeEvent.PinChanged(first, true),
+                    new ClipChangeEvent.Retitled(first, "Pinned alpha"),
+                    new ClipChangeEvent.Deleted(Set.of(second), 1)
+            ), events.subList(2, events.size()));
+
+            events.clear();
+            assertEquals(0, dao.deleteByIds(List.of(second)));
+            assertEquals(0, dao.pruneToLimit(5));
+            assertEquals(List.of(), events);
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void storageVersionSeesOwnWritesThroughTheBusAndOthersThroughDataVersion() throws Exception {
+        Path dbPath = tempDir.resolve("storage-version.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl());
+        try {
+            ClipEntryDao.StorageVersion idle = dao.storageVersion();
+            assertEquals(idle, dao.storageVersion());
+
+            insertPlain(dao, "own write", 1_000L);
+            ClipEntryDao.StorageVersion afterOwnWrite = dao.storageVersion();
+            assertEquals(idle.dataVersion(), afterOwnWrite.dataVersion());
+            assertEquals(idle.writeGeneration() + 1, afterOwnWrite.writeGeneration());
+            assertFalse(afterOwnWrite.changedSilentlySince(idle));
+
+            executeSql(db.jdbcUrl(), "UPDATE clip_entries SET title = 'outside'");
+            ClipEntryDao.StorageVersion afterOutsideWrite = dao.storageVersion();
+            assertTrue(afterOutsideWrite.dataVersion() != afterOwnWrite.dataVersion());
+            assertTrue(afterOutsideWrite.changedSilentlySince(afterOwnWrite));
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void keysetPagesWalkThePopupOrderAndBackWithoutGaps() {
+        Path dbPath = tempDir.resolve("keyset-pages.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl());
+        try {
+            for (int i = 0; i < 12; i++) {
+                // Pairs share a timestamp, so the id tiebreak is exercised too.
+                insertPlain(dao, "clip-" + i, 1_000L + (i / 2) * 10L);
+            }
+            dao.setFavorite(idFor(dao, "clip-3"), true);
+            dao.setFavorite(idFor(dao, "clip-8"), true);
+
+            List<ClipEntry> expected = dao.queryLatest("", 100, null, null, List.of(), List.of());
+            List<ClipEntry> walked = new ArrayList<>(
+                    dao.queryLatestAfter("", 1, null, null, List.of(), List.of(), null)
+            );
+            while (true) {
+                ClipEntryDao.PageCursor cursor = ClipEntryDao.PageCursor.after(walked.get(walked.size() - 1));
+                List<ClipEntry> page = dao.queryLatestAfter("", 3, null, null, List.of(), List.of(), cursor);
+                walked.addAll(page);
+                if (page.size() < 3) break;
+            }
+            assertEquals(ids(expected), ids(walked));
+
+            ClipEntry deep = expected.get(8);
+            List<ClipEntry> before = dao.queryRecentBefore(
+                    "",
+                    3,
+                    null,
+                    null,
+                    List.of(),
+                    List.of(),
+                    ClipEntryDao.PageCursor.after(deep)
+            );
+            assertEquals(ids(expected.subList(5, 8)), ids(before));
+            assertThrows(IllegalArgumentException.class, () -> dao.queryRecentBefore(
+                    "",
+                    3,
+                    null,
+                    null,
+                    List.of(),
+                    List.of(),
+                    ClipEntryDao.PageCursor.after(expected.get(0))
+            ));
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void contentSlicesCountCodePointsLikeTheStoredLength() {
+        Path dbPath = tempDir.resolve("content-slices.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl());
+        try {
+            insertPlain(dao, "ab😀cd\nline two", 1_000L);
+            long id = idFor(dao, "ab😀cd\nline two");
+
+            assertEquals(14, dao.contentLength(id));
+            assertEquals("😀cd", dao.contentSlice(id, 2, 3));
+            assertEquals("two", dao.contentSlice(id, 11, 50));
+            assertEquals("", dao.contentSlice(id, 40, 5));
+            assertEquals(-1, dao.contentLength(id + 100));
+            assertNull(dao.contentSlice(id + 100, 0, 5));
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
+    private static List<Long> ids(List<ClipEntry> entries) {
+        return entries.stream().map(ClipEntry::id).toList();
+    }
+
+    private static void insertPlain(ClipEntryDao dao, String content, long createdAt) {
+        dao.insertNew(content, content, DuplicateContentKeys.from(content), createdAt);
+    }
+
+    @Test
+    void duplicateLookupReturnsNewestLightCandidateAndVerifiesItOnce() {
+        Path dbPath = tempDir.resolve("duplicate-lookup.db");
+        Database db = new Database(dbPath);
+        db.init();
+
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl());
+        try {
+            DuplicateContentKeys keys = DuplicateContentKeys.from("Alpha  Value");
+            dao.insertNew("Alpha  Value", "Alpha Value", keys, 1_000L);
+            dao.insertNew("Alpha  Value", "Alpha Value", keys, 3_000L);
+            dao.insertNew("Alpha  Value", "Alpha Value", keys, 2_000L);
+            long newestId = dao.listLatest(1).get(0).id();
+
+            ClipEntryDao.DuplicateCandidate candidate = dao.findDuplicateCandidate(
+                    DuplicateContentKeys.KeyKind.EXACT,
+                    keys.exactHash(),
+                    0L
+            );
+            assertEquals(newestId, candidate.id());
+            assertEquals(3_000L, candidate.lastCopiedAt());
+            assertFalse(candidate.pinned());
+            assertNull(dao.findDuplicateCandidate(
+                    DuplicateContentKeys.KeyKind.EXACT,
+                    keys.exactHash(),
+                    3_001L
+            ));
+
+            assertTrue(dao.matchesDuplicateKey(
+                    newestId,
+                    DuplicateContentKeys.KeyKind.EXACT,
+                    "Alpha  Value",
+                    "Alpha  Value"
+            ));
+            assertFalse(dao.matchesDuplicateKey(
+                    newestId,
+                    DuplicateContentKeys.KeyKind.EXACT,
+                    "Alpha Value",
+                    "Alpha Value"
+            ));
+            assertTrue(dao.matchesDuplicateKey(
+                    newestId,
+                    DuplicateContentKeys.KeyKind.NORMALIZED,
+                    "Alpha Value",
+                    "Alpha Value"
+            ));
+            assertTrue(dao.matchesDuplicateKey(
+                    newestId,
+                    DuplicateContentKeys.KeyKind.NORMALIZED_CASE_INSENSITIVE,
+                    "ALPHA VALUE",
+                    "alpha value"
+            ));
+            assertFalse(dao.matchesDuplicateKey(
+                    newestId,
+                    DuplicateContentKeys.KeyKind.EXACT_CASE_INSENSITIVE,
+                    "alpha value",
+                    "alpha value"
+            ));
+        } finally {
+            dao.close();
+            db.close();
+        }
+    }
+
     @Test
     void multiBatchDeleteRollsBackCompletelyAndConnectionRemainsReusable() throws Exception {
         Path dbPath = tempDir.resolve("delete-batch-rollback.db");
@@ -0,0 +1,172 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.dao;
+
+import io.xseries.xclip.data.db.Database;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipImage;
+import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
+import io.xseries.xclip.domain.duplicate.DuplicatePolicyEngine;
+import io.xseries.xclip.domain.image.ClipImageCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClipImageDaoTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void storesImageClipsAsListableRowsWithOutOfRowPixels() {
+        TestContext ctx = createContext("insert.db");
+        try {
+            ClipImage image = image("image:aa", 0x0F0FL, 640, 480);
+            long id = ctx.images.insert(image, 1_000L);
+
+            ClipEntry entry = ctx.clips.listLatest(10).get(0);
+            assertEquals(id, entry.id());
+            assertTrue(entry.image());
+            assertEquals(ClipImageCodec.caption(640, 480), entry.content());
+
+            ClipImage loaded = ctx.images.load(id);
+            assertNotNull(loaded);
+            assertEquals("image:aa", loaded.contentHash());
+            assertEquals(0x0F0FL, loaded.phash());
+            assertEquals(640, loaded.width());
+            assertEquals(480, loaded.height());
+            assertArrayEquals(image.encoded(), loaded.encoded());
+        } finally {
+            ctx.close();
+        }
+    }
+
+    @Test
+    void findsOnlySameSizeImagesWithinTheHammingBound() {
+        TestContext ctx = createContext("duplicates.db");
+        try {
+            long near = ctx.images.insert(image("image:a", 0b1111L, 100, 50), 1_000L);
+            ctx.images.insert(image("image:b", 0b1111L, 100, 51), 2_000L);
+            ctx.images.insert(image("image:c", 0xFFFF_0000L, 100, 50), 3_000L);
+
+            ClipEntryDao.DuplicateCandidate candidate =
+                    ctx.images.findDuplicateCandidate(0b0111L, 100, 50, 0L);
+            assertNotNull(candidate);
+            assertEquals(near, candidate.id());
+            assertFalse(candidate.pinned());
+
+            assertNull(ctx.images.findDuplicateCandidate(0b0111L, 100, 50, 1_001L));
+            assertNull(ctx.images.findDuplicateCandidate(0xFFFFL << 40, 100, 50, 0L));
+        } finally {
+            ctx.close();
+        }
+    }
+
+    @Test
+    void duplicateCaptureRecordsTheCopyWithoutReplacingPixels() throws Exception {
+        TestContext ctx = createContext("apply.db");
+        try {
+            ClipImage original = image("image:first", 7L, 10, 10);
+            long id = ctx.images.insert(original, 1_000L);
+
+            DuplicatePolicyEngine.Decision decision = DuplicatePolicyEngine.evaluateMatched(
+                    DuplicateBehaviorPolicy.defaults(),
+                    false,
+                    1_000L,
+                    2_000L
+            );
+            assertTrue(decision.duplicate());
+            assertTrue(ctx.images.applyDuplicate(id, 2_000L, decision));
+
+            try (Connection c = DriverManager.getConnection(ctx.db.jdbcUrl());
+                 Statement st = c.createStatement();
+                 ResultSet rs = st.executeQuery(
+                         "SELECT last_copied_at, use_count FROM clip_entries WHERE id = " + id)) {
+                assertTrue(rs.next());
+                assertEquals(2_000L, rs.getLong("last_copied_at"));
+                assertEquals(2, rs.getInt("use_count"));
+            }
+            assertArrayEquals(original.encoded(), ctx.images.load(id).encoded());
+        } finally {
+            ctx.close();
+        }
+    }
+
+    @Test
+    void thumbnailsAreStoredOnceAndPendingRowsPageById() {
+        TestContext ctx = createContext("thumbnails.db");
+        try {
+            long first = ctx.images.insert(image("image:1", 1L, 10, 10), 1_000L);
+            long second = ctx.images.insert(image("image:2", 2L, 10, 10), 2_000L);
+
+            assertEquals(List.of(first, second), ctx.images.listPendingThumbnails(0L, 10));
+            assertNull(ctx.images.loadThumbnail(first));
+
+            assertTrue(ctx.images.storeThumbnail(first, new byte[] {1}));
+            assertFalse(ctx.images.storeThumbnail(first, new byte[] {2}));
+            assertArrayEquals(new byte[] {1}, ctx.images.loadThumbnail(first));
+
+            assertEquals(List.of(second), ctx.images.listPendingThumbnails(0L, 10));
+            assertTrue(ctx.images.listPendingThumbnails(second, 10).isEmpty());
+        } finally {
+            ctx.close();
+        }
+    }
+
+    @Test
+    void deletingTheClipCascadesToItsImage() throws Exception {
+        TestContext ctx = createContext("cascade.db");
+        try {
+            long id = ctx.images.insert(image("image:gone", 3L, 10, 10), 1_000L);
+            ctx.clips.deleteById(id);
+
+            assertNull(ctx.images.load(id));
+            try (Connection c = DriverManager.getConnection(ctx.db.jdbcUrl());
+                 Statement st = c.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM clip_images")) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1));
+            }
+        } finally {
+            ctx.close();
+        }
+    }
+
+    private static ClipImage image(String hash, long phash, int width, int height) {
+        return new ClipImage(hash, phash, width, height, new byte[] {(byte) width, (byte) height});
+    }
+
+    private TestContext createContext(String fileName) {
+        Database db = new Database(tempDir.resolve(fileName));
+        db.init();
+        return new TestContext(
+                db,
+                new ClipEntryDao(db.jdbcUrl()),
+                new ClipImageDao(db.jdbcUrl())
+        );
+    }
+
+    private record TestContext(Database db, ClipEntryDao clips, ClipImageDao images) {
+        void close() {
+            images.close();
+            clips.close();
+            db.close();
+        }
+    }
+}
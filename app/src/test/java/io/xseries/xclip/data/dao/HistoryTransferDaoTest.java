@@ -0,0 +1,210 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.dao;
+
+import io.xseries.xclip.data.db.Database;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryTransferDaoTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void exportsOneJsonObjectPerLineAcrossKeysetPages() {
+        Database db = new Database(tempDir.resolve("export.db"));
+        db.init();
+
+        ClipEntryDao clips = new ClipEntryDao(db.jdbcUrl());
+        TagDao tags = new TagDao(db.jdbcUrl());
+        HistoryTransferDao transfer = new HistoryTransferDao(db.jdbcUrl());
+        try {
+            int total = HistoryTransferDao.EXPORT_PAGE_SIZE * 2 + 3;
+            for (int index = 0; index < total; index++) {
+                clips.insert("clip " + index + "\nline", "clip " + index + " line",
+                        "hash-" + index, 1_000L + index);
+            }
+            long firstId = clips.listLatest(total).get(total - 1).id();
+            tags.addTagToClip(firstId, tags.createOrGet("Work").id());
+            tags.addTagToClip(firstId, tags.createOrGet("alpha").id());
+
+            StringWriter out = new StringWriter();
+            HistoryTransferDao.ExportResult result = transfer.exportTo(out);
+
+            String[] lines = out.toString().split("\n");
+            assertEquals(total, result.rows());
+            assertEquals(total, lines.length);
+            assertTrue(lines[0].startsWith("{\"content\":\"clip 0\\nline\""));
+            assertTrue(lines[0].endsWith("\"tags\":[\"alpha\",\"Work\"]}"));
+            assertTrue(lines[total - 1].contains("\"tags\":[]"));
+            assertTrue(result.rowsPerSecond() > 0.0);
+        } finally {
+            transfer.close();
+            tags.close();
+            clips.close();
+            db.close();
+        }
+    }
+
+    @Test
+    void roundTripsHistoryThroughNdjsonFile() throws Exception {
+        Database source = new Database(tempDir.resolve("source.db"));
+        source.init();
+        Database target = new Database(tempDir.resolve("target.db"));
+        target.init();
+
+        ClipEntryDao sourceClips = new ClipEntryDao(source.jdbcUrl());
+        TagDao sourceTags = new TagDao(source.jdbcUrl());
+        HistoryTransferDao sourceTransfer = new HistoryTransferDao(source.jdbcUrl());
+        ClipEntryDao targetClips = new ClipEntryDao(target.jdbcUrl());
+        TagDao targetTags = new TagDao(target.jdbcUrl());
+        HistoryTransferDao targetTransfer = new HistoryTransferDao(target.jdbcUrl());
+        try {
+            sourceClips.insert("plain", "plain", "hash-plain", 1_000L);
+            sourceClips.insert("pinned  text", "pinned text", "hash-pinned", 2_000L);
+            long pinnedId = idFor(sourceClips, "pinned  text");
+            sourceClips.setFavorite(pinnedId, true);
+            sourceClips.setTitle(pinnedId, "Pinned title");
+            sourceTags.addTagToClip(pinnedId, sourceTags.createOrGet("Docs").id());
+
+            Path file = tempDir.resolve("history" + HistoryTransferDao.FILE_EXTENSION);
+            assertEquals(2, sourceTransfer.exportTo(file).rows());
+            assertEquals(2, Files.readAllLines(file).size());
+
+            HistoryTransferDao.ImportResult imported = targetTransfer.importFrom(file);
+
+            assertEquals(2, imported.lines());
+            assertEquals(2, imported.insertedRows());
+            assertEquals(0, imported.rejectedLines());
+
+            List<ClipEntry> rows = targetClips.listLatest(10);
+            assertEquals(2, rows.size());
+            ClipEntry pinned = rows.get(0);
+            assertEquals("pinned  text", pinned.content());
+            assertEquals("Pinned title", pinned.title());
+            assertTrue(pinned.favorite());
+            assertEquals(0, pinned.pinOrder().intValue());
+            assertEquals(List.of("Docs"), targetTags.listForClip(pinned.id()).stream()
+                    .map(ClipTag::name)
+                    .toList());
+
+            DuplicateContentKeys keys = DuplicateContentKeys.from("pinned  text");
+            assertEquals(Map.of(
+                    "content_norm", "pinned text",
+                    "content_hash", keys.normalizedHash(),
+                    "content_exact_hash", keys.exactHash(),
+                    "content_exact_ci_hash", keys.exactCaseInsensitiveHash(),
+                    "content_norm_ci_hash", keys.normalizedCaseInsensitiveHash()
+            ), persistedKeys(target.jdbcUrl(), pinned.id()));
+        } finally {
+            targetTransfer.close();
+            targetTags.close();
+            targetClips.close();
+            sourceTransfer.close();
+            sourceTags.close();
+            sourceClips.close();
+            target.close();
+            source.close();
+        }
+    }
+
+    @Test
+    void importMergesExactDuplicatesAndCountsRejectedLines() {
+        Database db = new Database(tempDir.resolve("merge.db"));
+        db.init();
+
+        ClipEntryDao clips = new ClipEntryDao(db.jdbcUrl());
+        TagDao tags = new TagDao(db.jdbcUrl());
+        HistoryTransferDao transfer = new HistoryTransferDao(db.jdbcUrl());
+        try {
+            clips.insert("existing", "existing", "hash-existing", 1_000L);
+            long existingId = idFor(clips, "existing");
+
+            String ndjson = """
+                    {"content":"existing","lastCopiedAt":5000,"useCount":2,"tags":["  New   Tag "]}
+
+                    not json
+                    {"content":"   "}
+                    ["content"]
+                    {"content":"fresh","createdAt":3000,"favorite":true}
+                    """;
+
+            HistoryTransferDao.ImportResult result =
+                    transfer.importFrom(new StringReader(ndjson));
+
+            assertEquals(5, result.lines());
+            assertEquals(1, result.insertedRows());
+            assertEquals(1, result.mergedRows());
+            assertEquals(3, result.rejectedLines());
+            assertEquals(2, result.importedRows());
+
+            List<ClipEntry> rows = clips.listLatest(10);
+            assertEquals(2, rows.size());
+            assertEquals("fresh", rows.get(0).content());
+            assertTrue(rows.get(0).favorite());
+            assertEquals("existing", rows.get(1).content());
+            assertEquals(5_000L, rows.get(1).createdAt());
+            assertFalse(rows.get(1).favorite());
+            assertEquals(List.of("New Tag"), tags.listForClip(existingId).stream()
+                    .map(ClipTag::name)
+                    .toList());
+        } finally {
+            transfer.close();
+            tags.close();
+            clips.close();
+            db.close();
+        }
+    }
+
+    private static long idFor(ClipEntryDao dao, String content) {
+        return dao.listLatest(100).stream()
+                .filter(entry -> entry.content().equals(content))
+                .findFirst()
+                .orElseThrow()
+                .id();
+    }
+
+    private static Map<String, String> persistedKeys(String jdbcUrl, long id) throws Exception {
+        try (Connection c = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement ps = c.prepareStatement("""
+                     SELECT content_norm, content_hash, content_exact_hash,
+                            content_exact_ci_hash, content_norm_ci_hash
+                     FROM clip_entries
+                     WHERE id = ?
+                     """)) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return Map.of(
+                        "content_norm", rs.getString("content_norm"),
+                        "content_hash", rs.getString("content_hash"),
+                        "content_exact_hash", rs.getString("content_exact_hash"),
+                        "content_exact_ci_hash", rs.getString("content_exact_ci_hash"),
+                        "content_norm_ci_hash", rs.getString("content_norm_ci_hash")
+                );
+            }
+        }
+    }
+}
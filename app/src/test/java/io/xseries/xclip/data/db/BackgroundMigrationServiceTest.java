@@ -0,0 +1,372 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.db;
+
+import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
+import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
+import io.xseries.xclip.domain.service.ClipContentClassifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundMigrationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void upgradeDefersHashBackfillAndDuplicateLookupFallsBackToNormalizedContent()
+            throws Exception {
+        Path dbPath = tempDir.resolve("deferred.db");
+        String jdbcUrl = createLegacyV5Database(dbPath, 3);
+
+        Database database = new Database(dbPath);
+        database.init();
+
+        ClipEntryDao dao = new ClipEntryDao(jdbcUrl);
+        try (BackgroundMigrationService migrations = new BackgroundMigrationService(jdbcUrl)) {
+            assertTrue(migrations.isPending(BackgroundMigrationService.DUPLICATE_HASHES));
+            assertEquals(3, pendingRows(jdbcUrl));
+
+            DuplicateContentKeys.Prepared prepared = DuplicateContentKeys.prepare(
+                    "legacy  value 2",
+                    DuplicateBehaviorPolicy.defaults()
+            );
+            DuplicateContentKeys.Prepared otherCase = DuplicateContentKeys.prepare(
+                    "Legacy  value 2",
+                    DuplicateBehaviorPolicy.defaults()
+            );
+            // The default policy is case-sensitive, so the fallback must not
+            // offer a case variant as the single candidate.
+            assertNull(dao.findDuplicateCandidate(
+                    otherCase.selectedKind(),
+                    otherCase.selectedHash(),
+                    otherCase.normalizedContent(),
+                    0L
+            ));
+            ClipEntryDao.DuplicateCandidate candidate = dao.findDuplicateCandidate(
+                    prepared.selectedKind(),
+                    prepared.selectedHash(),
+                    prepared.normalizedContent(),
+                    0L
+            );
+            assertNotNull(candidate);
+            assertTrue(dao.matchesDuplicateKey(
+                    candidate.id(),
+                    prepared.selectedKind(),
+                    prepared.normalizedContent(),
+                    prepared.canonicalKey()
+            ));
+            assertNull(dao.findDuplicateCandidate(
+                    prepared.selectedKind(),
+                    prepared.selectedHash(),
+                    0L
+            ));
+
+            assertTrue(migrations.runPending());
+            assertFalse(migrations.isPending(BackgroundMigrationService.DUPLICATE_HASHES));
+            assertEquals(0, pendingRows(jdbcUrl));
+            assertEquals(DuplicateContentKeys.from("legacy value 2").exactHash(),
+                    exactHash(jdbcUrl, "legacy value 2"));
+        } finally {
+            dao.close();
+            database.close();
+        }
+    }
+
+    @Test
+    void failedChunkKeepsCommittedCursorAndNextRunResumes() throws Exception {
+        Path dbPath = tempDir.resolve("resume.db");
+        int rows = BackgroundMigrationService.CHUNK_ROWS + 40;
+        String jdbcUrl = createLegacyV5Database(dbPath, rows);
+        new Database(dbPath).init();
+
+        AtomicInteger prepares = new AtomicInteger();
+        BackgroundMigrationService.DuplicateHashBackfill delegate =
+                new BackgroundMigrationService.DuplicateHashBackfill();
+        BackgroundMigrationService.ChunkedBackfill failingSecondChunk =
+                new BackgroundMigrationService.ChunkedBackfill() {
+                    @Override
+                    public String name() {
+                        return delegate.name();
+                    }
+
+                    @Override
+                    public PreparedChunk prepare(
+                            Connection connection,
+                            long afterId,
+                            ForkJoinPool computePool
+                    ) throws Exception {
+                        if (prepares.incrementAndGet() == 2) {
+                            throw new IllegalStateException("injected crash");
+                        }
+                        return delegate.prepare(connection, afterId, computePool);
+                    }
+                };
+
+        try (BackgroundMigrationService crashing = new BackgroundMigrationService(
+                jdbcUrl,
+                List.of(failingSecondChunk),
+                new ForkJoinPool(2),
+                0L
+        )) {
+            assertThrows(RuntimeException.class, crashing::runPending);
+        }
+
+        assertEquals(BackgroundMigrationService.CHUNK_ROWS, cursor(jdbcUrl));
+        assertEquals(40, pendingRows(jdbcUrl));
+
+        try (BackgroundMigrationService resumed = new BackgroundMigrationService(jdbcUrl)) {
+            assertTrue(resumed.runPending());
+        }
+        assertEquals(0, pendingRows(jdbcUrl));
+    }
+
+    @Test
+    void maintenancePauseHoldsTheWorkerUntilResumed() throws Exception {
+        Path dbPath = tempDir.resolve("paused.db");
+        String jdbcUrl = createLegacyV5Database(dbPath, 40);
+        new Database(dbPath).init();
+
+        AtomicInteger prepares = new AtomicInteger();
+        BackgroundMigrationService.DuplicateHashBackfill delegate =
+                new BackgroundMigrationService.DuplicateHashBackfill();
+        BackgroundMigrationService.ChunkedBackfill counting =
+                new BackgroundMigrationService.ChunkedBackfill() {
+                    @Override
+                    public String name() {
+                        return delegate.name();
+                    }
+
+                    @Override
+                    public PreparedChunk prepare(
+                            Connection connection,
+                            long afterId,
+                            ForkJoinPool computePool
+                    ) throws Exception {
+                        prepares.incrementAndGet();
+                        return delegate.prepare(connection, afterId, computePool);
+                    }
+                };
+
+        try (BackgroundMigrationService migrations = new BackgroundMigrationService(
+                jdbcUrl,
+                List.of(counting),
+                new ForkJoinPool(2),
+                0L
+        )) {
+            migrations.pauseForMaintenance();
+            migrations.start();
+            Thread.sleep(200L);
+
+            assertEquals(0, prepares.get());
+            assertEquals(40, pendingRows(jdbcUrl));
+
+            migrations.resumeAfterMaintenance();
+            long deadline = System.currentTimeMillis() + 5_000L;
+            while (pendingRows(jdbcUrl) > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20L);
+            }
+            assertEquals(0, pendingRows(jdbcUrl));
+            assertTrue(prepares.get() > 0);
+        }
+    }
+
+    @Test
+    void upgradeBackfillsStoredContentTypes() throws Exception {
+        Path dbPath = tempDir.resolve("types.db");
+        String jdbcUrl = createLegacyV5Database(dbPath, 5);
+        new Database(dbPath).init();
+
+        try (BackgroundMigrationService migrations = new BackgroundMigrationService(jdbcUrl)) {
+            assertTrue(migrations.isPending(BackgroundMigrationService.CONTENT_TYPES));
+            assertEquals(5, untypedRows(jdbcUrl));
+
+            assertTrue(migrations.runPending());
+            assertFalse(migrations.isPending(BackgroundMigrationService.CONTENT_TYPES));
+        }
+        assertEquals(0, untypedRows(jdbcUrl));
+        assertEquals(ClipContentClassifier.classify("legacy value 4").name(),
+                contentType(jdbcUrl, "legacy value 4"));
+    }
+
+    @Test
+    void upgradeBackfillsNearDuplicateFingerprints() throws Exception {
+        Path dbPath = tempDir.resolve("simhash.db");
+        String jdbcUrl = createLegacyV5Database(dbPath, 3);
+        String logLine = "2026-08-02 10:15:42 WARN worker 7 retried upload after timeout";
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement insert = connection.prepareStatement("""
+                     INSERT INTO clip_entries(
+                         content, content_norm, content_hash, created_at, last_copied_at
+                     ) VALUES (?, ?, ?, 9000, 9000)
+                     """)) {
+            insert.setString(1, logLine);
+            insert.setString(2, logLine);
+            insert.setString(3, "legacy-hash-log");
+            insert.executeUpdate();
+        }
+        new Database(dbPath).init();
+
+        try (BackgroundMigrationService migrations = new BackgroundMigrationService(jdbcUrl)) {
+            assertTrue(migrations.isPending(BackgroundMigrationService.NEAR_DUPLICATE_FINGERPRINTS));
+
+            assertTrue(migrations.runPending());
+            assertFalse(migrations.isPending(BackgroundMigrationService.NEAR_DUPLICATE_FINGERPRINTS));
+        }
+        assertEquals(NearDuplicateFingerprint.of(logLine), simhash(jdbcUrl, logLine));
+        assertNull(simhash(jdbcUrl, "legacy value 2"));
+    }
+
+    @Test
+    void currentDatabaseSchedulesNothing() {
+        Path dbPath = tempDir.resolve("fresh.db");
+        Database database = new Database(dbPath);
+        database.init();
+
+        try (BackgroundMigrationService migrations =
+                     new BackgroundMigrationService(database.jdbcUrl())) {
+            assertTrue(migrations.pendingBackfills().isEmpty());
+            assertTrue(migrations.runPending());
+        } finally {
+            database.close();
+        }
+    }
+
+    private static String createLegacyV5Database(Path dbPath, int rows) throws Exception {
+        String jdbcUrl = "jdbc:sqlite:" + dbPath.toAbsolutePath();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE clip_entries (
+                      id             INTEGER PRIMARY KEY AUTOINCREMENT,
+                      content        TEXT    NOT NULL,
+                      content_norm   TEXT    NOT NULL,
+                      content_hash   TEXT    NOT NULL,
+                      title          TEXT,
+                      is_favorite    INTEGER NOT NULL DEFAULT 0,
+                      pin_order      INTEGER,
+                      created_at     INTEGER NOT NULL,
+                      last_copied_at INTEGER NOT NULL DEFAULT 0,
+                      use_count      INTEGER NOT NULL DEFAULT 1
+                    )
+                    """);
+            try (PreparedStatement insert = connection.prepareStatement("""
+                    INSERT INTO clip_entries(
+                        content, content_norm, content_hash, created_at, last_copied_at
+                    ) VALUES (?, ?, ?, ?, ?)
+                    """)) {
+                for (int index = 0; index < rows; index++) {
+                    insert.setString(1, "legacy value " + index);
+                    insert.setString(2, "legacy value " + index);
+                    insert.setString(3, "legacy-hash-" + index);
+                    insert.setLong(4, 1_000L + index);
+                    insert.setLong(5, 1_000L + index);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            statement.execute("PRAGMA user_version = 5");
+        }
+        return jdbcUrl;
+    }
+
+    private static int pendingRows(String jdbcUrl) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("""
+                     SELECT COUNT(*)
+                     FROM clip_entries
+                     WHERE content_norm_ci_hash IS NULL
+                     """)) {
+            assertTrue(result.next());
+            return result.getInt(1);
+        }
+    }
+
+    private static int untypedRows(String jdbcUrl) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("""
+                     SELECT COUNT(*)
+                     FROM clip_entries
+                     WHERE content_type IS NULL
+                     """)) {
+            assertTrue(result.next());
+            return result.getInt(1);
+        }
+    }
+
+    private static String contentType(String jdbcUrl, String content) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT content_type FROM clip_entries WHERE content = ?")) {
+            statement.setString(1, content);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getString(1);
+            }
+        }
+    }
+
+    private static Long simhash(String jdbcUrl, String content) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT content_simhash FROM clip_entries WHERE content = ?")) {
+            statement.setString(1, content);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                long value = result.getLong(1);
+                return result.wasNull() ? null : value;
+            }
+        }
+    }
+
+    private static long cursor(String jdbcUrl) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement statement = connection.prepareStatement("""
+                     SELECT cursor_id
+                     FROM schema_backfills
+                     WHERE name = ?
+                     """)) {
+            statement.setString(1, BackgroundMigrationService.DUPLICATE_HASHES);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private static String exactHash(String jdbcUrl, String content) throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT content_exact_hash FROM clip_entries WHERE content = ?")) {
+            statement.setString(1, content);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                return result.getString(1);
+            }
+        }
+    }
+}
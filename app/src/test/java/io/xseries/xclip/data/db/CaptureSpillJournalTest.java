@@ -0,0 +1,205 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.db;
+
+import io.xseries.xclip.data.db.CaptureSpillJournal.ApplyResult;
+import io.xseries.xclip.data.db.CaptureSpillJournal.SpilledCapture;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CaptureSpillJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsRoundTripInAppendOrderAndDrainDeletesTheFile() {
+        CaptureSpillJournal journal = new CaptureSpillJournal(
+                tempDir.resolve("data").resolve("capture-spill.journal")
+        );
+        assertTrue(journal.isEmpty());
+
+        List<SpilledCapture> captures = List.of(
+                new SpilledCapture("alpha", false, 1_000),
+                new SpilledCapture("  prefix \uD83D", true, 2_000),
+                new SpilledCapture("код\r\n\u0000tail", false, 3_000)
+        );
+        captures.forEach(journal::append);
+        assertFalse(journal.isEmpty());
+
+        List<SpilledCapture> replayed = new ArrayList<>();
+        int applied = journal.drain(replayed::add);
+
+        assertEquals(3, applied);
+        assertEquals(captures, replayed);
+        assertTrue(journal.isEmpty());
+        assertFalse(Files.exists(journal.file()));
+    }
+
+    @Test
+    void rejectedRecordAndEverythingAfterItStayForTheNextDrain() {
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("spill"));
+        for (int index = 0; index < 4; index++) {
+            journal.append(new SpilledCapture("value-" + index, false, index));
+        }
+
+        List<String> first = new ArrayList<>();
+        int applied = journal.drain(capture -> {
+            if (capture.content().equals("value-2")) return false;
+            first.add(capture.content());
+            return true;
+        });
+
+        assertEquals(2, applied);
+        assertEquals(List.of("value-0", "value-1"), first);
+
+        journal.append(new SpilledCapture("value-4", false, 4));
+        List<String> second = new ArrayList<>();
+        journal.drain(capture -> second.add(capture.content()));
+        assertEquals(List.of("value-2", "value-3", "value-4"), second);
+    }
+
+    @Test
+    void failingApplyKeepsTheRecordAndPropagates() {
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("spill"));
+        journal.append(new SpilledCapture("alpha", false, 1));
+        journal.append(new SpilledCapture("beta", false, 2));
+        IllegalStateException busy = new IllegalStateException("database is locked");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () ->
+                journal.drain(capture -> {
+                    if (capture.content().equals("beta")) throw busy;
+                    return true;
+                })
+        );
+
+        assertSame(busy, thrown);
+        List<String> remaining = new ArrayList<>();
+        journal.drain(capture -> remaining.add(capture.content()));
+        assertEquals(List.of("beta"), remaining);
+    }
+
+    @Test
+    void permanentlyFailingRecordIsQuarantinedAndLaterRecordsGetThrough() {
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("spill"));
+        journal.append(new SpilledCapture("poison", false, 1));
+        journal.append(new SpilledCapture("good-1", false, 2));
+        journal.append(new SpilledCapture("good-2", false, 3));
+
+        List<String> stored = new ArrayList<>();
+        for (int run = 1; run < CaptureSpillJournal.MAX_FAILED_ATTEMPTS; run++) {
+            assertEquals(0, journal.replay(capture -> apply(capture, stored)));
+            assertTrue(stored.isEmpty());
+            assertFalse(Files.exists(journal.quarantineFile()));
+        }
+
+        assertEquals(2, journal.replay(capture -> apply(capture, stored)));
+
+        assertEquals(List.of("good-1", "good-2"), stored);
+        assertTrue(journal.isEmpty());
+        CaptureSpillJournal quarantined = new CaptureSpillJournal(journal.quarantineFile());
+        List<String> poison = new ArrayList<>();
+        quarantined.drain(capture -> poison.add(capture.content()));
+        assertEquals(List.of("poison"), poison);
+    }
+
+    @Test
+    void busyStorageNeverQuarantinesAndClearRemovesTheQuarantine() {
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("spill"));
+        journal.append(new SpilledCapture("waiting", false, 1));
+
+        for (int run = 0; run < CaptureSpillJournal.MAX_FAILED_ATTEMPTS * 2; run++) {
+            journal.replay(capture -> ApplyResult.RETRY_LATER);
+        }
+        assertFalse(journal.isEmpty());
+        assertFalse(Files.exists(journal.quarantineFile()));
+
+        for (int run = 0; run < CaptureSpillJournal.MAX_FAILED_ATTEMPTS; run++) {
+            journal.replay(capture -> ApplyResult.FAILED);
+        }
+        assertTrue(journal.isEmpty());
+        assertTrue(Files.exists(journal.quarantineFile()));
+
+        journal.clear();
+        assertFalse(Files.exists(journal.quarantineFile()));
+    }
+
+    @Test
+    void tornTailIsIgnoredAndTruncatedBeforeTheNextAppend() throws Exception {
+        Path file = tempDir.resolve("spill");
+        CaptureSpillJournal journal = new CaptureSpillJournal(file);
+        journal.append(new SpilledCapture("kept", false, 1));
+        long intact = Files.size(file);
+
+        // A crash in the middle of the second append.
+        byte[] torn = CaptureSpillJournal.encode(
+                new SpilledCapture("torn write", false, 2)
+        ).array();
+        Files.write(file, Arrays.copyOf(torn, torn.length - 3), StandardOpenOption.APPEND);
+
+        CaptureSpillJournal reopened = new CaptureSpillJournal(file);
+        reopened.append(new SpilledCapture("after restart", false, 3));
+        assertEquals(intact + CaptureSpillJournal.HEADER_BYTES + 10 + 2 * 13, Files.size(file));
+
+        List<String> replayed = new ArrayList<>();
+        reopened.drain(capture -> replayed.add(capture.content()));
+        assertEquals(List.of("kept", "after restart"), replayed);
+    }
+
+    @Test
+    void checksumMismatchStopsReadingAtTheDamagedRecord() throws Exception {
+        Path file = tempDir.resolve("spill");
+        CaptureSpillJournal journal = new CaptureSpillJournal(file);
+        journal.append(new SpilledCapture("first", false, 1));
+        long second = Files.size(file);
+        journal.append(new SpilledCapture("second", false, 2));
+        journal.append(new SpilledCapture("third", false, 3));
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            long flipped = second + CaptureSpillJournal.HEADER_BYTES + 12;
+            raw.seek(flipped);
+            int value = raw.read();
+            raw.seek(flipped);
+            raw.write(value ^ 0x01);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        assertEquals(1, journal.drain(capture -> replayed.add(capture.content())));
+        assertEquals(List.of("first"), replayed);
+        assertTrue(journal.isEmpty());
+    }
+
+    @Test
+    void clearRemovesPendingRecords() {
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("spill"));
+        journal.append(new SpilledCapture("secret", false, 1));
+
+        journal.clear();
+
+        assertTrue(journal.isEmpty());
+        assertEquals(0, journal.drain(capture -> true));
+    }
+
+    private static ApplyResult apply(SpilledCapture capture, List<String> stored) {
+        if (capture.content().equals("poison")) return ApplyResult.FAILED;
+        stored.add(capture.content());
+        return ApplyResult.APPLIED;
+    }
+}
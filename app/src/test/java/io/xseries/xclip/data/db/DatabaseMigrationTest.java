@@ -6,6 +6,7 @@
 package io.xseries.xclip.data.db;
 
 import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -61,6 +62,9 @@ class DatabaseMigrationTest {
         insertLegacy(jdbcUrl, "recent", "hash-recent", false, 5_000L);
 
         new Database(dbPath).init();
+        try (BackgroundMigrationService migrations = new BackgroundMigrationService(jdbcUrl)) {
+            assertTrue(migrations.runPending());
+        }
 
         try (Connection c = DriverManager.getConnection(jdbcUrl)) {
             assertEquals(Set.of(
@@ -71,6 +75,8 @@ class DatabaseMigrationTest {
                     "content_exact_hash",
                     "content_exact_ci_hash",
                     "content_norm_ci_hash",
+                    "content_type",
+                    "content_simhash",
                     "title",
                     "is_favorite",
                     "pin_order",
@@ -116,10 +122,24 @@ class DatabaseMigrationTest {
             assertEquals(1, pinOrders.get("older pinned").intValue());
             assertNull(pinOrders.get("recent"));
 
+            try (Statement st = c.createStatement();
+                 ResultSet rs = st.executeQuery("""
+                         SELECT value
+                         FROM clip_counters
+                         WHERE name = 'recent_clips'
+                         """)) {
+                assertTrue(rs.next());
+                assertEquals(pinOrders.values().stream()
+                        .filter(order -> order == null)
+                        .count(), rs.getLong(1));
+            }
+
             assertEquals(Set.of("id", "name", "name_norm", "created_at"),
                     tableColumns(c, "tags"));
             assertEquals(Set.of("clip_id", "tag_id", "assigned_at"),
                     tableColumns(c, "clip_tags"));
+            assertEquals(Set.of("clip_id", "phash", "width", "height", "encoded", "thumbnail"),
+                    tableColumns(c, "clip_images"));
 
             try (Statement st = c.createStatement();
                  ResultSet rs = st.executeQuery("PRAGMA user_version")) {
@@ -132,8 +152,15 @@ class DatabaseMigrationTest {
             assertTrue(hasIndex(c, "clip_entries", "idx_clip_exact_ci_hash", false));
             assertTrue(hasIndex(c, "clip_entries", "idx_clip_norm_ci_hash", false));
             assertTrue(hasIndex(c, "clip_entries", "idx_clip_pinned_order", false));
+            assertTrue(hasIndex(c, "clip_entries", "idx_clip_recent_age", false));
+            assertTrue(hasIndex(c, "clip_entries", "idx_clip_type_age", false));
+            for (int band = 0; band < NearDuplicateFingerprint.BANDS; band++) {
+                assertTrue(hasIndex(c, "clip_entries", "idx_clip_simhash_b" + band, false));
+            }
             assertTrue(hasIndex(c, "tags", "idx_tags_name", false));
             assertTrue(hasIndex(c, "clip_tags", "idx_clip_tags_tag_id", false));
+            assertTrue(hasIndex(c, "clip_images", "idx_clip_images_size", false));
+            assertTrue(hasIndex(c, "clip_images", "idx_clip_images_pending_thumbnail", false));
 
             assertTrue(hasCascadeForeignKey(
                     c, "clip_tags", "clip_id", "clip_entries", "id"
@@ -141,6 +168,9 @@ class DatabaseMigrationTest {
             assertTrue(hasCascadeForeignKey(
                     c, "clip_tags", "tag_id", "tags", "id"
             ));
+            assertTrue(hasCascadeForeignKey(
+                    c, "clip_images", "clip_id", "clip_entries", "id"
+            ));
         }
     }
 
@@ -182,6 +212,42 @@ class DatabaseMigrationTest {
         recreated.close();
     }
 
+    @Test
+    void currentSchemaTakesFastPathAndSchemaDriftForcesMigration() throws Exception {
+        Path dbPath = tempDir.resolve("fast-path.db");
+        Database first = new Database(dbPath);
+        first.init();
+        assertFalse(first.lastInitReport().fastPath());
+        first.close();
+
+        Database second = new Database(dbPath);
+        second.init();
+        Database.InitReport report = second.lastInitReport();
+        assertTrue(report.fastPath());
+        assertEquals(0L, report.migrationNanos());
+        assertTrue(report.totalNanos() > 0L);
+        second.close();
+
+        try (Connection c = DriverManager.getConnection(second.jdbcUrl());
+             Statement st = c.createStatement()) {
+            st.execute("DROP INDEX idx_clip_exact_hash");
+        }
+
+        Database third = new Database(dbPath);
+        third.init();
+        assertFalse(third.lastInitReport().fastPath());
+        third.close();
+
+        try (Connection c = DriverManager.getConnection(third.jdbcUrl())) {
+            assertTrue(hasIndex(c, "clip_entries", "idx_clip_exact_hash", false));
+        }
+
+        Database fourth = new Database(dbPath);
+        fourth.init();
+        assertTrue(fourth.lastInitReport().fastPath());
+        fourth.close();
+    }
+
     @Test
     void v6RestartPreservesIntentionalEqualRows() throws Exception {
         Path dbPath = tempDir.resolve("v6-duplicates.db");
@@ -324,6 +390,9 @@ class DatabaseMigrationTest {
         Database database = new Database(dbPath);
         database.init();
         database.close();
+        try (BackgroundMigrationService migrations = new BackgroundMigrationService(jdbcUrl)) {
+            assertTrue(migrations.runPending());
+        }
 
         try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
             assertEquals(Database.CURRENT_SCHEMA_VERSION, userVersion(connection));
@@ -0,0 +1,79 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.data.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClipChangeBusTest {
+
+    @Test
+    void deliversEventsInPublishOrderToEveryListener() {
+        ClipChangeBus bus = new ClipChangeBus();
+        List<ClipChangeEvent> first = new ArrayList<>();
+        List<ClipChangeEvent> second = new ArrayList<>();
+        bus.addListener(first::add);
+        bus.addListener(second::add);
+
+        ClipChangeEvent deleted = new ClipChangeEvent.Deleted(Set.of(4L), 1);
+        ClipChangeEvent reordered = new ClipChangeEvent.Reordered();
+        bus.publish(deleted);
+        bus.publish(reordered);
+        bus.publish(null);
+
+        assertEquals(List.of(deleted, reordered), first);
+        assertEquals(List.of(deleted, reordered), second);
+        assertEquals(2, bus.generation());
+    }
+
+    @Test
+    void generationMovesBeforeListenersRun() {
+        ClipChangeBus bus = new ClipChangeBus();
+        List<Long> seen = new ArrayList<>();
+        bus.addListener(event -> seen.add(bus.generation()));
+
+        bus.publish(new ClipChangeEvent.Reordered());
+        bus.publish(new ClipChangeEvent.Reordered());
+
+        assertEquals(List.of(1L, 2L), seen);
+    }
+
+    @Test
+    void failingListenerDoesNotStarveOthersOrThePublisher() {
+        ClipChangeBus bus = new ClipChangeBus();
+        List<ClipChangeEvent> received = new ArrayList<>();
+        bus.addListener(event -> {
+            throw new IllegalStateException("listener failure");
+        });
+        bus.addListener(received::add);
+
+        bus.publish(new ClipChangeEvent.TagLibraryChanged());
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void removedListenerStopsReceiving() {
+        ClipChangeBus bus = new ClipChangeBus();
+        List<ClipChangeEvent> received = new ArrayList<>();
+        Consumer<ClipChangeEvent> listener = received::add;
+        bus.addListener(listener);
+        bus.removeListener(listener);
+
+        bus.publish(new ClipChangeEvent.Purged(3));
+
+        assertEquals(List.of(), received);
+        assertEquals(0, bus.listenerCount());
+        assertThrows(NullPointerException.class, () -> bus.addListener(null));
+    }
+}
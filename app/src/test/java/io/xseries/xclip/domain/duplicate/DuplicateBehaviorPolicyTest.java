@@ -28,6 +28,33 @@ class DuplicateBehaviorPolicyTest {
         assertEquals(CaseSensitivity.SENSITIVE, policy.caseSensitivity());
         assertEquals(DuplicateBehaviorPolicy.UNLIMITED_WINDOW, policy.duplicateWindowMillis());
         assertFalse(policy.exactContentMode());
+        assertFalse(policy.nearDuplicateMode());
+    }
+
+    @Test
+    void exactContentModeDisablesNearDuplicateCollapsing() {
+        DuplicateBehaviorPolicy near = new DuplicateBehaviorPolicy(
+                RecentDuplicatePosition.MOVE_TO_TOP,
+                PinnedDuplicatePosition.PRESERVE_PIN_POSITION,
+                WhitespaceMode.NORMALIZE,
+                CaseSensitivity.SENSITIVE,
+                0,
+                false,
+                true
+        );
+        DuplicateBehaviorPolicy exact = new DuplicateBehaviorPolicy(
+                RecentDuplicatePosition.MOVE_TO_TOP,
+                PinnedDuplicatePosition.PRESERVE_PIN_POSITION,
+                WhitespaceMode.NORMALIZE,
+                CaseSensitivity.SENSITIVE,
+                0,
+                true,
+                true
+        );
+
+        assertTrue(near.collapsesNearDuplicates());
+        assertFalse(exact.collapsesNearDuplicates());
+        assertFalse(DuplicateBehaviorPolicy.defaults().collapsesNearDuplicates());
     }
 
     @Test
@@ -8,8 +8,16 @@ package io.xseries.xclip.domain.duplicate;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class DuplicateContentKeysTest {
 
@@ -123,4 +131,79 @@ class DuplicateContentKeysTest {
         }
     }
 
+    @Test
+    void streamingKeysMatchStringBasedKeysOnEdgeCases() throws Exception {
+        for (String content : List.of(
+                "",
+                " ",
+                "\t\r\n",
+                "plain",
+                "\u0000alpha\u0001 beta\u0000",
+                " \u0001\u0002 ",
+                "alpha\u2003beta\u3000gamma",
+                "alpha\u00A0beta",
+                "\u001Falpha\u001C",
+                "Emoji \uD83D\uDE00 Text",
+                "lone \uD800 high and \uDC00 low",
+                "trailing high \uD83D",
+                "\uD801\uDC00 Deseret",
+                "Istanbul \u0130stanbul",
+                "\u039F\u0394\u039F\u03A3",
+                "Привет  МИР",
+                "Mixed\nCase\r\n\tLines  "
+        )) {
+            assertMatchesReference(content);
+        }
+    }
+
+    @Test
+    void streamingKeysMatchStringBasedKeysOnGeneratedCorpus() throws Exception {
+        Random random = new Random(31);
+        char[] alphabet = (
+                "aZ09 \t\n\r\u000B\f\u001C\u0000\u0001\u00A0\u2003\u3000"
+                        + "\u00C0\u00DF\u0410\u0436\u212A\uD83D\uDE00\uD801\uDC00\uDC00"
+        ).toCharArray();
+        for (int sample = 0; sample < 2_000; sample++) {
+            StringBuilder content = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int index = 0; index < length; index++) {
+                content.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertMatchesReference(content.toString());
+        }
+        assertMatchesReference("Line One\n    Line Two\n".repeat(5_000));
+    }
+
+    @Test
+    void preparedValueReusesInputWhenNormalizationChangesNothing() {
+        String content = "already normalized text";
+
+        DuplicateContentKeys.Prepared prepared =
+                DuplicateContentKeys.prepare(content, DuplicateBehaviorPolicy.defaults());
+
+        assertSame(content, prepared.normalizedContent());
+    }
+
+    private static void assertMatchesReference(String content) throws Exception {
+        String normalized = DuplicateBehaviorPolicy.normalizeWhitespace(content);
+        DuplicateContentKeys expected = new DuplicateContentKeys(
+                sha256(content),
+                sha256(content.toLowerCase(Locale.ROOT)),
+                sha256(normalized),
+                sha256(normalized.toLowerCase(Locale.ROOT))
+        );
+
+        assertEquals(expected, DuplicateContentKeys.from(content), content);
+        assertEquals(expected, DuplicateContentKeys.from(content, normalized), content);
+
+        DuplicateContentKeys.Prepared prepared =
+                DuplicateContentKeys.prepare(content, DuplicateBehaviorPolicy.defaults());
+        assertEquals(normalized, prepared.normalizedContent(), content);
+        assertEquals(expected, prepared.keys(), content);
+    }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -213,4 +213,41 @@ class DuplicatePolicyEngineTest {
         );
     }
 
+    @Test
+    void matchedCandidateDecisionAgreesWithCanonicalEvaluation() {
+        DuplicateBehaviorPolicy policy = new DuplicateBehaviorPolicy(
+                RecentDuplicatePosition.PRESERVE_EXISTING_POSITION,
+                PinnedDuplicatePosition.MOVE_PIN_TO_TOP,
+                WhitespaceMode.NORMALIZE,
+                CaseSensitivity.INSENSITIVE,
+                1_000,
+                false
+        );
+        String canonical = policy.canonicalKey("alpha value");
+
+        for (boolean pinned : new boolean[] {false, true}) {
+            for (long lastCopiedAt : new long[] {500, 1_000, 1_500}) {
+                assertEquals(
+                        DuplicatePolicyEngine.evaluateCanonical(
+                                policy,
+                                "Alpha  Value",
+                                pinned,
+                                lastCopiedAt,
+                                canonical,
+                                2_000
+                        ),
+                        DuplicatePolicyEngine.evaluateMatched(
+                                policy,
+                                pinned,
+                                lastCopiedAt,
+                                2_000
+                        )
+                );
+            }
+        }
+        assertEquals(
+                Decision.CREATE_NEW_ENTRY,
+                DuplicatePolicyEngine.evaluateMatched(policy, false, 500, 2_000)
+        );
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.duplicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateFingerprintTest {
+
+    private static final String[] WORDS = {
+            "request", "worker", "upload", "timeout", "retry", "cache", "disk",
+            "queue", "socket", "closed", "session", "token", "user", "error",
+            "warning", "started", "finished", "failed", "payload", "buffer"
+    };
+
+    @Test
+    void numbersDoNotMoveTheFingerprint() {
+        Long first = NearDuplicateFingerprint.of(
+                "2026-08-02 10:15:42.118 WARN [worker-7] upload 4411 retried after timeout"
+        );
+        Long second = NearDuplicateFingerprint.of(
+                "2026-08-03 23:01:09.900 WARN [worker-12] upload 93 retried after timeout"
+        );
+
+        assertNotNull(first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void letterCaseDoesNotMoveTheFingerprint() {
+        assertEquals(
+                NearDuplicateFingerprint.of("The quick brown fox jumps over the lazy dog"),
+                NearDuplicateFingerprint.of("THE QUICK BROWN FOX JUMPS OVER THE LAZY DOG")
+        );
+    }
+
+    @Test
+    void shortAndOversizedTextGetNoFingerprint() {
+        assertNull(NearDuplicateFingerprint.of(""));
+        assertNull(NearDuplicateFingerprint.of("git status --short --branch"));
+        assertNull(NearDuplicateFingerprint.of(
+                "word ".repeat(NearDuplicateFingerprint.MAX_CHARS / 5 + 1)
+        ));
+        assertNotNull(NearDuplicateFingerprint.of("one two three four five six seven eight"));
+    }
+
+    @Test
+    void oneChangedWordInLongTextStaysWithinDistance() {
+        Random random = new Random(39);
+        int near = 0;
+        int trials = 200;
+        for (int trial = 0; trial < trials; trial++) {
+            String[] tokens = sentence(random, 120);
+            long original = NearDuplicateFingerprint.of(String.join(" ", tokens));
+            tokens[random.nextInt(tokens.length)] = "replaced";
+            long edited = NearDuplicateFingerprint.of(String.join(" ", tokens));
+            if (NearDuplicateFingerprint.distance(original, edited)
+                    <= NearDuplicateFingerprint.MAX_DISTANCE) {
+                near++;
+            }
+        }
+        assertTrue(near >= trials * 9 / 10, near + " of " + trials);
+    }
+
+    @Test
+    void unrelatedTextsAreFarApart() {
+        Random random = new Random(40);
+        for (int trial = 0; trial < 200; trial++) {
+            long left = NearDuplicateFingerprint.of(String.join(" ", sentence(random, 40)));
+            long right = NearDuplicateFingerprint.of(String.join(" ", sentence(random, 40)) + " zebra");
+            assertTrue(
+                    NearDuplicateFingerprint.distance(left, right) > NearDuplicateFingerprint.MAX_DISTANCE
+                            || left == right
+            );
+        }
+    }
+
+    @Test
+    void fingerprintsWithinDistanceShareABand() {
+        Random random = new Random(41);
+        for (int trial = 0; trial < 10_000; trial++) {
+            long left = random.nextLong();
+            long right = left;
+            int flips = random.nextInt(NearDuplicateFingerprint.MAX_DISTANCE + 1);
+            for (int flip = 0; flip < flips; flip++) {
+                right ^= 1L << random.nextInt(Long.SIZE);
+            }
+
+            boolean shared = false;
+            for (int band = 0; band < NearDuplicateFingerprint.BANDS; band++) {
+                shared |= NearDuplicateFingerprint.band(left, band)
+                        == NearDuplicateFingerprint.band(right, band);
+            }
+            assertTrue(shared);
+        }
+    }
+
+    @Test
+    void bandsCoverEveryBitOnce() {
+        long covered = 0L;
+        for (int band = 0; band < NearDuplicateFingerprint.BANDS; band++) {
+            long bits = (long) NearDuplicateFingerprint.bandMask(band)
+                    << NearDuplicateFingerprint.bandShift(band);
+            assertEquals(0L, covered & bits);
+            covered |= bits;
+        }
+        assertEquals(-1L, covered);
+        assertThrows(IllegalArgumentException.class,
+                () -> NearDuplicateFingerprint.band(0L, NearDuplicateFingerprint.BANDS));
+    }
+
+    private static String[] sentence(Random random, int length) {
+        String[] tokens = new String[length];
+        for (int index = 0; index < length; index++) {
+            tokens[index] = WORDS[random.nextInt(WORDS.length)] + (char) ('a' + random.nextInt(26));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.duplicate;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerceptualImageHashTest {
+
+    @Test
+    void identicalPixelsInAnotherFormatHashIdentically() {
+        BufferedImage argb = scene(320, 200, BufferedImage.TYPE_INT_ARGB, Color.ORANGE);
+        BufferedImage rgb = scene(320, 200, BufferedImage.TYPE_INT_RGB, Color.ORANGE);
+
+        assertEquals(PerceptualImageHash.of(argb), PerceptualImageHash.of(rgb));
+    }
+
+    @Test
+    void rescaledCopyStaysWithinTheDuplicateDistance() {
+        BufferedImage original = scene(800, 600, BufferedImage.TYPE_INT_RGB, Color.ORANGE);
+        BufferedImage rescaled = resize(original, 400, 300);
+
+        int distance = PerceptualImageHash.distance(
+                PerceptualImageHash.of(original),
+                PerceptualImageHash.of(rescaled)
+        );
+        assertTrue(distance <= PerceptualImageHash.MAX_DISTANCE, "distance " + distance);
+    }
+
+    @Test
+    void differentPicturesAreFarApart() {
+        BufferedImage first = scene(320, 200, BufferedImage.TYPE_INT_RGB, Color.ORANGE);
+        BufferedImage second = stripes(320, 200);
+
+        int distance = PerceptualImageHash.distance(
+                PerceptualImageHash.of(first),
+                PerceptualImageHash.of(second)
+        );
+        assertTrue(distance > PerceptualImageHash.MAX_DISTANCE * 4, "distance " + distance);
+    }
+
+    @Test
+    void transparentPixelsHashLikeWhite() {
+        BufferedImage transparent = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage white = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = white.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 64, 64);
+        graphics.dispose();
+
+        assertEquals(PerceptualImageHash.of(white), PerceptualImageHash.of(transparent));
+    }
+
+    @Test
+    void distanceCountsDifferingBits() {
+        assertEquals(0, PerceptualImageHash.distance(0xABCDL, 0xABCDL));
+        assertEquals(64, PerceptualImageHash.distance(0L, -1L));
+        assertEquals(2, PerceptualImageHash.distance(0b1010L, 0b0000L));
+    }
+
+    private static BufferedImage scene(int width, int height, int type, Color accent) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(30, 40, 60));
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(accent);
+        graphics.fillOval(width / 8, height / 6, width / 2, height / 2);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(width * 5 / 8, height / 2, width / 4, height / 3);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage stripes(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < width; x += 20) {
+            graphics.setColor((x / 20) % 2 == 0 ? Color.BLACK : Color.WHITE);
+            graphics.fillRect(x, 0, 20, height);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(
+                RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR
+        );
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+        return image;
+    }
+}
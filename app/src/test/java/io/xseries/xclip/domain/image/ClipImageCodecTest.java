@@ -0,0 +1,69 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClipImageCodecTest {
+
+    @Test
+    void pngRoundTripKeepsEveryPixel() {
+        BufferedImage image = new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xFF112233);
+        image.setRGB(2, 1, 0x80445566);
+
+        BufferedImage decoded = ClipImageCodec.decode(ClipImageCodec.encode(image));
+
+        assertEquals(3, decoded.getWidth());
+        assertEquals(2, decoded.getHeight());
+        assertEquals(0xFF112233, decoded.getRGB(0, 0));
+        assertEquals(0x80445566, decoded.getRGB(2, 1));
+    }
+
+    @Test
+    void thumbnailFitsTheBoxAndKeepsTheAspectRatio() {
+        BufferedImage screen = new BufferedImage(2_560, 1_440, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage thumbnail = ClipImageCodec.decode(
+                ClipImageCodec.thumbnail(ClipImageCodec.encode(screen))
+        );
+
+        assertTrue(thumbnail.getWidth() <= ClipImageCodec.THUMBNAIL_MAX_WIDTH);
+        assertTrue(thumbnail.getHeight() <= ClipImageCodec.THUMBNAIL_MAX_HEIGHT);
+        assertEquals(ClipImageCodec.THUMBNAIL_MAX_HEIGHT, thumbnail.getHeight());
+        assertEquals(213, thumbnail.getWidth());
+    }
+
+    @Test
+    void smallImagesAreNotUpscaled() {
+        BufferedImage icon = new BufferedImage(32, 16, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage thumbnail = ClipImageCodec.decode(
+                ClipImageCodec.thumbnail(ClipImageCodec.encode(icon))
+        );
+
+        assertEquals(32, thumbnail.getWidth());
+        assertEquals(16, thumbnail.getHeight());
+    }
+
+    @Test
+    void captionNamesTheDimensions() {
+        assertEquals("Image 1920 × 1080", ClipImageCodec.caption(1_920, 1_080));
+    }
+
+    @Test
+    void rejectsBytesThatAreNotAnImage() {
+        assertThrows(UncheckedIOException.class, () -> ClipImageCodec.decode(new byte[] {1, 2, 3}));
+        assertThrows(UncheckedIOException.class, () -> ClipImageCodec.thumbnail(new byte[] {1, 2, 3}));
+    }
+}
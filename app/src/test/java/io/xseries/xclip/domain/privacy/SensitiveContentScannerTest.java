@@ -0,0 +1,226 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.privacy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensitiveContentScannerTest {
+
+    private static final String[] FRAGMENTS = {
+            "0", "1", "2", "3", "4", "5", "6", "7", "8", "9",
+            "4111", "1111", "5555", "4444", "3782", "822463", "10005",
+            "482913", "7341", "123", "20260802",
+            " ", " ", "-", "--", "  ", "\n", "\t", ".", ":", ";", "_", "/",
+            "a", "x", "Z", "order", "card", "code", "time", "one",
+            "otp", "OTP", "oTp", "2fa", "2FA", "one-time", "One Time",
+            "onetime", "one time password", "ONE-TIME PASSCODE", "one time code",
+            "verification code", "Verification Code", "security code",
+            "authentication code", "login code", "sign-in code", "Sign In Code",
+            "signin code", "код подтверждения", "КОД ВХОДА", "одноразовый код",
+            "код безопасности", "Tasdiqlash kodi", "bir martalik kod",
+            "bır martalık kod", "Kод входа", "ſecurity code", "LOGİN CODE",
+            "́", "‍", "‌", "𝐀", "😀",
+            "\uD835", "\uDC00", "１", "١", "é", "ß", "µ"
+    };
+
+    @Test
+    void matchesRegexReferenceOnEdgeCases() {
+        String pad = "x".repeat(SensitiveContentScanner.OTP_CONTEXT_RADIUS);
+        List<String> samples = List.of(
+                "",
+                "4111 1111 1111 1111",
+                "4111-1111-1111-1111",
+                "4111  1111 1111 1111",
+                "4111 1111 1111 1111 1",
+                "4111 1111 1111 1111x",
+                "x4111111111111111",
+                "_4111111111111111",
+                "4111111111111111_",
+                "41111111111111111111111",
+                "1 4111 1111 1111 1111",
+                "4 1 1 1 1 1 1 1 1 1 1 1 1 1 1 1 9 9 9 9 9",
+                "0000 4111 1111 1111 1111",
+                "12345678901234567890 4111111111111111",
+                "378282246310005",
+                "37828224631000512345",
+                "otp 1234",
+                "otp1234",
+                "motp 1234",
+                "otp_ 1234",
+                "1234 otp",
+                "1234" + " ".repeat(91) + "otp",
+                "1234" + " ".repeat(92) + "otp",
+                "1234" + " ".repeat(93) + "otp",
+                "1234" + " ".repeat(93) + "otpx",
+                "otp" + " ".repeat(93) + "1234",
+                "otp" + " ".repeat(94) + "1234",
+                "m" + "otp" + " ".repeat(93) + "1234",
+                "mo" + "tp" + " ".repeat(93) + "1234",
+                "𝐀otp" + " ".repeat(93) + "1234",
+                "𝐀otp" + " ".repeat(94) + "1234",
+                "1234" + " ".repeat(93) + "otp𝐀",
+                "1234" + " ".repeat(92) + "otp𝐀",
+                "otṕ 1234",
+                "́otp 1234",
+                "otp‍ 1234",
+                "one time 123456",
+                "one  time 123456",
+                "one-time-code 123456",
+                "one time codes 123456",
+                "sign in code: 7788",
+                "sign-in-code: 7788",
+                "КОД ПОДТВЕРЖДЕНИЯ 7341",
+                "Koд входа 7341",
+                "Kод входа 7341",
+                "LOGİN CODE 7341",
+                "logın code 7341",
+                "ſecurity code 7341",
+                "2fa 123456789",
+                "2fa 12345678",
+                "12fa 1234",
+                "verification code " + pad + "1234",
+                "code 1234 " + pad + " verification code",
+                "Card 4111111111111111; verification code 123456"
+        );
+        for (String sample : samples) {
+            assertMatchesReference(sample);
+        }
+    }
+
+    @Test
+    void matchesRegexReferenceOnGeneratedCorpus() {
+        Random random = new Random(36);
+        for (int sample = 0; sample < 4_000; sample++) {
+            StringBuilder text = new StringBuilder();
+            int parts = 1 + random.nextInt(sample % 10 == 0 ? 200 : 40);
+            for (int part = 0; part < parts; part++) {
+                if (random.nextInt(8) == 0) {
+                    text.append(" ".repeat(random.nextInt(100)));
+                } else {
+                    text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+            }
+            assertMatchesReference(text.toString());
+        }
+    }
+
+    @Test
+    void scanTimeStaysLinearOnAdversarialInput() {
+        // Every keyword hit fails its boundary and every card start rescans
+        // twelve digits, so neither part can exit early.
+        String adversarial = "one times 12345 x 1 2 3 4 5 6 7 8 9 0 1 2; ".repeat(12_000);
+        assertMatchesReference(adversarial.substring(0, 5_000));
+        assertEquals(Set.of(), SensitiveContentScanner.scan(adversarial, true, true));
+
+        long small = bestOf(adversarial.substring(0, adversarial.length() / 8));
+        long large = bestOf(adversarial);
+        assertTrue(
+                large < small * 8 * 4,
+                "scan time grew from " + small + " to " + large + " ns"
+        );
+    }
+
+    private static long bestOf(String text) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long started = System.nanoTime();
+            SensitiveContentScanner.scan(text, true, true);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return best;
+    }
+
+    private static void assertMatchesReference(String text) {
+        EnumSet<SensitiveContentPolicy.SensitiveKind> expected =
+                EnumSet.noneOf(SensitiveContentPolicy.SensitiveKind.class);
+        if (RegexReference.containsPaymentCard(text)) {
+            expected.add(SensitiveContentPolicy.SensitiveKind.PAYMENT_CARD);
+        }
+        if (RegexReference.containsContextualOneTimeCode(text)) {
+            expected.add(SensitiveContentPolicy.SensitiveKind.ONE_TIME_CODE);
+        }
+        assertEquals(expected, SensitiveContentScanner.scan(text, true, true), text);
+        assertEquals(
+                expected.contains(SensitiveContentPolicy.SensitiveKind.PAYMENT_CARD),
+                !SensitiveContentScanner.scan(text, true, false).isEmpty(),
+                text
+        );
+        assertEquals(
+                expected.contains(SensitiveContentPolicy.SensitiveKind.ONE_TIME_CODE),
+                !SensitiveContentScanner.scan(text, false, true).isEmpty(),
+                text
+        );
+    }
+
+    /** The regular expressions the scanner replaced, kept as the oracle. */
+    private static final class RegexReference {
+
+        private static final Pattern PAYMENT_CARD_CANDIDATE = Pattern.compile(
+                "(?<![A-Za-z0-9])(?:\\d[ -]?){12,18}\\d(?![A-Za-z0-9])"
+        );
+        private static final Pattern OTP_CANDIDATE = Pattern.compile(
+                "(?<!\\d)\\d{4,8}(?!\\d)"
+        );
+        private static final Pattern OTP_CONTEXT = Pattern.compile(
+                "(?iuU)(?:\\botp\\b|\\b2fa\\b|\\bone[- ]?time(?: password| passcode| code)?\\b|"
+                        + "\\bverification code\\b|\\bsecurity code\\b|"
+                        + "\\bauthentication code\\b|\\blogin code\\b|\\bsign[- ]?in code\\b|"
+                        + "\\bкод подтверждения\\b|\\bодноразовый код\\b|"
+                        + "\\bкод безопасности\\b|\\bкод входа\\b|"
+                        + "\\btasdiqlash kodi\\b|\\bbir martalik kod\\b)"
+        );
+
+        private static boolean containsPaymentCard(String content) {
+            Matcher matcher = PAYMENT_CARD_CANDIDATE.matcher(content);
+            while (matcher.find()) {
+                String digits = matcher.group().replaceAll("[^0-9]", "");
+                if (digits.length() < 13 || digits.length() > 19) continue;
+
+                char leading = digits.charAt(0);
+                if (leading < '2' || leading > '6') continue;
+                if (digits.chars().distinct().count() == 1) continue;
+                if (passesLuhn(digits)) return true;
+            }
+            return false;
+        }
+
+        private static boolean containsContextualOneTimeCode(String content) {
+            Matcher codeMatcher = OTP_CANDIDATE.matcher(content);
+            while (codeMatcher.find()) {
+                int radius = SensitiveContentScanner.OTP_CONTEXT_RADIUS;
+                int start = Math.max(0, codeMatcher.start() - radius);
+                int end = Math.min(content.length(), codeMatcher.end() + radius);
+                if (OTP_CONTEXT.matcher(content.substring(start, end)).find()) return true;
+            }
+            return false;
+        }
+
+        private static boolean passesLuhn(String digits) {
+            int sum = 0;
+            boolean doubleDigit = false;
+            for (int index = digits.length() - 1; index >= 0; index--) {
+                int digit = digits.charAt(index) - '0';
+                if (doubleDigit) {
+                    digit *= 2;
+                    if (digit > 9) digit -= 9;
+                }
+                sum += digit;
+                doubleDigit = !doubleDigit;
+            }
+            return sum % 10 == 0;
+        }
+    }
+}
@@ -7,12 +7,126 @@
 package io.xseries.xclip.domain.service;
 
 import io.xseries.xclip.domain.model.ClipContentType;
+import io.xseries.xclip.util.TextValues;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ClipContentClassifierTest {
 
+    private static final String[] CODE_FRAGMENTS = {
+            "if", "else", "for", "while", "switch", "return", "try", "catch", "throw", "new",
+            "iff", "xif", "renew", "News", "IF",
+            "f", "run", "$", "$x", "x$", "_a", "9", "a9", "Z",
+            "(", ")", "()", "{", "}", ";", "=", "==", "!", "!=", ">", "=>", "-", "->",
+            ":", "::", "&", "&&", "|", "||", ",", ".", "\"", "<",
+            " ", " ", "  ", "\t", "\n", "\r", "\r\n", "\n  ", "\r\n  ", "\u000B", "\f",
+            "\u2028", "\u2029", "\u0085", "\u00A0",
+            "\u0301", "\u0301\u0301", "é", "ß", "𝐀", "\uD835", "\uDC00", "١",
+            "```", "<div", "<?xml", "<!DOCTYPE html", "SELECT", "select", "FROM", "from",
+            "UPDATE", "SET", "WITH", "INSERT INTO", "package a.b;", "import x.*;", "public",
+            "class", "def", "async def", "function", "const", "let", "var", "#include",
+            "using", "#!/bin/"
+    };
+
+    @Test
+    void codeDetectionMatchesRegexReferenceOnEdgeCases() {
+        List<String> samples = List.of(
+                "f(x) {",
+                "f (x)\n{",
+                "f(x\n) {",
+                "f(a(b) {",
+                "f(a)(b) {",
+                "9(x) {",
+                "$(x) {",
+                "a$b(x) {",
+                "$$(x) {",
+                "\u0301f(x) {",
+                "é\u0301f(x) {",
+                "éf(x) {",
+                "𝐀f(x) {",
+                "if x",
+                "xif x",
+                "if\u0301 x",
+                "é\u0301if x",
+                "\u0301if x",
+                "𝐀\u0301if x",
+                "if_",
+                "a\n  b",
+                "a\r\n b",
+                "a\r\n  b",
+                "a\r  b",
+                "a\u2028  b\n",
+                "a\u2028  b",
+                "a\n\n b",
+                "a\n \n b",
+                "x == y;",
+                "a => b; c",
+                "{ } ;",
+                "SELECT a\nFROM b",
+                "SELECT a",
+                "UPDATE t\nSET x",
+                "WITH x AS (SELECT 1)",
+                "package a.b;",
+                "```java",
+                "<div>",
+                "Please send the report after the meeting."
+        );
+        for (String sample : samples) {
+            assertCodeMatchesReference(sample);
+        }
+    }
+
+    @Test
+    void codeDetectionMatchesRegexReferenceOnGeneratedCorpus() {
+        Random random = new Random(37);
+        for (int sample = 0; sample < 6_000; sample++) {
+            StringBuilder text = new StringBuilder();
+            int parts = 1 + random.nextInt(sample % 10 == 0 ? 120 : 16);
+            for (int part = 0; part < parts; part++) {
+                text.append(CODE_FRAGMENTS[random.nextInt(CODE_FRAGMENTS.length)]);
+            }
+            assertCodeMatchesReference(text.toString());
+        }
+    }
+
+    @Test
+    void classifyTimeStaysLinearOnAdversarialInput() {
+        // Every '(' follows a callee but no ')' closes it, which made the
+        // function-block regex rescan to the end from each one.
+        String adversarial = "f(".repeat(100_000) + "}";
+        assertCodeMatchesReference(adversarial.substring(0, 2_000));
+        assertEquals(ClipContentType.TEXT, ClipContentClassifier.classify(adversarial));
+
+        long small = bestOf(adversarial.substring(adversarial.length() / 8));
+        long large = bestOf(adversarial);
+        assertTrue(
+                large < small * 8 * 4,
+                "classify time grew from " + small + " to " + large + " ns"
+        );
+    }
+
+    private static long bestOf(String text) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long started = System.nanoTime();
+            ClipContentClassifier.classify(text);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return best;
+    }
+
+    private static void assertCodeMatchesReference(String sample) {
+        String value = sample.trim();
+        if (value.isEmpty()) return;
+        assertEquals(RegexReference.isCode(value), ClipContentClassifier.isCode(value), sample);
+    }
+
     @Test
     void detectsWebUrlsWithoutTreatingFileUrisAsWebUrls() {
         assertEquals(
@@ -159,4 +273,65 @@ class ClipContentClassifierTest {
                 ClipContentClassifier.classify("")
         );
     }
+
+    /** The code detection the single-pass scorer replaced, kept as the oracle. */
+    private static final class RegexReference {
+
+        private static final Pattern CODE_FENCE =
+                Pattern.compile("^\\s*```", Pattern.DOTALL);
+        private static final Pattern HTML_OR_XML =
+                Pattern.compile(
+                        "^\\s*(?:<\\?xml\\b|<!DOCTYPE\\s+html\\b|<(?:html|head|body|div|span|script|style|"
+                                + "section|main|article|button|input|form|table|svg)\\b)",
+                        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+                );
+        private static final Pattern SQL =
+                Pattern.compile(
+                        "^\\s*(?:SELECT\\b.+\\bFROM\\b|INSERT\\s+INTO\\b|UPDATE\\b.+\\bSET\\b|"
+                                + "DELETE\\s+FROM\\b|CREATE\\s+(?:TABLE|INDEX|VIEW)\\b|ALTER\\s+TABLE\\b|"
+                                + "WITH\\b.+\\bSELECT\\b)",
+                        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+                );
+        private static final Pattern DECLARATIVE_CODE =
+                Pattern.compile(
+                        "^\\s*(?:package\\s+[\\w.]+\\s*;|import\\s+[\\w.*]+\\s*;|"
+                                + "(?:public|private|protected|internal|static|final|abstract|sealed)\\s+"
+                                + "(?:class|interface|enum|record|void|[A-Za-z_$][\\w$<>?, .\\[\\]]*)\\b|"
+                                + "class\\s+[A-Za-z_]\\w*\\s*(?:[:({]|$)|"
+                                + "def\\s+[A-Za-z_]\\w*\\s*\\(|async\\s+def\\s+[A-Za-z_]\\w*\\s*\\(|"
+                                + "function\\s+[A-Za-z_$]\\w*\\s*\\(|"
+                                + "(?:const|let|var)\\s+[A-Za-z_$]\\w*\\s*=|"
+                                + "#include\\s*[<\"]|using\\s+(?:namespace\\s+)?[A-Za-z_]|"
+                                + "#!\\s*/(?:usr/)?bin/)",
+                        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+                );
+        private static final Pattern CODE_KEYWORD =
+                Pattern.compile("\\b(?:if|else|for|while|switch|return|try|catch|throw|new)\\b");
+        private static final Pattern FUNCTION_BLOCK =
+                Pattern.compile("\\b[A-Za-z_$][\\w$]*\\s*\\([^\\r\\n)]*\\)\\s*\\{");
+        private static final Pattern INDENTED_LINE =
+                Pattern.compile("(?m)^\\s{2,}\\S");
+
+        private static boolean isCode(String value) {
+            boolean hasLineBreak = TextValues.containsLineBreak(value);
+            if (CODE_FENCE.matcher(value).find()
+                    || HTML_OR_XML.matcher(value).find()
+                    || SQL.matcher(value).find()
+                    || DECLARATIVE_CODE.matcher(value).find()) {
+                return true;
+            }
+
+            int score = 0;
+
+            if (value.contains("{") && value.contains("}")) score += 2;
+            if (value.contains(";")) score++;
+            if (value.contains("=>") || value.contains("->") || value.contains("::")) score++;
+            if (value.contains("==") || value.contains("!=") || value.contains("&&") || value.contains("||")) score++;
+            if (CODE_KEYWORD.matcher(value).find()) score++;
+            if (FUNCTION_BLOCK.matcher(value).find()) score += 2;
+            if (hasLineBreak && INDENTED_LINE.matcher(value).find()) score++;
+
+            return score >= 3;
+        }
+    }
 }
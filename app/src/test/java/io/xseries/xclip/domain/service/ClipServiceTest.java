@@ -8,20 +8,33 @@ package io.xseries.xclip.domain.service;
 
 import io.xseries.xclip.config.Config;
 import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.dao.HistoryTransferDao;
+import io.xseries.xclip.data.db.CaptureSpillJournal;
 import io.xseries.xclip.data.db.Database;
+import io.xseries.xclip.data.event.ClipChangeBus;
+import io.xseries.xclip.data.event.ClipChangeEvent;
 import io.xseries.xclip.data.model.ClipEntry;
 import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ClipServiceTest {
 
@@ -224,6 +237,88 @@ class ClipServiceTest {
         }
     }
 
+    @Test
+    void nearDuplicateModeFoldsVariantsIntoTheNewestRecentClip() {
+        DuplicateBehaviorPolicy policy = new DuplicateBehaviorPolicy(
+                DuplicateBehaviorPolicy.RecentDuplicatePosition.MOVE_TO_TOP,
+                DuplicateBehaviorPolicy.PinnedDuplicatePosition.PRESERVE_PIN_POSITION,
+                DuplicateBehaviorPolicy.WhitespaceMode.NORMALIZE,
+                DuplicateBehaviorPolicy.CaseSensitivity.SENSITIVE,
+                0,
+                false,
+                true
+        );
+        String first = "2026-08-02 10:15:42 WARN worker 7 retried upload after timeout";
+        String second = "2026-08-02 10:16:03 WARN worker 12 retried upload after timeout";
+        Fixture fixture = fixture("near.db", policy);
+        try {
+            fixture.service.ingestTextAt(first, 1_000);
+            fixture.service.ingestTextAt("separator", 1_500);
+            fixture.service.ingestTextAt(second, 2_000);
+
+            assertEquals(2, fixture.dao.countAll());
+            ClipEntry top = fixture.dao.listLatest(10).get(0);
+            assertEquals(second, top.content());
+            assertEquals(2, usageCount(fixture.db.jdbcUrl(), top.id()));
+
+            fixture.dao.setFavorite(top.id(), true);
+            fixture.service.ingestTextAt(first, 3_000);
+
+            assertEquals(3, fixture.dao.countAll());
+            assertEquals(List.of(second), pinnedContents(fixture.dao));
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void nearDuplicatesStayDistinctUnlessTheModeIsOn() {
+        Fixture fixture = fixture("near-off.db", DuplicateBehaviorPolicy.defaults());
+        try {
+            fixture.service.ingestTextAt("build 118 finished with 3 warnings in module core", 1_000);
+            fixture.service.ingestTextAt("build 119 finished with 5 warnings in module core", 2_000);
+
+            assertEquals(2, fixture.dao.countAll());
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void importedHistoryIsAnnouncedAndPrunedToTheLimit() throws Exception {
+        Database db = new Database(tempDir.resolve("import.db"));
+        db.init();
+        ClipChangeBus changes = new ClipChangeBus();
+        List<ClipChangeEvent> events = new CopyOnWriteArrayList<>();
+        changes.addListener(events::add);
+        ClipEntryDao dao = new ClipEntryDao(db.jdbcUrl(), changes);
+        HistoryTransferDao transfer = new HistoryTransferDao(db.jdbcUrl(), changes);
+        ClipService service = new ClipService(dao, null, transfer);
+        service.applyConfig(Config.defaults().withMaxHistory(100));
+
+        Path source = tempDir.resolve("history" + HistoryTransferDao.FILE_EXTENSION);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            ndjson.append("{\"content\":\"imported ").append(i)
+                    .append("\",\"lastCopiedAt\":").append(1_000L + i).append("}\n");
+        }
+        Files.writeString(source, ndjson);
+
+        try {
+            HistoryTransferDao.ImportResult result = service.importHistory(source);
+
+            assertEquals(150, result.insertedRows());
+            assertEquals(100, dao.countAll());
+            assertEquals("imported 149", dao.listLatest(1).get(0).content());
+            assertTrue(events.contains(new ClipChangeEvent.Imported(150)));
+            assertTrue(events.stream().anyMatch(ClipChangeEvent.Trimmed.class::isInstance));
+        } finally {
+            transfer.close();
+            dao.closeForCurrentThread();
+            db.close();
+        }
+    }
+
     private Fixture fixture(String name, DuplicateBehaviorPolicy policy) {
         Database db = new Database(tempDir.resolve(name));
         db.init();
@@ -306,6 +401,58 @@ class ClipServiceTest {
         }
     }
 
+    @Test
+    void preparedCaptureKeepsItsPolicySnapshotUntilPersisted() {
+        Fixture fixture = fixture("staged.db", DuplicateBehaviorPolicy.defaults());
+        try {
+            fixture.service.ingestTextAt("Alpha", 1_000);
+
+            ClipService.PreparedCapture capture =
+                    fixture.service.prepareCapture("alpha", 2_000);
+            fixture.service.applyConfig(Config.defaults().withDuplicateBehaviorPolicy(policy(
+                    DuplicateBehaviorPolicy.RecentDuplicatePosition.MOVE_TO_TOP,
+                    DuplicateBehaviorPolicy.PinnedDuplicatePosition.PRESERVE_PIN_POSITION,
+                    DuplicateBehaviorPolicy.WhitespaceMode.NORMALIZE,
+                    DuplicateBehaviorPolicy.CaseSensitivity.INSENSITIVE,
+                    0,
+                    false
+            )));
+            fixture.service.persistCapture(capture);
+
+            assertEquals(List.of("alpha", "Alpha"), fixture.dao.listLatest(10).stream()
+                    .map(ClipEntry::content)
+                    .toList());
+            assertNull(fixture.service.prepareCapture("   ", 3_000));
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void truncatedClipboardPrefixIsReportedAndKeepsItsTrailingWhitespace() {
+        Fixture fixture = fixture("truncated.db", DuplicateBehaviorPolicy.defaults());
+        try {
+            fixture.service.applyConfig(Config.defaults().withMaxClipChars(10_000));
+            assertEquals(10_000, fixture.service.maxClipChars());
+
+            ClipService.PreparedCapture prefix =
+                    fixture.service.prepareCapture("  head  ", true, 1_000);
+            ClipService.PreparedCapture complete =
+                    fixture.service.prepareCapture("  head  ", false, 1_000);
+            ClipService.PreparedCapture capped =
+                    fixture.service.prepareCapture("x".repeat(10_005), false, 1_000);
+
+            assertTrue(prefix.truncated());
+            assertEquals("head  ", prefix.content());
+            assertFalse(complete.truncated());
+            assertEquals("head", complete.content());
+            assertTrue(capped.truncated());
+            assertEquals(10_000, capped.content().length());
+        } finally {
+            fixture.close();
+        }
+    }
+
     @Test
     void loweringHistoryLimitPrunesImmediatelyBeforeDuplicateOnlyWorkloads() {
         Database db = new Database(tempDir.resolve("retention-limit.db"));
@@ -333,4 +480,188 @@ class ClipServiceTest {
         }
     }
 
+    @Test
+    void suspendedStorageSpillsCapturesAndResumeReplaysThemInOrder() {
+        Fixture fixture = fixture("suspended.db", DuplicateBehaviorPolicy.defaults());
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("suspended.journal"));
+        ClipService service = new ClipService(fixture.dao, journal);
+        try {
+            service.ingestTextAt("alpha", 1_000);
+            service.suspendStorage();
+            service.ingestTextAt("beta", 2_000);
+            service.ingestTextAt("alpha", 3_000);
+            service.ingestTextAt("gamma", 4_000);
+
+            assertEquals(1, fixture.dao.countAll());
+            assertFalse(journal.isEmpty());
+
+            service.resumeStorage();
+
+            assertTrue(journal.isEmpty());
+            List<ClipEntry> rows = fixture.dao.listLatest(10);
+            assertEquals(List.of("gamma", "alpha", "beta"),
+                    rows.stream().map(ClipEntry::content).toList());
+            assertEquals(2, usageCount(fixture.db.jdbcUrl(), rows.get(1).id()));
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void capturesArrivingAfterSpillsWereDiscardedAreNotJournaled() {
+        Fixture fixture = fixture("discarded.db", DuplicateBehaviorPolicy.defaults());
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("discarded.journal"));
+        ClipService service = new ClipService(fixture.dao, journal);
+        try {
+            service.suspendStorage();
+            service.ingestTextAt("before clear", 1_000);
+            service.discardSpilledCaptures();
+            service.ingestTextAt("in flight", 2_000);
+
+            assertTrue(journal.isEmpty());
+
+            service.resumeStorage();
+            service.suspendStorage();
+            service.ingestTextAt("after resume", 3_000);
+
+            assertFalse(journal.isEmpty());
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void lockedDatabaseSpillsTheCaptureAndALaterCaptureReplaysItFirst() throws Exception {
+        Fixture fixture = fixture("locked.db", DuplicateBehaviorPolicy.defaults());
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("locked.journal"));
+        ClipService service = new ClipService(fixture.dao, journal);
+        try {
+            try (Connection lock = DriverManager.getConnection(fixture.db.jdbcUrl());
+                 Statement statement = lock.createStatement()) {
+                statement.execute("BEGIN IMMEDIATE");
+                service.ingestTextAt("alpha", 1_000);
+                service.ingestTextAt("beta", 1_500);
+                statement.execute("ROLLBACK");
+            }
+
+            assertEquals(0, fixture.dao.countAll());
+            assertFalse(journal.isEmpty());
+
+            service.ingestTextAt("gamma", 1_000 + ClipService.SPILL_RETRY_INTERVAL_MILLIS);
+
+            assertTrue(journal.isEmpty());
+            assertEquals(List.of("gamma", "beta", "alpha"), fixture.dao.listLatest(10).stream()
+                    .map(ClipEntry::content)
+                    .toList());
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void spilledCapturesFromAnEarlierSessionAreReplayedOnRequest() {
+        Fixture fixture = fixture("restart.db", DuplicateBehaviorPolicy.defaults());
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("restart.journal"));
+        journal.append(new CaptureSpillJournal.SpilledCapture("before exit", false, 1_000));
+        try {
+            ClipService service = new ClipService(fixture.dao, journal);
+            service.replaySpilledCaptures();
+
+            assertTrue(journal.isEmpty());
+            assertEquals(List.of("before exit"), fixture.dao.listLatest(10).stream()
+                    .map(ClipEntry::content)
+                    .toList());
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void spilledCaptureThatAlwaysFailsIsQuarantinedAndLaterOnesAreStored() throws Exception {
+        Fixture fixture = fixture("poison.db", DuplicateBehaviorPolicy.defaults());
+        CaptureSpillJournal journal = new CaptureSpillJournal(tempDir.resolve("poison.journal"));
+        journal.append(new CaptureSpillJournal.SpilledCapture("poison", false, 1_000));
+        journal.append(new CaptureSpillJournal.SpilledCapture("after-1", false, 1_100));
+        journal.append(new CaptureSpillJournal.SpilledCapture("after-2", false, 1_200));
+        try (Connection connection = DriverManager.getConnection(fixture.db.jdbcUrl());
+             Statement statement = connection.createStatement()) {
+            // RAISE(ABORT) fails the insert with SQLITE_CONSTRAINT, a record-specific error.
+            statement.execute("""
+                    CREATE TRIGGER reject_poison BEFORE INSERT ON clip_entries
+                    WHEN NEW.content = 'poison'
+                    BEGIN SELECT RAISE(ABORT, 'rejected'); END
+                    """);
+        }
+        try {
+            ClipService service = new ClipService(fixture.dao, journal);
+            for (int run = 1; run < CaptureSpillJournal.MAX_FAILED_ATTEMPTS; run++) {
+                service.replaySpilledCaptures();
+                assertEquals(0, fixture.dao.countAll());
+            }
+
+            service.replaySpilledCaptures();
+
+            assertTrue(journal.isEmpty());
+            assertTrue(Files.exists(journal.quarantineFile()));
+            assertEquals(List.of("after-2", "after-1"), fixture.dao.listLatest(10).stream()
+                    .map(ClipEntry::content)
+                    .toList());
+
+            service.ingestTextAt("live", 2_000);
+            assertEquals(3, fixture.dao.countAll());
+        } finally {
+            fixture.close();
+        }
+    }
+
+    @Test
+    void onlyBusyOrUnavailableStorageCountsAsTransient() {
+        assertTrue(ClipService.isTransientStorageFailure(
+                new RuntimeException("insertNew failed", new SQLException("[SQLITE_BUSY] The database file is locked", null, 5))
+        ));
+        assertTrue(ClipService.isTransientStorageFailure(
+                new RuntimeException(new SQLException("database is locked"))
+        ));
+        assertTrue(ClipService.isTransientStorageFailure(
+                new SQLException("busy snapshot", null, 517)
+        ));
+        assertFalse(ClipService.isTransientStorageFailure(
+                new RuntimeException("insertNew failed", new SQLException("constraint failed", null, 19))
+        ));
+        assertFalse(ClipService.isTransientStorageFailure(new IllegalArgumentException("bad capture")));
+    }
+
+    @Test
+    void unjournaledWritesAndReadsWaitForSuspendedStorageInsteadOfDropping() throws Exception {
+        Fixture fixture = fixture("unjournaled.db", DuplicateBehaviorPolicy.defaults());
+        ClipService service = new ClipService(fixture.dao);
+        try {
+            AtomicBoolean stored = new AtomicBoolean();
+            AtomicReference<String> read = new AtomicReference<>();
+            service.suspendStorage();
+
+            Thread writer = new Thread(() -> service.persistUnjournaled(() -> {
+                stored.set(true);
+                return false;
+            }));
+            Thread reader = new Thread(() -> read.set(service.readUnjournaled(() -> "thumbnail source")));
+            writer.start();
+            reader.start();
+            writer.join(200L);
+            reader.join(200L);
+
+            assertFalse(stored.get());
+            assertNull(read.get());
+            assertTrue(writer.isAlive());
+
+            service.resumeStorage();
+            writer.join(2_000L);
+            reader.join(2_000L);
+
+            assertTrue(stored.get());
+            assertEquals("thumbnail source", read.get());
+        } finally {
+            fixture.close();
+        }
+    }
 }
@@ -16,6 +16,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
 import java.time.Clock;
 import java.time.Duration;
 import java.util.List;
@@ -127,6 +130,69 @@ class HistoryCleanupServiceTest {
         }
     }
 
+    @Test
+    void setBasedCleanupDeletesInBoundedChunksAndRecordsLockMetrics() {
+        try (Fixture fixture = fixture();
+             HistoryCleanupService service = new HistoryCleanupService(fixture.dao)) {
+            long day = HistoryRetentionPolicy.MILLIS_PER_DAY;
+            long now = 100L * day;
+
+            int oldCount = HistoryCleanupService.RETENTION_DELETE_CHUNK_SIZE * 2 + 7;
+            for (int index = 0; index < oldCount; index++) {
+                fixture.insertDirect("expired note " + index, now - 40L * day);
+            }
+            fixture.insertDirect("fresh note", now - day);
+
+            service.applyPolicy(new HistoryRetentionPolicy(
+                    true,
+                    30,
+                    Map.of(),
+                    false
+            ));
+
+            HistoryCleanupService.CleanupStatus status = service.runCleanupAt(
+                    now,
+                    HistoryCleanupService.CleanupTrigger.MANUAL
+            );
+
+            assertEquals(HistoryCleanupService.CleanupOutcome.SUCCESS, status.outcome());
+            assertEquals(oldCount, status.deletedCount());
+            assertEquals(3, status.chunkCount());
+            assertTrue(status.longestLockHoldNanos() > 0L);
+            assertTrue(status.durationNanos() >= status.longestLockHoldNanos());
+            assertEquals(1, fixture.dao.countAll());
+        }
+    }
+
+    @Test
+    void typeRulesFallBackToClassificationForRowsWithoutStoredType() throws Exception {
+        try (Fixture fixture = fixture();
+             HistoryCleanupService service = new HistoryCleanupService(fixture.dao)) {
+            long day = HistoryRetentionPolicy.MILLIS_PER_DAY;
+            long now = 100L * day;
+
+            fixture.insert("https://example.com/legacy", now - 8L * day);
+            fixture.insert("legacy plain note", now - 8L * day);
+            fixture.clearStoredTypes();
+
+            service.applyPolicy(new HistoryRetentionPolicy(
+                    true,
+                    30,
+                    Map.of(ClipContentType.URL, 7),
+                    false
+            ));
+
+            HistoryCleanupService.CleanupStatus status = service.runCleanupAt(
+                    now,
+                    HistoryCleanupService.CleanupTrigger.MANUAL
+            );
+
+            assertEquals(HistoryCleanupService.CleanupOutcome.SUCCESS, status.outcome());
+            assertEquals(1, status.deletedCount());
+            assertEquals("legacy plain note", fixture.dao.listLatest(10).get(0).content());
+        }
+    }
+
     @Test
     void clearOnExitDeletesOnlyRecentHistory() {
         try (Fixture fixture = fixture();
@@ -321,6 +387,13 @@ class HistoryCleanupServiceTest {
             );
         }
 
+        private void clearStoredTypes() throws Exception {
+            try (Connection connection = DriverManager.getConnection(database.jdbcUrl());
+                 Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE clip_entries SET content_type = NULL");
+            }
+        }
+
         @Override
         public void close() {
             dao.close();
@@ -0,0 +1,79 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.domain.service;
+
+import io.xseries.xclip.data.dao.ClipImageDao;
+import io.xseries.xclip.data.model.ClipImage;
+import io.xseries.xclip.domain.duplicate.PerceptualImageHash;
+import io.xseries.xclip.domain.image.ClipImageCodec;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageCaptureServiceTest {
+
+    @Test
+    void preparesHashedPngPayloadWithDimensions() {
+        BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(5, 5, 0xFF00FF);
+
+        ClipImage prepared = ImageCaptureService.prepare(image);
+
+        assertNotNull(prepared);
+        assertEquals(40, prepared.width());
+        assertEquals(20, prepared.height());
+        assertEquals(PerceptualImageHash.of(image), prepared.phash());
+        assertEquals(0xFF00FF, ClipImageCodec.decode(prepared.encoded()).getRGB(5, 5) & 0xFFFFFF);
+        assertEquals(ImageCaptureService.contentHash(prepared.encoded()), prepared.contentHash());
+    }
+
+    @Test
+    void contentHashIsPrefixedSoItNeverMatchesTextKeys() {
+        String hash = ImageCaptureService.contentHash(new byte[] {1, 2, 3});
+
+        assertTrue(hash.startsWith("image:"));
+        assertEquals("image:".length() + 64, hash.length());
+        assertNotEquals(hash, ImageCaptureService.contentHash(new byte[] {1, 2, 4}));
+    }
+
+    @Test
+    void skipsImagesAboveThePixelCap() {
+        int side = (int) Math.sqrt(ClipImageCodec.MAX_PIXELS);
+        BufferedImage oversized = new BufferedImage(side + 1, side, BufferedImage.TYPE_BYTE_BINARY);
+
+        assertNull(ImageCaptureService.prepare(oversized));
+    }
+
+    @Test
+    void privacyDecisionRunsOnTheCaptureWorkerNotTheWatcher() throws Exception {
+        ClipService clipService = new ClipService(null);
+        AtomicReference<String> gateThread = new AtomicReference<>();
+        CountDownLatch gated = new CountDownLatch(1);
+
+        try (ImageCaptureService service = new ImageCaptureService(
+                clipService,
+                new ClipImageDao("jdbc:sqlite::memory:")
+        )) {
+            service.submit(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), 1_000L, () -> {
+                gateThread.set(Thread.currentThread().getName());
+                gated.countDown();
+                return false;
+            });
+
+            assertTrue(gated.await(2, TimeUnit.SECONDS));
+        }
+        assertEquals("xclip-image-capture", gateThread.get());
+    }
+}
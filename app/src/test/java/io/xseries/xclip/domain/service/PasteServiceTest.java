@@ -18,6 +18,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PasteServiceTest {
@@ -131,6 +132,46 @@ class PasteServiceTest {
         assertTrue(target.hasTarget());
     }
 
+    @Test
+    void callerWrittenClipboardContentPastesWithoutTextSuppression() throws Exception {
+        AtomicReference<String> marked = new AtomicReference<>();
+        AtomicInteger textWrites = new AtomicInteger();
+        AtomicInteger imageWrites = new AtomicInteger();
+        AtomicBoolean hidden = new AtomicBoolean(false);
+        CountDownLatch shortcutSent = new CountDownLatch(1);
+
+        FakeTarget target = new FakeTarget(true);
+        service = new PasteService(
+                marked::set,
+                text -> textWrites.incrementAndGet() > 0,
+                target,
+                () -> {
+                    shortcutSent.countDown();
+                    return true;
+                },
+                newExecutor(),
+                0,
+                0
+        );
+
+        PasteService.StartResult result = service.paste(
+                () -> imageWrites.incrementAndGet() > 0,
+                () -> hidden.set(true)
+        );
+
+        assertEquals(PasteService.StartResult.SCHEDULED, result);
+        assertTrue(hidden.get());
+        assertTrue(shortcutSent.await(2, TimeUnit.SECONDS));
+        assertEquals(1, imageWrites.get());
+        assertEquals(0, textWrites.get());
+        assertNull(marked.get());
+
+        assertEquals(
+                PasteService.StartResult.CLIPBOARD_UNAVAILABLE,
+                service.paste(() -> false, () -> {})
+        );
+    }
+
     private ScheduledExecutorService newExecutor() {
         executor = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "paste-service-test");
@@ -50,6 +50,7 @@ class DataOwnershipServiceTest {
                     database,
                     tempDir,
                     configPath,
+                    tempDir.resolve("popup-snapshot.json"),
                     List.of(tagDao::releaseConnections, clipDao::releaseConnections)
             );
 
@@ -64,6 +65,37 @@ class DataOwnershipServiceTest {
         }
     }
 
+    @Test
+    void clearAllDataDeletesPopupStartupSnapshot() throws Exception {
+        Path dataDir = tempDir.resolve("snapshot-data");
+        Files.createDirectories(dataDir);
+        Path dbPath = dataDir.resolve("xclip.db");
+        Path configPath = dataDir.resolve("config.json");
+        Path snapshotPath = dataDir.resolve("popup-snapshot.json");
+
+        Database database = new Database(dbPath);
+        database.init();
+        try {
+            Files.writeString(configPath, "{}");
+            Files.writeString(snapshotPath, "{\"rows\":[{\"content\":\"cleared clip\"}]}");
+
+            DataOwnershipService service = new DataOwnershipService(
+                    database,
+                    dataDir,
+                    configPath,
+                    snapshotPath,
+                    List.of()
+            );
+
+            service.clearAllData();
+
+            assertFalse(Files.exists(snapshotPath));
+            assertFalse(Files.exists(dbPath));
+        } finally {
+            database.close();
+        }
+    }
+
     @Test
     void exclusiveMaintenanceReleasesRegisteredDaoOwners() throws Exception {
         Path dataDir = tempDir.resolve("maintenance-data");
@@ -81,6 +113,7 @@ class DataOwnershipServiceTest {
                 database,
                 dataDir,
                 configPath,
+                dataDir.resolve("popup-snapshot.json"),
                 List.of(releases::incrementAndGet)
         );
 
@@ -0,0 +1,103 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CappedTextReaderTest {
+
+    @Test
+    void readsAtMostOneCharacterPastTheCap() throws Exception {
+        CountingReader source = new CountingReader("x".repeat(100_000));
+
+        ClipboardText read = new CappedTextReader().read(source, 10_000);
+
+        assertTrue(read.truncated());
+        assertEquals(10_000, read.text().length());
+        assertEquals(10_001, source.consumed);
+    }
+
+    @Test
+    void textAtOrBelowTheCapIsComplete() throws Exception {
+        CappedTextReader reader = new CappedTextReader();
+        String exact = "y".repeat(CappedTextReader.BUFFER_CHARS * 2);
+
+        ClipboardText atCap = reader.read(new StringReader(exact), exact.length());
+        ClipboardText uncapped = reader.read(new StringReader(exact), 0);
+        ClipboardText empty = reader.read(new StringReader(""), 10);
+
+        assertFalse(atCap.truncated());
+        assertEquals(exact, atCap.text());
+        assertFalse(uncapped.truncated());
+        assertEquals(exact, uncapped.text());
+        assertEquals(ClipboardText.complete(""), empty);
+    }
+
+    @Test
+    void crlfSplitAcrossTransfersIsOneLf() throws Exception {
+        int split = CappedTextReader.BUFFER_CHARS - 1;
+        String text = "q".repeat(split) + "\r\n" + "tail\rlone";
+
+        ClipboardText read = new CappedTextReader().read(new StringReader(text), 0);
+
+        assertEquals("q".repeat(split) + "\ntail\rlone", read.text());
+    }
+
+    @Test
+    void watcherReadsOversizedClipboardUnderTheConfiguredCap() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        List<ClipboardText> captured = new ArrayList<>();
+        source.setText("z".repeat(2_000_000));
+
+        try (ClipboardWatcher watcher = new ClipboardWatcher(
+                source,
+                captured::add,
+                () -> false,
+                ignored -> true,
+                () -> {},
+                () -> 20_000
+        )) {
+            watcher.poll();
+        }
+
+        assertEquals(1, captured.size());
+        assertTrue(captured.get(0).truncated());
+        assertEquals(20_000, captured.get(0).text().length());
+        assertEquals(20_001, source.maxCharsMaterialized());
+    }
+
+    /** Counts characters actually handed out, like a native transfer would. */
+    private static final class CountingReader extends Reader {
+        private final String text;
+        private int consumed;
+
+        private CountingReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] target, int offset, int length) {
+            if (consumed == text.length()) return -1;
+            int count = Math.min(length, text.length() - consumed);
+            text.getChars(consumed, consumed + count, target, offset);
+            consumed += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
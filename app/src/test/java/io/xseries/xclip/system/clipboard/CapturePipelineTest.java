@@ -0,0 +1,175 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapturePipelineTest {
+
+    @Test
+    void capturesFlowThroughEveryStageOnDedicatedWorkers() throws Exception {
+        List<String> persisted = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<String> gateThread = new AtomicReference<>();
+        AtomicReference<String> persistThread = new AtomicReference<>();
+        AtomicReference<String> stoppedThread = new AtomicReference<>();
+        AtomicReference<String> observedContext = new AtomicReference<>();
+
+        CapturePipeline<String, String> pipeline = new CapturePipeline<>(
+                () -> "foreground",
+                (text, context) -> {
+                    gateThread.set(Thread.currentThread().getName());
+                    observedContext.set(context);
+                    return !text.startsWith("secret");
+                },
+                (text, observedAt) -> text.text().isBlank() ? null : text.text().toUpperCase(),
+                value -> {
+                    persistThread.set(Thread.currentThread().getName());
+                    persisted.add(value);
+                },
+                () -> stoppedThread.set(Thread.currentThread().getName())
+        );
+
+        pipeline.submit(text("alpha"));
+        pipeline.submit(text("secret token"));
+        pipeline.submit(text("   "));
+        pipeline.submit(text("beta"));
+        pipeline.close();
+
+        assertEquals(List.of("ALPHA", "BETA"), persisted);
+        assertEquals("xclip-capture-gate", gateThread.get());
+        assertEquals("xclip-capture-persist", persistThread.get());
+        assertEquals("xclip-capture-persist", stoppedThread.get());
+        assertEquals("foreground", observedContext.get());
+
+        List<CapturePipeline.StageMetrics> metrics = pipeline.metrics();
+        assertEquals(List.of("observe", "gate", "prepare", "persist"), metrics.stream()
+                .map(CapturePipeline.StageMetrics::stage)
+                .toList());
+        assertEquals(4, metrics.get(1).completed());
+        assertEquals(3, metrics.get(2).completed());
+        assertEquals(2, metrics.get(3).completed());
+    }
+
+    @Test
+    void slowPersistNeverBlocksSubmitAndKeepsNewestCaptures() throws Exception {
+        CountDownLatch persistEntered = new CountDownLatch(1);
+        CountDownLatch releasePersist = new CountDownLatch(1);
+        List<String> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        CapturePipeline<Void, String> pipeline = new CapturePipeline<>(
+                () -> null,
+                (text, context) -> true,
+                (text, observedAt) -> text.text(),
+                value -> {
+                    persistEntered.countDown();
+                    try {
+                        releasePersist.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                    persisted.add(value);
+                },
+                () -> {}
+        );
+
+        pipeline.submit(text("first"));
+        assertTrue(persistEntered.await(2, TimeUnit.SECONDS));
+
+        int burst = CapturePipeline.GATE_QUEUE_CAPACITY
+                + CapturePipeline.PREPARE_QUEUE_CAPACITY
+                + CapturePipeline.PERSIST_QUEUE_CAPACITY
+                + 40;
+        long started = System.nanoTime();
+        for (int index = 0; index < burst; index++) {
+            pipeline.submit(text("value-" + index));
+        }
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(submitMillis < 1_000, "submit blocked for " + submitMillis + " ms");
+
+        awaitPersistQueue(pipeline, 0L);
+        long persistAccepted = pipeline.metrics().get(3).accepted();
+        pipeline.submit(text("value-" + (burst - 1)));
+        awaitPersistQueue(pipeline, persistAccepted + 1);
+        releasePersist.countDown();
+        pipeline.close();
+
+        List<CapturePipeline.StageMetrics> metrics = pipeline.metrics();
+        CapturePipeline.StageMetrics persist = metrics.get(3);
+        assertTrue(persist.maxDepth() <= CapturePipeline.PERSIST_QUEUE_CAPACITY);
+        assertTrue(metrics.stream().mapToLong(CapturePipeline.StageMetrics::dropped).sum() > 0);
+        assertEquals(1, persist.merged());
+        assertEquals("first", persisted.get(0));
+        assertEquals("value-" + (burst - 1), persisted.get(persisted.size() - 1));
+        assertEquals(persisted.size(), persisted.stream().distinct().count());
+    }
+
+    @Test
+    void stageFailuresAreCountedAndDoNotStopTheWorker() {
+        AtomicInteger persisted = new AtomicInteger();
+        CapturePipeline<Void, String> pipeline = new CapturePipeline<>(
+                () -> {
+                    throw new IllegalStateException("context unavailable");
+                },
+                (text, context) -> {
+                    throw new IllegalStateException("gate unavailable");
+                },
+                (text, observedAt) -> text.text(),
+                value -> {
+                    if (value.equals("broken")) throw new IllegalStateException("write failed");
+                    persisted.incrementAndGet();
+                },
+                () -> {}
+        );
+
+        pipeline.submit(text("broken"));
+        pipeline.submit(text("alpha"));
+        pipeline.close();
+        pipeline.submit(text("after close"));
+
+        assertEquals(1, persisted.get());
+        assertEquals(1, pipeline.metrics().get(3).failed());
+        assertEquals(2, pipeline.metrics().get(0).accepted());
+    }
+
+    private static ClipboardText text(String value) {
+        return ClipboardText.complete(value);
+    }
+
+    /** Waits until the blocked persist queue is full and upstream is idle. */
+    private static void awaitPersistQueue(
+            CapturePipeline<Void, String> pipeline,
+            long minimumAccepted
+    ) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            List<CapturePipeline.StageMetrics> metrics = pipeline.metrics();
+            if (idle(metrics.get(1))
+                    && idle(metrics.get(2))
+                    && metrics.get(3).depth() == CapturePipeline.PERSIST_QUEUE_CAPACITY
+                    && metrics.get(3).accepted() >= minimumAccepted) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /** No queued or in-flight capture remains in the stage. */
+    private static boolean idle(CapturePipeline.StageMetrics stage) {
+        return stage.depth() == 0
+                && stage.accepted() - stage.dropped() - stage.merged() == stage.completed();
+    }
+}
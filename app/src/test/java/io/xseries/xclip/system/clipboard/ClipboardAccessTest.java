@@ -0,0 +1,156 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.Transferable;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClipboardAccessTest {
+
+    private static final String HTML = "<html><body><b>Quarterly</b> report</body></html>";
+    private static final String PLAIN = "Quarterly report";
+
+    @Test
+    void plainTextIsReadEvenWhenHtmlIsOfferedToo() throws Exception {
+        Transferable contents = new RichTransferable(
+                new DataFlavor("text/html;class=java.io.Reader"),
+                new DataFlavor("text/html;class=java.lang.String"),
+                new DataFlavor("text/rtf;class=java.io.InputStream;charset=UTF-8"),
+                new DataFlavor("text/plain;class=java.io.InputStream;charset=UTF-8"),
+                DataFlavor.stringFlavor
+        );
+
+        assertEquals(PLAIN, readAll(ClipboardAccess.plainTextReader(contents)));
+    }
+
+    @Test
+    void stringFlavorIsTheFallbackWithoutATextPlainFlavor() throws Exception {
+        Transferable contents = new RichTransferable(
+                new DataFlavor("text/html;class=java.lang.String"),
+                DataFlavor.stringFlavor
+        );
+
+        assertEquals(PLAIN, readAll(ClipboardAccess.plainTextReader(contents)));
+    }
+
+    @Test
+    void markupOnlyContentsHaveNoPlainText() throws Exception {
+        Transferable contents = new RichTransferable(
+                new DataFlavor("text/html;class=java.lang.String")
+        );
+
+        assertNull(ClipboardAccess.plainTextReader(contents));
+    }
+
+    @Test
+    void stringSelectionRoundTrips() throws Exception {
+        assertEquals("код\r\ntail", readAll(ClipboardAccess.plainTextReader(
+                new StringSelection("код\r\ntail")
+        )));
+    }
+
+    @Test
+    void nativeCrlfTextIsReadAsLfAcrossTransfers() {
+        String text = "a\r\nb\rc" + "x".repeat(CappedTextReader.BUFFER_CHARS - 1) + "\r\nend\r";
+        ClipboardAccess access = new ClipboardAccess(read -> read.read(new ChunkedReader(text, 3)), true);
+
+        ClipboardText read = access.readText(0);
+
+        assertFalse(read.truncated());
+        assertEquals(text.replace("\r\n", "\n"), read.text());
+    }
+
+    @Test
+    void nativeCapCountsNormalizedText() {
+        ClipboardAccess exact = new ClipboardAccess(
+                read -> read.read(new ChunkedReader("ab\r\ncd\r\n", 3)),
+                true
+        );
+        ClipboardAccess over = new ClipboardAccess(
+                read -> read.read(new ChunkedReader("abc\r\nd", 4)),
+                true
+        );
+
+        assertEquals(ClipboardText.complete("ab\ncd\n"), exact.readText(6));
+        assertEquals(new ClipboardText("abc", true), over.readText(3));
+    }
+
+    private static String readAll(Reader reader) throws Exception {
+        try (reader) {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[64];
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                text.append(buffer, 0, read);
+            }
+            return text.toString();
+        }
+    }
+
+    /** Hands out text a few chars at a time, splitting CRLF pairs between reads. */
+    private static final class ChunkedReader extends Reader {
+        private final String text;
+        private final int chunk;
+        private int position;
+
+        private ChunkedReader(String text, int chunk) {
+            this.text = text;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] target, int offset, int length) {
+            if (position == text.length()) return -1;
+            int count = Math.min(Math.min(length, chunk), text.length() - position);
+            text.getChars(position, position + count, target, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** Offers the same content as markup and as plain text, like a browser copy. */
+    private record RichTransferable(DataFlavor... flavors) implements Transferable {
+
+        @Override
+        public DataFlavor[] getTransferDataFlavors() {
+            return flavors.clone();
+        }
+
+        @Override
+        public boolean isDataFlavorSupported(DataFlavor flavor) {
+            return Arrays.asList(flavors).contains(flavor);
+        }
+
+        @Override
+        public Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException {
+            if (!isDataFlavorSupported(flavor)) throw new UnsupportedFlavorException(flavor);
+
+            boolean plain = flavor.equals(DataFlavor.stringFlavor) || flavor.isMimeTypeEqual("text/plain");
+            String text = plain ? PLAIN : HTML;
+            Class<?> representation = flavor.getRepresentationClass();
+            if (representation == Reader.class) return new StringReader(text);
+            if (representation == String.class) return text;
+            return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
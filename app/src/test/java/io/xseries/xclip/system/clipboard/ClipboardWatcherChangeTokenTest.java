@@ -0,0 +1,105 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClipboardWatcherChangeTokenTest {
+
+    @Test
+    void unchangedTokenNeverTransfersClipboardText() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        List<String> captured = new ArrayList<>();
+        source.setText("x".repeat(500_000));
+
+        try (ClipboardWatcher watcher = watcher(source, captured)) {
+            watcher.poll();
+            assertEquals(1, source.reads());
+
+            for (int poll = 0; poll < 1_000; poll++) {
+                watcher.poll();
+            }
+            assertEquals(1, source.reads());
+            assertEquals(1, captured.size());
+
+            source.setText("next");
+            watcher.poll();
+            watcher.poll();
+            assertEquals(2, source.reads());
+            assertEquals("next", captured.get(1));
+        }
+    }
+
+    @Test
+    void busyClipboardIsRetriedUntilReadSucceeds() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        List<String> captured = new ArrayList<>();
+
+        try (ClipboardWatcher watcher = watcher(source, captured)) {
+            source.setBusy(true);
+            source.setText("copied while busy");
+            watcher.poll();
+            watcher.poll();
+            assertEquals(List.of(), captured);
+
+            source.setBusy(false);
+            watcher.poll();
+            watcher.poll();
+            assertEquals(List.of("copied while busy"), captured);
+            assertEquals(1, source.reads());
+        }
+    }
+
+    @Test
+    void unknownTokenFallsBackToReadingEveryPoll() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        List<String> captured = new ArrayList<>();
+        source.setTokenSupported(false);
+        source.setText("same");
+
+        try (ClipboardWatcher watcher = watcher(source, captured)) {
+            watcher.poll();
+            watcher.poll();
+            watcher.poll();
+
+            assertEquals(3, source.reads());
+            assertEquals(List.of("same"), captured);
+        }
+    }
+
+    @Test
+    void recopyingEqualTextAdvancesTokenButIsNotCapturedTwice() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        List<String> captured = new ArrayList<>();
+
+        try (ClipboardWatcher watcher = watcher(source, captured)) {
+            source.setText("value");
+            watcher.poll();
+            source.setText("value");
+            watcher.poll();
+
+            assertEquals(2, source.reads());
+            assertEquals(List.of("value"), captured);
+        }
+    }
+
+    private static ClipboardWatcher watcher(
+            ClipboardSource source,
+            List<String> captured
+    ) {
+        return new ClipboardWatcher(
+                source,
+                read -> captured.add(read.text()),
+                () -> false,
+                ignored -> true
+        );
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ClipboardWatcherImageTest {
+
+    @Test
+    void imageIsDeliveredOncePerClipboardChange() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        Captured captured = new Captured();
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+
+        try (ClipboardWatcher watcher = watcher(source, captured, () -> false, 1_000L)) {
+            source.setImage(image);
+            for (int poll = 0; poll < 10; poll++) {
+                watcher.poll();
+            }
+
+            assertEquals(1, source.imageReads());
+            assertEquals(1, captured.images.size());
+            assertSame(image, captured.images.get(0));
+        }
+    }
+
+    @Test
+    void textCopiedBeforeAnImageIsCapturedAgainAfterIt() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        Captured captured = new Captured();
+
+        try (ClipboardWatcher watcher = watcher(source, captured, () -> false, 1_000L)) {
+            source.setText("before");
+            watcher.poll();
+            source.setImage(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB));
+            watcher.poll();
+            source.setText("before");
+            watcher.poll();
+
+            assertEquals(List.of("before", "before"), captured.texts);
+            assertEquals(1, captured.images.size());
+        }
+    }
+
+    @Test
+    void imagesAboveThePixelCapAreSkipped() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        Captured captured = new Captured();
+
+        try (ClipboardWatcher watcher = watcher(source, captured, () -> false, 15L)) {
+            source.setImage(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB));
+            watcher.poll();
+
+            assertEquals(List.of(), captured.images);
+        }
+    }
+
+    @Test
+    void imagesAreNotReadWithoutChangeTokensOrAConsumer() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        source.setImage(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB));
+
+        try (ClipboardWatcher textOnly = new ClipboardWatcher(
+                source,
+                ignored -> {},
+                () -> false,
+                ignored -> true
+        )) {
+            textOnly.poll();
+        }
+        assertEquals(0, source.imageReads());
+
+        source.setTokenSupported(false);
+        Captured captured = new Captured();
+        try (ClipboardWatcher watcher = watcher(source, captured, () -> false, 1_000L)) {
+            watcher.poll();
+            watcher.poll();
+        }
+        assertEquals(0, source.imageReads());
+        assertEquals(List.of(), captured.images);
+    }
+
+    @Test
+    void imageCopiedWhilePausedIsSkippedAfterResume() {
+        InMemoryClipboardSource source = new InMemoryClipboardSource();
+        Captured captured = new Captured();
+        AtomicBoolean paused = new AtomicBoolean(true);
+
+        try (ClipboardWatcher watcher = watcher(source, captured, paused::get, 1_000L)) {
+            source.setImage(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB));
+            watcher.poll();
+
+            paused.set(false);
+            watcher.poll();
+            watcher.poll();
+
+            assertEquals(List.of(), captured.images);
+            assertEquals(0, source.imageReads());
+        }
+    }
+
+    private static ClipboardWatcher watcher(
+            ClipboardSource source,
+            Captured captured,
+            BooleanSupplier isPaused,
+            long maxImagePixels
+    ) {
+        return new ClipboardWatcher(
+                source,
+                read -> captured.texts.add(read.text()),
+                isPaused,
+                ignored -> true,
+                () -> {},
+                () -> 1_000,
+                captured.images::add,
+                maxImagePixels
+        );
+    }
+
+    private static final class Captured {
+        final List<String> texts = new ArrayList<>();
+        final List<BufferedImage> images = new ArrayList<>();
+    }
+}
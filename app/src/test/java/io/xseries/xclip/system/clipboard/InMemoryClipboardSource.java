@@ -0,0 +1,96 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.system.clipboard;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+/**
+ * Deterministic clipboard for watcher tests. Every {@link #setText(String)}
+ * advances the sequence number, like the Windows clipboard sequence number.
+ * Every transfer is counted, along with the largest number of characters a
+ * single read materialized. {@link #setImage(BufferedImage)} replaces the
+ * text, as copying an image does.
+ */
+public final class InMemoryClipboardSource implements ClipboardSource {
+
+    private long sequence = 1;
+    private String text;
+    private BufferedImage image;
+    private boolean busy;
+    private boolean tokenSupported = true;
+    private int reads;
+    private int imageReads;
+    private int maxCharsMaterialized;
+
+    public synchronized void setText(String text) {
+        this.text = text;
+        this.image = null;
+        sequence++;
+    }
+
+    public synchronized void setImage(BufferedImage image) {
+        this.text = null;
+        this.image = image;
+        sequence++;
+    }
+
+    /** While busy, reads fail as if another process held the clipboard open. */
+    public synchronized void setBusy(boolean busy) {
+        this.busy = busy;
+    }
+
+    public synchronized void setTokenSupported(boolean tokenSupported) {
+        this.tokenSupported = tokenSupported;
+    }
+
+    /** Number of completed text transfers. */
+    public synchronized int reads() {
+        return reads;
+    }
+
+    /** Number of completed image transfers. */
+    public synchronized int imageReads() {
+        return imageReads;
+    }
+
+    /** Largest number of characters a single read copied out of the clipboard. */
+    public synchronized int maxCharsMaterialized() {
+        return maxCharsMaterialized;
+    }
+
+    @Override
+    public synchronized long changeToken() {
+        return tokenSupported ? sequence : UNKNOWN_CHANGE_TOKEN;
+    }
+
+    @Override
+    public synchronized ClipboardText readText(int maxChars) {
+        if (busy) throw new IllegalStateException("clipboard is busy");
+        reads++;
+        if (text == null) return null;
+
+        try {
+            ClipboardText read = new CappedTextReader().read(new StringReader(text), maxChars);
+            int materialized = read.truncated() ? maxChars + 1 : read.text().length();
+            maxCharsMaterialized = Math.max(maxCharsMaterialized, materialized);
+            return read;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized BufferedImage readImage(long maxPixels) {
+        if (busy) throw new IllegalStateException("clipboard is busy");
+        if (image == null) return null;
+        if ((long) image.getWidth() * image.getHeight() > maxPixels) return null;
+        imageReads++;
+        return image;
+    }
+}
@@ -108,4 +108,47 @@ class ClipboardPrivacyGateTest {
         gate.applyConfig(Config.defaults());
         assertTrue(gate.isCaptureAllowed("4111111111111111"));
     }
+
+    @Test
+    void foregroundSnapshotKeepsObservationTimeDecision() {
+        AtomicReference<Optional<ForegroundApplication>> foreground =
+                new AtomicReference<>(Optional.of(new ForegroundApplication(
+                        42,
+                        "keepass.exe",
+                        "Vault"
+                )));
+        ClipboardPrivacyGate gate = new ClipboardPrivacyGate(foreground::get);
+        assertTrue(gate.foregroundSnapshot().isEmpty());
+
+        gate.applyConfig(Config.defaults().withExcludedApplications(List.of("keepass")));
+        Optional<ForegroundApplication> observed = gate.foregroundSnapshot();
+        foreground.set(Optional.of(new ForegroundApplication(43, "notepad.exe", "Notes")));
+
+        assertFalse(gate.isCaptureAllowed("copied secret", observed));
+        assertTrue(gate.isCaptureAllowed("copied secret", gate.foregroundSnapshot()));
+    }
+
+    @Test
+    void contentFreeCapturesApplyOnlyTheApplicationRule() {
+        AtomicReference<Optional<ForegroundApplication>> foreground =
+                new AtomicReference<>(Optional.of(new ForegroundApplication(
+                        42,
+                        "C:\\Tools\\Snipping.exe",
+                        "Screenshot"
+                )));
+        ClipboardPrivacyGate gate = new ClipboardPrivacyGate(foreground::get);
+        assertTrue(gate.isApplicationAllowed(gate.foregroundSnapshot()));
+
+        gate.applyConfig(Config.defaults()
+                .withExcludedApplications(List.of("snipping"))
+                .withSensitiveContentPolicy(new SensitiveContentPolicy(
+                        SensitiveContentPolicy.RuleAction.SKIP,
+                        SensitiveContentPolicy.RuleAction.SKIP
+                )));
+        assertFalse(gate.isApplicationAllowed(gate.foregroundSnapshot()));
+
+        foreground.set(Optional.of(new ForegroundApplication(43, "paint.exe", "Paint")));
+        assertTrue(gate.isApplicationAllowed(gate.foregroundSnapshot()));
+        assertTrue(gate.isApplicationAllowed(Optional.empty()));
+    }
 }
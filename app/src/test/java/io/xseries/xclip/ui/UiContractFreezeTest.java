@@ -11,6 +11,8 @@ import io.xseries.xclip.config.Config;
 import io.xseries.xclip.data.db.Database;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService;
 import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
+import io.xseries.xclip.domain.duplicate.PerceptualImageHash;
+import io.xseries.xclip.domain.image.ClipImageCodec;
 import io.xseries.xclip.domain.model.ClipContentType;
 import io.xseries.xclip.domain.privacy.ExcludedApplicationPolicy;
 import io.xseries.xclip.domain.privacy.SensitiveContentPolicy;
@@ -54,7 +56,7 @@ class UiContractFreezeTest {
     void frozenContractMatchesRuntimeConstantsAndEnums() throws Exception {
         Properties contract = loadContract();
 
-        assertEquals("19", contract.getProperty("contract.version"));
+        assertEquals("21", contract.getProperty("contract.version"));
         assertEquals("1.4.0", contract.getProperty("product.version"));
         assertEquals(Config.MIN_WINDOW_W, intValue(contract, "window.minWidth"));
         assertEquals(Config.MIN_WINDOW_H, intValue(contract, "window.minHeight"));
@@ -330,6 +332,22 @@ class UiContractFreezeTest {
                 required(contract, "history.cleanupStatus")
         );
         assertEquals("NONE", required(contract, "history.schemaMutation"));
+        assertEquals(ClipImageCodec.MAX_PIXELS, longValue(contract, "image.maxPixels"));
+        assertEquals(
+                ClipImageCodec.THUMBNAIL_MAX_WIDTH + "x" + ClipImageCodec.THUMBNAIL_MAX_HEIGHT,
+                required(contract, "image.thumbnailMax")
+        );
+        assertEquals("PNG_LOSSLESS", required(contract, "image.storage"));
+        assertEquals("SAME_SIZE_PERCEPTUAL_HASH", required(contract, "image.duplicateKey"));
+        assertEquals(
+                PerceptualImageHash.MAX_DISTANCE,
+                intValue(contract, "image.duplicateMaxDistance")
+        );
+        assertEquals(
+                "EXCLUDED_APPLICATIONS_ON_CAPTURE_WORKER",
+                required(contract, "image.privacy")
+        );
+        assertEquals("HOLD_UNTIL_RESUMED", required(contract, "image.maintenance"));
         assertEquals(UiStyles.popupResourcePaths(), values(contract, "popup.stylesheets"));
         assertEquals(UiStyles.settingsResourcePaths(), values(contract, "settings.stylesheets"));
         assertEquals(
@@ -384,6 +402,8 @@ class UiContractFreezeTest {
                         "OPTIMIZE_DATABASE",
                         "CREATE_BACKUP",
                         "RESTORE_BACKUP",
+                        "EXPORT_HISTORY",
+                        "IMPORT_HISTORY",
                         "CLEAR_RECENT",
                         "CLEAR_ALL"
                 ),
@@ -397,6 +417,10 @@ class UiContractFreezeTest {
                 "VERSIONED_ARCHIVE_VALIDATED_ATOMIC_REPLACE",
                 required(contract, "settings.backupRestore")
         );
+        assertEquals(
+                "NDJSON_TEXT_ONLY_MERGE_THEN_PRUNE",
+                required(contract, "settings.historyTransfer")
+        );
         assertEquals(
                 Database.CURRENT_SCHEMA_VERSION,
                 intValue(contract, "database.schemaVersion")
@@ -124,6 +124,19 @@ class UiStylesResourceTest {
         }
     }
 
+    @Test
+    void clipViewerSelectorsArePackaged() throws Exception {
+        try (InputStream stream = UiStyles.class.getResourceAsStream("/ui/dialogs.css")) {
+            assertNotNull(stream);
+            String css = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertTrue(css.contains(".x-dialog.clip-viewer-dialog .clip-viewer-list"));
+            assertTrue(css.contains(".clip-viewer-row:selected"));
+            assertTrue(css.contains(".clip-viewer-line-number"));
+            assertTrue(css.contains(".clip-viewer-progress"));
+        }
+    }
+
     @Test
     void settingsShellSelectorsArePackaged() throws Exception {
         try (InputStream stream = UiStyles.class.getResourceAsStream("/ui/dialogs.css")) {
@@ -0,0 +1,91 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.components;
+
+import io.xseries.xclip.ui.components.RasterIconCache.Key;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class RasterIconCacheTest {
+
+    private static final int WHITE = 0xFFFFFFFF;
+
+    @Test
+    void rendersEachCombinationOnce() {
+        RasterIconCache<String> cache = new RasterIconCache<>(8);
+        List<Key> rendered = new ArrayList<>();
+
+        String first = cache.get(Key.of(UiIcon.PIN, 12, WHITE, 1.5), key -> render(rendered, key));
+        String again = cache.get(Key.of(UiIcon.PIN, 12.0, WHITE, 1.5), key -> render(rendered, key));
+
+        assertSame(first, again);
+        assertEquals(1, rendered.size());
+        assertEquals(1, cache.renders());
+        assertEquals(12.0, rendered.get(0).size());
+        assertEquals(1.5, rendered.get(0).scale());
+    }
+
+    @Test
+    void colorSizeAndRenderScaleEachSelectANewImage() {
+        RasterIconCache<String> cache = new RasterIconCache<>(8);
+        List<Key> rendered = new ArrayList<>();
+
+        cache.get(Key.of(UiIcon.PIN, 12, WHITE, 1.0), key -> render(rendered, key));
+        cache.get(Key.of(UiIcon.PIN, 12, 0xFFD9A632, 1.0), key -> render(rendered, key));
+        cache.get(Key.of(UiIcon.PIN, 13, WHITE, 1.0), key -> render(rendered, key));
+        cache.get(Key.of(UiIcon.PIN, 12, WHITE, 1.25), key -> render(rendered, key));
+        cache.get(Key.of(UiIcon.CHECK, 12, WHITE, 1.0), key -> render(rendered, key));
+
+        assertEquals(5, rendered.size());
+        assertEquals(5, cache.size());
+        assertNotEquals(Key.of(UiIcon.PIN, 12, WHITE, 1.0), Key.of(UiIcon.PIN, 12, WHITE, 1.25));
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreDroppedAtTheBound() {
+        RasterIconCache<String> cache = new RasterIconCache<>(2);
+        List<Key> rendered = new ArrayList<>();
+        Key pin = Key.of(UiIcon.PIN, 12, WHITE, 1.0);
+        Key check = Key.of(UiIcon.CHECK, 11, WHITE, 1.0);
+        Key more = Key.of(UiIcon.ELLIPSIS_VERTICAL, 13, WHITE, 1.0);
+
+        cache.get(pin, key -> render(rendered, key));
+        cache.get(check, key -> render(rendered, key));
+        cache.get(pin, key -> render(rendered, key));
+        cache.get(more, key -> render(rendered, key));
+        cache.get(pin, key -> render(rendered, key));
+        cache.get(check, key -> render(rendered, key));
+
+        assertEquals(List.of(pin, check, more, check), rendered);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void clearForcesTheNextUseToRenderAgain() {
+        RasterIconCache<String> cache = new RasterIconCache<>(4);
+        List<Key> rendered = new ArrayList<>();
+        Key pin = Key.of(UiIcon.PIN, 12, WHITE, 1.0);
+
+        cache.get(pin, key -> render(rendered, key));
+        cache.clear();
+        cache.get(pin, key -> render(rendered, key));
+
+        assertEquals(2, rendered.size());
+        assertThrows(IllegalArgumentException.class, () -> new RasterIconCache<String>(0));
+    }
+
+    private static String render(List<Key> rendered, Key key) {
+        rendered.add(key);
+        return key.icon() + "@" + key.sizeHundredths() + "/" + key.scaleHundredths();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteBoundedLruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesUntilWithinBudget() {
+        ByteBoundedLruCache<Integer, byte[]> cache = new ByteBoundedLruCache<>(100, value -> value.length);
+        cache.put(1, new byte[40]);
+        cache.put(2, new byte[40]);
+
+        assertNotNull(cache.get(1));
+        cache.put(3, new byte[50]);
+
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertNotNull(cache.get(3));
+        assertEquals(90, cache.bytes());
+    }
+
+    @Test
+    void replacingAValueReleasesItsPreviousWeight() {
+        ByteBoundedLruCache<Integer, byte[]> cache = new ByteBoundedLruCache<>(100, value -> value.length);
+        cache.put(1, new byte[60]);
+        cache.put(1, new byte[10]);
+
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.bytes());
+    }
+
+    @Test
+    void neverCachesAValueHeavierThanTheBudget() {
+        ByteBoundedLruCache<Integer, byte[]> cache = new ByteBoundedLruCache<>(100, value -> value.length);
+        cache.put(1, new byte[30]);
+        cache.put(2, new byte[101]);
+
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertEquals(30, cache.bytes());
+    }
+
+    @Test
+    void remainsWithinBudgetAcrossManyEntries() {
+        ByteBoundedLruCache<Integer, byte[]> cache = new ByteBoundedLruCache<>(16_384, value -> value.length);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, new byte[100 + i % 900]);
+            assertTrue(cache.bytes() <= cache.maxBytes());
+        }
+
+        cache.remove(9_999);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClipContentPagerTest {
+
+    @Test
+    void indexesLinesChunkByChunkAndReadsPagesWithoutLineBreaks() {
+        ClipContentPager pager = new ClipContentPager(new StringSource("one\r\ntwo\n\nfour"), 4, 100, 2, 4);
+
+        assertEquals(1, pager.rowCount());
+        assertTrue(pager.indexNextChunk());
+        assertEquals(1, pager.rowCount());
+        assertTrue(pager.indexNextChunk());
+        assertFalse(pager.indexComplete());
+        drain(pager);
+
+        assertTrue(pager.indexComplete());
+        assertEquals(4, pager.rowCount());
+        assertEquals(4, pager.lineCount());
+        assertEquals(List.of("one", "two"), pager.page(0));
+        assertEquals(List.of("", "four"), pager.page(1));
+        assertEquals("four", pager.cachedRow(3));
+        assertEquals(2, pager.rowOfLine(2));
+        assertEquals(-1, pager.rowOfLine(4));
+    }
+
+    @Test
+    void longLinesContinueOnExtraRowsOfTheSameLine() {
+        ClipContentPager pager = new ClipContentPager(new StringSource("abcdefgh\nxy"), 3, 3, 10, 4);
+        drain(pager);
+
+        assertEquals(List.of("abc", "def", "gh", "xy"), pager.page(0));
+        assertTrue(pager.startsLine(0));
+        assertFalse(pager.startsLine(1));
+        assertEquals(0, pager.lineOfRow(2));
+        assertEquals(1, pager.lineOfRow(3));
+        assertEquals(3, pager.rowOfLine(1));
+        assertEquals(1, pager.rowOfOffset(4));
+    }
+
+    @Test
+    void offsetsCountCodePointsSoSurrogatePairsStayWhole() {
+        ClipContentPager pager = new ClipContentPager(new StringSource("😀😀😀😀\nz"), 2, 3, 10, 4);
+        drain(pager);
+
+        assertEquals(6, pager.length());
+        assertEquals(List.of("😀😀😀", "😀", "z"), pager.page(0));
+
+        ClipContentPager.Match match = pager.findNext("z", 0, false);
+        assertEquals(new ClipContentPager.Match(5, 2, 0), match);
+    }
+
+    @Test
+    void growingPagesServeOnlyFinalRowsUntilTheIndexReachesThem() {
+        ClipContentPager pager = new ClipContentPager(new StringSource("a\nb\nc\nd\n"), 4, 10, 10, 4);
+
+        pager.indexNextChunk();
+        assertTrue(pager.isRowFinal(1));
+        assertFalse(pager.isRowFinal(2));
+        assertEquals(List.of("a", "b"), pager.page(0));
+        assertEquals("b", pager.cachedRow(1));
+        assertNull(pager.cachedRow(2));
+
+        drain(pager);
+        assertTrue(pager.isRowFinal(4));
+        assertEquals(List.of("a", "b", "c", "d", ""), pager.page(0));
+        assertEquals("d", pager.cachedRow(3));
+    }
+
+    @Test
+    void findNextSpansChunkBoundariesAndIndexesTheMatchRow() {
+        String body = "x".repeat(30) + "\nneedle here\n" + "y".repeat(30) + "Needle";
+        ClipContentPager pager = new ClipContentPager(new StringSource(body), 8, 100, 10, 4);
+
+        ClipContentPager.Match first = pager.findNext("needle", 0, false);
+        assertEquals(31, first.offset());
+        assertEquals(1, first.row());
+        assertEquals(0, first.column());
+        assertFalse(pager.indexComplete());
+
+        assertNull(pager.findNext("needle", first.offset() + 1, false));
+        ClipContentPager.Match second = pager.findNext("needle", first.offset() + 1, true);
+        assertEquals(body.indexOf("Needle"), second.offset());
+        assertEquals(2, second.row());
+        assertEquals(30, second.column());
+        assertNull(pager.findNext("", 0, false));
+    }
+
+    @Test
+    void ignoringCaseKeepsOffsetsAfterCharactersThatGrowWhenLowercased() {
+        // U+0130 lowercases to two chars; the matches after it must not shift.
+        String body = "İİ needle\nİ NEEDLE";
+        ClipContentPager pager = new ClipContentPager(new StringSource(body), 8, 100, 10, 4);
+
+        ClipContentPager.Match first = pager.findNext("needle", 0, true);
+        assertEquals(3, first.offset());
+        assertEquals(0, first.row());
+        assertEquals(3, first.column());
+
+        ClipContentPager.Match second = pager.findNext("needle", first.offset() + 1, true);
+        assertEquals(12, second.offset());
+        assertEquals(1, second.row());
+        assertEquals(2, second.column());
+        assertEquals("NEEDLE", body.substring(second.offset(), second.offset() + 6));
+    }
+
+    @Test
+    void emptyAndVanishedClipsIndexToASingleEmptyRow() {
+        ClipContentPager empty = new ClipContentPager(new StringSource(""));
+        assertTrue(empty.indexComplete());
+        assertEquals(List.of(""), empty.page(0));
+
+        ClipContentPager vanished = new ClipContentPager(new ClipContentPager.ContentSource() {
+            @Override
+            public int length() {
+                return 50;
+            }
+
+            @Override
+            public String read(int start, int length) {
+                return null;
+            }
+        });
+        assertFalse(vanished.indexNextChunk());
+        assertTrue(vanished.indexComplete());
+        assertEquals(1, vanished.rowCount());
+    }
+
+    private static void drain(ClipContentPager pager) {
+        while (pager.indexNextChunk()) {
+            // keep indexing
+        }
+    }
+
+    /** In-memory body with the same code point semantics as SQLite substr. */
+    private record StringSource(String body) implements ClipContentPager.ContentSource {
+        @Override
+        public int length() {
+            return body.codePointCount(0, body.length());
+        }
+
+        @Override
+        public String read(int start, int length) {
+            int total = length();
+            if (start >= total) return "";
+            int from = body.offsetByCodePoints(0, start);
+            int to = body.offsetByCodePoints(from, Math.min(length, total - start));
+            return body.substring(from, to);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.event.ClipChangeEvent;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.ui.popup.PopupChangeApplier.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupChangeApplierTest {
+
+    private static final Predicate<ClipEntry> ALL = entry -> true;
+
+    @Test
+    void newClipLandsBelowPinnedRowsAndCountsOnce() {
+        List<PopupRow> rows = PopupRows.build(List.of(pinned(9, 0), recent(2, 200), recent(1, 100)));
+
+        Result result = PopupChangeApplier.apply(
+                rows,
+                List.of(inserted(3, 300)),
+                ALL,
+                10,
+                true
+        );
+
+        assertFalse(result.requery());
+        assertEquals(List.of(9L, 3L, 2L, 1L), ids(result));
+        assertEquals(1, result.countDelta());
+        assertTrue(result.complete());
+    }
+
+    @Test
+    void insertIntoAFullWindowDropsTheOldestRow() {
+        List<PopupRow> rows = PopupRows.build(List.of(recent(2, 200), recent(1, 100)));
+
+        Result result = PopupChangeApplier.apply(rows, List.of(inserted(3, 300)), ALL, 2, true);
+
+        assertEquals(List.of(3L, 2L), ids(result));
+        assertFalse(result.complete());
+    }
+
+    @Test
+    void insertThatFailsTheFilterOnlyChangesTheCount() {
+        List<PopupRow> rows = PopupRows.build(List.of(recent(1, 100)));
+
+        Result result = PopupChangeApplier.apply(
+                rows,
+                List.of(inserted(2, 200)),
+                entry -> entry.id() != 2L,
+                10,
+                true
+        );
+
+        assertEquals(List.of(1L), ids(result));
+        assertEquals(1, result.countDelta());
+    }
+
+    @Test
+    void plansThatNeedTheDatabaseRequery() {
+        List<PopupRow> rows = PopupRows.build(List.of(recent(1, 100)));
+
+        assertTrue(PopupChangeApplier.apply(rows, List.of(inserted(2, 200)), null, 10, true).requery());
+        assertTrue(PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.PinChanged(1, true)),
+                ALL,
+                10,
+                true
+        ).requery());
+        assertTrue(PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.Purged(5)),
+                ALL,
+                10,
+                true
+        ).requery());
+    }
+
+    @Test
+    void bumpMovesAnUnpinnedRowToTheTopWithItsNewContent() {
+        List<PopupRow> rows = PopupRows.build(List.of(pinned(9, 0), recent(2, 200), recent(1, 100)));
+
+        Result result = PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.Bumped(1, "fresh", 300L)),
+                ALL,
+                10,
+                true
+        );
+
+        assertEquals(List.of(9L, 1L, 2L), ids(result));
+        assertEquals("fresh", result.entries().get(1).content());
+        assertEquals(300L, result.entries().get(1).createdAt());
+        assertEquals(0, result.countDelta());
+    }
+
+    @Test
+    void bumpOfAPinnedRowKeepsItsPlace() {
+        List<PopupRow> rows = PopupRows.build(List.of(pinned(9, 0), pinned(8, 1), recent(1, 100)));
+
+        Result result = PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.Bumped(8, null, 500L)),
+                ALL,
+                10,
+                true
+        );
+
+        assertEquals(List.of(9L, 8L, 1L), ids(result));
+    }
+
+    @Test
+    void deletionRefillsOnlyWhenTheWindowWasCutOff() {
+        List<PopupRow> rows = PopupRows.build(List.of(recent(2, 200), recent(1, 100)));
+        ClipChangeEvent deleted = new ClipChangeEvent.Deleted(Set.of(2L), 1);
+
+        Result complete = PopupChangeApplier.apply(rows, List.of(deleted), ALL, 10, true);
+        assertEquals(List.of(1L), ids(complete));
+        assertEquals(-1, complete.countDelta());
+
+        assertTrue(PopupChangeApplier.apply(rows, List.of(deleted), ALL, 2, false).requery());
+        assertFalse(PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.Deleted(Set.of(77L), 1)),
+                ALL,
+                2,
+                false
+        ).requery());
+    }
+
+    @Test
+    void windowScrolledPastItsTopLeavesNewerRowsAboveIt() {
+        List<PopupRow> rows = PopupRows.build(List.of(pinned(9, 0), recent(3, 300), recent(2, 200)));
+
+        Result result = PopupChangeApplier.apply(
+                rows,
+                List.of(
+                        inserted(10, 1_000),
+                        new ClipChangeEvent.Bumped(2, null, 2_000L),
+                        new ClipChangeEvent.Bumped(77, "moved", 3_000L),
+                        new ClipChangeEvent.Deleted(Set.of(3L), 1)
+                ),
+                null,
+                3,
+                false,
+                true
+        );
+
+        assertFalse(result.requery());
+        assertEquals(List.of(9L), ids(result));
+        assertEquals(0, result.countDelta());
+    }
+
+    @Test
+    void trimRemovesUnpinnedRowsAtOrBeforeTheCutoff() {
+        List<PopupRow> rows = PopupRows.build(List.of(
+                pinned(9, 0),
+                recent(4, 300),
+                recent(3, 200),
+                recent(2, 200),
+                recent(1, 100)
+        ));
+
+        Result result = PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.Trimmed(200L, 2L, 2)),
+                ALL,
+                5,
+                false
+        );
+
+        assertFalse(result.requery());
+        assertEquals(List.of(9L, 4L, 3L), ids(result));
+        assertEquals(-2, result.countDelta());
+    }
+
+    @Test
+    void tagsAndTitlesAreKeptOrRequeriedAsNeeded() {
+        ClipTag work = new ClipTag(5, "Work", 1);
+        List<PopupRow> rows = PopupRows.build(
+                List.of(pinned(9, 0), recent(1, 100)),
+                Map.of(1L, List.of(work))
+        );
+
+        Result retitled = PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.Retitled(9, "Docs"), inserted(2, 200)),
+                ALL,
+                10,
+                true
+        );
+        assertEquals("Docs", retitled.entries().get(0).title());
+        assertEquals(List.of(work), retitled.tagsByClipId().get(1L));
+        assertEquals(List.of(), retitled.tagsByClipId().get(2L));
+
+        assertTrue(PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.TagsChanged(Set.of(1L))),
+                ALL,
+                10,
+                true
+        ).requery());
+        assertFalse(PopupChangeApplier.apply(
+                rows,
+                List.of(new ClipChangeEvent.TagsChanged(Set.of(50L))),
+                ALL,
+                10,
+                true
+        ).requery());
+    }
+
+    private static ClipChangeEvent inserted(long id, long copiedAt) {
+        return new ClipChangeEvent.Inserted(recent(id, copiedAt));
+    }
+
+    private static ClipEntry recent(long id, long copiedAt) {
+        return new ClipEntry(id, "clip-" + id, null, false, null, copiedAt);
+    }
+
+    private static ClipEntry pinned(long id, int pinOrder) {
+        return new ClipEntry(id, "pinned-" + id, null, true, pinOrder, 1L);
+    }
+
+    private static List<Long> ids(Result result) {
+        List<Long> ids = new ArrayList<>();
+        for (ClipEntry entry : result.entries()) ids.add(entry.id());
+        return ids;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.event.ClipChangeEvent;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.model.ClipContentType;
+import io.xseries.xclip.domain.model.ClipViewScope;
+import io.xseries.xclip.domain.search.SearchExecutionPlan;
+import io.xseries.xclip.domain.search.SearchQueryParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupHotTierTest {
+
+    private static final Function<ClipEntry, ClipContentType> TEXT = entry -> ClipContentType.TEXT;
+    private static final ClipTag WORK = new ClipTag(5, "Work", 1);
+
+    @Test
+    void coldTierAndPlansWithTextOrTagsGoToStorage() {
+        PopupHotTier tier = new PopupHotTier();
+        assertNull(tier.serve(plan("", ClipViewScope.ALL, null), 10, TEXT));
+        assertEquals(-1, tier.totalClipCount());
+
+        fill(tier, false, 10);
+
+        assertNull(tier.serve(plan("needle", ClipViewScope.ALL, null), 10, TEXT));
+        assertNull(tier.serve(plan("#Work", ClipViewScope.ALL, null), 10, TEXT));
+        assertTrue(PopupHotTier.needsDatabase(plan("needle", ClipViewScope.ALL, null)));
+        assertFalse(PopupHotTier.needsDatabase(plan("", ClipViewScope.RECENT, ClipContentType.URL)));
+    }
+
+    @Test
+    void servesTheFirstPageWithTagsAndTheStoredCount() {
+        PopupHotTier tier = new PopupHotTier();
+        fill(tier, false, 10);
+
+        PopupReloadCache.ReloadResult result = tier.serve(plan("", ClipViewScope.ALL, null), 3, TEXT);
+
+        assertEquals(List.of(9L, 4L, 3L), ids(result.entries()));
+        assertEquals(List.of(WORK), result.tagsByClipId().get(4L));
+        assertEquals(List.of(WORK), result.availableTags());
+        assertEquals(50, result.totalClipCount());
+        assertFalse(result.complete());
+    }
+
+    @Test
+    void declinesPagesThatReachPastTheRowsItHolds() {
+        PopupHotTier tier = new PopupHotTier();
+        fill(tier, false, 10);
+
+        assertNull(tier.serve(plan("", ClipViewScope.ALL, null), 10, TEXT));
+        assertNull(tier.serve(
+                plan("", ClipViewScope.ALL, ClipContentType.URL),
+                2,
+                entry -> entry.id() == 3 ? ClipContentType.URL : ClipContentType.TEXT
+        ));
+
+        PopupReloadCache.ReloadResult pinnedOnly = tier.serve(plan("", ClipViewScope.PINNED, null), 10, TEXT);
+        assertEquals(List.of(9L), ids(pinnedOnly.entries()));
+        assertTrue(pinnedOnly.complete());
+
+        PopupHotTier whole = new PopupHotTier();
+        fill(whole, true, 10);
+        PopupReloadCache.ReloadResult all = whole.serve(plan("", ClipViewScope.ALL, null), 10, TEXT);
+        assertEquals(List.of(9L, 4L, 3L, 2L, 1L), ids(all.entries()));
+        assertTrue(all.complete());
+    }
+
+    @Test
+    void rowChangesAreAppliedInPlace() {
+        PopupHotTier tier = new PopupHotTier();
+        fill(tier, false, 4);
+
+        assertTrue(tier.apply(new ClipChangeEvent.Inserted(recent(10, 1_000))));
+        assertTrue(tier.apply(new ClipChangeEvent.Bumped(2, "edited", 2_000L)));
+        assertTrue(tier.apply(new ClipChangeEvent.Retitled(9, "Docs")));
+        assertTrue(tier.apply(new ClipChangeEvent.Deleted(Set.of(3L), 1)));
+
+        PopupReloadCache.ReloadResult result = tier.serve(plan("", ClipViewScope.ALL, null), 3, TEXT);
+        assertEquals(List.of(9L, 2L, 10L), ids(result.entries()));
+        assertEquals("Docs", result.entries().get(0).title());
+        assertEquals("edited", result.entries().get(1).content());
+        assertEquals(List.of(), result.tagsByClipId().get(10L));
+        assertEquals(50, tier.totalClipCount());
+
+        assertTrue(tier.apply(new ClipChangeEvent.Trimmed(400L, 4L, 2)));
+        assertEquals(List.of(9L, 2L), ids(tier.serve(plan("", ClipViewScope.ALL, null), 2, TEXT).entries()));
+        assertEquals(48, tier.totalClipCount());
+    }
+
+    @Test
+    void longClipsAreHeldAsTheirHead() {
+        PopupHotTier tier = new PopupHotTier();
+        fill(tier, false, 4);
+        String longText = "x".repeat(PopupPerformancePolicy.ROW_CONTENT_CHARS * 3);
+
+        tier.apply(new ClipChangeEvent.Inserted(new ClipEntry(10, longText, null, false, null, 1_000L)));
+        tier.apply(new ClipChangeEvent.Bumped(2, longText, 2_000L));
+
+        PopupReloadCache.ReloadResult result = tier.serve(plan("", ClipViewScope.ALL, null), 3, TEXT);
+        assertEquals(List.of(9L, 2L, 10L), ids(result.entries()));
+        for (ClipEntry entry : result.entries().subList(1, 3)) {
+            assertEquals(PopupPerformancePolicy.ROW_CONTENT_CHARS, entry.content().length());
+            assertTrue(PopupRowContent.mayBeHead(entry));
+        }
+    }
+
+    @Test
+    void insertsPastTheCapacityDropTheOldestRow() {
+        PopupHotTier tier = new PopupHotTier();
+        fill(tier, true, 4);
+
+        tier.apply(new ClipChangeEvent.Inserted(recent(10, 1_000)));
+
+        assertEquals(5, tier.size());
+        PopupReloadCache.ReloadResult result = tier.serve(plan("", ClipViewScope.ALL, null), 10, TEXT);
+        assertNull(result);
+    }
+
+    @Test
+    void changesTheEventsDoNotDescribeLeaveTheTierCold() {
+        for (ClipChangeEvent event : List.of(
+                new ClipChangeEvent.PinChanged(4, true),
+                new ClipChangeEvent.Reordered(),
+                new ClipChangeEvent.TagsChanged(Set.of(4L)),
+                new ClipChangeEvent.TagLibraryChanged(),
+                new ClipChangeEvent.Purged(3),
+                new ClipChangeEvent.Bumped(77, null, 5_000L)
+        )) {
+            PopupHotTier tier = new PopupHotTier();
+            fill(tier, false, 10);
+
+            assertFalse(tier.apply(event), event.toString());
+            assertNull(tier.serve(plan("", ClipViewScope.ALL, null), 1, TEXT));
+        }
+    }
+
+    @Test
+    void fillReadDuringAChangeIsNotInstalled() {
+        PopupHotTier tier = new PopupHotTier();
+        long epoch = tier.epoch();
+        tier.apply(new ClipChangeEvent.Inserted(recent(10, 1_000)));
+
+        assertFalse(tier.install(epoch, contents(false), 10));
+        assertFalse(tier.isWarm());
+        assertTrue(tier.install(tier.epoch(), contents(false), 10));
+    }
+
+    @Test
+    void deletionsThatHollowOutAPartialTierRequestARefill() {
+        PopupHotTier tier = new PopupHotTier();
+        fill(tier, false, 6);
+
+        assertTrue(tier.apply(new ClipChangeEvent.Deleted(Set.of(4L), 1)));
+        assertFalse(tier.apply(new ClipChangeEvent.Deleted(Set.of(3L), 1)));
+    }
+
+    private static void fill(PopupHotTier tier, boolean historyComplete, int recentCapacity) {
+        assertTrue(tier.install(tier.epoch(), contents(historyComplete), recentCapacity));
+    }
+
+    private static PopupHotTier.Contents contents(boolean historyComplete) {
+        return new PopupHotTier.Contents(
+                List.of(new ClipEntry(9, "pinned-9", null, true, 0, 1L)),
+                List.of(recent(4, 400), recent(3, 300), recent(2, 200), recent(1, 100)),
+                historyComplete,
+                Map.of(4L, List.of(WORK)),
+                List.of(WORK),
+                50
+        );
+    }
+
+    private static SearchExecutionPlan plan(String query, ClipViewScope scope, ClipContentType type) {
+        return SearchExecutionPlan.combine(SearchQueryParser.parse(query), scope, type, null);
+    }
+
+    private static ClipEntry recent(long id, long copiedAt) {
+        return new ClipEntry(id, "clip-" + id, null, false, null, copiedAt);
+    }
+
+    private static List<Long> ids(List<ClipEntry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (ClipEntry entry : entries) ids.add(entry.id());
+        return ids;
+    }
+}
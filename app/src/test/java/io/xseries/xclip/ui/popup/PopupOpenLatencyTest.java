@@ -0,0 +1,93 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupOpenLatencyTest {
+
+    @Test
+    void emptyRecorderReportsNoSamples() {
+        PopupOpenLatency.Summary summary = new PopupOpenLatency(8, 100).summary();
+
+        assertEquals(0, summary.warmSamples());
+        assertEquals(-1, summary.lastNanos());
+        assertEquals(-1, summary.firstShowNanos());
+        assertEquals(-1, summary.p95Nanos());
+        assertEquals(-1, summary.maxNanos());
+    }
+
+    @Test
+    void firstShowAndColdOpensStayOutOfThePercentiles() {
+        PopupOpenLatency latency = new PopupOpenLatency(8, 100);
+
+        latency.record(900, false);
+        latency.record(40, true);
+        latency.record(600, false);
+
+        PopupOpenLatency.Summary summary = latency.summary();
+        assertEquals(900, summary.firstShowNanos());
+        assertEquals(1, summary.warmSamples());
+        assertEquals(40, summary.maxNanos());
+        assertEquals(600, summary.lastNanos());
+        assertFalse(summary.lastWarm());
+    }
+
+    @Test
+    void percentilesUseNearestRankAndCountOpensOverBudget() {
+        PopupOpenLatency latency = new PopupOpenLatency(32, 100);
+        latency.record(5_000, false);
+        for (int sample = 1; sample <= 20; sample++) latency.record(sample * 10L, true);
+
+        PopupOpenLatency.Summary summary = latency.summary();
+        assertEquals(20, summary.warmSamples());
+        assertEquals(100, summary.p50Nanos());
+        assertEquals(190, summary.p95Nanos());
+        assertEquals(200, summary.maxNanos());
+        assertEquals(10, summary.overFrameBudget());
+        assertTrue(summary.lastWarm());
+    }
+
+    @Test
+    void ringKeepsOnlyTheNewestOpens() {
+        PopupOpenLatency latency = new PopupOpenLatency(3, 100);
+        latency.record(1, false);
+        for (long sample : new long[] {500, 400, 30, 20, 10}) latency.record(sample, true);
+
+        PopupOpenLatency.Summary summary = latency.summary();
+        assertEquals(3, summary.warmSamples());
+        assertEquals(30, summary.maxNanos());
+        assertEquals(0, summary.overFrameBudget());
+    }
+
+    @Test
+    void describesTimingsForTheDiagnosticLog() {
+        PopupOpenLatency latency = new PopupOpenLatency(8, 16_700_000);
+        assertNull(latency.summary().describe());
+
+        latency.record(250_000_000, false);
+        assertEquals("hotkey to first frame: first open 250.0 ms", latency.summary().describe());
+
+        latency.record(8_000_000, true);
+        latency.record(20_000_000, true);
+        assertEquals(
+                "hotkey to first frame: first open 250.0 ms, warm p50 8.0 ms, p95 20.0 ms,"
+                        + " max 20.0 ms over 2 opens, 1 over the 16.7 ms frame budget",
+                latency.summary().describe()
+        );
+    }
+
+    @Test
+    void rejectsAnEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new PopupOpenLatency(0, 100));
+    }
+}
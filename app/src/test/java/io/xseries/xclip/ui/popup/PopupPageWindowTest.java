@@ -0,0 +1,173 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.dao.ClipEntryDao.PageCursor;
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.ui.popup.PopupPageWindow.Page;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupPageWindowTest {
+
+    @Test
+    void resetKeepsPinnedRowsAndTrimsTheBottomToTheBound() {
+        PopupPageWindow window = new PopupPageWindow(2);
+
+        window.reset(List.of(pinned(9, 0), recent(3), recent(2), recent(1)), true);
+
+        assertEquals(List.of(9L, 3L, 2L), ids(window.entries()));
+        assertEquals(1, window.pinnedCount());
+        assertTrue(window.hasMoreAfter());
+        assertEquals(PageCursor.after(recent(2)), window.nextCursor());
+        assertFalse(window.hasMoreBefore());
+
+        window.reset(List.of(pinned(9, 0), recent(3)), true);
+        assertFalse(window.hasMoreAfter());
+    }
+
+    @Test
+    void appendDropsRowsFromTheTopAndRemembersThem() {
+        PopupPageWindow window = new PopupPageWindow(3);
+        window.reset(List.of(pinned(9, 0), recent(6), recent(5)), false);
+        long version = window.version();
+
+        int dropped = window.append(new Page(List.of(recent(4), recent(3)), PageCursor.after(recent(3))));
+
+        assertEquals(1, dropped);
+        assertEquals(List.of(9L, 5L, 4L, 3L), ids(window.entries()));
+        assertEquals(PageCursor.after(recent(5)), window.previousCursor());
+        assertEquals(PageCursor.after(recent(3)), window.nextCursor());
+        assertTrue(window.version() > version);
+    }
+
+    @Test
+    void prependTrimsTheBottomAndReopensTheEnd() {
+        PopupPageWindow window = new PopupPageWindow(3);
+        window.reset(List.of(recent(6), recent(5)), false);
+        window.append(new Page(List.of(recent(4), recent(3)), null));
+        assertFalse(window.hasMoreAfter());
+
+        int dropped = window.prepend(new Page(List.of(recent(6)), null));
+
+        assertEquals(1, dropped);
+        assertEquals(List.of(6L, 5L, 4L), ids(window.entries()));
+        assertFalse(window.hasMoreBefore());
+        assertEquals(PageCursor.after(recent(4)), window.nextCursor());
+    }
+
+    @Test
+    void patchKeepsAWindowThatDroppedItsTopInPlace() {
+        PopupPageWindow window = new PopupPageWindow(2);
+        window.reset(List.of(recent(6), recent(5)), false);
+        window.append(new Page(List.of(recent(4)), null));
+
+        window.patch(List.of(recent(4)), true);
+
+        assertEquals(List.of(4L), ids(window.entries()));
+        assertEquals(PageCursor.after(recent(4)), window.previousCursor());
+        assertFalse(window.hasMoreAfter());
+    }
+
+    @Test
+    void readAfterScansPastFilteredRowsWithinTheScanLimit() {
+        List<ClipEntry> history = history(20);
+        ListSource source = new ListSource(history);
+
+        Page even = PopupPageWindow.readAfter(
+                source,
+                PageCursor.after(history.get(0)),
+                3,
+                entry -> entry.id() % 2 == 0,
+                100
+        );
+        assertEquals(List.of(18L, 16L, 14L), ids(even.entries()));
+        assertEquals(PageCursor.after(history.get(6)), even.cursor());
+
+        Page capped = PopupPageWindow.readAfter(
+                source,
+                PageCursor.after(history.get(0)),
+                3,
+                entry -> false,
+                6
+        );
+        assertEquals(List.of(), capped.entries());
+        assertEquals(PageCursor.after(history.get(6)), capped.cursor());
+
+        Page tail = PopupPageWindow.readAfter(source, PageCursor.after(history.get(17)), 5, null, 100);
+        assertEquals(List.of(2L, 1L), ids(tail.entries()));
+        assertNull(tail.cursor());
+    }
+
+    @Test
+    void readBeforeReturnsRowsInPopupOrder() {
+        List<ClipEntry> history = history(10);
+        ListSource source = new ListSource(history);
+
+        Page page = PopupPageWindow.readBefore(source, PageCursor.after(history.get(5)), 3, null, 100);
+        assertEquals(List.of(8L, 7L, 6L), ids(page.entries()));
+        assertEquals(PageCursor.after(history.get(2)), page.cursor());
+
+        Page top = PopupPageWindow.readBefore(source, PageCursor.after(history.get(2)), 3, null, 100);
+        assertEquals(List.of(10L, 9L), ids(top.entries()));
+        assertNull(top.cursor());
+    }
+
+    /** Unpinned history in popup order, backed by a list. */
+    private static final class ListSource implements PopupPageWindow.PageSource {
+        private final List<ClipEntry> history;
+
+        ListSource(List<ClipEntry> history) {
+            this.history = history;
+        }
+
+        @Override
+        public List<ClipEntry> after(PageCursor cursor, int limit) {
+            int from = indexOf(cursor) + 1;
+            return List.copyOf(history.subList(from, Math.min(history.size(), from + limit)));
+        }
+
+        @Override
+        public List<ClipEntry> before(PageCursor cursor, int limit) {
+            int to = indexOf(cursor);
+            return List.copyOf(history.subList(Math.max(0, to - limit), to));
+        }
+
+        private int indexOf(PageCursor cursor) {
+            for (int index = 0; index < history.size(); index++) {
+                if (history.get(index).id() == cursor.id()) return index;
+            }
+            throw new IllegalArgumentException("unknown cursor " + cursor);
+        }
+    }
+
+    private static List<ClipEntry> history(int size) {
+        List<ClipEntry> entries = new ArrayList<>();
+        for (long id = size; id >= 1; id--) entries.add(recent(id));
+        return entries;
+    }
+
+    private static ClipEntry recent(long id) {
+        return new ClipEntry(id, "clip-" + id, null, false, null, id * 100);
+    }
+
+    private static ClipEntry pinned(long id, int pinOrder) {
+        return new ClipEntry(id, "pinned-" + id, null, true, pinOrder, 1L);
+    }
+
+    private static List<Long> ids(List<ClipEntry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (ClipEntry entry : entries) ids.add(entry.id());
+        return ids;
+    }
+}
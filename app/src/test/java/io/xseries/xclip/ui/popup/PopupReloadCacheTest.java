@@ -5,7 +5,12 @@
  */
 package io.xseries.xclip.ui.popup;
 
+import io.xseries.xclip.data.dao.ClipEntryDao.StorageVersion;
+import io.xseries.xclip.data.model.ClipEntry;
 import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.model.ClipViewScope;
+import io.xseries.xclip.domain.search.SearchExecutionPlan;
+import io.xseries.xclip.domain.search.SearchQueryParser;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -149,4 +154,76 @@ class PopupReloadCacheTest {
 
         assertEquals(3, reloads.get());
     }
+
+    @Test
+    void servesStoredResultsOnlyWhileStorageVersionIsUnchanged() {
+        PopupReloadCache cache = new PopupReloadCache(8, 2);
+        SearchExecutionPlan all = plan("");
+        SearchExecutionPlan pinned = plan("is:pinned");
+        StorageVersion idle = new StorageVersion(1, 5, 3);
+        PopupReloadCache.ReloadResult result = result(7);
+
+        assertNull(cache.result(all, 50, idle));
+        cache.storeResult(all, 50, idle, result);
+        assertSame(result, cache.result(all, 50, idle));
+        assertNull(cache.result(all, 20, idle));
+        assertNull(cache.result(pinned, 50, idle));
+        assertEquals(1, cache.cachedResultCount());
+
+        assertNull(cache.result(all, 50, new StorageVersion(1, 6, 3)));
+        assertEquals(0, cache.cachedResultCount());
+    }
+
+    @Test
+    void publishedWritesKeepMetadataButSilentWritesDropIt() {
+        PopupReloadCache cache = new PopupReloadCache(8, 2);
+        SearchExecutionPlan all = plan("");
+        AtomicInteger countLoads = new AtomicInteger();
+
+        cache.result(all, 50, new StorageVersion(1, 5, 3));
+        cache.totalClipCount(() -> countLoads.incrementAndGet());
+
+        // Another connection wrote and announced it: event listeners own invalidation.
+        cache.result(all, 50, new StorageVersion(1, 6, 4));
+        cache.totalClipCount(() -> countLoads.incrementAndGet());
+        assertEquals(1, countLoads.get());
+
+        // Storage moved with no event, so nothing cached can be trusted.
+        cache.result(all, 50, new StorageVersion(1, 7, 4));
+        cache.totalClipCount(() -> countLoads.incrementAndGet());
+        assertEquals(2, countLoads.get());
+
+        // A replaced connection restarts data_version, which is not comparable.
+        cache.result(all, 50, new StorageVersion(2, 7, 4));
+        cache.totalClipCount(() -> countLoads.incrementAndGet());
+        assertEquals(3, countLoads.get());
+    }
+
+    @Test
+    void resultReadBeforeAnInvalidationIsNotStored() {
+        PopupReloadCache cache = new PopupReloadCache(8, 2);
+        SearchExecutionPlan all = plan("");
+        StorageVersion version = new StorageVersion(1, 5, 3);
+
+        assertNull(cache.result(all, 50, version));
+        cache.invalidateTagAssignments(List.of(4L));
+        cache.storeResult(all, 50, version, result(1));
+
+        assertNull(cache.result(all, 50, version));
+        assertEquals(0, cache.cachedResultCount());
+    }
+
+    private static SearchExecutionPlan plan(String query) {
+        return SearchExecutionPlan.combine(SearchQueryParser.parse(query), ClipViewScope.ALL, null, null);
+    }
+
+    private static PopupReloadCache.ReloadResult result(long id) {
+        return new PopupReloadCache.ReloadResult(
+                List.of(new ClipEntry(id, "clip-" + id, null, false, null, id)),
+                Map.of(id, List.of()),
+                List.of(),
+                1,
+                true
+        );
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.model.ClipEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupRowContentTest {
+
+    private static final int BOUND = PopupPerformancePolicy.ROW_CONTENT_CHARS;
+
+    @Test
+    void shortClipsAndImagesAreKeptAsTheyAre() {
+        ClipEntry small = new ClipEntry(1, "short", "Title", true, 0, 10L);
+        ClipEntry atBound = new ClipEntry(2, "a".repeat(BOUND), null, false, null, 20L);
+        ClipEntry image = new ClipEntry(3, null, null, false, null, 30L, true);
+
+        assertSame(small, PopupRowContent.bounded(small));
+        assertSame(atBound, PopupRowContent.bounded(atBound));
+        assertSame(image, PopupRowContent.bounded(image));
+        assertFalse(PopupRowContent.mayBeHead(small));
+        assertFalse(PopupRowContent.mayBeHead(image));
+        assertTrue(PopupRowContent.mayBeHead(atBound));
+    }
+
+    @Test
+    void longClipsKeepTheirHeadAndEveryOtherField() {
+        ClipEntry full = new ClipEntry(4, "b".repeat(BOUND * 10), "Log", true, 2, 40L);
+
+        ClipEntry bounded = PopupRowContent.bounded(full);
+
+        assertEquals("b".repeat(BOUND), bounded.content());
+        assertEquals(full.id(), bounded.id());
+        assertEquals(full.title(), bounded.title());
+        assertEquals(full.favorite(), bounded.favorite());
+        assertEquals(full.pinOrder(), bounded.pinOrder());
+        assertEquals(full.createdAt(), bounded.createdAt());
+        assertTrue(PopupRowContent.mayBeHead(bounded));
+        assertEquals(List.of(bounded), PopupRowContent.bounded(List.of(full)));
+    }
+
+    @Test
+    void headNeverSplitsASurrogatePair() {
+        String text = "c".repeat(BOUND - 1) + "😀" + "tail";
+
+        String head = PopupRowContent.head(text);
+
+        assertEquals(BOUND - 1, head.length());
+        assertFalse(Character.isHighSurrogate(head.charAt(head.length() - 1)));
+    }
+}
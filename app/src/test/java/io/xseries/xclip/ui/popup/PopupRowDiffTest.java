@@ -0,0 +1,145 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.ui.popup.PopupRow.ClipRow;
+import io.xseries.xclip.ui.popup.PopupRowDiff.Insert;
+import io.xseries.xclip.ui.popup.PopupRowDiff.Operation;
+import io.xseries.xclip.ui.popup.PopupRowDiff.Remove;
+import io.xseries.xclip.ui.popup.PopupRowDiff.Update;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupRowDiffTest {
+
+    @Test
+    void identicalRowsProduceNoOperations() {
+        List<PopupRow> rows = PopupRows.build(clips(3, 2, 1));
+
+        assertTrue(PopupRowDiff.compute(rows, PopupRows.build(clips(3, 2, 1))).isEmpty());
+    }
+
+    @Test
+    void newClipAtTheTopInsertsOneRowAndLeavesOtherRowsInPlace() {
+        List<PopupRow> before = PopupRows.build(clips(3, 2, 1));
+        List<PopupRow> after = PopupRows.build(clips(4, 3, 2, 1));
+
+        List<Operation> operations = PopupRowDiff.compute(before, after);
+
+        assertEquals(2, operations.size());
+        assertEquals(new Update(0, after.get(0)), operations.get(0));
+        assertEquals(new Insert(1, List.of(after.get(1))), operations.get(1));
+
+        List<PopupRow> target = new ArrayList<>(before);
+        PopupRow untouched = target.get(1);
+        PopupRowDiff.apply(target, operations);
+        assertEquals(after, target);
+        assertSame(untouched, target.get(2));
+    }
+
+    @Test
+    void changedTagsUpdateTheRowInPlace() {
+        List<ClipEntry> entries = clips(2, 1);
+        List<PopupRow> before = PopupRows.build(entries);
+        List<PopupRow> after = PopupRows.build(
+                entries,
+                Map.of(1L, List.of(new ClipTag(7, "Work", 1)))
+        );
+
+        assertEquals(List.of(new Update(2, after.get(2))), PopupRowDiff.compute(before, after));
+    }
+
+    @Test
+    void pinningMovesTheRowAndRebuildsOnlyTheSections() {
+        List<PopupRow> before = PopupRows.build(clips(3, 2, 1));
+        List<ClipEntry> pinned = new ArrayList<>(clips(3, 1));
+        pinned.add(0, new ClipEntry(2, "clip-2", null, true, 0, 2));
+        List<PopupRow> after = PopupRows.build(pinned);
+
+        List<Operation> operations = PopupRowDiff.compute(before, after);
+        List<PopupRow> target = new ArrayList<>(before);
+        PopupRowDiff.apply(target, operations);
+
+        assertEquals(after, target);
+        assertTrue(operations.contains(new Remove(2, 1)));
+    }
+
+    @Test
+    void clearingAndFillingAreSingleRangeOperations() {
+        List<PopupRow> rows = PopupRows.build(clips(2, 1));
+
+        assertEquals(List.of(new Insert(0, rows)), PopupRowDiff.compute(List.of(), rows));
+        assertEquals(List.of(new Remove(0, rows.size())), PopupRowDiff.compute(rows, List.of()));
+    }
+
+    @Test
+    void duplicateKeysFallBackToReplacingEverything() {
+        ClipRow row = new ClipRow(new ClipEntry(1, "a", null, false, null, 1));
+        List<PopupRow> duplicated = List.of(row, row);
+        List<PopupRow> next = List.of(row);
+
+        assertEquals(
+                List.of(new Remove(0, 2), new Insert(0, next)),
+                PopupRowDiff.compute(duplicated, next)
+        );
+    }
+
+    @Test
+    void randomReloadsAlwaysConvergeOnTheNewRows() {
+        Random random = new Random(41L);
+        for (int round = 0; round < 500; round++) {
+            List<ClipEntry> before = randomHistory(random);
+            List<ClipEntry> after = randomHistory(random);
+            List<PopupRow> current = PopupRows.build(before);
+            List<PopupRow> next = PopupRows.build(after);
+
+            List<PopupRow> target = new ArrayList<>(current);
+            PopupRowDiff.apply(target, PopupRowDiff.compute(current, next));
+
+            assertEquals(next, target, "round " + round);
+        }
+    }
+
+    private static List<ClipEntry> randomHistory(Random random) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            if (random.nextInt(3) > 0) ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+        List<ClipEntry> entries = new ArrayList<>();
+        for (long id : ids) {
+            boolean pinned = random.nextInt(5) == 0;
+            entries.add(new ClipEntry(
+                    id,
+                    "clip-" + id + (random.nextInt(4) == 0 ? "-edited" : ""),
+                    null,
+                    pinned,
+                    pinned ? 0 : null,
+                    id
+            ));
+        }
+        return entries;
+    }
+
+    private static List<ClipEntry> clips(long... ids) {
+        List<ClipEntry> entries = new ArrayList<>();
+        for (long id : ids) {
+            entries.add(new ClipEntry(id, "clip-" + id, null, false, null, id));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.popup;
+
+import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipTag;
+import io.xseries.xclip.domain.model.ClipContentType;
+import io.xseries.xclip.domain.model.ClipViewScope;
+import io.xseries.xclip.domain.search.SearchExecutionPlan;
+import io.xseries.xclip.domain.search.SearchQueryParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopupStartupSnapshotTest {
+
+    private static final ClipTag WORK = new ClipTag(5, "Work", 1L);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void captureCutsLongContentSkipsImagesAndKeepsTags() {
+        PopupStartupSnapshot snapshot = PopupStartupSnapshot.capture(
+                List.of(
+                        new ClipEntry(9, "pinned", "Docs", true, 0, 1L),
+                        new ClipEntry(8, "", null, false, null, 80L, true),
+                        new ClipEntry(7, "x".repeat(10), null, false, null, 70L),
+                        new ClipEntry(6, "https://example.com", null, false, null, 60L)
+                ),
+                Map.of(7L, List.of(WORK)),
+                List.of(WORK),
+                40,
+                entry -> entry.id() == 6 ? ClipContentType.URL : ClipContentType.TEXT,
+                10,
+                4,
+                123L
+        );
+
+        assertEquals(List.of(9L, 7L, 6L), ids(snapshot));
+        PopupStartupSnapshot.Row cut = snapshot.rows().get(1);
+        assertEquals("xxxx", cut.content());
+        assertTrue(cut.truncated());
+        assertEquals(List.of(WORK), cut.tags());
+        assertEquals(ClipContentType.URL, snapshot.rows().get(2).type());
+        assertEquals(Set.of(9L, 7L, 6L), snapshot.truncatedIds());
+        assertEquals(40, snapshot.totalClipCount());
+    }
+
+    @Test
+    void contentIsNeverCutInsideASurrogatePair() {
+        PopupStartupSnapshot snapshot = PopupStartupSnapshot.capture(
+                List.of(new ClipEntry(1, "ab😀cd", null, false, null, 1L)),
+                Map.of(),
+                List.of(),
+                1,
+                entry -> ClipContentType.TEXT,
+                10,
+                3,
+                0L
+        );
+
+        assertEquals("ab", snapshot.rows().get(0).content());
+    }
+
+    @Test
+    void writeAndReadRoundTripTheSnapshot() throws Exception {
+        Path file = tempDir.resolve("nested").resolve("popup-snapshot.json");
+        PopupStartupSnapshot snapshot = sample(3);
+
+        PopupStartupSnapshot.write(file, snapshot);
+
+        assertEquals(snapshot, PopupStartupSnapshot.read(file).orElseThrow());
+        assertFalse(Files.exists(file.resolveSibling("popup-snapshot.json.tmp")));
+    }
+
+    @Test
+    void missingDamagedOrForeignFilesReadAsNoSnapshot() throws Exception {
+        Path file = tempDir.resolve("popup-snapshot.json");
+        assertTrue(PopupStartupSnapshot.read(file).isEmpty());
+
+        Files.writeString(file, "{\"formatVersion\":1,\"rows\":[", StandardCharsets.UTF_8);
+        assertTrue(PopupStartupSnapshot.read(file).isEmpty());
+
+        Files.writeString(file, "{\"formatVersion\":99,\"rows\":[]}", StandardCharsets.UTF_8);
+        assertTrue(PopupStartupSnapshot.read(file).isEmpty());
+    }
+
+    @Test
+    void servesPlainPlansAndLeavesTextSearchToStorage() {
+        PopupStartupSnapshot partial = sample(40);
+
+        PopupReloadCache.ReloadResult page = partial.serve(plan("", ClipViewScope.ALL), 2);
+        assertEquals(List.of(9L, 3L), page.entries().stream().map(ClipEntry::id).toList());
+        assertEquals(List.of(WORK), page.tagsByClipId().get(3L));
+        assertEquals(40, page.totalClipCount());
+        assertFalse(page.complete());
+
+        PopupReloadCache.ReloadResult pinned = partial.serve(plan("", ClipViewScope.PINNED), 10);
+        assertEquals(1, pinned.entries().size());
+        assertFalse(pinned.complete());
+
+        assertTrue(sample(4).serve(plan("", ClipViewScope.ALL), 10).complete());
+        assertNull(partial.serve(plan("needle", ClipViewScope.ALL), 10));
+    }
+
+    @Test
+    void pinnedOnlyDropsTheHistoryThatIsClearedOnExit() {
+        PopupStartupSnapshot pinned = sample(40).pinnedOnly();
+
+        assertEquals(List.of(9L), ids(pinned));
+        assertEquals(1, pinned.totalClipCount());
+        assertTrue(pinned.coversHistory());
+    }
+
+    private static PopupStartupSnapshot sample(int totalClipCount) {
+        return PopupStartupSnapshot.capture(
+                List.of(
+                        new ClipEntry(9, "pinned", null, true, 0, 1L),
+                        new ClipEntry(3, "three", null, false, null, 30L),
+                        new ClipEntry(2, "two", null, false, null, 20L),
+                        new ClipEntry(1, "one", null, false, null, 10L)
+                ),
+                Map.of(3L, List.of(WORK)),
+                List.of(WORK),
+                totalClipCount,
+                entry -> ClipContentType.TEXT,
+                10,
+                100,
+                5L
+        );
+    }
+
+    private static SearchExecutionPlan plan(String query, ClipViewScope scope) {
+        return SearchExecutionPlan.combine(SearchQueryParser.parse(query), scope, null, null);
+    }
+
+    private static List<Long> ids(PopupStartupSnapshot snapshot) {
+        List<Long> ids = new ArrayList<>();
+        for (PopupStartupSnapshot.Row row : snapshot.rows()) ids.add(row.id());
+        return ids;
+    }
+}
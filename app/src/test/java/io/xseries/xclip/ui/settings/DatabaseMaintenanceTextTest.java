@@ -5,6 +5,8 @@
  */
 package io.xseries.xclip.ui.settings;
 
+import io.xseries.xclip.data.dao.HistoryTransferDao.ExportResult;
+import io.xseries.xclip.data.dao.HistoryTransferDao.ImportResult;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService.BackupDescriptor;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService.BackupResult;
 import io.xseries.xclip.data.db.DatabaseMaintenanceService.CheckpointMode;
@@ -96,4 +98,22 @@ class DatabaseMaintenanceTextTest {
         assertEquals("1.00 KB", DatabaseMaintenanceText.formatBytes(1_024L));
         assertEquals("1.00 MB", DatabaseMaintenanceText.formatBytes(1_048_576L));
     }
+
+    @Test
+    void formatsHistoryTransferResults() {
+        assertEquals(
+                "History exported: history.ndjson · 1200 clips · 2000 clips/s",
+                DatabaseMaintenanceText.historyExport(
+                        Path.of("exports", "history.ndjson"),
+                        new ExportResult(1_200L, 600L)
+                )
+        );
+        assertEquals(
+                "History imported: history.ndjson · 7 new · 3 merged · 2 rejected lines · 10 clips/s",
+                DatabaseMaintenanceText.historyImport(
+                        Path.of("history.ndjson"),
+                        new ImportResult(12L, 7L, 3L, 2L, 1_000L)
+                )
+        );
+    }
 }
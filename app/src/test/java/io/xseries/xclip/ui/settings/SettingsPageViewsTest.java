@@ -0,0 +1,71 @@
+/*
+ * XClip — Windows Clipboard Manager
+ * Copyright (C) 2026 Rafael Xudoynazarov (End1essspace | RX)
+ * SPDX-License-Identifier: GPL-3.0-only
+ */
+package io.xseries.xclip.ui.settings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class SettingsPageViewsTest {
+
+    @Test
+    void buildsNothingUntilAPageIsRequested() {
+        List<SettingsPage> built = new ArrayList<>();
+        SettingsPageViews<String> views = new SettingsPageViews<>(page -> build(built, page), null);
+
+        assertEquals(0, views.builtCount());
+        assertFalse(views.isBuilt(SettingsPage.GENERAL));
+        assertTrue(built.isEmpty());
+    }
+
+    @Test
+    void buildsEachPageOnceAndNotifiesOnce() {
+        List<SettingsPage> built = new ArrayList<>();
+        List<String> notified = new ArrayList<>();
+        SettingsPageViews<String> views = new SettingsPageViews<>(
+                page -> build(built, page),
+                (page, view) -> notified.add(view)
+        );
+
+        String first = views.get(SettingsPage.DATA);
+        String again = views.get(SettingsPage.DATA);
+        views.get(SettingsPage.GENERAL);
+
+        assertSame(first, again);
+        assertEquals(List.of(SettingsPage.DATA, SettingsPage.GENERAL), built);
+        assertEquals(List.of("view:DATA", "view:GENERAL"), notified);
+        assertEquals(2, views.builtCount());
+        assertTrue(views.isBuilt(SettingsPage.DATA));
+        assertFalse(views.isBuilt(SettingsPage.SHORTCUTS));
+    }
+
+    @Test
+    void missingViewIsReportedAndNotCached() {
+        List<SettingsPage> built = new ArrayList<>();
+        SettingsPageViews<String> views = new SettingsPageViews<>(page -> {
+            built.add(page);
+            return null;
+        }, null);
+
+        assertThrows(IllegalStateException.class, () -> views.get(SettingsPage.GENERAL));
+        assertThrows(IllegalStateException.class, () -> views.get(SettingsPage.GENERAL));
+        assertEquals(2, built.size());
+        assertFalse(views.isBuilt(SettingsPage.GENERAL));
+        assertThrows(NullPointerException.class, () -> views.get(null));
+    }
+
+    private static String build(List<SettingsPage> built, SettingsPage page) {
+        built.add(page);
+        return "view:" + page.name();
+    }
+}
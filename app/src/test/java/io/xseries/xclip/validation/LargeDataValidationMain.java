@@ -7,26 +7,37 @@ package io.xseries.xclip.validation;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import io.xseries.xclip.config.Config;
 import io.xseries.xclip.data.dao.ClipEntryDao;
+import io.xseries.xclip.data.dao.ClipImageDao;
 import io.xseries.xclip.data.dao.TagDao;
 import io.xseries.xclip.data.db.Database;
 import io.xseries.xclip.data.db.SqliteConnectionConfig;
 import io.xseries.xclip.data.model.ClipEntry;
+import io.xseries.xclip.data.model.ClipImage;
 import io.xseries.xclip.data.model.ClipTag;
 import io.xseries.xclip.domain.duplicate.DuplicateBehaviorPolicy;
 import io.xseries.xclip.domain.duplicate.DuplicateContentKeys;
+import io.xseries.xclip.domain.duplicate.NearDuplicateFingerprint;
+import io.xseries.xclip.domain.image.ClipImageCodec;
 import io.xseries.xclip.domain.model.ClipContentType;
 import io.xseries.xclip.domain.model.ClipViewScope;
+import io.xseries.xclip.domain.privacy.SensitiveContentPolicy;
 import io.xseries.xclip.domain.retention.HistoryRetentionPolicy;
 import io.xseries.xclip.domain.search.SearchExecutionPlan;
 import io.xseries.xclip.domain.search.SearchQueryParser;
 import io.xseries.xclip.domain.search.SearchQueryExecutor;
 import io.xseries.xclip.domain.service.ClipContentClassifier;
+import io.xseries.xclip.domain.service.ClipService;
 import io.xseries.xclip.domain.service.HistoryCleanupService;
+import io.xseries.xclip.domain.service.ImageCaptureService;
+import io.xseries.xclip.ui.popup.ByteBoundedLruCache;
 import io.xseries.xclip.ui.popup.ClipPreviewPolicy;
+import io.xseries.xclip.ui.popup.PopupHotTier;
 import io.xseries.xclip.ui.popup.PopupPerformancePolicy;
 import io.xseries.xclip.ui.popup.PopupReloadCache;
 import io.xseries.xclip.ui.popup.PopupRow;
+import io.xseries.xclip.ui.popup.PopupRowDiff;
 import io.xseries.xclip.ui.popup.PopupRows;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -34,6 +45,10 @@ import javafx.scene.Scene;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.StackPane;
 
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
@@ -56,6 +71,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -78,6 +94,9 @@ public final class LargeDataValidationMain {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final String DUPLICATE_CONTENT =
             "M7 shared duplicate candidate payload for indexed lookup";
+    /** Differs from the duplicate payload only in a number. */
+    private static final String NEAR_DUPLICATE_CONTENT =
+            "M8 shared duplicate candidate payload for indexed lookup";
     private static final int UNIQUE_SEARCH_INDEX = 42_000;
     private static final long MIB = 1024L * 1024L;
 
@@ -165,7 +184,12 @@ public final class LargeDataValidationMain {
             Path fullDatabase = databaseBySize.get(50_000);
             validateFullMatrix(fullDatabase);
             validateRetentionCleanup(fullDatabase, fixtureRoot);
+            validateIngestPruning(fullDatabase, fixtureRoot);
+            validateImageHistory(fullDatabase, fixtureRoot);
             validateLargeClipPolicy();
+            validateDuplicateKeyAllocation();
+            validateSensitiveScan();
+            validateClassifier();
 
             Thread.sleep(150L);
         } catch (Throwable failure) {
@@ -260,7 +284,8 @@ public final class LargeDataValidationMain {
 
             validatePopupPipeline(dao, tagDao);
             validateSearchLatency(dao, tagDao);
-            validateDuplicateCandidates(dao);
+            validateDuplicateCandidates(dao, jdbcUrl);
+            validateNearDuplicateCandidates(dao);
         }
     }
 
@@ -306,6 +331,18 @@ public final class LargeDataValidationMain {
                 fxMaterialization.p95Millis(),
                 LargeDataValidationPolicy.POPUP_FX_MATERIALIZATION_P95_MAX_MILLIS
         );
+        Latency fxRefresh = FxRuntime.measureRefresh(
+                last.entries(),
+                last.tagsByClipId(),
+                LargeDataValidationPolicy.MEASUREMENT_SAMPLES
+        );
+        budget(
+                "popup-fx-refresh-p95",
+                "one new clip over 200 rows",
+                "ms",
+                fxRefresh.p95Millis(),
+                LargeDataValidationPolicy.POPUP_FX_REFRESH_P95_MAX_MILLIS
+        );
         budget(
                 "popup-open-composite-p95",
                 "cold data + JavaFX materialization",
@@ -313,6 +350,7 @@ public final class LargeDataValidationMain {
                 latency.p95Millis() + fxMaterialization.p95Millis(),
                 LargeDataValidationPolicy.POPUP_OPEN_COMPOSITE_P95_MAX_MILLIS
         );
+        validateHotTierOpen(dao, tagDao, last, fxMaterialization);
         exact(
                 "popup-visible-clips",
                 "50k",
@@ -362,6 +400,120 @@ public final class LargeDataValidationMain {
         );
     }
 
+    /**
+     * Hotkey-to-populated-list with a warm hot tier: the popup serves the
+     * rows from memory on the FX thread, builds them and materializes the
+     * list, with no storage access in between.
+     */
+    private void validateHotTierOpen(
+            ClipEntryDao dao,
+            TagDao tagDao,
+            PopupSnapshot cold,
+            Latency fxMaterialization
+    ) {
+        PopupReloadCache cache = new PopupReloadCache(
+                PopupPerformancePolicy.TAG_ASSIGNMENT_CACHE_CAPACITY
+        );
+        PopupHotTier tier = new PopupHotTier();
+        long fillStarted = System.nanoTime();
+        fillHotTier(dao, tagDao, cache, tier);
+        budget(
+                "hot-tier-fill",
+                "50k, 1k pinned",
+                "ms",
+                elapsedMillis(fillStarted),
+                LargeDataValidationPolicy.HOT_TIER_FILL_MAX_MILLIS
+        );
+
+        SearchExecutionPlan plan = SearchExecutionPlan.combine(
+                SearchQueryParser.parse(""),
+                ClipViewScope.ALL,
+                null,
+                null
+        );
+        List<Double> samples = new ArrayList<>();
+        PopupReloadCache.ReloadResult served = null;
+        for (int sample = 0; sample < 100; sample++) {
+            long started = System.nanoTime();
+            served = tier.serve(
+                    plan,
+                    LargeDataValidationPolicy.POPUP_RESULT_LIMIT,
+                    entry -> ClipContentClassifier.classify(entry.content())
+            );
+            if (served == null) break;
+            PopupRows.build(served.entries(), served.tagsByClipId());
+            samples.add(elapsedMillis(started));
+        }
+        if (served == null) {
+            failures.add("Hot tier declined the plain popup open");
+            return;
+        }
+        if (!served.entries().equals(cold.entries())) {
+            failures.add("Hot tier rows differ from the storage popup query");
+        }
+        exact("hot-tier-total-clips", "50k", served.totalClipCount(), cold.totalClipCount());
+
+        Latency hotOpen = Latency.from(samples);
+        budget(
+                "popup-hot-open-p95",
+                "serve + row build, 200 clips",
+                "ms",
+                hotOpen.p95Millis(),
+                LargeDataValidationPolicy.POPUP_HOT_OPEN_P95_MAX_MILLIS
+        );
+        budget(
+                "popup-hotkey-to-list-p95",
+                "hot tier + JavaFX materialization",
+                "ms",
+                hotOpen.p95Millis() + fxMaterialization.p95Millis(),
+                LargeDataValidationPolicy.POPUP_HOTKEY_TO_LIST_P95_MAX_MILLIS
+        );
+    }
+
+    /** Same reads as the popup's hot tier fill. */
+    private static void fillHotTier(
+            ClipEntryDao dao,
+            TagDao tagDao,
+            PopupReloadCache cache,
+            PopupHotTier tier
+    ) {
+        int recentCapacity = Math.max(
+                PopupPerformancePolicy.HOT_TIER_RECENT_CLIPS,
+                LargeDataValidationPolicy.POPUP_RESULT_LIMIT
+        );
+        long epoch = tier.epoch();
+        List<ClipEntry> pinned = dao.queryLatest(
+                "",
+                PopupPerformancePolicy.HOT_TIER_MAX_PINNED + 1,
+                Boolean.TRUE,
+                null,
+                List.of(),
+                List.of()
+        );
+        List<ClipEntry> recent = dao.queryLatest(
+                "",
+                recentCapacity + 1,
+                Boolean.FALSE,
+                null,
+                List.of(),
+                List.of()
+        );
+        boolean historyComplete = recent.size() <= recentCapacity;
+        if (!historyComplete) recent = recent.subList(0, recentCapacity);
+
+        List<Long> ids = new ArrayList<>();
+        pinned.forEach(entry -> ids.add(entry.id()));
+        recent.forEach(entry -> ids.add(entry.id()));
+        tier.install(epoch, new PopupHotTier.Contents(
+                pinned,
+                recent,
+                historyComplete,
+                cache.tagAssignments(ids, tagDao::listForClips),
+                cache.availableTags(tagDao::listAll),
+                dao.countAll()
+        ), recentCapacity);
+    }
+
     private void validateSearchLatency(
             ClipEntryDao dao,
             TagDao tagDao
@@ -590,36 +742,46 @@ public final class LargeDataValidationMain {
         );
     }
 
-    private void validateDuplicateCandidates(ClipEntryDao dao) {
-        DuplicateContentKeys keys = DuplicateContentKeys.from(DUPLICATE_CONTENT);
+    private void validateDuplicateCandidates(
+            ClipEntryDao dao,
+            String jdbcUrl
+    ) throws Exception {
+        DuplicateContentKeys.Prepared prepared = DuplicateContentKeys.prepare(
+                DUPLICATE_CONTENT,
+                DuplicateBehaviorPolicy.defaults()
+        );
+        long storedCandidates;
+        try (Connection connection = DriverManager.getConnection(jdbcUrl);
+             PreparedStatement count = connection.prepareStatement(
+                     "SELECT COUNT(*) FROM clip_entries WHERE content_hash = ?"
+             )) {
+            count.setString(1, prepared.keys().normalizedHash());
+            try (ResultSet rs = count.executeQuery()) {
+                storedCandidates = rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+
         for (int warmup = 0; warmup < 3; warmup++) {
-            dao.findDuplicateCandidates(
-                    DuplicateContentKeys.KeyKind.NORMALIZED,
-                    keys.normalizedHash(),
-                    0L
-            );
+            lookupDuplicate(dao, prepared);
         }
 
         List<Double> samples = new ArrayList<>();
-        int candidateCount = 0;
+        boolean verified = true;
         for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
             long started = System.nanoTime();
-            List<ClipEntryDao.DuplicateCandidate> candidates =
-                    dao.findDuplicateCandidates(
-                            DuplicateContentKeys.KeyKind.NORMALIZED,
-                            keys.normalizedHash(),
-                            0L
-                    );
+            verified &= lookupDuplicate(dao, prepared);
             samples.add(elapsedMillis(started));
-            candidateCount = candidates.size();
         }
 
         exact(
                 "duplicate-candidate-count",
                 "50k",
-                candidateCount,
+                storedCandidates,
                 LargeDataValidationPolicy.DUPLICATE_CANDIDATE_COUNT
         );
+        if (!verified) {
+            failures.add("Newest duplicate candidate did not verify against its content");
+        }
         budget(
                 "duplicate-lookup-p95",
                 LargeDataValidationPolicy.DUPLICATE_CANDIDATE_COUNT + " candidates",
@@ -629,6 +791,50 @@ public final class LargeDataValidationMain {
         );
     }
 
+    private void validateNearDuplicateCandidates(ClipEntryDao dao) {
+        long fingerprint = NearDuplicateFingerprint.of(NEAR_DUPLICATE_CONTENT);
+        for (int warmup = 0; warmup < 3; warmup++) {
+            dao.findNearDuplicateCandidate(fingerprint, 0L);
+        }
+
+        List<Double> samples = new ArrayList<>();
+        boolean found = true;
+        for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+            long started = System.nanoTime();
+            found &= dao.findNearDuplicateCandidate(fingerprint, 0L) != null;
+            samples.add(elapsedMillis(started));
+        }
+
+        if (!found) {
+            failures.add("Near-duplicate lookup missed the shared duplicate payload");
+        }
+        budget(
+                "near-duplicate-lookup-p95",
+                LargeDataValidationPolicy.DUPLICATE_CANDIDATE_COUNT + " equal fingerprints",
+                "ms",
+                Latency.from(samples).p95Millis(),
+                LargeDataValidationPolicy.NEAR_DUPLICATE_LOOKUP_P95_MAX_MILLIS
+        );
+    }
+
+    private boolean lookupDuplicate(
+            ClipEntryDao dao,
+            DuplicateContentKeys.Prepared prepared
+    ) {
+        ClipEntryDao.DuplicateCandidate candidate = dao.findDuplicateCandidate(
+                prepared.selectedKind(),
+                prepared.selectedHash(),
+                prepared.normalizedContent(),
+                0L
+        );
+        return candidate != null && dao.matchesDuplicateKey(
+                candidate.id(),
+                prepared.selectedKind(),
+                prepared.normalizedContent(),
+                prepared.canonicalKey()
+        );
+    }
+
     private void validateRetentionCleanup(
             Path sourceDatabase,
             Path fixtureRoot
@@ -680,7 +886,270 @@ public final class LargeDataValidationMain {
                     cleanupMillis,
                     LargeDataValidationPolicy.RETENTION_CLEANUP_MAX_MILLIS
             );
+            budget(
+                    "retention-longest-lock-hold",
+                    result.chunkCount() + " chunks",
+                    "ms",
+                    result.longestLockHoldMillis(),
+                    LargeDataValidationPolicy.RETENTION_LOCK_HOLD_MAX_MILLIS
+            );
+        }
+    }
+
+    /**
+     * Ingests through ClipService at maxHistory=50000 until the history limit
+     * is crossed, then compares one prune pass with the previous NOT IN delete.
+     */
+    private void validateIngestPruning(
+            Path sourceDatabase,
+            Path fixtureRoot
+    ) throws Exception {
+        Path ingestDatabase = fixtureRoot.resolve("xclip-ingest.db");
+        checkpointDatabase(sourceDatabase);
+        Files.copy(
+                sourceDatabase,
+                ingestDatabase,
+                StandardCopyOption.REPLACE_EXISTING
+        );
+
+        String jdbcUrl = "jdbc:sqlite:" + ingestDatabase.toAbsolutePath();
+        int limit = 50_000;
+        try (ClipEntryDao dao = new ClipEntryDao(jdbcUrl)) {
+            List<Double> legacySamples = new ArrayList<>();
+            try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+                SqliteConnectionConfig.configureWorkingConnection(connection);
+                for (int sample = 0;
+                     sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES;
+                     sample++) {
+                    try (PreparedStatement legacy = connection.prepareStatement("""
+                            DELETE FROM clip_entries
+                            WHERE is_favorite = 0
+                              AND id NOT IN (
+                                SELECT id FROM clip_entries
+                                WHERE is_favorite = 0
+                                ORDER BY last_copied_at DESC, id DESC
+                                LIMIT ?
+                              )
+                            """)) {
+                        legacy.setInt(1, limit);
+                        long started = System.nanoTime();
+                        legacy.executeUpdate();
+                        legacySamples.add(elapsedMillis(started));
+                    }
+                }
+            }
+
+            List<Double> pruneSamples = new ArrayList<>();
+            for (int sample = 0;
+                 sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES;
+                 sample++) {
+                long started = System.nanoTime();
+                dao.pruneToLimit(limit);
+                pruneSamples.add(elapsedMillis(started));
+            }
+
+            ClipService service = new ClipService(dao);
+            service.applyConfig(Config.defaults().withMaxHistory(limit));
+
+            List<Double> ingestSamples = new ArrayList<>();
+            for (int index = 0; index < LargeDataValidationPolicy.INGEST_SAMPLE_COUNT; index++) {
+                String text = "ingest pruning sample " + index;
+                long started = System.nanoTime();
+                service.ingestText(text);
+                ingestSamples.add(elapsedMillis(started));
+            }
+            dao.pruneToLimit(limit);
+
+            budget(
+                    "prune-pass",
+                    "50k no-op prune vs legacy NOT IN median",
+                    "ms",
+                    Latency.from(pruneSamples).p95Millis(),
+                    Latency.from(legacySamples).medianMillis()
+            );
+            budget(
+                    "ingest-p99",
+                    "maxHistory=" + limit + ", "
+                            + LargeDataValidationPolicy.INGEST_SAMPLE_COUNT + " captures",
+                    "ms",
+                    Latency.from(ingestSamples).p99Millis(),
+                    LargeDataValidationPolicy.INGEST_P99_MAX_MILLIS
+            );
+            exact(
+                    "ingest-recent-count",
+                    "maxHistory=" + limit,
+                    dao.countRecent(),
+                    limit
+            );
+        }
+    }
+
+    /**
+     * Adds full-screen image clips to a copy of the 50k fixture. Every image
+     * has the same size, the worst case for the size index, and all share one
+     * PNG payload; the row count and blob volume are what the popup and the
+     * duplicate lookup must stay independent of.
+     */
+    private void validateImageHistory(
+            Path sourceDatabase,
+            Path fixtureRoot
+    ) throws Exception {
+        Path imageDatabase = fixtureRoot.resolve("xclip-images.db");
+        checkpointDatabase(sourceDatabase);
+        Files.copy(
+                sourceDatabase,
+                imageDatabase,
+                StandardCopyOption.REPLACE_EXISTING
+        );
+
+        int width = LargeDataValidationPolicy.IMAGE_WIDTH;
+        int height = LargeDataValidationPolicy.IMAGE_HEIGHT;
+        BufferedImage screen = screenshotFixture(width, height);
+        String scenario = LargeDataValidationPolicy.IMAGE_CLIP_COUNT + " images "
+                + width + "x" + height;
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            ClipImageCodec.thumbnail(ImageCaptureService.prepare(screen).encoded());
+        }
+
+        List<Double> prepareSamples = new ArrayList<>();
+        ClipImage prepared = null;
+        for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+            long started = System.nanoTime();
+            prepared = ImageCaptureService.prepare(screen);
+            prepareSamples.add(elapsedMillis(started));
+        }
+        Objects.requireNonNull(prepared, "prepared image");
+        budget(
+                "image-prepare-p95",
+                width + "x" + height + " hash + PNG encode",
+                "ms",
+                Latency.from(prepareSamples).p95Millis(),
+                LargeDataValidationPolicy.IMAGE_PREPARE_P95_MAX_MILLIS
+        );
+
+        List<Double> thumbnailSamples = new ArrayList<>();
+        byte[] thumbnail = null;
+        for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+            long started = System.nanoTime();
+            thumbnail = ClipImageCodec.thumbnail(prepared.encoded());
+            thumbnailSamples.add(elapsedMillis(started));
+        }
+        budget(
+                "image-thumbnail-p95",
+                width + "x" + height + " subsampled decode",
+                "ms",
+                Latency.from(thumbnailSamples).p95Millis(),
+                LargeDataValidationPolicy.IMAGE_THUMBNAIL_P95_MAX_MILLIS
+        );
+
+        String jdbcUrl = "jdbc:sqlite:" + imageDatabase.toAbsolutePath();
+        try (ClipEntryDao dao = new ClipEntryDao(jdbcUrl);
+             TagDao tagDao = new TagDao(jdbcUrl);
+             ClipImageDao images = new ClipImageDao(jdbcUrl)) {
+            Random random = new Random(7L);
+            long newestPhash = 0L;
+            List<Long> imageIds = new ArrayList<>();
+            for (int index = 0; index < LargeDataValidationPolicy.IMAGE_CLIP_COUNT; index++) {
+                newestPhash = random.nextLong();
+                long id = images.insert(new ClipImage(
+                        "image:fixture-" + index,
+                        newestPhash,
+                        width,
+                        height,
+                        prepared.encoded()
+                ), 2_000_000_000_000L + index);
+                images.storeThumbnail(id, thumbnail);
+                imageIds.add(id);
+            }
+            exact(
+                    "image-row-count",
+                    scenario,
+                    dao.countAll(),
+                    50_000L + LargeDataValidationPolicy.IMAGE_CLIP_COUNT
+            );
+
+            List<Double> lookupSamples = new ArrayList<>();
+            boolean found = true;
+            long probe = newestPhash ^ 0b101L;
+            for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+                long started = System.nanoTime();
+                ClipEntryDao.DuplicateCandidate candidate =
+                        images.findDuplicateCandidate(probe, width, height, 0L);
+                lookupSamples.add(elapsedMillis(started));
+                found &= candidate != null && candidate.id() == imageIds.get(imageIds.size() - 1);
+            }
+            if (!found) {
+                failures.add("Image duplicate lookup missed the newest perceptual match");
+            }
+            budget(
+                    "image-duplicate-lookup-p95",
+                    scenario,
+                    "ms",
+                    Latency.from(lookupSamples).p95Millis(),
+                    LargeDataValidationPolicy.IMAGE_DUPLICATE_LOOKUP_P95_MAX_MILLIS
+            );
+
+            List<Double> popupSamples = new ArrayList<>();
+            for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+                long started = System.nanoTime();
+                loadPopup(dao, tagDao, new PopupReloadCache(
+                        PopupPerformancePolicy.TAG_ASSIGNMENT_CACHE_CAPACITY
+                ), "", null);
+                popupSamples.add(elapsedMillis(started));
+            }
+            budget(
+                    "image-popup-pipeline-p95",
+                    scenario,
+                    "ms",
+                    Latency.from(popupSamples).p95Millis(),
+                    LargeDataValidationPolicy.POPUP_PIPELINE_P95_MAX_MILLIS
+            );
+
+            // Decode every stored thumbnail through the popup's byte budget.
+            ByteBoundedLruCache<Long, BufferedImage> thumbnails = new ByteBoundedLruCache<>(
+                    PopupPerformancePolicy.THUMBNAIL_CACHE_BYTES,
+                    image -> 4L * image.getWidth() * image.getHeight()
+            );
+            for (long id : imageIds) {
+                thumbnails.put(id, ClipImageCodec.decode(images.loadThumbnail(id)));
+            }
+            budget(
+                    "image-thumbnail-cache",
+                    scenario,
+                    "MiB",
+                    bytesToMib(thumbnails.bytes()),
+                    bytesToMib(PopupPerformancePolicy.THUMBNAIL_CACHE_BYTES)
+            );
         }
+
+        checkpointDatabase(imageDatabase);
+        budget(
+                "database-size",
+                scenario,
+                "MiB",
+                bytesToMib(Files.size(imageDatabase)),
+                LargeDataValidationPolicy.MAX_DATABASE_MIB
+        );
+    }
+
+    private static BufferedImage screenshotFixture(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setPaint(new GradientPaint(
+                    0, 0, new Color(24, 32, 48),
+                    width, height, new Color(70, 90, 120)
+            ));
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(new Color(235, 238, 242));
+            for (int row = 0; row < height / 24; row++) {
+                graphics.fillRect(80, 60 + row * 24, 200 + (row * 97) % (width / 2), 10);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return image;
     }
 
     private void checkpointDatabase(Path databasePath) throws Exception {
@@ -729,6 +1198,103 @@ public final class LargeDataValidationMain {
         );
     }
 
+    private void validateDuplicateKeyAllocation() {
+        String content = "x".repeat(
+                LargeDataValidationPolicy.LARGE_CLIP_CHARACTERS
+        );
+        DuplicateBehaviorPolicy policy = DuplicateBehaviorPolicy.defaults();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int warmup = 0; warmup < 3; warmup++) {
+            DuplicateContentKeys.prepare(content, policy);
+        }
+
+        long allocated = Long.MAX_VALUE;
+        for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            DuplicateContentKeys.prepare(content, policy);
+            allocated = Math.min(
+                    allocated,
+                    threads.getThreadAllocatedBytes(threadId) - before
+            );
+        }
+        budget(
+                "duplicate-keys-allocation",
+                "500k clip prepare",
+                "bytes",
+                allocated,
+                LargeDataValidationPolicy.DUPLICATE_KEYS_MAX_ALLOCATED_BYTES
+        );
+    }
+
+    /**
+     * Both sensitive rules on a 500k clip built so that no candidate matches:
+     * every keyword hit fails its word boundary and every card start rescans
+     * twelve separated digits, so the scan cannot exit early.
+     */
+    private void validateSensitiveScan() {
+        String unit = "one times 12345 x 1 2 3 4 5 6 7 8 9 0 1 2; ";
+        String content = unit
+                .repeat(LargeDataValidationPolicy.LARGE_CLIP_CHARACTERS / unit.length() + 1)
+                .substring(0, LargeDataValidationPolicy.LARGE_CLIP_CHARACTERS);
+        SensitiveContentPolicy policy = new SensitiveContentPolicy(
+                SensitiveContentPolicy.RuleAction.SKIP,
+                SensitiveContentPolicy.RuleAction.SKIP
+        );
+        for (int warmup = 0; warmup < 3; warmup++) {
+            policy.firstBlockedKind(content);
+        }
+
+        List<Double> samples = new ArrayList<>();
+        for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+            long started = System.nanoTime();
+            boolean allowed = policy.allowsCapture(content);
+            samples.add(elapsedMillis(started));
+            if (!allowed) {
+                failures.add("Adversarial 500k clip was classified as sensitive");
+                return;
+            }
+        }
+        budget(
+                "sensitive-scan-p95",
+                "500k adversarial clip, both rules",
+                "ms",
+                Latency.from(samples).p95Millis(),
+                LargeDataValidationPolicy.SENSITIVE_SCAN_P95_MAX_MILLIS
+        );
+    }
+
+    /**
+     * Content classification of a 500k clip in which every '(' follows a
+     * callee name but none is closed, so no code feature settles the score
+     * early and the function-block check sees every candidate.
+     */
+    private void validateClassifier() {
+        String content = "f(".repeat(LargeDataValidationPolicy.LARGE_CLIP_CHARACTERS / 2);
+        for (int warmup = 0; warmup < 3; warmup++) {
+            ClipContentClassifier.classify(content);
+        }
+
+        List<Double> samples = new ArrayList<>();
+        for (int sample = 0; sample < LargeDataValidationPolicy.MEASUREMENT_SAMPLES; sample++) {
+            long started = System.nanoTime();
+            ClipContentType type = ClipContentClassifier.classify(content);
+            samples.add(elapsedMillis(started));
+            if (type != ClipContentType.TEXT) {
+                failures.add("Adversarial 500k clip classified as " + type);
+                return;
+            }
+        }
+        budget(
+                "classify-p95",
+                "500k adversarial clip",
+                "ms",
+                Latency.from(samples).p95Millis(),
+                LargeDataValidationPolicy.CLASSIFY_P95_MAX_MILLIS
+        );
+    }
+
     private Latency measureStartup(Path databasePath) {
         for (int warmup = 0; warmup < 2; warmup++) {
             Database database = new Database(databasePath);
@@ -743,6 +1309,9 @@ public final class LargeDataValidationMain {
             database.init();
             database.close();
             samples.add(elapsedMillis(started));
+            if (!database.lastInitReport().fastPath()) {
+                failures.add("Startup on a current database did not take the fast path");
+            }
         }
         return Latency.from(samples);
     }
@@ -1024,11 +1593,12 @@ public final class LargeDataValidationMain {
     private record Latency(
             double medianMillis,
             double p95Millis,
+            double p99Millis,
             double maxMillis
     ) {
         private static Latency from(List<Double> rawSamples) {
             if (rawSamples == null || rawSamples.isEmpty()) {
-                return new Latency(Double.NaN, Double.NaN, Double.NaN);
+                return new Latency(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
             }
             List<Double> samples = rawSamples.stream()
                     .sorted()
@@ -1036,6 +1606,7 @@ public final class LargeDataValidationMain {
             return new Latency(
                     percentile(samples, 0.50),
                     percentile(samples, 0.95),
+                    percentile(samples, 0.99),
                     samples.get(samples.size() - 1)
             );
         }
@@ -1115,19 +1686,23 @@ public final class LargeDataValidationMain {
                         content_exact_hash,
                         content_exact_ci_hash,
                         content_norm_ci_hash,
+                        content_type,
                         title,
                         is_favorite,
                         pin_order,
                         created_at,
                         last_copied_at,
-                        use_count
-                    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        use_count,
+                        content_simhash
+                    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                     """;
 
             long now = System.currentTimeMillis();
             DuplicateContentKeys duplicateKeys = DuplicateContentKeys.from(
                     DUPLICATE_CONTENT
             );
+            String duplicateType = ClipContentClassifier.classify(DUPLICATE_CONTENT).name();
+            Long duplicateFingerprint = NearDuplicateFingerprint.of(DUPLICATE_CONTENT);
             String largeContent = fullMatrix
                     ? "x".repeat(LargeDataValidationPolicy.LARGE_CLIP_CHARACTERS)
                     : null;
@@ -1166,21 +1741,29 @@ public final class LargeDataValidationMain {
                     insert.setString(4, keys.exactHash());
                     insert.setString(5, keys.exactCaseInsensitiveHash());
                     insert.setString(6, keys.normalizedCaseInsensitiveHash());
+                    insert.setString(7, duplicate
+                            ? duplicateType
+                            : ClipContentClassifier.classify(content).name());
                     if (pinned) {
-                        insert.setString(7, "Pinned " + String.format(
+                        insert.setString(8, "Pinned " + String.format(
                                 Locale.ROOT,
                                 "%04d",
                                 index
                         ));
                     } else {
-                        insert.setNull(7, java.sql.Types.VARCHAR);
+                        insert.setNull(8, java.sql.Types.VARCHAR);
                     }
-                    insert.setInt(8, pinned ? 1 : 0);
-                    if (pinned) insert.setInt(9, index);
-                    else insert.setNull(9, java.sql.Types.INTEGER);
-                    insert.setLong(10, copiedAt);
+                    insert.setInt(9, pinned ? 1 : 0);
+                    if (pinned) insert.setInt(10, index);
+                    else insert.setNull(10, java.sql.Types.INTEGER);
                     insert.setLong(11, copiedAt);
-                    insert.setInt(12, duplicate ? 2 : 1);
+                    insert.setLong(12, copiedAt);
+                    insert.setInt(13, duplicate ? 2 : 1);
+                    Long fingerprint = duplicate
+                            ? duplicateFingerprint
+                            : NearDuplicateFingerprint.of(content);
+                    if (fingerprint != null) insert.setLong(14, fingerprint);
+                    else insert.setNull(14, java.sql.Types.BIGINT);
                     insert.addBatch();
 
                     if ((index + 1) % BATCH_SIZE == 0) {
@@ -1413,6 +1996,47 @@ public final class LargeDataValidationMain {
             });
         }
 
+        /**
+         * Alternates between the loaded rows and the same rows under one
+         * freshly captured clip, applying each reload as a keyed diff.
+         */
+        private static Latency measureRefresh(
+                List<ClipEntry> entries,
+                Map<Long, List<ClipTag>> tagsByClipId,
+                int sampleCount
+        ) throws Exception {
+            long newestId = 0L;
+            for (ClipEntry entry : entries) newestId = Math.max(newestId, entry.id());
+            List<ClipEntry> refreshed = new ArrayList<>(entries.size() + 1);
+            refreshed.add(new ClipEntry(newestId + 1L, "fresh clip", null, false, null, Long.MAX_VALUE));
+            refreshed.addAll(entries);
+
+            List<PopupRow> loaded = PopupRows.build(entries, tagsByClipId);
+            List<PopupRow> withNewClip = PopupRows.build(refreshed, tagsByClipId);
+            return runAndWait(() -> {
+                ListView<PopupRow> list = new ListView<>(
+                        FXCollections.observableArrayList(loaded)
+                );
+                StackPane root = new StackPane(list);
+                Scene scene = new Scene(root, 520.0, 420.0);
+                root.applyCss();
+                root.layout();
+
+                List<Double> samples = new ArrayList<>();
+                for (int sample = 0; sample < sampleCount + 3; sample++) {
+                    List<PopupRow> next = sample % 2 == 0 ? withNewClip : loaded;
+                    long started = System.nanoTime();
+                    PopupRowDiff.apply(list.getItems(), PopupRowDiff.compute(list.getItems(), next));
+                    root.layout();
+                    if (sample >= 3) samples.add(elapsedMillis(started));
+                    if (scene.getRoot() != root || !list.getItems().equals(next)) {
+                        throw new IllegalStateException("JavaFX popup refresh diverged from the reloaded rows");
+                    }
+                }
+                return Latency.from(samples);
+            });
+        }
+
         private static double validateListScroll(List<PopupRow> rows) throws Exception {
             return runAndWait(() -> {
                 ListView<PopupRow> list = new ListView<>(
@@ -6,6 +6,7 @@
 package io.xseries.xclip.validation;
 
 import io.xseries.xclip.config.Config;
+import io.xseries.xclip.domain.image.ClipImageCodec;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -25,6 +26,9 @@ class LargeDataValidationPolicyTest {
         assertEquals(2_000, LargeDataValidationPolicy.DUPLICATE_CANDIDATE_COUNT);
         assertEquals(25_000, LargeDataValidationPolicy.RETENTION_ELIGIBLE_COUNT);
         assertEquals(120, LargeDataValidationPolicy.RAPID_SEARCH_CHURN_ITERATIONS);
+        assertEquals(300, LargeDataValidationPolicy.IMAGE_CLIP_COUNT);
+        assertTrue((long) LargeDataValidationPolicy.IMAGE_WIDTH
+                * LargeDataValidationPolicy.IMAGE_HEIGHT <= ClipImageCodec.MAX_PIXELS);
     }
 
     @Test
@@ -36,6 +40,26 @@ class LargeDataValidationPolicyTest {
         }
         assertTrue(LargeDataValidationPolicy.MAX_USED_HEAP_MIB
                 < LargeDataValidationPolicy.MAX_HEAP_MIB);
+        assertTrue(LargeDataValidationPolicy.RETENTION_LOCK_HOLD_MAX_MILLIS
+                < LargeDataValidationPolicy.RETENTION_CLEANUP_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.DUPLICATE_KEYS_MAX_ALLOCATED_BYTES
+                < LargeDataValidationPolicy.LARGE_CLIP_CHARACTERS);
+        assertTrue(LargeDataValidationPolicy.POPUP_FX_REFRESH_P95_MAX_MILLIS
+                < LargeDataValidationPolicy.POPUP_FX_MATERIALIZATION_P95_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.POPUP_HOT_OPEN_P95_MAX_MILLIS
+                < LargeDataValidationPolicy.POPUP_PIPELINE_P95_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.POPUP_HOTKEY_TO_LIST_P95_MAX_MILLIS
+                < LargeDataValidationPolicy.POPUP_OPEN_COMPOSITE_P95_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.SENSITIVE_SCAN_P95_MAX_MILLIS
+                <= LargeDataValidationPolicy.LARGE_CLIP_POLICY_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.CLASSIFY_P95_MAX_MILLIS
+                <= LargeDataValidationPolicy.LARGE_CLIP_POLICY_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.NEAR_DUPLICATE_LOOKUP_P95_MAX_MILLIS
+                <= LargeDataValidationPolicy.DUPLICATE_LOOKUP_P95_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.IMAGE_DUPLICATE_LOOKUP_P95_MAX_MILLIS
+                <= LargeDataValidationPolicy.DUPLICATE_LOOKUP_P95_MAX_MILLIS);
+        assertTrue(LargeDataValidationPolicy.IMAGE_THUMBNAIL_P95_MAX_MILLIS
+                <= LargeDataValidationPolicy.IMAGE_PREPARE_P95_MAX_MILLIS);
     }
 
     @Test